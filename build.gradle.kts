@@ -60,6 +60,7 @@ sourceSets {
 		dependencies {
 			utilityImplementation(project(":"))
 			utilityImplementation(project(":pswgcommon"))
+			utilityImplementation(group="org.openjdk.jol", name="jol-core", version="0.16")
 		}
 	}
 }
@@ -120,6 +121,29 @@ tasks.create<JavaExec>("runClientdataConversion") {
 	mainClass.set("com.projectswg.utility.ClientdataConvertAll")
 }
 
+tasks.create<JavaExec>("runAwarenessBenchmark") {
+	enableAssertions = false
+	classpath = sourceSets["utility"].runtimeClasspath
+	mainClass.set("com.projectswg.utility.benchmark.AwarenessBenchmark")
+}
+
+tasks.create<JavaExec>("runBaselineBenchmark") {
+	enableAssertions = false
+	classpath = sourceSets["utility"].runtimeClasspath
+	mainClass.set("com.projectswg.utility.benchmark.BaselineBenchmark")
+}
+
+tasks.create<JavaExec>("runObjectFootprintReport") {
+	classpath = sourceSets["utility"].runtimeClasspath
+	mainClass.set("com.projectswg.utility.benchmark.ObjectFootprintReport")
+	jvmArgs = listOf("-Djdk.attach.allowAttachSelf=true")
+}
+
+tasks.create<JavaExec>("runTerrainBake") {
+	classpath = sourceSets["utility"].runtimeClasspath
+	mainClass.set("com.projectswg.utility.TerrainHeightBake")
+}
+
 tasks.withType<Test>().configureEach {
 	useJUnitPlatform()
 }
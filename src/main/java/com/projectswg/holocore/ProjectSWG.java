@@ -33,6 +33,7 @@ import com.projectswg.common.data.swgiff.parsers.SWGParser;
 import com.projectswg.holocore.intents.support.data.control.ServerStatusIntent;
 import com.projectswg.holocore.resources.support.data.client_info.ServerFactory;
 import com.projectswg.holocore.resources.support.data.control.ServerStatus;
+import com.projectswg.holocore.resources.support.data.server_info.loader.ServerData;
 import com.projectswg.holocore.resources.support.data.server_info.mongodb.PswgDatabase;
 import com.projectswg.holocore.services.gameplay.GameplayManager;
 import com.projectswg.holocore.services.support.SupportManager;
@@ -104,6 +105,7 @@ public class ProjectSWG {
 		setupDatabase(arguments);
 		Thread.currentThread().setPriority(10);
 		initializeServerFactory();
+		ServerData.INSTANCE.preload();
 		setupGalaxy(arguments);
 		try (IntentManager intentManager = new IntentManager(false, Runtime.getRuntime().availableProcessors(), 8)) {
 			IntentManager.setInstance(intentManager);
@@ -137,6 +139,7 @@ public class ProjectSWG {
 	
 	private static void shutdownStaticClasses() {
 		ScheduledUtilities.shutdown();
+		PswgDatabase.INSTANCE.close();
 	}
 	
 	private static void printFinalPswgState() {
@@ -159,6 +162,7 @@ public class ProjectSWG {
 			String [] receiverSplit = receiverName.split("#", 2);
 			Log.i("        %-30s%-60s%-40s%-10s%-20s", intentName, receiverSplit[0], receiverSplit[1], recordCount, recordTime);
 		}
+		ServerData.INSTANCE.logStatistics();
 	}
 	
 	private static void setStatus(ServerStatus status) {
@@ -0,0 +1,75 @@
+/***********************************************************************************
+ * Copyright (c) 2022 /// Project SWG /// www.projectswg.com                       *
+ *                                                                                 *
+ * ProjectSWG is the first NGE emulator for Star Wars Galaxies founded on          *
+ * July 7th, 2011 after SOE announced the official shutdown of Star Wars Galaxies. *
+ * Our goal is to create an emulator which will provide a server for players to    *
+ * continue playing a game similar to the one they used to play. We are basing     *
+ * it on the final publish of the game prior to end-game events.                   *
+ *                                                                                 *
+ * This file is part of Holocore.                                                  *
+ *                                                                                 *
+ * --------------------------------------------------------------------------------*
+ *                                                                                 *
+ * Holocore is free software: you can redistribute it and/or modify                *
+ * it under the terms of the GNU Affero General Public License as                  *
+ * published by the Free Software Foundation, either version 3 of the              *
+ * License, or (at your option) any later version.                                 *
+ *                                                                                 *
+ * Holocore is distributed in the hope that it will be useful,                     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of                  *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                   *
+ * GNU Affero General Public License for more details.                             *
+ *                                                                                 *
+ * You should have received a copy of the GNU Affero General Public License        *
+ * along with Holocore.  If not, see <http://www.gnu.org/licenses/>.               *
+ ***********************************************************************************/
+package com.projectswg.holocore.intents.support.global.zone;
+
+import com.projectswg.common.data.location.Location;
+import com.projectswg.holocore.resources.support.global.zone.region.Region;
+import com.projectswg.holocore.resources.support.objects.swg.SWGObject;
+import com.projectswg.holocore.resources.support.objects.swg.creature.CreatureObject;
+import me.joshlarson.jlcommon.control.Intent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Broadcast once when a player moves from outside a region to inside it.  The player's previous parent and location
+ * are those from the movement that crossed the boundary.
+ */
+public class RegionEnteredIntent extends Intent {
+	
+	private final CreatureObject player;
+	private final Region region;
+	private final SWGObject oldParent;
+	private final Location oldLocation;
+	
+	private RegionEnteredIntent(CreatureObject player, Region region, SWGObject oldParent, Location oldLocation) {
+		this.player = player;
+		this.region = region;
+		this.oldParent = oldParent;
+		this.oldLocation = oldLocation;
+	}
+	
+	public CreatureObject getPlayer() {
+		return player;
+	}
+	
+	public Region getRegion() {
+		return region;
+	}
+	
+	public SWGObject getOldParent() {
+		return oldParent;
+	}
+	
+	public Location getOldLocation() {
+		return oldLocation;
+	}
+	
+	public static void broadcast(@NotNull CreatureObject player, @NotNull Region region, @Nullable SWGObject oldParent, @NotNull Location oldLocation) {
+		new RegionEnteredIntent(player, region, oldParent, oldLocation).broadcast();
+	}
+	
+}
@@ -0,0 +1,65 @@
+package com.projectswg.holocore.intents.support.npc.ai;
+
+import com.projectswg.common.data.location.Location;
+import com.projectswg.holocore.resources.support.objects.swg.SWGObject;
+import com.projectswg.holocore.resources.support.objects.swg.custom.AIObject;
+import me.joshlarson.jlcommon.control.Intent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Sent after an NPC has moved itself.  The awareness service batches these, and updates awareness and observers once
+ * per tick.
+ */
+public class NpcMovedIntent extends Intent {
+	
+	private final AIObject obj;
+	private final SWGObject oldParent;
+	private final SWGObject newParent;
+	private final Location oldLocation;
+	private final Location newLocation;
+	private final double speed;
+	
+	public NpcMovedIntent(@NotNull AIObject obj, @Nullable SWGObject oldParent, @Nullable SWGObject newParent, @NotNull Location oldLocation, @NotNull Location newLocation, double speed) {
+		this.obj = obj;
+		this.oldParent = oldParent;
+		this.newParent = newParent;
+		this.oldLocation = oldLocation;
+		this.newLocation = newLocation;
+		this.speed = speed;
+	}
+	
+	@NotNull
+	public AIObject getObject() {
+		return obj;
+	}
+	
+	@Nullable
+	public SWGObject getOldParent() {
+		return oldParent;
+	}
+	
+	@Nullable
+	public SWGObject getNewParent() {
+		return newParent;
+	}
+	
+	@NotNull
+	public Location getOldLocation() {
+		return oldLocation;
+	}
+	
+	@NotNull
+	public Location getNewLocation() {
+		return newLocation;
+	}
+	
+	public double getSpeed() {
+		return speed;
+	}
+	
+	public static void broadcast(@NotNull AIObject obj, @Nullable SWGObject oldParent, @Nullable SWGObject newParent, @NotNull Location oldLocation, @NotNull Location newLocation, double speed) {
+		new NpcMovedIntent(obj, oldParent, newParent, oldLocation, newLocation, speed).broadcast();
+	}
+	
+}
@@ -29,22 +29,26 @@ package com.projectswg.holocore.resources.gameplay.conversation.model;
 import com.projectswg.common.data.encodables.oob.ProsePackage;
 import com.projectswg.holocore.resources.support.global.player.Player;
 
-import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * A single parsed conversation node.  Instances are immutable so that the same node can be cached and shared between
+ * every player talking to the NPC.
+ */
 public class Conversation {
 	
 	private final String id;
-	private ProsePackage npcMessage;
+	private final ProsePackage npcMessage;
 	private final List<PlayerResponse> playerResponses;
 	private final List<Event> events;
 	private final List<Requirement> requirements;
 	
-	public Conversation(String id) {
+	public Conversation(String id, ProsePackage npcMessage, List<PlayerResponse> playerResponses, List<Requirement> requirements, List<Event> events) {
 		this.id = id;
-		playerResponses = new ArrayList<>();
-		events = new ArrayList<>();
-		requirements = new ArrayList<>();
+		this.npcMessage = npcMessage;
+		this.playerResponses = List.copyOf(playerResponses);
+		this.requirements = List.copyOf(requirements);
+		this.events = List.copyOf(events);
 	}
 	
 	public String getId() {
@@ -55,22 +59,6 @@ public class Conversation {
 		return npcMessage;
 	}
 	
-	public void setNpcMessage(ProsePackage npcMessage) {
-		this.npcMessage = npcMessage;
-	}
-	
-	public void addPlayerResponse(PlayerResponse playerResponse) {
-		playerResponses.add(playerResponse);
-	}
-	
-	public void addEvent(Event event) {
-		events.add(event);
-	}
-	
-	public void addRequirement(Requirement requirement) {
-		requirements.add(requirement);
-	}
-	
 	public List<PlayerResponse> getPlayerResponses() {
 		return playerResponses;
 	}
@@ -65,6 +65,25 @@ interface PswgConfigDatabase {
 	fun getDouble(o: Any, key: String, def: Double): Double
 	fun getLong(o: Any, key: String, def: Long): Long
 	
+	/**
+	 * Incremented every time the configuration changes
+	 */
+	val version: Long
+		get() = 0
+	
+	fun addChangeListener(listener: Runnable) {}
+	
+	/**
+	 * Stops any background work, such as refreshing the configuration
+	 */
+	fun close() {}
+	
+	fun getStringHandle(o: Any, key: String, def: String) = PswgConfigHandle(this) { it.getString(o, key, def) }
+	fun getBooleanHandle(o: Any, key: String, def: Boolean) = PswgConfigHandle(this) { it.getBoolean(o, key, def) }
+	fun getIntHandle(o: Any, key: String, def: Int) = PswgConfigHandle(this) { it.getInt(o, key, def) }
+	fun getDoubleHandle(o: Any, key: String, def: Double) = PswgConfigHandle(this) { it.getDouble(o, key, def) }
+	fun getLongHandle(o: Any, key: String, def: Long) = PswgConfigHandle(this) { it.getLong(o, key, def) }
+	
 	companion object {
 		
 		fun createDefault(): PswgConfigDatabase {
@@ -0,0 +1,51 @@
+/***********************************************************************************
+ * Copyright (c) 2022 /// Project SWG /// www.projectswg.com                       *
+ *                                                                                 *
+ * ProjectSWG is the first NGE emulator for Star Wars Galaxies founded on          *
+ * July 7th, 2011 after SOE announced the official shutdown of Star Wars Galaxies. *
+ * Our goal is to create an emulator which will provide a server for players to    *
+ * continue playing a game similar to the one they used to play. We are basing     *
+ * it on the final publish of the game prior to end-game events.                   *
+ *                                                                                 *
+ * This file is part of Holocore.                                                  *
+ *                                                                                 *
+ * --------------------------------------------------------------------------------*
+ *                                                                                 *
+ * Holocore is free software: you can redistribute it and/or modify                *
+ * it under the terms of the GNU Affero General Public License as                  *
+ * published by the Free Software Foundation, either version 3 of the              *
+ * License, or (at your option) any later version.                                 *
+ *                                                                                 *
+ * Holocore is distributed in the hope that it will be useful,                     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of                  *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                   *
+ * GNU Affero General Public License for more details.                             *
+ *                                                                                 *
+ * You should have received a copy of the GNU Affero General Public License        *
+ * along with Holocore.  If not, see <http://www.gnu.org/licenses/>.               *
+ ***********************************************************************************/
+
+package com.projectswg.holocore.resources.support.data.server_info.database
+
+/**
+ * A config value that is resolved once and then only re-resolved after the configuration changes, so it is cheap
+ * enough to keep in a field and query on hot paths
+ */
+class PswgConfigHandle<T>(private val config: PswgConfigDatabase, private val resolver: (PswgConfigDatabase) -> T) {
+	
+	@Volatile private var resolved: ResolvedValue<T>? = null
+	
+	fun get(): T {
+		val currentVersion = config.version
+		var resolved = this.resolved
+		if (resolved == null || resolved.version != currentVersion) {
+			// The value and version are published together, so no reader can pair a new version with an old value
+			resolved = ResolvedValue(currentVersion, resolver(config))
+			this.resolved = resolved
+		}
+		return resolved.value
+	}
+	
+	private class ResolvedValue<T>(val version: Long, val value: T)
+	
+}
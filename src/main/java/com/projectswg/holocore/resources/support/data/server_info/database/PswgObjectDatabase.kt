@@ -56,11 +56,18 @@ package com.projectswg.holocore.resources.support.data.server_info.database
 
 import com.projectswg.common.data.encodables.mongo.MongoData
 import com.projectswg.holocore.resources.support.objects.swg.SWGObject
+import java.util.function.Consumer
 
 interface PswgObjectDatabase {
 	
 	val objects: List<MongoData>
 	
+	/**
+	 * Streams every saved object to the handler in batches of at most [batchSize], so the whole collection never has
+	 * to be held in memory at once
+	 */
+	fun forEachObjectBatch(batchSize: Int, handler: Consumer<List<MongoData>>)
+	
 	fun addObject(obj: SWGObject)
 	fun addObjects(objects: Collection<SWGObject>)
 	
@@ -76,6 +83,7 @@ interface PswgObjectDatabase {
 		fun createDefault(): PswgObjectDatabase {
 			return object : PswgObjectDatabase {
 				override val objects: List<MongoData> = ArrayList()
+				override fun forEachObjectBatch(batchSize: Int, handler: Consumer<List<MongoData>>) {}
 				override fun addObject(obj: SWGObject) {}
 				override fun addObjects(objects: Collection<SWGObject>) {}
 				override fun removeObject(id: Long): Boolean = true
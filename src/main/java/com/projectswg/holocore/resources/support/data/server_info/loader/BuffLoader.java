@@ -43,17 +43,31 @@ import java.util.Map;
 
 public final class BuffLoader extends DataLoader {
 	
-	private final Map<Integer, BuffInfo> buffsByCrc;
 	private final Map<String, BuffInfo> buffsByName;
+	private int [] crcTable;
+	private BuffInfo [] buffTable;
 	
 	BuffLoader() {
-		this.buffsByCrc = new HashMap<>();
 		this.buffsByName = new HashMap<>();
+		this.crcTable = new int[0];
+		this.buffTable = new BuffInfo[0];
 	}
 	
+	/**
+	 * Looks up a buff by CRC in an open-addressed table, so the lookup is a couple of array reads and never boxes the CRC
+	 */
 	@Nullable
 	public BuffInfo getBuff(int crc) {
-		return buffsByCrc.get(crc);
+		int [] crcTable = this.crcTable;
+		BuffInfo [] buffTable = this.buffTable;
+		if (buffTable.length == 0)
+			return null;
+		int mask = buffTable.length - 1;
+		for (int slot = mix(crc) & mask; ; slot = (slot + 1) & mask) {
+			BuffInfo buff = buffTable[slot];
+			if (buff == null || crcTable[slot] == crc)
+				return buff;
+		}
 	}
 	
 	@Nullable
@@ -67,7 +81,7 @@ public final class BuffLoader extends DataLoader {
 	}
 	
 	public boolean containsBuff(int crc) {
-		return buffsByCrc.containsKey(crc);
+		return getBuff(crc) != null;
 	}
 	
 	public boolean containsBuff(String name) {
@@ -81,10 +95,31 @@ public final class BuffLoader extends DataLoader {
 			SdbRealColumnArraySet effectValues = set.getRealArrayParser("effect([0-9]+)_value", 0);
 			while (set.next()) {
 				BuffInfo buff = new BuffInfo(set, effectParams, effectValues);
-				buffsByCrc.put(buff.getCrc(), buff);
 				buffsByName.put(buff.getName().toLowerCase(Locale.US), buff);
 			}
 		}
+		buildCrcTable();
+	}
+	
+	private void buildCrcTable() {
+		// Keep the table at most half full so probe sequences stay short
+		int capacity = Integer.highestOneBit(Math.max(buffsByName.size(), 1) * 2 - 1) << 1;
+		int [] crcTable = new int[capacity];
+		BuffInfo [] buffTable = new BuffInfo[capacity];
+		int mask = capacity - 1;
+		for (BuffInfo buff : buffsByName.values()) {
+			int slot = mix(buff.getCrc()) & mask;
+			while (buffTable[slot] != null && crcTable[slot] != buff.getCrc())
+				slot = (slot + 1) & mask;
+			crcTable[slot] = buff.getCrc();
+			buffTable[slot] = buff;
+		}
+		this.crcTable = crcTable;
+		this.buffTable = buffTable;
+	}
+	
+	private static int mix(int crc) {
+		return crc ^ (crc >>> 16);
 	}
 	
 	public static class BuffInfo {
@@ -48,10 +48,33 @@ public class QuestLoader extends DataLoader {
 	}
 	
 	public List<QuestTaskInfo> getTaskListInfos(String questName) {
-		if (questTaskInfosMap.containsKey(questName)) {
-			return questTaskInfosMap.get(questName);
+		List<QuestTaskInfo> questTaskInfos = questTaskInfosMap.get(questName);
+		if (questTaskInfos != null) {
+			return questTaskInfos;
 		}
 		
+		questTaskInfos = loadTaskListInfos(questName);
+		questTaskInfosMap.put(questName, questTaskInfos);
+		
+		return questTaskInfos;
+	}
+	
+	@Override
+	public void load() throws IOException {
+		loadQuestListInfos();
+		loadAllTaskListInfos();
+	}
+	
+	/**
+	 * Reads every quest's task list up front, so that task lookups during gameplay never have to touch the disk
+	 */
+	private void loadAllTaskListInfos() {
+		for (String questName : questListInfoMap.keySet()) {
+			questTaskInfosMap.put(questName, loadTaskListInfos(questName));
+		}
+	}
+	
+	private List<QuestTaskInfo> loadTaskListInfos(String questName) {
 		List<QuestTaskInfo> questTaskInfos = new ArrayList<>();
 		
 		try (SdbLoader.SdbResultSet set = SdbLoader.load(new File("serverdata/quests/questtask/" + questName + ".sdb"))) {
@@ -83,7 +106,7 @@ public class QuestLoader extends DataLoader {
 				questTaskInfo.setName(name);
 				questTaskInfo.setCommMessageText(commMessageText);
 				questTaskInfo.setNpcAppearanceServerTemplate(npcAppearanceServerTemplate);
-				questTaskInfo.setTargetServerTemplate(targetServerTemplate);
+				questTaskInfo.setTargetServerTemplate(targetServerTemplate == null ? null : targetServerTemplate.intern());
 				questTaskInfo.setGrantQuestOnComplete(grantQuestOnComplete);
 				questTaskInfo.setCount(count);
 				questTaskInfo.setMinTime(minTime);
@@ -95,14 +118,7 @@ public class QuestLoader extends DataLoader {
 			Log.e(e);
 		}
 		
-		questTaskInfosMap.put(questName, questTaskInfos);
-		
-		return questTaskInfos;
-	}
-	
-	@Override
-	public void load() throws IOException {
-		loadQuestListInfos();
+		return List.copyOf(questTaskInfos);
 	}
 	
 	private void loadQuestListInfos() throws IOException {
@@ -35,93 +35,156 @@ import me.joshlarson.jlcommon.log.Log
 import java.io.IOException
 import java.lang.ref.Reference
 import java.lang.ref.SoftReference
-import java.lang.ref.WeakReference
 import kotlin.reflect.KProperty
 
 object ServerData {
 	
+	private val delegates = ArrayList<DataLoaderDelegate<*>>()
+	
 	/*
 	 * Combat
 	 */
-	val buffs				by SoftDataLoaderDelegate(::BuffLoader)
-	val factions			by SoftDataLoaderDelegate(::FactionLoader)
+	val buffs				by PinnedDataLoaderDelegate(::BuffLoader)
+	val factions			by PinnedDataLoaderDelegate(::FactionLoader)
 
 	/*
 	 * Skill / Collection
 	 */
-	val skills				by SoftDataLoaderDelegate(::SkillLoader)
+	val skills				by PinnedDataLoaderDelegate(::SkillLoader)
 
 	/*
 	 * Player
 	 */
-	val playerLevels		by SoftDataLoaderDelegate(::PlayerLevelLoader)
-	val playerRoles			by SoftDataLoaderDelegate(::PlayerRoleLoader)
-	val playerStartClothing	by SoftDataLoaderDelegate(::StartClothingLoader)
-	val staticItems			by SoftDataLoaderDelegate(::StaticItemLoader)
-	val performances		by SoftDataLoaderDelegate(::PerformanceLoader)
-	val combatXpMultipliers	by SoftDataLoaderDelegate(::CombatXpMultiplierLoader)
+	val playerLevels		by PinnedDataLoaderDelegate(::PlayerLevelLoader)
+	val playerRoles			by EvictableDataLoaderDelegate(::PlayerRoleLoader)
+	val playerStartClothing	by EvictableDataLoaderDelegate(::StartClothingLoader)
+	val staticItems			by PinnedDataLoaderDelegate(::StaticItemLoader)
+	val performances		by PinnedDataLoaderDelegate(::PerformanceLoader)
+	val combatXpMultipliers	by PinnedDataLoaderDelegate(::CombatXpMultiplierLoader)
 
 	/*
 	 * NPC Info
 	 */
-	val npcs				by WeakDataLoaderDelegate(::NpcLoader)
-	val npcCombatProfiles	by WeakDataLoaderDelegate(::NpcCombatProfileLoader)
-	val npcPatrolRoutes		by WeakDataLoaderDelegate(::NpcPatrolRouteLoader)
-	val npcWeapons			by WeakDataLoaderDelegate(::NpcWeaponLoader)
-	val npcWeaponRanges		by WeakDataLoaderDelegate(::NpcWeaponRangeLoader)
-	val npcStats			by WeakDataLoaderDelegate(::NpcStatLoader)
-	val npcStaticSpawns		by WeakDataLoaderDelegate(::NpcStaticSpawnLoader)
-	val lootTables			by SoftDataLoaderDelegate(::LootTableLoader)
+	val npcs				by PinnedDataLoaderDelegate(::NpcLoader)
+	val npcCombatProfiles	by PinnedDataLoaderDelegate(::NpcCombatProfileLoader)
+	val npcPatrolRoutes		by PinnedDataLoaderDelegate(::NpcPatrolRouteLoader)
+	val npcWeapons			by PinnedDataLoaderDelegate(::NpcWeaponLoader)
+	val npcWeaponRanges		by PinnedDataLoaderDelegate(::NpcWeaponRangeLoader)
+	val npcStats			by PinnedDataLoaderDelegate(::NpcStatLoader)
+	val npcStaticSpawns		by PinnedDataLoaderDelegate(::NpcStaticSpawnLoader)
+	val lootTables			by PinnedDataLoaderDelegate(::LootTableLoader)
 	
 	/*
 	 * Objects / Backend
 	 */
-	val buildingCells		by SoftDataLoaderDelegate(::BuildingCellLoader)
-	val objectData			by SoftDataLoaderDelegate(::ObjectDataLoader)
-	val slotDefinitions		by SoftDataLoaderDelegate(::SlotDefinitionLoader)
-	val slotDescriptors		by SoftDataLoaderDelegate(::SlotDescriptorLoader)
-	val slotArrangements	by SoftDataLoaderDelegate(::SlotArrangementLoader)
-	val planetMapCategories	by SoftDataLoaderDelegate(::PlanetMapCategoryLoader)
-	val zoneInsertions		by SoftDataLoaderDelegate(::TerrainZoneInsertionLoader)
-	val terrains            by SoftDataLoaderDelegate(::TerrainHeightLoader)
+	val buildingCells		by PinnedDataLoaderDelegate(::BuildingCellLoader)
+	val objectData			by PinnedDataLoaderDelegate(::ObjectDataLoader)
+	val slotDefinitions		by PinnedDataLoaderDelegate(::SlotDefinitionLoader)
+	val slotDescriptors		by PinnedDataLoaderDelegate(::SlotDescriptorLoader)
+	val slotArrangements	by PinnedDataLoaderDelegate(::SlotArrangementLoader)
+	val planetMapCategories	by PinnedDataLoaderDelegate(::PlanetMapCategoryLoader)
+	val zoneInsertions		by EvictableDataLoaderDelegate(::TerrainZoneInsertionLoader)
+	val terrains            by PinnedDataLoaderDelegate(::TerrainHeightLoader)
 	
-	val elevators           by SoftDataLoaderDelegate(::ElevatorLoader)
-	val housing             by SoftDataLoaderDelegate(::StructureInfoLoader)
+	val elevators           by PinnedDataLoaderDelegate(::ElevatorLoader)
+	val housing             by PinnedDataLoaderDelegate(::StructureInfoLoader)
 	
-	val commands			by SoftDataLoaderDelegate(::CommandLoader)
-	val combatCommands		by SoftDataLoaderDelegate(::CombatCommandLoader)
-	val travelCosts			by SoftDataLoaderDelegate(::TravelCostLoader)
-	val vehicles			by SoftDataLoaderDelegate(::VehicleLoader)
-	val staticPvpZones		by SoftDataLoaderDelegate(::StaticPvpZoneLoader)
-	val dynamicSpawns		by SoftDataLoaderDelegate(::DynamicSpawnLoader)
-	val terrainLevels		by SoftDataLoaderDelegate(::TerrainLevelLoader)
-	val noSpawnZones		by SoftDataLoaderDelegate(::NoSpawnZoneLoader)
-	val conversationLoader	by SoftDataLoaderDelegate(::ConversationLoader)
-	val questLoader			by SoftDataLoaderDelegate(::QuestLoader)
-	val badges  			by SoftDataLoaderDelegate(::BadgeLoader)
-	val mappingTemplates	by SoftDataLoaderDelegate(::MappingTemplateLoader)
-	val speciesRestrictions	by SoftDataLoaderDelegate(::SpeciesRestrictionLoader)
+	val commands			by PinnedDataLoaderDelegate(::CommandLoader)
+	val combatCommands		by PinnedDataLoaderDelegate(::CombatCommandLoader)
+	val travelCosts			by PinnedDataLoaderDelegate(::TravelCostLoader)
+	val vehicles			by PinnedDataLoaderDelegate(::VehicleLoader)
+	val staticPvpZones		by PinnedDataLoaderDelegate(::StaticPvpZoneLoader)
+	val dynamicSpawns		by PinnedDataLoaderDelegate(::DynamicSpawnLoader)
+	val terrainLevels		by PinnedDataLoaderDelegate(::TerrainLevelLoader)
+	val noSpawnZones		by PinnedDataLoaderDelegate(::NoSpawnZoneLoader)
+	val conversationLoader	by PinnedDataLoaderDelegate(::ConversationLoader)
+	val questLoader			by PinnedDataLoaderDelegate(::QuestLoader)
+	val badges  			by PinnedDataLoaderDelegate(::BadgeLoader)
+	val mappingTemplates	by PinnedDataLoaderDelegate(::MappingTemplateLoader)
+	val speciesRestrictions	by EvictableDataLoaderDelegate(::SpeciesRestrictionLoader)
 
-	private class WeakDataLoaderDelegate<T: DataLoader>(loaderCreator: () -> T): DataLoaderDelegate<T>(::WeakReference, loaderCreator)
-	private class SoftDataLoaderDelegate<T: DataLoader>(loaderCreator: () -> T): DataLoaderDelegate<T>(::SoftReference, loaderCreator)
+	@Volatile private var preloaded = false
+	
+	/**
+	 * Loads every pinned loader up front, so that the first spawn, loot roll or conversation doesn't pay for parsing
+	 */
+	fun preload() {
+		if (preloaded)
+			return
+		val start = System.nanoTime()
+		delegates.parallelStream().filter { it.pinned }.forEach { it.get() }
+		preloaded = true
+		Log.i("Preloaded %d data loaders in %.1f ms", delegates.count { it.pinned }, (System.nanoTime() - start) / 1E6)
+	}
+	
+	fun logStatistics() {
+		Log.i("    Data Loaders: [%d]", delegates.size)
+		Log.i("        %-30s%-10s%-10s%-20s", "Loader", "Pinned", "Loads", "Load Time")
+		for (delegate in delegates) {
+			if (delegate.loads > 0)
+				Log.i("        %-30s%-10s%-10d%-20s", delegate.name, delegate.pinned, delegate.loads, String.format("%.1f ms", delegate.loadTime / 1E6))
+		}
+	}
+	
+	/**
+	 * A loader that is kept for the lifetime of the server once loaded
+	 */
+	private class PinnedDataLoaderDelegate<T: DataLoader>(loaderCreator: () -> T): DataLoaderDelegate<T>(true, loaderCreator)
 	
-	private open class DataLoaderDelegate<T: DataLoader>(private val referenceCreator: (T) -> Reference<T>, private val loaderCreator: () -> T) {
+	/**
+	 * A loader that is only needed occasionally (e.g. during character creation), and may be dropped under memory
+	 * pressure.  Each reload is logged and counted.
+	 */
+	private class EvictableDataLoaderDelegate<T: DataLoader>(loaderCreator: () -> T): DataLoaderDelegate<T>(false, loaderCreator)
+	
+	private open class DataLoaderDelegate<T: DataLoader>(val pinned: Boolean, private val loaderCreator: () -> T) {
 		
-		private var ref: Reference<T> = SoftReference(null)
+		@Volatile private var pinnedLoader: T? = null
+		@Volatile private var ref: Reference<T> = SoftReference(null)
+		@Volatile var loads = 0
+			private set
+		@Volatile var loadTime = 0L
+			private set
+		var name = "DataLoader"
+			private set
+		
+		init {
+			delegates.add(this)
+		}
 		
 		operator fun getValue(thisRef: Any?, property: KProperty<*>): T {
-			var loader: T? = ref.get()
-			if (loader == null) {
-				loader = loaderCreator()
-				try {
-					loader.load()
-				} catch (e: IOException) {
-					Log.e("Failed to load DataLoader: ${loader::class}")
-					throw RuntimeException(e)
-				}
-				
-				ref = referenceCreator(loader)
+			return get()
+		}
+		
+		fun get(): T {
+			return (if (pinned) pinnedLoader else ref.get()) ?: load()
+		}
+		
+		@Synchronized
+		private fun load(): T {
+			val existing = if (pinned) pinnedLoader else ref.get()
+			if (existing != null)
+				return existing
+			
+			val start = System.nanoTime()
+			val loader = loaderCreator()
+			name = loader.javaClass.simpleName
+			try {
+				loader.load()
+			} catch (e: IOException) {
+				Log.e("Failed to load DataLoader: ${loader::class}")
+				throw RuntimeException(e)
 			}
+			val time = System.nanoTime() - start
+			loads++
+			loadTime += time
+			if (loads > 1)
+				Log.w("Reloaded %s after it was evicted [reloads=%d time=%.1f ms]", name, loads - 1, time / 1E6)
+			
+			if (pinned)
+				pinnedLoader = loader
+			else
+				ref = SoftReference(loader)
 			return loader
 		}
 		
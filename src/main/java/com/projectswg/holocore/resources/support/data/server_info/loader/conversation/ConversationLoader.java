@@ -50,24 +50,51 @@ import java.util.stream.Collectors;
 
 public class ConversationLoader extends DataLoader {
 	
+	private static final int CACHE_CAPACITY = 1024;
+	
 	private final Map<String, Collection<String>> spawnConversationsMap;
 	private final Map<String, RequirementParser<? extends Requirement>> requirementParserMap;
 	private final Map<String, EventParser<? extends Event>> eventParserMap;
+	private final Map<String, CachedConversation> conversationCache;
+	private final File conversationDirectory;
 	
 	public ConversationLoader() {
-		spawnConversationsMap = new HashMap<>();
-		requirementParserMap = new HashMap<>();
-		eventParserMap = new HashMap<>();
+		this(new File("serverdata/conversation"));
 	}
 	
+	ConversationLoader(File conversationDirectory) {
+		this.spawnConversationsMap = new HashMap<>();
+		this.requirementParserMap = new HashMap<>();
+		this.eventParserMap = new HashMap<>();
+		this.conversationCache = Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, CachedConversation> eldest) {
+				return size() > CACHE_CAPACITY;
+			}
+		});
+		this.conversationDirectory = conversationDirectory;
+	}
+	
+	/**
+	 * Returns the parsed conversation for the specified file.  Parsed conversations are cached, and the cached copy is
+	 * only re-parsed if the file has been modified on disk since it was read.
+	 */
 	@Nullable
 	public Conversation getConversation(String conversationFile) {
-		try {
-			InputStream inputStream = new FileInputStream("serverdata/conversation/" + conversationFile + ".json");
+		File file = new File(conversationDirectory, conversationFile + ".json");
+		long lastModified = file.lastModified();
+		CachedConversation cached = conversationCache.get(conversationFile);
+		if (cached != null && cached.lastModified == lastModified)
+			return cached.conversation;
+		
+		try (InputStream inputStream = new FileInputStream(file)) {
 			JSONObject jsonObject = JSON.readObject(inputStream);
 			
-			return readConversation(conversationFile, jsonObject);
+			Conversation conversation = readConversation(conversationFile, jsonObject);
+			conversationCache.put(conversationFile, new CachedConversation(conversation, lastModified));
+			return conversation;
 		} catch (Throwable t) {
+			conversationCache.remove(conversationFile);
 			Log.e("Unable to load conversation from file %s", conversationFile);
 			Log.e(t);
 			return null;
@@ -94,35 +121,19 @@ public class ConversationLoader extends DataLoader {
 	}
 	
 	private Conversation readConversation(String conversationFile, JSONObject jsonObject) {
-		Conversation conversation = new Conversation(conversationFile);
-		
 		Map<String, Object> npcMessageObj = (Map<String, Object>) jsonObject.get("npcMessage");
-		
 		ProsePackage npcMessage = readProsePackage(npcMessageObj);
-		conversation.setNpcMessage(npcMessage);
 		
 		List<Map<String, Object>> playerResponseObjs = (List<Map<String, Object>>) jsonObject.get("playerResponses");
 		List<PlayerResponse> playerResponses = readPlayerResponses(playerResponseObjs);
 		
-		for (PlayerResponse playerResponse : playerResponses) {
-			conversation.addPlayerResponse(playerResponse);
-		}
-		
 		List<Map<String, Object>> requirementObjs = (List<Map<String, Object>>) jsonObject.get("requirements");
 		List<Requirement> requirements = readRequirements(requirementObjs);
 		
-		for (Requirement requirement : requirements) {
-			conversation.addRequirement(requirement);
-		}
-		
 		List<Map<String, Object>> eventObjs = (List<Map<String, Object>>) jsonObject.get("events");
 		List<Event> events = readEvents(eventObjs);
 		
-		for (Event event : events) {
-			conversation.addEvent(event);
-		}
-		
-		return conversation;
+		return new Conversation(conversationFile, npcMessage, playerResponses, requirements, events);
 	}
 	
 	private ProsePackage readProsePackage(Map<String, Object> object) {
@@ -204,7 +215,7 @@ public class ConversationLoader extends DataLoader {
 	}
 	
 	private void loadSpawnToConversations() throws IOException {
-		try (SdbLoader.SdbResultSet set = SdbLoader.load(new File("serverdata/conversation/spawn_conversation_map.msdb"))) {
+		try (SdbLoader.SdbResultSet set = SdbLoader.load(new File(conversationDirectory, "spawn_conversation_map.msdb"))) {
 			while (set.next()) {
 				String conversationId = set.getText("conversation_id");
 				String conversationFile = set.getText("conversation_file");
@@ -214,4 +225,16 @@ public class ConversationLoader extends DataLoader {
 		}
 	}
 	
+	private static class CachedConversation {
+		
+		private final Conversation conversation;
+		private final long lastModified;
+		
+		public CachedConversation(Conversation conversation, long lastModified) {
+			this.conversation = conversation;
+			this.lastModified = lastModified;
+		}
+		
+	}
+	
 }
@@ -32,16 +32,38 @@ import com.projectswg.common.data.location.Terrain
 import com.projectswg.common.data.swgiff.parsers.SWGParser
 import com.projectswg.common.data.swgiff.parsers.terrain.TerrainTemplate
 import com.projectswg.holocore.resources.support.data.server_info.loader.DataLoader
+import me.joshlarson.jlcommon.log.Log
+import java.io.File
 import java.util.EnumMap
+import java.util.zip.CRC32
 
 class TerrainHeightLoader : DataLoader() {
 	
 	private val terrains = EnumMap<Terrain, TerrainTemplate>(Terrain::class.java)
+	private val rasters = EnumMap<Terrain, TerrainHeightRaster>(Terrain::class.java)
 	
 	override fun load() {
+		val missing = ArrayList<Terrain>()
 		for (terrain in TERRAIN_LIST) {
 			terrains[terrain] = SWGParser.parse(terrain.file)
+			val raster = TerrainHeightRaster.open(getRasterFile(terrain), getSourceCrc(terrain))
+			if (raster == null)
+				missing.add(terrain)
+			else
+				rasters[terrain] = raster
 		}
+		if (missing.isNotEmpty())
+			Log.w("Missing or outdated terrain height rasters for %s - falling back to procedural heights. Run the runTerrainBake task to regenerate them", missing)
+	}
+	
+	/**
+	 * Samples the procedural terrain and writes the height raster for the specified planet next to its terrain file.
+	 * Returns false without writing anything if the terrain file couldn't be parsed
+	 */
+	fun bake(terrain: Terrain): Boolean {
+		val template = terrains[terrain] ?: SWGParser.parse<TerrainTemplate>(terrain.file) ?: return false
+		TerrainHeightRaster.bake(getRasterFile(terrain), getSourceCrc(terrain), MAP_SIZE, RASTER_RESOLUTION) { x, z -> template.getHeight(x.toFloat(), z.toFloat()).height.toDouble() }
+		return true
 	}
 	
 	fun getTerrain(terrain: Terrain): TerrainTemplate? {
@@ -52,12 +74,19 @@ class TerrainHeightLoader : DataLoader() {
 	fun getHeight(l: Location): Double = getHeight(l.terrain, l.x, l.z)
 	
 	fun getHeight(terrain: Terrain, x: Double, z: Double): Double {
+		val baked = rasters[terrain]?.getHeight(x, z) ?: Double.NaN
+		if (!baked.isNaN())
+			return baked
 		return terrains[terrain]?.getHeight(x.toFloat(), z.toFloat())?.height?.toDouble() ?: 0.0
 	}
 	
 	companion object {
 		
-		private val TERRAIN_LIST = listOf(
+		private const val MAP_SIZE = 16384.0
+		private const val RASTER_RESOLUTION = 4.0
+		
+		@JvmField
+		val TERRAIN_LIST = listOf(
 			Terrain.CORELLIA,
 			Terrain.DANTOOINE,
 			Terrain.DATHOMIR,
@@ -81,6 +110,14 @@ class TerrainHeightLoader : DataLoader() {
 			Terrain.YAVIN4,
 		)
 		
+		private fun getRasterFile(terrain: Terrain): File = File("serverdata", terrain.file.substringBeforeLast('.') + ".hmap")
+		
+		private fun getSourceCrc(terrain: Terrain): Long {
+			val crc = CRC32()
+			crc.update(File("serverdata", terrain.file).readBytes())
+			return crc.value
+		}
+		
 	}
 	
-}
\ No newline at end of file
+}
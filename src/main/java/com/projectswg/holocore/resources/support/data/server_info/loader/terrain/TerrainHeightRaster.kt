@@ -0,0 +1,168 @@
+/***********************************************************************************
+ * Copyright (c) 2022 /// Project SWG /// www.projectswg.com                       *
+ *                                                                                 *
+ * ProjectSWG is the first NGE emulator for Star Wars Galaxies founded on          *
+ * July 7th, 2011 after SOE announced the official shutdown of Star Wars Galaxies. *
+ * Our goal is to create an emulator which will provide a server for players to    *
+ * continue playing a game similar to the one they used to play. We are basing     *
+ * it on the final publish of the game prior to end-game events.                   *
+ *                                                                                 *
+ * This file is part of Holocore.                                                  *
+ *                                                                                 *
+ * --------------------------------------------------------------------------------*
+ *                                                                                 *
+ * Holocore is free software: you can redistribute it and/or modify                *
+ * it under the terms of the GNU Affero General Public License as                  *
+ * published by the Free Software Foundation, either version 3 of the              *
+ * License, or (at your option) any later version.                                 *
+ *                                                                                 *
+ * Holocore is distributed in the hope that it will be useful,                     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of                  *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                   *
+ * GNU Affero General Public License for more details.                             *
+ *                                                                                 *
+ * You should have received a copy of the GNU Affero General Public License        *
+ * along with Holocore.  If not, see <http://www.gnu.org/licenses/>.               *
+ ***********************************************************************************/
+
+package com.projectswg.holocore.resources.support.data.server_info.loader.terrain
+
+import java.io.File
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+import java.nio.channels.FileChannel
+import java.nio.file.Files
+import java.nio.file.StandardCopyOption
+import java.nio.file.StandardOpenOption
+import java.util.stream.IntStream
+import kotlin.math.abs
+import kotlin.math.floor
+
+/**
+ * A baked grid of terrain heights for a single planet, memory-mapped from disk.  Heights are bilinearly interpolated
+ * between samples, and any cell where that interpolation doesn't match the procedural terrain (flattened areas under
+ * buildings, cliffs, etc.) is flagged so the caller falls back to the procedural height instead.
+ */
+class TerrainHeightRaster private constructor(private val data: ByteBuffer) {
+	
+	private val minX = data.getFloat(MIN_X_OFFSET).toDouble()
+	private val minZ = data.getFloat(MIN_Z_OFFSET).toDouble()
+	private val resolution = data.getFloat(RESOLUTION_OFFSET).toDouble()
+	private val width = data.getInt(WIDTH_OFFSET)
+	private val cells = width - 1
+	private val flagsOffset = HEADER_SIZE + width * width * 4
+	
+	/**
+	 * Returns the interpolated height at the specified position, or NaN if the position is outside of the raster or
+	 * must be computed procedurally
+	 */
+	fun getHeight(x: Double, z: Double): Double {
+		val gridX = (x - minX) / resolution
+		val gridZ = (z - minZ) / resolution
+		val cellX = floor(gridX).toInt()
+		val cellZ = floor(gridZ).toInt()
+		if (cellX < 0 || cellZ < 0 || cellX >= cells || cellZ >= cells)
+			return Double.NaN
+		val cell = cellZ * cells + cellX
+		if ((data.getLong(flagsOffset + (cell ushr 6) * 8) and (1L shl (cell and 63))) != 0L)
+			return Double.NaN
+		
+		val fracX = gridX - cellX
+		val fracZ = gridZ - cellZ
+		val row0 = HEADER_SIZE + (cellZ * width + cellX) * 4
+		val row1 = row0 + width * 4
+		val top = data.getFloat(row0) * (1 - fracX) + data.getFloat(row0 + 4) * fracX
+		val bottom = data.getFloat(row1) * (1 - fracX) + data.getFloat(row1 + 4) * fracX
+		return top * (1 - fracZ) + bottom * fracZ
+	}
+	
+	companion object {
+		
+		private const val MAGIC = 0x484D4150 // HMAP
+		private const val VERSION = 2 // Version 1 only checked the cell centers when flagging uneven cells
+		private const val SOURCE_CRC_OFFSET = 8
+		private const val MIN_X_OFFSET = 16
+		private const val MIN_Z_OFFSET = 20
+		private const val RESOLUTION_OFFSET = 24
+		private const val WIDTH_OFFSET = 28
+		private const val HEADER_SIZE = 32
+		private const val EXACT_TOLERANCE = 0.25
+		
+		/**
+		 * Maps the raster file into memory, returning null if it doesn't exist or was baked from a different source
+		 */
+		fun open(file: File, sourceCrc: Long): TerrainHeightRaster? {
+			if (!file.isFile)
+				return null
+			FileChannel.open(file.toPath(), StandardOpenOption.READ).use { channel ->
+				val data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN)
+				if (data.capacity() < HEADER_SIZE || data.getInt(0) != MAGIC || data.getInt(4) != VERSION || data.getLong(SOURCE_CRC_OFFSET) != sourceCrc)
+					return null
+				return TerrainHeightRaster(data)
+			}
+		}
+		
+		/**
+		 * Samples the height function over a square map centered on the origin and writes the result to the file
+		 */
+		fun bake(file: File, sourceCrc: Long, mapSize: Double, resolution: Double, height: (Double, Double) -> Double) {
+			val width = (mapSize / resolution).toInt() + 1
+			val cells = width - 1
+			val minX = -mapSize / 2
+			val minZ = -mapSize / 2
+			val heights = FloatArray(width * width)
+			IntStream.range(0, width).parallel().forEach { row ->
+				for (col in 0 until width)
+					heights[row * width + col] = height(minX + col * resolution, minZ + row * resolution).toFloat()
+			}
+			val exact = BooleanArray(cells * cells)
+			IntStream.range(0, cells).parallel().forEach { row ->
+				for (col in 0 until cells) {
+					val x = minX + col * resolution
+					val z = minZ + row * resolution
+					val i = row * width + col
+					val h00 = heights[i].toDouble()
+					val h10 = heights[i + 1].toDouble()
+					val h01 = heights[i + width].toDouble()
+					val h11 = heights[i + width + 1].toDouble()
+					val half = resolution / 2
+					// The center and the edge midpoints catch ridges and flattened areas that fall between the samples
+					exact[row * cells + col] = isUneven(height(x + half, z + half), (h00 + h10 + h01 + h11) / 4)
+							|| isUneven(height(x + half, z), (h00 + h10) / 2)
+							|| isUneven(height(x + half, z + resolution), (h01 + h11) / 2)
+							|| isUneven(height(x, z + half), (h00 + h01) / 2)
+							|| isUneven(height(x + resolution, z + half), (h10 + h11) / 2)
+				}
+			}
+			
+			val flagCount = (cells * cells + 63) / 64
+			val data = ByteBuffer.allocate(HEADER_SIZE + heights.size * 4 + flagCount * 8).order(ByteOrder.LITTLE_ENDIAN)
+			data.putInt(MAGIC).putInt(VERSION).putLong(sourceCrc)
+			data.putFloat(minX.toFloat()).putFloat(minZ.toFloat()).putFloat(resolution.toFloat()).putInt(width)
+			for (h in heights)
+				data.putFloat(h)
+			for (flag in 0 until flagCount) {
+				var bits = 0L
+				for (bit in 0 until 64) {
+					val cell = flag * 64 + bit
+					if (cell < exact.size && exact[cell])
+						bits = bits or (1L shl bit)
+				}
+				data.putLong(bits)
+			}
+			data.flip()
+			
+			// Written to a temporary file first so a running server never maps a partially written raster
+			val tmp = File(file.path + ".tmp")
+			FileChannel.open(tmp.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING).use { channel ->
+				while (data.hasRemaining())
+					channel.write(data)
+			}
+			Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE)
+		}
+		
+		private fun isUneven(actual: Double, interpolated: Double): Boolean = abs(actual - interpolated) > EXACT_TOLERANCE
+		
+	}
+	
+}
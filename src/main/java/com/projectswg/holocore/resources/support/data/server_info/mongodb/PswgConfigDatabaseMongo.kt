@@ -28,83 +28,124 @@
 package com.projectswg.holocore.resources.support.data.server_info.mongodb
 
 import com.mongodb.client.MongoCollection
-import com.mongodb.client.model.Filters
 import com.mongodb.client.model.IndexOptions
 import com.mongodb.client.model.Indexes
 import com.projectswg.holocore.resources.support.data.server_info.database.PswgConfigDatabase
+import me.joshlarson.jlcommon.concurrency.ScheduledThreadPool
+import me.joshlarson.jlcommon.log.Log
 import org.bson.Document
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.CopyOnWriteArrayList
 
 class PswgConfigDatabaseMongo(private val collection: MongoCollection<Document>) : PswgConfigDatabase {
 	
+	private val packageKeys = ConcurrentHashMap<String, List<String>>()
+	private val listeners = CopyOnWriteArrayList<Runnable>()
+	private val refreshThread = ScheduledThreadPool(1, "config-refresh")
+	@Volatile private var configs: Map<String, Document>
+	@Volatile override var version: Long = 0
+		private set
+	
 	init {
 		collection.createIndex(Indexes.ascending("package"), IndexOptions().unique(true))
+		configs = loadConfigs()
+		refreshThread.start()
+		refreshThread.executeWithFixedDelay(REFRESH_INTERVAL, REFRESH_INTERVAL, this::refresh)
+	}
+	
+	override fun close() {
+		refreshThread.stop()
+		refreshThread.awaitTermination(1000)
+	}
+	
+	override fun addChangeListener(listener: Runnable) {
+		listeners.add(listener)
 	}
 	
 	override fun getString(o: Any, key: String, def: String): String {
-		for (config in getConfigurations(o)) {
-			if (config.containsKey(key))
-				return config.getString(key)
-		}
-		return def
+		return lookup(o, key, def) { it.getString(key) }
 	}
 	
 	override fun getBoolean(o: Any, key: String, def: Boolean): Boolean {
-		for (config in getConfigurations(o)) {
-			if (config.containsKey(key))
-				return config.getBoolean(key)!!
-		}
-		return def
+		return lookup(o, key, def) { it.getBoolean(key)!! }
 	}
 	
 	override fun getInt(o: Any, key: String, def: Int): Int {
-		for (config in getConfigurations(o)) {
-			if (config.containsKey(key))
-				return config.getInteger(key)!!
-		}
-		return def
+		return lookup(o, key, def) { it.getInteger(key)!! }
 	}
 	
 	override fun getDouble(o: Any, key: String, def: Double): Double {
-		for (config in getConfigurations(o)) {
-			if (config.containsKey(key))
-				return config.getDouble(key)!!
-		}
-		return def
+		return lookup(o, key, def) { it.getDouble(key)!! }
 	}
 	
 	override fun getLong(o: Any, key: String, def: Long): Long {
-		for (config in getConfigurations(o)) {
+		return lookup(o, key, def) { it.getLong(key)!! }
+	}
+	
+	private inline fun <T> lookup(o: Any, key: String, def: T, getter: (Document) -> T): T {
+		val configs = this.configs
+		for (packageKey in getPackageKeys(o)) {
+			val config = configs[packageKey] ?: continue
 			if (config.containsKey(key))
-				return config.getLong(key)!!
+				return getter(config)
 		}
 		return def
 	}
 	
-	private fun getConfigurations(o: Any): List<Document> {
-		var packageKey = if (o is Class<*>) o.packageName else o.javaClass.packageName
-		require(packageKey.startsWith("com.projectswg.holocore")) { "packageKey must be a part of holocore, was: $packageKey" }
-		
-		packageKey = packageKey.removePrefix("com.projectswg.holocore")
-		packageKey = packageKey.removePrefix(".")
-		
-		if (packageKey.startsWith("intents."))
-			throw IllegalArgumentException("intents should not be querying configs")
-		
-		if (packageKey.startsWith("resources.") || packageKey.startsWith("services."))
-			packageKey = packageKey.substringAfter('.')
+	private fun getPackageKeys(o: Any): List<String> {
+		return packageKeys.computeIfAbsent(if (o is Class<*>) o.packageName else o.javaClass.packageName, ::createPackageKeys)
+	}
+	
+	private fun refresh() {
+		try {
+			val updated = loadConfigs()
+			if (updated == configs)
+				return
+			configs = updated
+			version++
+			Log.i("Reloaded %d configuration documents", updated.size)
+			for (listener in listeners)
+				listener.run()
+		} catch (e: Exception) {
+			Log.w("Failed to refresh configuration: %s", e.message)
+		}
+	}
+	
+	private fun loadConfigs(): Map<String, Document> {
+		val configs = HashMap<String, Document>()
+		for (doc in collection.find()) {
+			configs[doc.getString("package") ?: continue] = doc
+		}
+		return configs
+	}
+	
+	companion object {
 		
-		val configs = ArrayList<Document>()
+		private const val REFRESH_INTERVAL = 30_000L
 		
-		while (packageKey.isNotEmpty()) {
-			val doc = collection.find(Filters.eq("package", packageKey)).first()
-			if (doc != null)
-				configs.add(doc)
+		private fun createPackageKeys(packageName: String): List<String> {
+			require(packageName.startsWith("com.projectswg.holocore")) { "packageKey must be a part of holocore, was: $packageName" }
+			
+			var packageKey = packageName.removePrefix("com.projectswg.holocore")
+			packageKey = packageKey.removePrefix(".")
 			
-			if (!packageKey.contains('.'))
-				break
-			packageKey = packageKey.substringBeforeLast('.')
+			if (packageKey.startsWith("intents."))
+				throw IllegalArgumentException("intents should not be querying configs")
+			
+			if (packageKey.startsWith("resources.") || packageKey.startsWith("services."))
+				packageKey = packageKey.substringAfter('.')
+			
+			val keys = ArrayList<String>()
+			while (packageKey.isNotEmpty()) {
+				keys.add(packageKey)
+				
+				if (!packageKey.contains('.'))
+					break
+				packageKey = packageKey.substringBeforeLast('.')
+			}
+			return keys
 		}
-		return configs
+		
 	}
 	
 }
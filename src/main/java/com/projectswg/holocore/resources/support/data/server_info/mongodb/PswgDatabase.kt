@@ -49,6 +49,10 @@ object PswgDatabase {
 		this.gcwRegionImpl = gcwRegions
 	}
 	
+	fun close() {
+		configImpl.close()
+	}
+	
 	private fun <T> initTable(table: DatabaseTable, defaultCreator: () -> T, mariaInitializer: (DatabaseTable) -> T = {defaultCreator()}, mongoInitializer: (MongoCollection<Document>) -> T = {defaultCreator()}): T {
 		if (table.isMariaDefined())
 			return mariaInitializer(table)
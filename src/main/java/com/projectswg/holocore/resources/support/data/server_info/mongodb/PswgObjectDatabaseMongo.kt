@@ -34,6 +34,7 @@ import com.projectswg.holocore.resources.support.data.persistable.SWGObjectFacto
 import com.projectswg.holocore.resources.support.data.server_info.database.PswgObjectDatabase
 import com.projectswg.holocore.resources.support.objects.swg.SWGObject
 import org.bson.Document
+import java.util.function.Consumer
 import java.util.regex.Pattern
 import java.util.stream.Collectors.toList
 
@@ -46,6 +47,21 @@ class PswgObjectDatabaseMongo(private val collection: MongoCollection<Document>)
 		collection.createIndex(Indexes.ascending("id"), IndexOptions().unique(true))
 	}
 	
+	override fun forEachObjectBatch(batchSize: Int, handler: Consumer<List<MongoData>>) {
+		collection.find().batchSize(batchSize).iterator().use { cursor ->
+			var batch = ArrayList<MongoData>(batchSize)
+			while (cursor.hasNext()) {
+				batch.add(MongoData(cursor.next()))
+				if (batch.size >= batchSize) {
+					handler.accept(batch)
+					batch = ArrayList(batchSize)
+				}
+			}
+			if (batch.isNotEmpty())
+				handler.accept(batch)
+		}
+	}
+	
 	override fun addObject(obj: SWGObject) {
 		collection.replaceOne(Filters.eq("id", obj.objectId), SWGObjectFactory.save(obj, MongoData()).toDocument(), ReplaceOptions().upsert(true))
 	}
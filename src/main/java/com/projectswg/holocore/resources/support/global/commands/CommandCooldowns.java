@@ -0,0 +1,110 @@
+/***********************************************************************************
+ * Copyright (c) 2022 /// Project SWG /// www.projectswg.com                       *
+ *                                                                                 *
+ * ProjectSWG is the first NGE emulator for Star Wars Galaxies founded on          *
+ * July 7th, 2011 after SOE announced the official shutdown of Star Wars Galaxies. *
+ * Our goal is to create an emulator which will provide a server for players to    *
+ * continue playing a game similar to the one they used to play. We are basing     *
+ * it on the final publish of the game prior to end-game events.                   *
+ *                                                                                 *
+ * This file is part of Holocore.                                                  *
+ *                                                                                 *
+ * --------------------------------------------------------------------------------*
+ *                                                                                 *
+ * Holocore is free software: you can redistribute it and/or modify                *
+ * it under the terms of the GNU Affero General Public License as                  *
+ * published by the Free Software Foundation, either version 3 of the              *
+ * License, or (at your option) any later version.                                 *
+ *                                                                                 *
+ * Holocore is distributed in the hope that it will be useful,                     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of                  *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                   *
+ * GNU Affero General Public License for more details.                             *
+ *                                                                                 *
+ * You should have received a copy of the GNU Affero General Public License        *
+ * along with Holocore.  If not, see <http://www.gnu.org/licenses/>.               *
+ ***********************************************************************************/
+
+package com.projectswg.holocore.resources.support.global.commands;
+
+import java.util.Arrays;
+
+/**
+ * Cooldown expiry times for a single creature, keyed by cooldown group CRC.  Expiry times are non-negative monotonic
+ * timestamps in nanoseconds, where 0 means the cooldown was never started.  They are stored in parallel primitive
+ * arrays since a creature only ever has a handful of active groups.  This class is not thread-safe.
+ */
+public class CommandCooldowns {
+	
+	private int [] groups;
+	private long [] expiries;
+	private long globalExpiry;
+	private int size;
+	
+	public CommandCooldowns() {
+		this.groups = new int[4];
+		this.expiries = new long[4];
+		this.globalExpiry = 0;
+		this.size = 0;
+	}
+	
+	public long getGlobalExpiry() {
+		return globalExpiry;
+	}
+	
+	public void setGlobalExpiry(long expiry) {
+		this.globalExpiry = expiry;
+	}
+	
+	/**
+	 * Returns the expiry time of the specified group, or 0 if the group has never been started
+	 */
+	public long getExpiry(int group) {
+		for (int i = 0; i < size; i++) {
+			if (groups[i] == group)
+				return expiries[i];
+		}
+		return 0;
+	}
+	
+	/**
+	 * Sets the expiry time of the specified group, reusing the slot of any group that has already expired
+	 *
+	 * @param group  the cooldown group CRC
+	 * @param expiry the expiry time
+	 * @param now    the current time, used to find expired slots
+	 */
+	public void setExpiry(int group, long expiry, long now) {
+		int free = -1;
+		for (int i = 0; i < size; i++) {
+			if (groups[i] == group) {
+				expiries[i] = expiry;
+				return;
+			}
+			if (free == -1 && expiries[i] <= now)
+				free = i;
+		}
+		if (free == -1) {
+			if (size == groups.length) {
+				groups = Arrays.copyOf(groups, size * 2);
+				expiries = Arrays.copyOf(expiries, size * 2);
+			}
+			free = size++;
+		}
+		groups[free] = group;
+		expiries[free] = expiry;
+	}
+	
+	/**
+	 * Returns the time at which all the specified groups, as well as the global cooldown, will have expired
+	 */
+	public long getReadyTime(int group1, int group2) {
+		long ready = globalExpiry;
+		for (int i = 0; i < size; i++) {
+			if ((groups[i] == group1 || groups[i] == group2) && expiries[i] > ready)
+				ready = expiries[i];
+		}
+		return ready;
+	}
+	
+}
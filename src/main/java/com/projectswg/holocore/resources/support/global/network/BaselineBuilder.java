@@ -31,64 +31,76 @@ import com.projectswg.common.network.packets.swg.zone.baselines.Baseline;
 import com.projectswg.common.network.packets.swg.zone.baselines.Baseline.BaselineType;
 import com.projectswg.holocore.resources.support.global.player.Player;
 import com.projectswg.holocore.resources.support.objects.swg.SWGObject;
-import me.joshlarson.jlcommon.log.Log;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 
 public class BaselineBuilder {
 	
 	public static final Charset ASCII   = StandardCharsets.UTF_8;
 	public static final Charset UNICODE = StandardCharsets.UTF_16LE;
 	
-	private SWGObject object;
-	private BaselineType type;
-	private int num;
+	private static final int INITIAL_CAPACITY = 512;
+	private static final int MAX_POOLED_CAPACITY = 64 * 1024;
+	private static final int MAX_POOLED_BUFFERS = 4;
+	private static final ThreadLocal<ArrayDeque<ByteBuffer>> BUFFER_POOL = ThreadLocal.withInitial(ArrayDeque::new);
+	
+	private final SWGObject object;
+	private final BaselineType type;
+	private final int num;
 	private int opCount = 0;
-	private LittleEndianDataOutputStream dataStream;
-	private ByteArrayOutputStream rawDataStream;
+	private ByteBuffer buffer;
 	
 	public BaselineBuilder(SWGObject object, BaselineType type, int num) {
 		this.object = object;
 		this.type = type;
 		this.num = num;
-		rawDataStream = new ByteArrayOutputStream();
-		dataStream = new LittleEndianDataOutputStream(rawDataStream);
+		this.buffer = acquireBuffer();
 	}
 	
 	public void sendTo(Player target) {
-		byte [] data = build();
-		Baseline baseline = new Baseline();
-		baseline.setId(object.getObjectId());
-		baseline.setType(type);
-		baseline.setNum(num);
-		baseline.setOperandCount(opCount);
-		baseline.setBaselineData(data);
-		target.sendPacket(baseline);
+		target.sendPacket(buildAsBaselinePacket());
 	}
 	
+	/**
+	 * Builds the baseline packet and returns this builder's buffer to the thread-local pool.  The
+	 * builder must not be written to afterwards.
+	 */
 	public Baseline buildAsBaselinePacket() {
-		Baseline baseline = new Baseline();
+		return buildAsBaselinePacket(new Baseline());
+	}
+	
+	/**
+	 * Builds the baseline as a packet whose encoding is cached and shared between every observer.
+	 * See {@link #buildAsBaselinePacket()}.
+	 */
+	Baseline buildAsSharedBaselinePacket() {
+		return buildAsBaselinePacket(new SharedBaseline());
+	}
+	
+	private Baseline buildAsBaselinePacket(Baseline baseline) {
 		baseline.setId(object.getObjectId());
 		baseline.setType(type);
 		baseline.setNum(num);
 		baseline.setOperandCount(opCount);
 		baseline.setBaselineData(build());
+		releaseBuffer(buffer);
+		buffer = null;
 		return baseline;
 	}
 	
 	public byte [] build() {
-		return rawDataStream.toByteArray();
+		byte [] data = new byte[buffer.position()];
+		System.arraycopy(buffer.array(), 0, data, 0, data.length);
+		return data;
 	}
 	
 	public void addObject(Encodable e) {
-		try {
-			dataStream.write(e.encode());
-		} catch (IOException ex) {
-			Log.e(ex);
-		}
+		byte [] data = e.encode();
+		ensureCapacity(data.length).put(data);
 	}
 	
 	public void addBoolean(boolean b) {
@@ -96,74 +108,86 @@ public class BaselineBuilder {
 	}
 	
 	public void addAscii(String str) {
-		addShort(str.length());
-		try {
-			dataStream.write(str.getBytes(ASCII));
-		} catch (IOException e) {
-			Log.e(e);
+		int length = str.length();
+		addShort(length);
+		if (!isAscii(str)) {
+			byte [] data = str.getBytes(ASCII);
+			ensureCapacity(data.length).put(data);
+			return;
 		}
+		ByteBuffer buffer = ensureCapacity(length);
+		for (int i = 0; i < length; i++)
+			buffer.put((byte) str.charAt(i));
 	}
 	
 	public void addUnicode(String str) {
-		addInt(str.length());
-		try {
-			dataStream.write(str.getBytes(UNICODE));
-		} catch (IOException e) {
-			Log.e(e);
-		}
+		int length = str.length();
+		addInt(length);
+		ByteBuffer buffer = ensureCapacity(length * 2);
+		for (int i = 0; i < length; i++)
+			buffer.putChar(str.charAt(i));
 	}
 	
 	public void addByte(int b) {
-		try {
-			dataStream.writeByte(b);
-		} catch (IOException e) {
-			Log.e(e);
-		}
+		ensureCapacity(1).put((byte) b);
 	}
 	
 	public void addShort(int s) {
-		try {
-			dataStream.writeShort(s);
-		} catch (IOException e) {
-			Log.e(e);
-		}
+		ensureCapacity(2).putShort((short) s);
 	}
 	
 	public void addInt(int i) {
-		try {
-			dataStream.writeInt(i);
-		} catch (IOException e) {
-			Log.e(e);
-		}
+		ensureCapacity(4).putInt(i);
 	}
 	
 	public void addLong(long l) {
-		try {
-			dataStream.writeLong(l);
-		} catch (IOException e) {
-			Log.e(e);
-		}
+		ensureCapacity(8).putLong(l);
 	}
 	
 	public void addFloat(float f) {
-		try {
-			dataStream.writeFloat(f);
-		} catch (IOException e) {
-			Log.e(e);
-		}
+		ensureCapacity(4).putFloat(f);
 	}
 	
 	public void addArray(byte [] array) {
 		addShort(array.length);
-		try {
-			dataStream.write(array);
-		} catch (IOException e) {
-			Log.e(e);
-		}
+		ensureCapacity(array.length).put(array);
 	}
 	
 	public int incrementOperandCount(int operands) {
 		return opCount+=operands;
 	}
 	
+	private ByteBuffer ensureCapacity(int length) {
+		ByteBuffer buffer = this.buffer;
+		if (buffer.remaining() >= length)
+			return buffer;
+		int capacity = Math.max(buffer.capacity() * 2, buffer.position() + length);
+		ByteBuffer grown = ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+		grown.put(buffer.array(), 0, buffer.position());
+		this.buffer = grown;
+		return grown;
+	}
+	
+	private static boolean isAscii(String str) {
+		for (int i = 0, length = str.length(); i < length; i++) {
+			if (str.charAt(i) >= 0x80)
+				return false;
+		}
+		return true;
+	}
+	
+	private static ByteBuffer acquireBuffer() {
+		ByteBuffer buffer = BUFFER_POOL.get().pollLast();
+		if (buffer == null)
+			return ByteBuffer.allocate(INITIAL_CAPACITY).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.clear();
+		return buffer;
+	}
+	
+	private static void releaseBuffer(ByteBuffer buffer) {
+		ArrayDeque<ByteBuffer> pool = BUFFER_POOL.get();
+		if (buffer.capacity() <= MAX_POOLED_CAPACITY && pool.size() < MAX_POOLED_BUFFERS)
+			pool.addLast(buffer);
+	}
+	
 }
@@ -88,6 +88,17 @@ public class BaselineObject {
 		}
 	}
 	
+	/**
+	 * Returns whether or not the specified baseline is identical for every observer.  Shared baselines are built and
+	 * encoded once, cached, and the same encoded bytes are reused for every observer until a delta is sent for that baseline.  Any subclass that encodes
+	 * observer-specific data into a baseline (e.g. flags that depend on the target's faction) must return false for it.
+	 * @param num the baseline number
+	 * @return TRUE if the baseline may be cached and shared between observers, FALSE otherwise
+	 */
+	protected boolean isBaselineShared(int num) {
+		return num == 3 || num == 6;
+	}
+	
 	public Baseline createBaseline1(Player target) {
 		return createBaseline(target, 1, this::createBaseline1);
 	}
@@ -195,6 +206,7 @@ public class BaselineObject {
 		synchronized (baselineData) {
 			baselineData.set(type-1, null);
 		}
+		((SWGObject) this).markDirty();
 		DeltaBuilder.send((SWGObject) this, this.type, type, update, value);
 	}
 	
@@ -203,23 +215,32 @@ public class BaselineObject {
 		synchronized (baselineData) {
 			baselineData.set(type-1, null);
 		}
+		((SWGObject) this).markDirty();
 		DeltaBuilder.send((SWGObject) this, this.type, type, update, value, strType);
 	}
 	
 	private Baseline createBaseline(Player target, int num, BaselineCreator bc) {
 		verifySwgObject();
+		if (!isBaselineShared(num)) // Only ever sent to one observer, or differs per observer
+			return buildBaseline(target, num, bc);
 		synchronized (baselineData) {
 			Baseline data = getBaseline(num);
 			if (data == null) {
 				BaselineBuilder bb = new BaselineBuilder((SWGObject) this, type, num);
 				bc.createBaseline(target, bb);
-				data = bb.buildAsBaselinePacket();
+				data = bb.buildAsSharedBaselinePacket();
 				setBaseline(num, data);
 			}
 			return data;
 		}
 	}
 	
+	private Baseline buildBaseline(Player target, int num, BaselineCreator bc) {
+		BaselineBuilder bb = new BaselineBuilder((SWGObject) this, type, num);
+		bc.createBaseline(target, bb);
+		return bb.buildAsBaselinePacket();
+	}
+	
 	private void verifySwgObject() {
 		if (!(this instanceof SWGObject))
 			throw new IllegalStateException("This object is not an SWGObject!");
@@ -45,12 +45,14 @@ public class DeltaBuilder {
 	}
 	
 	private static void send(SWGObject object, BaselineType type, int num, int updateType, byte [] data) {
-		DeltasMessage delta = new DeltasMessage(object.getObjectId(), type, num, updateType, data);
 		if (num == 3 || num == 6) { // Shared Objects
+			// Encoded once, then handed to every observer
+			DeltasMessage delta = new SharedDeltasMessage(object.getObjectId(), type, num, updateType, data);
 			for (CreatureObject observer : object.getObserverCreatures()) {
 				observer.addDelta(delta);
 			}
 		} else {
+			DeltasMessage delta = new DeltasMessage(object.getObjectId(), type, num, updateType, data);
 			Player owner = object.getOwner();
 			if (owner != null) {
 				CreatureObject observerSelf = owner.getCreatureObject();
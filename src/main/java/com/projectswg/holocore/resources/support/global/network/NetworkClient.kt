@@ -65,21 +65,34 @@ import java.util.concurrent.atomic.AtomicReference
 import java.util.concurrent.locks.ReentrantLock
 import kotlin.concurrent.withLock
 
-class NetworkClient(private val remoteAddress: SocketAddress, write: (ByteBuffer) -> Unit, private val closeChannel: () -> Unit): TCPServerChannel, WebSocketServerCallback {
+class NetworkClient(private val remoteAddress: SocketAddress, private val write: (ByteBuffer) -> Unit, private val closeChannel: () -> Unit): TCPServerChannel, WebSocketServerCallback {
 	
 	private val inboundBuffer = ByteBuffer.allocate(INBOUND_BUFFER_SIZE)
 	private val intentChain   = IntentChain()
 	private val connected     = AtomicBoolean(true)
 	private val upgraded      = AtomicBoolean(false)
 	private val status        = AtomicReference(SessionStatus.DISCONNECTED)
-	private val wsProtocol    = WebSocketServerProtocol(this, { data -> write(ByteBuffer.wrap(data)) }, closeChannel)
 	private val writeLock     = ReentrantLock()
+	private val flushLock     = ReentrantLock()
+	private val outbound      = ArrayList<ByteArray>()
+	private var outboundSize  = 0
+	private val flushCount    = AtomicLong(0)
+	private val frameCount    = AtomicLong(0)
+	private val byteCount     = AtomicLong(0)
+	private val wsProtocol    = WebSocketServerProtocol(this, { data -> queueOutbound(data) }, closeChannel)
 	
 	val player                = Player(SESSION_ID.getAndIncrement(), remoteAddress as InetSocketAddress?) { this.addToOutbound(it) }
 	
 	val id: Long
 		get() = player.networkId
 	
+	/** Number of socket writes performed for this client since the last call */
+	fun takeOutboundFlushCount(): Long = flushCount.getAndSet(0)
+	/** Number of websocket frames written for this client since the last call */
+	fun takeOutboundFrameCount(): Long = frameCount.getAndSet(0)
+	/** Number of bytes written for this client since the last call */
+	fun takeOutboundByteCount(): Long = byteCount.getAndSet(0)
+	
 	private var clientDisconnectReason = ConnectionStoppedReason.UNKNOWN
 	private var serverDisconnectReason = ConnectionStoppedReason.UNKNOWN
 	
@@ -89,9 +102,50 @@ class NetworkClient(private val remoteAddress: SocketAddress, write: (ByteBuffer
 			serverDisconnectReason = reason
 			if (upgraded.get())
 				wsProtocol.sendClose(WebSocketCloseReason.NORMAL.statusCode.toInt(), reason.name)
+			flush()
 		}
 	}
 	
+	/**
+	 * Writes all queued frames to the socket in a single write.  If another thread is already flushing, this returns
+	 * immediately and that thread writes the frames queued here before releasing the flush, so nothing queued before
+	 * this call is left behind - including the close frame queued by [close].
+	 */
+	fun flush() {
+		// Never block here - this may be called while the socket lock is held, and a flush takes the socket lock
+		while (flushLock.tryLock()) {
+			try {
+				val buffer = drainOutbound() ?: return
+				flushCount.incrementAndGet()
+				byteCount.addAndGet(buffer.remaining().toLong())
+				write(buffer)
+			} finally {
+				flushLock.unlock()
+			}
+			// Frames queued while we were writing may have been skipped by another thread's failed tryLock
+			if (!hasOutbound())
+				return
+		}
+	}
+	
+	private fun drainOutbound(): ByteBuffer? {
+		writeLock.withLock {
+			if (outbound.isEmpty())
+				return null
+			val coalesced = ByteBuffer.allocate(outboundSize)
+			for (frame in outbound)
+				coalesced.put(frame)
+			frameCount.addAndGet(outbound.size.toLong())
+			outbound.clear()
+			outboundSize = 0
+			return coalesced.flip()
+		}
+	}
+	
+	private fun hasOutbound(): Boolean {
+		return writeLock.withLock { outbound.isNotEmpty() }
+	}
+	
 	override fun getChannelBuffer(): ByteBuffer {
 		return inboundBuffer
 	}
@@ -100,6 +154,7 @@ class NetworkClient(private val remoteAddress: SocketAddress, write: (ByteBuffer
 		try {
 			wsProtocol.onRead(inboundBuffer.array(), 0, inboundBuffer.position())
 			inboundBuffer.position(0)
+			flush()
 		} catch (t: Throwable) {
 			Log.e("Serious packet issue detected. Closing connection immediately...")
 			Log.e(t)
@@ -217,9 +272,19 @@ class NetworkClient(private val remoteAddress: SocketAddress, write: (ByteBuffer
 			if (encoded.position() != encoded.capacity())
 				Log.w("SWGPacket %s has invalid array length. Expected: %d  Actual: %d", p, encoded.remaining(), encoded.capacity())
 			
-			writeLock.withLock {
+			val queued = writeLock.withLock {
 				wsProtocol.send(WebsocketFrame(WebsocketFrameType.BINARY, encoded.buffer.array()))
+				outboundSize
 			}
+			if (queued >= MAX_OUTBOUND_SIZE)
+				flush()
+		}
+	}
+	
+	private fun queueOutbound(data: ByteArray) {
+		writeLock.withLock {
+			outbound.add(data)
+			outboundSize += data.size
 		}
 	}
 	
@@ -262,6 +327,8 @@ class NetworkClient(private val remoteAddress: SocketAddress, write: (ByteBuffer
 	companion object {
 		private val SESSION_ID = AtomicLong(1)
 		private const val INBOUND_BUFFER_SIZE = 4096
+		/** Queued outbound data is written immediately once it reaches this size, rather than waiting for the next flush */
+		private const val MAX_OUTBOUND_SIZE = 64 * 1024
 	}
 	
 }
@@ -0,0 +1,59 @@
+/***********************************************************************************
+ * Copyright (c) 2022 /// Project SWG /// www.projectswg.com                       *
+ *                                                                                 *
+ * ProjectSWG is the first NGE emulator for Star Wars Galaxies founded on          *
+ * July 7th, 2011 after SOE announced the official shutdown of Star Wars Galaxies. *
+ * Our goal is to create an emulator which will provide a server for players to    *
+ * continue playing a game similar to the one they used to play. We are basing     *
+ * it on the final publish of the game prior to end-game events.                   *
+ *                                                                                 *
+ * This file is part of Holocore.                                                  *
+ *                                                                                 *
+ * --------------------------------------------------------------------------------*
+ *                                                                                 *
+ * Holocore is free software: you can redistribute it and/or modify                *
+ * it under the terms of the GNU Affero General Public License as                  *
+ * published by the Free Software Foundation, either version 3 of the              *
+ * License, or (at your option) any later version.                                 *
+ *                                                                                 *
+ * Holocore is distributed in the hope that it will be useful,                     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of                  *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                   *
+ * GNU Affero General Public License for more details.                             *
+ *                                                                                 *
+ * You should have received a copy of the GNU Affero General Public License        *
+ * along with Holocore.  If not, see <http://www.gnu.org/licenses/>.               *
+ ***********************************************************************************/
+package com.projectswg.holocore.resources.support.global.network;
+
+import com.projectswg.common.network.NetBuffer;
+import com.projectswg.common.network.packets.swg.zone.baselines.Baseline.BaselineType;
+import com.projectswg.common.network.packets.swg.zone.deltas.DeltasMessage;
+
+/**
+ * A {@link DeltasMessage} that is delivered to every observer of a shared view.  The packet is
+ * encoded the first time it is written to a client, and every other observer is handed the
+ * same encoded bytes rather than re-encoding the delta.
+ */
+class SharedDeltasMessage extends DeltasMessage {
+	
+	private volatile byte [] encoded;
+	
+	public SharedDeltasMessage(long objId, BaselineType type, int typeNumber, int update, byte [] data) {
+		super(objId, type, typeNumber, update, data);
+	}
+	
+	@Override
+	public NetBuffer encode() {
+		byte [] encoded = this.encoded;
+		if (encoded == null) {
+			// Concurrent first writes may both encode, but they will produce identical bytes
+			encoded = super.encode().array();
+			this.encoded = encoded;
+		}
+		NetBuffer buffer = NetBuffer.wrap(encoded);
+		buffer.position(encoded.length);
+		return buffer;
+	}
+	
+}
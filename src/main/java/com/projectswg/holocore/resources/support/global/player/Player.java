@@ -37,6 +37,7 @@ import me.joshlarson.jlcommon.control.IntentChain;
 import org.jetbrains.annotations.NotNull;
 
 import java.net.InetSocketAddress;
+import java.util.List;
 import java.util.Locale;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
@@ -230,6 +231,16 @@ public class Player implements Comparable<Player> {
 		);
 	}
 	
+	public void sendPackets(List<? extends SWGPacket> packets) {
+		OutboundPacketIntent [] intents = new OutboundPacketIntent[packets.size()];
+		int i = 0;
+		for (SWGPacket packet : packets) {
+			packetSender.accept(packet);
+			intents[i++] = new OutboundPacketIntent(this, packet);
+		}
+		IntentChain.broadcastChain(intents);
+	}
+	
 	public void broadcast(Intent intent) {
 		CreatureObject creatureObject = getCreatureObject();
 		if (creatureObject != null)
@@ -0,0 +1,99 @@
+/***********************************************************************************
+ * Copyright (c) 2022 /// Project SWG /// www.projectswg.com                       *
+ *                                                                                 *
+ * ProjectSWG is the first NGE emulator for Star Wars Galaxies founded on          *
+ * July 7th, 2011 after SOE announced the official shutdown of Star Wars Galaxies. *
+ * Our goal is to create an emulator which will provide a server for players to    *
+ * continue playing a game similar to the one they used to play. We are basing     *
+ * it on the final publish of the game prior to end-game events.                   *
+ *                                                                                 *
+ * This file is part of Holocore.                                                  *
+ *                                                                                 *
+ * --------------------------------------------------------------------------------*
+ *                                                                                 *
+ * Holocore is free software: you can redistribute it and/or modify                *
+ * it under the terms of the GNU Affero General Public License as                  *
+ * published by the Free Software Foundation, either version 3 of the              *
+ * License, or (at your option) any later version.                                 *
+ *                                                                                 *
+ * Holocore is distributed in the hope that it will be useful,                     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of                  *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                   *
+ * GNU Affero General Public License for more details.                             *
+ *                                                                                 *
+ * You should have received a copy of the GNU Affero General Public License        *
+ * along with Holocore.  If not, see <http://www.gnu.org/licenses/>.               *
+ ***********************************************************************************/
+package com.projectswg.holocore.resources.support.global.zone.region;
+
+import com.projectswg.common.data.location.Location;
+import com.projectswg.common.data.location.Terrain;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+
+/**
+ * A circular area on a terrain.  Regions are identified by their type and id, so registering a region with the same
+ * type and id as an existing one replaces it.
+ */
+public class Region {
+	
+	private final String id;
+	private final RegionType type;
+	private final Terrain terrain;
+	private final double x;
+	private final double z;
+	private final double radius;
+	
+	public Region(@NotNull String id, @NotNull RegionType type, @NotNull Terrain terrain, double x, double z, double radius) {
+		this.id = Objects.requireNonNull(id, "id");
+		this.type = Objects.requireNonNull(type, "type");
+		this.terrain = Objects.requireNonNull(terrain, "terrain");
+		this.x = x;
+		this.z = z;
+		this.radius = radius;
+	}
+	
+	public Region(@NotNull String id, @NotNull RegionType type, @NotNull Location center, double radius) {
+		this(id, type, center.getTerrain(), center.getX(), center.getZ(), radius);
+	}
+	
+	@NotNull
+	public String getId() {
+		return id;
+	}
+	
+	@NotNull
+	public RegionType getType() {
+		return type;
+	}
+	
+	@NotNull
+	public Terrain getTerrain() {
+		return terrain;
+	}
+	
+	public double getX() {
+		return x;
+	}
+	
+	public double getZ() {
+		return z;
+	}
+	
+	public double getRadius() {
+		return radius;
+	}
+	
+	public boolean contains(double x, double z) {
+		double dx = x - this.x;
+		double dz = z - this.z;
+		return dx*dx + dz*dz <= radius*radius;
+	}
+	
+	@Override
+	public String toString() {
+		return String.format("Region[%s %s %s (%.1f, %.1f) r=%.1f]", type, id, terrain, x, z, radius);
+	}
+	
+}
@@ -0,0 +1,158 @@
+/***********************************************************************************
+ * Copyright (c) 2022 /// Project SWG /// www.projectswg.com                       *
+ *                                                                                 *
+ * ProjectSWG is the first NGE emulator for Star Wars Galaxies founded on          *
+ * July 7th, 2011 after SOE announced the official shutdown of Star Wars Galaxies. *
+ * Our goal is to create an emulator which will provide a server for players to    *
+ * continue playing a game similar to the one they used to play. We are basing     *
+ * it on the final publish of the game prior to end-game events.                   *
+ *                                                                                 *
+ * This file is part of Holocore.                                                  *
+ *                                                                                 *
+ * --------------------------------------------------------------------------------*
+ *                                                                                 *
+ * Holocore is free software: you can redistribute it and/or modify                *
+ * it under the terms of the GNU Affero General Public License as                  *
+ * published by the Free Software Foundation, either version 3 of the              *
+ * License, or (at your option) any later version.                                 *
+ *                                                                                 *
+ * Holocore is distributed in the hope that it will be useful,                     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of                  *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                   *
+ * GNU Affero General Public License for more details.                             *
+ *                                                                                 *
+ * You should have received a copy of the GNU Affero General Public License        *
+ * along with Holocore.  If not, see <http://www.gnu.org/licenses/>.               *
+ ***********************************************************************************/
+package com.projectswg.holocore.resources.support.global.zone.region;
+
+import com.projectswg.common.data.location.Terrain;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntConsumer;
+
+/**
+ * Indexes regions by terrain in a coarse grid.  Each grid cell holds every region overlapping it, so finding the
+ * regions at a point only tests the handful of regions in that point's cell.  Lookups never lock - cells are replaced
+ * as a whole when regions are added or removed.
+ */
+public class RegionIndex {
+	
+	private static final int MAP_WIDTH = 16384;
+	private static final int CELL_SIZE = 512;
+	private static final int CELLS_ACROSS = MAP_WIDTH / CELL_SIZE;
+	private static final Region [] NO_REGIONS = new Region[0];
+	
+	private final Map<Terrain, AtomicReferenceArray<Region[]>> terrains;
+	private final Map<RegionType, Map<String, Region>> regions;
+	
+	public RegionIndex() {
+		this.terrains = new ConcurrentHashMap<>();
+		this.regions = new EnumMap<>(RegionType.class);
+		for (RegionType type : RegionType.values())
+			regions.put(type, new ConcurrentHashMap<>());
+	}
+	
+	/**
+	 * Adds the region to the index, replacing any region with the same type and id
+	 *
+	 * @return the region that was replaced, or null if there was none
+	 */
+	@Nullable
+	public synchronized Region add(@NotNull Region region) {
+		Region previous = remove(region.getType(), region.getId());
+		regions.get(region.getType()).put(region.getId(), region);
+		AtomicReferenceArray<Region[]> cells = terrains.computeIfAbsent(region.getTerrain(), t -> createCells());
+		forEachCell(region, cell -> {
+			Region [] current = cells.get(cell);
+			Region [] replacement = Arrays.copyOf(current, current.length + 1);
+			replacement[current.length] = region;
+			cells.set(cell, replacement);
+		});
+		return previous;
+	}
+	
+	/**
+	 * Removes the region with the specified type and id
+	 *
+	 * @return the region that was removed, or null if there was none
+	 */
+	@Nullable
+	public synchronized Region remove(@NotNull RegionType type, @NotNull String id) {
+		Region region = regions.get(type).remove(id);
+		if (region == null)
+			return null;
+		AtomicReferenceArray<Region[]> cells = terrains.get(region.getTerrain());
+		forEachCell(region, cell -> {
+			Region [] current = cells.get(cell);
+			Region [] replacement = new Region[current.length - 1];
+			int i = 0;
+			for (Region test : current) {
+				if (test != region)
+					replacement[i++] = test;
+			}
+			cells.set(cell, replacement.length == 0 ? NO_REGIONS : replacement);
+		});
+		return region;
+	}
+	
+	@Nullable
+	public Region getRegion(@NotNull RegionType type, @NotNull String id) {
+		return regions.get(type).get(id);
+	}
+	
+	/**
+	 * Adds every region containing the specified point to the results
+	 *
+	 * @return the number of regions containing the point
+	 */
+	public int getRegions(@NotNull Terrain terrain, double x, double z, @NotNull Collection<Region> results) {
+		AtomicReferenceArray<Region[]> cells = terrains.get(terrain);
+		if (cells == null)
+			return 0;
+		int matches = 0;
+		for (Region region : cells.get(getCell(x, z))) {
+			if (region.contains(x, z)) {
+				results.add(region);
+				matches++;
+			}
+		}
+		return matches;
+	}
+	
+	private static void forEachCell(Region region, IntConsumer consumer) {
+		int minX = getCellIndex(region.getX() - region.getRadius());
+		int maxX = getCellIndex(region.getX() + region.getRadius());
+		int minZ = getCellIndex(region.getZ() - region.getRadius());
+		int maxZ = getCellIndex(region.getZ() + region.getRadius());
+		for (int z = minZ; z <= maxZ; z++) {
+			for (int x = minX; x <= maxX; x++) {
+				consumer.accept(z * CELLS_ACROSS + x);
+			}
+		}
+	}
+	
+	private static int getCell(double x, double z) {
+		return getCellIndex(z) * CELLS_ACROSS + getCellIndex(x);
+	}
+	
+	private static int getCellIndex(double position) {
+		int index = ((int) Math.floor(position) + MAP_WIDTH/2) / CELL_SIZE;
+		return index < 0 ? 0 : (index >= CELLS_ACROSS ? CELLS_ACROSS-1 : index);
+	}
+	
+	private static AtomicReferenceArray<Region[]> createCells() {
+		AtomicReferenceArray<Region[]> cells = new AtomicReferenceArray<>(CELLS_ACROSS * CELLS_ACROSS);
+		for (int i = 0; i < cells.length(); i++)
+			cells.set(i, NO_REGIONS);
+		return cells;
+	}
+	
+}
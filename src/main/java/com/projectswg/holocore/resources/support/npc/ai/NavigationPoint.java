@@ -1,12 +1,12 @@
 package com.projectswg.holocore.resources.support.npc.ai;
 
 import com.projectswg.common.data.location.Location;
-import com.projectswg.holocore.intents.support.objects.swg.MoveObjectIntent;
 import com.projectswg.holocore.resources.support.data.server_info.loader.DataLoader;
 import com.projectswg.holocore.resources.support.objects.swg.SWGObject;
 import com.projectswg.holocore.resources.support.objects.swg.building.BuildingObject;
 import com.projectswg.holocore.resources.support.objects.swg.cell.CellObject;
 import com.projectswg.holocore.resources.support.objects.swg.cell.Portal;
+import com.projectswg.holocore.resources.support.objects.swg.custom.AIObject;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -38,13 +38,10 @@ public class NavigationPoint {
 		return speed;
 	}
 	
-	public void move(SWGObject obj) {
+	public void move(AIObject obj) {
 		if (isNoOperation())
 			return;
-		if (parent == null)
-			obj.broadcast(new MoveObjectIntent(obj, location, speed));
-		else
-			obj.broadcast(new MoveObjectIntent(obj, parent, location, speed));
+		obj.moveTo(parent, location, speed);
 	}
 	
 	public boolean isNoOperation() {
@@ -98,16 +95,31 @@ public class NavigationPoint {
 	}
 	
 	public static List<NavigationPoint> from(@Nullable SWGObject sourceParent, @NotNull Location source, @Nullable SWGObject destinationParent, @NotNull Location destination, double speed) {
+		return expand(segments(sourceParent, source, destinationParent, destination, speed));
+	}
+	
+	/**
+	 * Returns the segments to traverse on the path to the specified destination, routing through building portals
+	 * when the source and destination parents differ.  Returns an empty list if there is no route.
+	 *
+	 * @param sourceParent      the parent of the source location
+	 * @param source            the source location
+	 * @param destinationParent the parent of the destination location
+	 * @param destination       the destination location
+	 * @param speed             the speed to travel at
+	 * @return the list of segments to travel
+	 */
+	public static List<NavigationSegment> segments(@Nullable SWGObject sourceParent, @NotNull Location source, @Nullable SWGObject destinationParent, @NotNull Location destination, double speed) {
 		assert sourceParent == null || sourceParent instanceof CellObject;
 		assert destinationParent == null || destinationParent instanceof CellObject;
 		List<Portal> route = getBuildingRoute((CellObject) sourceParent, (CellObject) destinationParent, source, destination);
 		if (route == null)
 			return new ArrayList<>();
-		List<NavigationPoint> points = createIntraBuildingRoute(route, (CellObject) sourceParent, source, speed);
+		List<NavigationSegment> segments = createIntraBuildingRoute(route, (CellObject) sourceParent, source, speed);
 		if (!route.isEmpty())
 			source = destinationParent == null ? buildWorldPortalLocation(route.get(route.size() - 1)) : buildPortalLocation(route.get(route.size() - 1));
-		points.addAll(from(destinationParent, source, destination, speed));
-		return points;
+		segments.add(NavigationSegment.between(destinationParent, source, destination, speed));
+		return segments;
 	}
 	
 	/**
@@ -120,20 +132,19 @@ public class NavigationPoint {
 	 * @return a queue of locations to travel
 	 */
 	public static List<NavigationPoint> from(@Nullable SWGObject parent, @NotNull Location source, @NotNull Location destination, double speed) {
-		speed = Math.floor(speed);
-		double totalDistance = source.distanceTo(destination);
+		return expand(List.of(NavigationSegment.between(parent, source, destination, speed)));
+	}
+	
+	private static List<NavigationPoint> expand(List<NavigationSegment> segments) {
 		List<NavigationPoint> path = new ArrayList<>();
-		
-		double currentDistance = speed;
-		while (currentDistance < totalDistance) {
-			path.add(interpolate(parent, source, destination, speed, currentDistance / totalDistance));
-			currentDistance += speed;
+		for (NavigationSegment segment : segments) {
+			for (int step = 0; step < segment.getSteps(); step++)
+				path.add(segment.getPoint(step));
 		}
-		path.add(interpolate(parent, source, destination, speed, 1));
 		return path;
 	}
 	
-	private static NavigationPoint interpolate(SWGObject parent, Location l1, Location l2, double speed, double percentage) {
+	static NavigationPoint interpolate(SWGObject parent, Location l1, Location l2, double speed, double percentage) {
 		double heading = Math.toDegrees(Math.atan2(l2.getX()-l1.getX(), l2.getZ()-l1.getZ()));
 		if (percentage <= 0)
 			return new NavigationPoint(parent, Location.builder(l1)
@@ -158,17 +169,17 @@ public class NavigationPoint {
 				.build(), speed);
 	}
 	
-	private static List<NavigationPoint> createIntraBuildingRoute(List<Portal> route, CellObject from, Location start, double speed) {
-		List<NavigationPoint> points = new ArrayList<>();
+	private static List<NavigationSegment> createIntraBuildingRoute(List<Portal> route, CellObject from, Location start, double speed) {
+		List<NavigationSegment> segments = new ArrayList<>();
 		for (Portal portal : route) {
 			if (from == null)
-				points.addAll(from(null, start, buildWorldPortalLocation(portal), speed));
+				segments.add(NavigationSegment.between(null, start, buildWorldPortalLocation(portal), speed));
 			else
-				points.addAll(from(from, start, buildPortalLocation(portal), speed));
+				segments.add(NavigationSegment.between(from, start, buildPortalLocation(portal), speed));
 			from = portal.getOtherCell(from);
 			start = buildPortalLocation(portal);
 		}
-		return points;
+		return segments;
 	}
 	
 	private static List<Portal> getBuildingRoute(CellObject from, CellObject to, Location start, Location destination) {
@@ -0,0 +1,110 @@
+package com.projectswg.holocore.resources.support.npc.ai;
+
+import com.projectswg.common.data.location.Location;
+import com.projectswg.holocore.resources.support.objects.swg.SWGObject;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+
+/**
+ * A straight section of a navigation route, split into speed-sized steps.  Each step's {@link NavigationPoint} is
+ * interpolated when it is requested, so a route only needs one segment per leg instead of one point per step.
+ */
+public class NavigationSegment {
+
+	private final SWGObject parent;
+	private final Location source;
+	private final Location destination;
+	private final NavigationPoint stationary;
+	private final double speed;
+	private final double totalDistance;
+	private final int steps;
+
+	private NavigationSegment(SWGObject parent, Location source, Location destination, NavigationPoint stationary, double speed, double totalDistance, int steps) {
+		this.parent = parent;
+		this.source = source;
+		this.destination = destination;
+		this.stationary = stationary;
+		this.speed = speed;
+		this.totalDistance = totalDistance;
+		this.steps = steps;
+	}
+
+	public SWGObject getParent() {
+		return stationary == null ? parent : stationary.getParent();
+	}
+
+	/**
+	 * Returns the location at the end of this segment
+	 */
+	public Location getDestination() {
+		return stationary == null ? destination : stationary.getLocation();
+	}
+
+	public int getSteps() {
+		return steps;
+	}
+
+	public boolean isNoOperation() {
+		return stationary != null && stationary.isNoOperation();
+	}
+
+	/**
+	 * Returns the point for the specified step, where 0 is the first step after the source location
+	 *
+	 * @param step the step within this segment, from 0 to {@link #getSteps()} - 1
+	 * @return the interpolated navigation point
+	 */
+	public NavigationPoint getPoint(int step) {
+		assert step >= 0 && step < steps;
+		if (stationary != null)
+			return stationary;
+		if (step + 1 >= steps)
+			return NavigationPoint.interpolate(parent, source, destination, speed, 1);
+		return NavigationPoint.interpolate(parent, source, destination, speed, (step + 1) * speed / totalDistance);
+	}
+
+	/**
+	 * Returns a copy of this segment that stays at its point for additional steps, or null if this segment moves
+	 */
+	@Nullable
+	public NavigationSegment extend(int additionalSteps) {
+		if (stationary == null)
+			return null;
+		return new NavigationSegment(null, null, null, stationary, 0, 0, steps + additionalSteps);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("NavigationSegment[%s -> %s x%d]", source == null ? null : source.getPosition(), getDestination().getPosition(), steps);
+	}
+
+	/**
+	 * Creates a segment that stays at the specified point for the specified number of steps
+	 */
+	public static NavigationSegment stationary(@NotNull NavigationPoint point, int steps) {
+		Objects.requireNonNull(point, "point");
+		return new NavigationSegment(null, null, null, point, 0, 0, steps);
+	}
+
+	/**
+	 * Creates a segment travelling from the source to the destination within the same parent, at the specified speed
+	 */
+	public static NavigationSegment between(@Nullable SWGObject parent, @NotNull Location source, @NotNull Location destination, double speed) {
+		speed = Math.floor(speed);
+		double totalDistance = source.distanceTo(destination);
+		int steps = 1;
+		if (speed > 0) {
+			// Number of whole steps that fall strictly before the destination, plus the destination itself
+			int intermediate = (int) (totalDistance / speed);
+			while (intermediate > 0 && intermediate * speed >= totalDistance)
+				intermediate--;
+			while ((intermediate + 1) * speed < totalDistance)
+				intermediate++;
+			steps = intermediate + 1;
+		}
+		return new NavigationSegment(parent, source, destination, null, speed, totalDistance, steps);
+	}
+
+}
@@ -10,7 +10,6 @@ import com.projectswg.holocore.intents.support.npc.ai.ScheduleNpcModeIntent
 import com.projectswg.holocore.intents.support.npc.ai.StartNpcCombatIntent
 import com.projectswg.holocore.intents.support.npc.ai.StartNpcMovementIntent
 import com.projectswg.holocore.intents.support.npc.ai.StopNpcMovementIntent
-import com.projectswg.holocore.intents.support.objects.swg.MoveObjectIntent
 import com.projectswg.holocore.resources.support.color.SWGColor
 import com.projectswg.holocore.resources.support.data.server_info.loader.ServerData
 import com.projectswg.holocore.resources.support.data.server_info.mongodb.PswgDatabase
@@ -129,7 +128,7 @@ class NpcCombatMode(obj: AIObject) : NpcMode(obj) {
 		val myLocation = obj.location
 		val targetLocation = target.location
 		val headingTo = myLocation.getHeadingTo(targetLocation.position)
-		MoveObjectIntent.broadcast(obj, obj.parent, Location.builder(myLocation).setHeading(headingTo).build(), npcRunSpeed)
+		obj.moveTo(obj.parent, Location.builder(myLocation).setHeading(headingTo).build(), npcRunSpeed)
 		
 		if (target.posture == Posture.INCAPACITATED) {
 			QueueCommandIntent.broadcast(obj, target, "", ServerData.commands.getCommand("deathblow"), 0)
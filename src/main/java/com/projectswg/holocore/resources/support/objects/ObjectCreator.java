@@ -144,9 +144,9 @@ public final class ObjectCreator {
 	}
 	
 	private static void handlePostCreation(SWGObject obj, Map<ObjectDataAttribute, Object> attributes) {
+		obj.setTemplateDataAttributes(attributes);
 		for (Entry<ObjectDataAttribute, Object> e : attributes.entrySet()) {
 			Object value = e.getValue();
-			obj.setDataAttribute(e.getKey(), value);
 			
 			switch (e.getKey()) {
 				case OBJECT_NAME: obj.setStringId((StringId) value); break;
@@ -31,27 +31,56 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class ObjectAware {
 	
 	private static final Collection<SWGObject> EMPTY_SET = Collections.emptyList();
+	private static final AtomicReferenceFieldUpdater<ObjectAware, TerrainMapChunk> CHUNK = AtomicReferenceFieldUpdater.newUpdater(ObjectAware.class, TerrainMapChunk.class, "chunk");
 	
-	private final EnumMap<AwarenessType, Collection<SWGObject>> awareness;
-	private final AtomicReference<TerrainMapChunk> chunk;
+	/** Indexed by {@link AwarenessType#ordinal()} */
+	private final Collection<SWGObject> [] awareness;
+	private volatile TerrainMapChunk chunk;
+	private long version;
 	
+	@SuppressWarnings("unchecked")
 	public ObjectAware() {
-		this.awareness = new EnumMap<>(AwarenessType.class);
-		this.chunk = new AtomicReference<>(null);
-		for (AwarenessType type : AwarenessType.getValues()) {
-			awareness.put(type, List.of());
-		}
+		this.awareness = new Collection[AwarenessType.getValues().size()];
+		this.chunk = null;
+		this.version = 0;
+		Arrays.fill(awareness, EMPTY_SET);
 	}
 	
 	public synchronized void setAware(@NotNull AwarenessType type, @NotNull Collection<SWGObject> objects) {
-		awareness.put(type, objects);
+		// The reference is always replaced, as the previous collection may be reused by the caller
+		Collection<SWGObject> previous = awareness[type.ordinal()];
+		awareness[type.ordinal()] = objects;
+		if (!previous.equals(objects))
+			version++;
+	}
+	
+	/**
+	 * Forces every creature that can see this object to re-test its awareness, for when the object's visibility has
+	 * changed without it moving
+	 *
+	 * @param obj the object that owns this awareness
+	 */
+	public void invalidate(@NotNull SWGObject obj) {
+		TerrainMapChunk chunk = this.chunk;
+		if (chunk != null)
+			chunk.invalidateObject(obj);
+	}
+	
+	/**
+	 * Returns a counter that is incremented every time the contents of any awareness set change. If two calls return
+	 * the same version, the awareness has not changed between them.
+	 *
+	 * @return the current awareness version
+	 */
+	public synchronized long getVersion() {
+		return version;
 	}
 	
 	@NotNull
@@ -61,7 +90,7 @@ public class ObjectAware {
 	
 	@NotNull
 	public Set<SWGObject> getAware(@NotNull AwarenessType type) {
-		return new HashSet<>(awareness.getOrDefault(type, EMPTY_SET));
+		return new HashSet<>(getAwareCollection(type));
 	}
 	
 	public boolean isAwareOf(SWGObject obj) {
@@ -69,20 +98,24 @@ public class ObjectAware {
 	}
 	
 	protected TerrainMapChunk setTerrainMapChunk(TerrainMapChunk newChunk) {
-		return this.chunk.getAndSet(newChunk);
+		return CHUNK.getAndSet(this, newChunk);
 	}
 	
 	@Nullable
 	protected TerrainMapChunk getTerrainMapChunk() {
-		return chunk.get();
+		return chunk;
+	}
+	
+	private synchronized Collection<SWGObject> getAwareCollection(AwarenessType type) {
+		return awareness[type.ordinal()];
 	}
 	
-	private Stream<SWGObject> getAwareStream() {
-		return awareness.values().stream().flatMap(Collection::stream);
+	private synchronized Stream<SWGObject> getAwareStream() {
+		return Arrays.stream(awareness.clone()).flatMap(Collection::stream);
 	}
 	
-	private boolean notAware(SWGObject test) {
-		for (Collection<SWGObject> aware : awareness.values()) {
+	private synchronized boolean notAware(SWGObject test) {
+		for (Collection<SWGObject> aware : awareness) {
 			if (aware.contains(test))
 				return false;
 		}
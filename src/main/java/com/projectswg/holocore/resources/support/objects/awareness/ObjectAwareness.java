@@ -27,35 +27,72 @@
 
 package com.projectswg.holocore.resources.support.objects.awareness;
 
+import com.projectswg.common.data.location.Location;
 import com.projectswg.common.data.location.Terrain;
 import com.projectswg.holocore.resources.support.objects.swg.SWGObject;
 import me.joshlarson.jlcommon.concurrency.ScheduledThreadPool;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
 public class ObjectAwareness {
 	
+	private static final int UPDATE_RATE = 100;
+	
 	private final TerrainMap[] terrains;
 	private final ScheduledThreadPool threadPool;
+	private final ForkJoinPool chunkPool;
 	
 	public ObjectAwareness() {
+		this(TerrainMap.DEFAULT_CHUNK_SIZE);
+	}
+	
+	/**
+	 * Creates a new object awareness where every terrain is split into chunks of the specified size
+	 *
+	 * @param chunkSize the width of each terrain chunk in meters
+	 * @see TerrainMap#TerrainMap(int)
+	 */
+	public ObjectAwareness(int chunkSize) {
 		this.terrains = new TerrainMap[Terrain.values().length];
 		this.threadPool = new ScheduledThreadPool(Runtime.getRuntime().availableProcessors(), "object-awareness-%d");
+		this.chunkPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), ObjectAwareness::createChunkThread, null, false);
 		for (int i = 0; i < terrains.length; i++) {
-			terrains[i] = new TerrainMap();
+			terrains[i] = new TerrainMap(chunkSize);
 		}
 	}
 	
 	public void startThreadPool() {
 		threadPool.start();
 		for (TerrainMap terrain : terrains)
-			threadPool.executeWithFixedRate(0, 100, terrain::updateChunks);
+			threadPool.executeWithFixedRate(0, UPDATE_RATE, () -> terrain.updateChunks(chunkPool));
 	}
 	
 	public boolean stopThreadPool() {
 		threadPool.stop();
-		return threadPool.awaitTermination(500);
+		chunkPool.shutdown();
+		try {
+			return threadPool.awaitTermination(500) && chunkPool.awaitTermination(500, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+	
+	/**
+	 * Returns the terrain map for the specified terrain, primarily for update statistics
+	 *
+	 * @param terrain the terrain to look up
+	 * @return the terrain map
+	 */
+	@NotNull
+	public TerrainMap getTerrainMap(@NotNull Terrain terrain) {
+		return terrains[terrain.ordinal()];
 	}
 	
 	/**
@@ -93,4 +130,72 @@ public class ObjectAwareness {
 			terrain.updateChunks();
 	}
 	
+	/**
+	 * Finds every object of the specified type within a radius of a point on the terrain
+	 *
+	 * @see TerrainMap#queryRadius(double, double, double, Class, Predicate, Collection)
+	 */
+	public <T extends SWGObject> int queryRadius(@NotNull Terrain terrain, double x, double z, double radius, @NotNull Class<T> type, @NotNull Predicate<? super T> filter, @Nullable Collection<? super T> results) {
+		return terrains[terrain.ordinal()].queryRadius(x, z, radius, type, filter, results);
+	}
+	
+	/**
+	 * Finds every object of the specified type within a cone on the terrain
+	 *
+	 * @see TerrainMap#queryCone(double, double, double, double, double, double, Class, Predicate, Collection)
+	 */
+	public <T extends SWGObject> int queryCone(@NotNull Terrain terrain, double x, double z, double dirX, double dirZ, double length, double halfAngle, @NotNull Class<T> type, @NotNull Predicate<? super T> filter, @Nullable Collection<? super T> results) {
+		return terrains[terrain.ordinal()].queryCone(x, z, dirX, dirZ, length, halfAngle, type, filter, results);
+	}
+	
+	/**
+	 * Finds the closest object of the specified type within a radius of a point on the terrain
+	 *
+	 * @see TerrainMap#queryNearest(double, double, double, Class, Predicate)
+	 */
+	@Nullable
+	public <T extends SWGObject> T queryNearest(@NotNull Terrain terrain, double x, double z, double radius, @NotNull Class<T> type, @NotNull Predicate<? super T> filter) {
+		return terrains[terrain.ordinal()].queryNearest(x, z, radius, type, filter);
+	}
+	
+	/**
+	 * Finds every object of the specified type within a radius of <code>origin</code>, using the chunk that origin
+	 * was last placed in.  Nothing is found if origin isn't in awareness.
+	 *
+	 * @see TerrainMap#queryRadius(double, double, double, Class, Predicate, Collection)
+	 */
+	public static <T extends SWGObject> int queryRadius(@NotNull SWGObject origin, double radius, @NotNull Class<T> type, @NotNull Predicate<? super T> filter, @Nullable Collection<? super T> results) {
+		Location world = origin.getWorldLocation();
+		return TerrainMap.queryRadius(origin.getAwareness().getTerrainMapChunk(), world.getX(), world.getZ(), radius, type, filter, results);
+	}
+	
+	/**
+	 * Finds every object of the specified type within a cone starting at <code>origin</code>, using the chunk that
+	 * origin was last placed in.  Nothing is found if origin isn't in awareness.
+	 *
+	 * @see TerrainMap#queryCone(double, double, double, double, double, double, Class, Predicate, Collection)
+	 */
+	public static <T extends SWGObject> int queryCone(@NotNull SWGObject origin, double dirX, double dirZ, double length, double halfAngle, @NotNull Class<T> type, @NotNull Predicate<? super T> filter, @Nullable Collection<? super T> results) {
+		Location world = origin.getWorldLocation();
+		return TerrainMap.queryCone(origin.getAwareness().getTerrainMapChunk(), world.getX(), world.getZ(), dirX, dirZ, length, halfAngle, type, filter, results);
+	}
+	
+	/**
+	 * Finds the closest object of the specified type within a radius of <code>origin</code>, using the chunk that
+	 * origin was last placed in
+	 *
+	 * @see TerrainMap#queryNearest(double, double, double, Class, Predicate)
+	 */
+	@Nullable
+	public static <T extends SWGObject> T queryNearest(@NotNull SWGObject origin, double radius, @NotNull Class<T> type, @NotNull Predicate<? super T> filter) {
+		Location world = origin.getWorldLocation();
+		return TerrainMap.queryNearest(origin.getAwareness().getTerrainMapChunk(), world.getX(), world.getZ(), radius, type, filter);
+	}
+	
+	private static ForkJoinWorkerThread createChunkThread(ForkJoinPool pool) {
+		ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+		thread.setName("object-awareness-chunk-" + thread.getPoolIndex());
+		return thread;
+	}
+	
 }
@@ -0,0 +1,149 @@
+/***********************************************************************************
+ * Copyright (c) 2022 /// Project SWG /// www.projectswg.com                       *
+ *                                                                                 *
+ * ProjectSWG is the first NGE emulator for Star Wars Galaxies founded on          *
+ * July 7th, 2011 after SOE announced the official shutdown of Star Wars Galaxies. *
+ * Our goal is to create an emulator which will provide a server for players to    *
+ * continue playing a game similar to the one they used to play. We are basing     *
+ * it on the final publish of the game prior to end-game events.                   *
+ *                                                                                 *
+ * This file is part of Holocore.                                                  *
+ *                                                                                 *
+ * --------------------------------------------------------------------------------*
+ *                                                                                 *
+ * Holocore is free software: you can redistribute it and/or modify                *
+ * it under the terms of the GNU Affero General Public License as                  *
+ * published by the Free Software Foundation, either version 3 of the              *
+ * License, or (at your option) any later version.                                 *
+ *                                                                                 *
+ * Holocore is distributed in the hope that it will be useful,                     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of                  *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                   *
+ * GNU Affero General Public License for more details.                             *
+ *                                                                                 *
+ * You should have received a copy of the GNU Affero General Public License        *
+ * along with Holocore.  If not, see <http://www.gnu.org/licenses/>.               *
+ ***********************************************************************************/
+package com.projectswg.holocore.resources.support.objects.awareness;
+
+import com.projectswg.common.data.location.Location;
+import com.projectswg.holocore.resources.support.objects.swg.SWGObject;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Collects server-driven movement (primarily NPCs) that has already been applied to the object itself, so that the
+ * awareness service can update awareness and notify observers for a whole tick of moves in one pass.  Player movement
+ * doesn't go through this queue, and is applied immediately.
+ */
+public class ObjectMovementQueue {
+	
+	private final Map<SWGObject, QueuedMovement> latest;
+	private final Queue<SWGObject> order;
+	
+	public ObjectMovementQueue() {
+		this.latest = new ConcurrentHashMap<>();
+		this.order = new ConcurrentLinkedQueue<>();
+	}
+	
+	/**
+	 * Queues a move that was just applied to the object.  If the object already moved since the last drain, the moves
+	 * are merged so that observers see a single move from where the object was at the last drain to where it is now.
+	 */
+	public void queue(@NotNull SWGObject obj, @Nullable SWGObject oldParent, @Nullable SWGObject newParent, @NotNull Location oldLocation, @NotNull Location newLocation, double speed) {
+		latest.compute(obj, (o, previous) -> {
+			if (previous == null) {
+				order.add(o);
+				return new QueuedMovement(o, oldParent, newParent, oldLocation, newLocation, speed);
+			}
+			return new QueuedMovement(o, previous.getOldParent(), newParent, previous.getOldLocation(), newLocation, speed);
+		});
+	}
+	
+	/**
+	 * Removes the queued movement for the specified object, if any.  This must be called whenever the object is moved or
+	 * destroyed directly, so that an older movement isn't sent to observers on the next tick.
+	 *
+	 * @param obj the object that was moved or destroyed
+	 * @return the movement that was queued, or null if there was none
+	 */
+	@Nullable
+	public QueuedMovement cancel(@NotNull SWGObject obj) {
+		return latest.remove(obj);
+	}
+	
+	/**
+	 * Removes every queued movement, in the order each object first moved since the last drain
+	 *
+	 * @return the movements to apply
+	 */
+	@NotNull
+	public List<QueuedMovement> drain() {
+		List<QueuedMovement> movements = new ArrayList<>();
+		SWGObject obj;
+		while ((obj = order.poll()) != null) {
+			// Null if the movement was cancelled, or if this object was queued again after an earlier drain took it
+			QueuedMovement move = latest.remove(obj);
+			if (move != null)
+				movements.add(move);
+		}
+		return movements;
+	}
+	
+	public static class QueuedMovement {
+		
+		private final SWGObject object;
+		private final SWGObject oldParent;
+		private final SWGObject newParent;
+		private final Location oldLocation;
+		private final Location newLocation;
+		private final double speed;
+		
+		private QueuedMovement(@NotNull SWGObject object, @Nullable SWGObject oldParent, @Nullable SWGObject newParent, @NotNull Location oldLocation, @NotNull Location newLocation, double speed) {
+			this.object = object;
+			this.oldParent = oldParent;
+			this.newParent = newParent;
+			this.oldLocation = oldLocation;
+			this.newLocation = newLocation;
+			this.speed = speed;
+		}
+		
+		@NotNull
+		public SWGObject getObject() {
+			return object;
+		}
+		
+		@Nullable
+		public SWGObject getOldParent() {
+			return oldParent;
+		}
+		
+		@Nullable
+		public SWGObject getNewParent() {
+			return newParent;
+		}
+		
+		@NotNull
+		public Location getOldLocation() {
+			return oldLocation;
+		}
+		
+		@NotNull
+		public Location getNewLocation() {
+			return newLocation;
+		}
+		
+		public double getSpeed() {
+			return speed;
+		}
+		
+	}
+	
+}
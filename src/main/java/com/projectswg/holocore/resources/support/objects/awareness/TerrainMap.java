@@ -26,43 +26,143 @@
  ***********************************************************************************/
 package com.projectswg.holocore.resources.support.objects.awareness;
 
+import com.projectswg.common.data.location.Location;
 import com.projectswg.holocore.resources.support.objects.swg.SWGObject;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
 
 public class TerrainMap {
 	
-	private static final int CHUNK_COUNT_ACROSS = 16;
+	/**
+	 * The largest distance at which a creature can become aware of a non-building object.  A chunk and its eight
+	 * neighbors must always cover this range, so chunks can never be smaller than this.
+	 */
+	public static final int MAX_AWARENESS_RANGE = 400;
+	/**
+	 * The distance at which buildings and cells are guaranteed to be visible.  Creatures are aware of buildings at any
+	 * distance once they share a neighborhood, so buildings are linked into a wider neighborhood to keep the range that
+	 * the original 1024m grid provided.
+	 */
+	public static final int BUILDING_AWARENESS_RANGE = 1024;
+	/** Smallest power of two that covers {@link #MAX_AWARENESS_RANGE} */
+	public static final int DEFAULT_CHUNK_SIZE = 512;
+	
 	private static final int MAP_WIDTH = 16384;
-	private static final int INDEX_FACTOR = (int) (Math.log(MAP_WIDTH / (double) CHUNK_COUNT_ACROSS) / Math.log(2) + 1e-12);
+	/** Number of chunks a single task will update before splitting the work further */
+	private static final int CHUNKS_PER_TASK = 16;
 	
 	private final TerrainMapChunk [] chunks;
 	private final ReentrantLock updateLock;
+	private final int chunkCountAcross;
+	private final int buildingNeighborRadius;
+	private final int indexFactor;
+	private final AtomicLong updateCount;
+	private final AtomicLong updateTimeTotal;
+	private final AtomicLong updateTimeMax;
 	
 	public TerrainMap() {
-		this.chunks = new TerrainMapChunk[CHUNK_COUNT_ACROSS*CHUNK_COUNT_ACROSS];
+		this(DEFAULT_CHUNK_SIZE);
+	}
+	
+	/**
+	 * Creates a new terrain map where each chunk covers a square of <code>chunkSize</code> meters
+	 *
+	 * @param chunkSize the width of each chunk, which must be a power of two between {@link #MAX_AWARENESS_RANGE} and the map width
+	 */
+	public TerrainMap(int chunkSize) {
+		if (chunkSize < MAX_AWARENESS_RANGE || chunkSize > MAP_WIDTH || Integer.bitCount(chunkSize) != 1)
+			throw new IllegalArgumentException("Invalid chunk size: " + chunkSize);
+		this.chunkCountAcross = MAP_WIDTH / chunkSize;
+		this.buildingNeighborRadius = (BUILDING_AWARENESS_RANGE + chunkSize - 1) / chunkSize;
+		this.indexFactor = Integer.numberOfTrailingZeros(chunkSize);
+		this.chunks = new TerrainMapChunk[chunkCountAcross*chunkCountAcross];
 		this.updateLock = new ReentrantLock(false);
-		for (int z = 0; z < CHUNK_COUNT_ACROSS; z++) {
-			for (int x = 0; x < CHUNK_COUNT_ACROSS; x++) {
-				chunks[z*CHUNK_COUNT_ACROSS+x] = new TerrainMapChunk();
+		this.updateCount = new AtomicLong(0);
+		this.updateTimeTotal = new AtomicLong(0);
+		this.updateTimeMax = new AtomicLong(0);
+		for (int z = 0; z < chunkCountAcross; z++) {
+			for (int x = 0; x < chunkCountAcross; x++) {
+				chunks[z*chunkCountAcross+x] = new TerrainMapChunk();
 			}
 		}
 		connectChunkNeighbors();
 	}
 	
+	public int getChunkCountAcross() {
+		return chunkCountAcross;
+	}
+	
 	public void updateChunks() {
 		if (!updateLock.tryLock())
 			return;
 		try {
+			long start = System.nanoTime();
 			for (TerrainMapChunk chunk : chunks) {
 				chunk.update();
 			}
+			onUpdateCompleted(System.nanoTime() - start);
 		} finally {
 			updateLock.unlock();
 		}
 	}
 	
+	/**
+	 * Updates all chunks using the specified pool.  Every chunk is updated by exactly one task, and this call returns
+	 * only once all chunks have been updated - so no two updates of the same terrain ever overlap.
+	 *
+	 * @param pool the pool to split the chunk updates across
+	 */
+	public void updateChunks(ForkJoinPool pool) {
+		if (!updateLock.tryLock())
+			return;
+		try {
+			long start = System.nanoTime();
+			pool.invoke(new ChunkUpdateTask(chunks, 0, chunks.length));
+			onUpdateCompleted(System.nanoTime() - start);
+		} finally {
+			updateLock.unlock();
+		}
+	}
+	
+	public long getUpdateCount() {
+		return updateCount.get();
+	}
+	
+	/**
+	 * Returns the average time taken to update all chunks, in milliseconds
+	 */
+	public double getAverageUpdateTime() {
+		long count = updateCount.get();
+		return count == 0 ? 0 : updateTimeTotal.get() / 1E6 / count;
+	}
+	
+	/**
+	 * Returns the maximum time taken to update all chunks, in milliseconds
+	 */
+	public double getMaxUpdateTime() {
+		return updateTimeMax.get() / 1E6;
+	}
+	
+	public void resetUpdateStatistics() {
+		updateCount.set(0);
+		updateTimeTotal.set(0);
+		updateTimeMax.set(0);
+	}
+	
+	private void onUpdateCompleted(long time) {
+		updateCount.incrementAndGet();
+		updateTimeTotal.addAndGet(time);
+		updateTimeMax.accumulateAndGet(time, Math::max);
+	}
+	
 	public void add(SWGObject obj) {
 		move(obj);
 	}
@@ -88,13 +188,144 @@ public class TerrainMap {
 			moveInWorld(obj);
 	}
 	
+	/**
+	 * Adds every object of the specified type within <code>radius</code> meters of (x, z) that passes the filter to
+	 * the results.  Candidates are read straight from the chunk covering (x, z), and the results are not cleared
+	 * first - so a single buffer can be reused between queries.
+	 *
+	 * @param radius the flat radius to search, which may not exceed {@link #MAX_AWARENESS_RANGE}
+	 * @param results the collection to add matches to, or null if only the count is needed
+	 * @return the number of matching objects
+	 */
+	public <T extends SWGObject> int queryRadius(double x, double z, double radius, @NotNull Class<T> type, @NotNull Predicate<? super T> filter, @Nullable Collection<? super T> results) {
+		return queryRadius(getChunk(x, z), x, z, radius, type, filter, results);
+	}
+	
+	/**
+	 * Adds every object of the specified type within the cone starting at (x, z) that passes the filter to the
+	 * results.  The cone points along (dirX, dirZ) and extends <code>halfAngle</code> degrees to either side.
+	 *
+	 * @param length the length of the cone, which may not exceed {@link #MAX_AWARENESS_RANGE}
+	 * @param results the collection to add matches to, or null if only the count is needed
+	 * @return the number of matching objects
+	 */
+	public <T extends SWGObject> int queryCone(double x, double z, double dirX, double dirZ, double length, double halfAngle, @NotNull Class<T> type, @NotNull Predicate<? super T> filter, @Nullable Collection<? super T> results) {
+		return queryCone(getChunk(x, z), x, z, dirX, dirZ, length, halfAngle, type, filter, results);
+	}
+	
+	/**
+	 * Returns the closest object of the specified type within <code>radius</code> meters of (x, z) that passes the
+	 * filter, or null if there is none
+	 */
+	@Nullable
+	public <T extends SWGObject> T queryNearest(double x, double z, double radius, @NotNull Class<T> type, @NotNull Predicate<? super T> filter) {
+		return queryNearest(getChunk(x, z), x, z, radius, type, filter);
+	}
+	
+	static <T extends SWGObject> int queryRadius(@Nullable TerrainMapChunk chunk, double x, double z, double radius, Class<T> type, Predicate<? super T> filter, @Nullable Collection<? super T> results) {
+		checkQueryRange(radius);
+		if (chunk == null)
+			return 0;
+		double radiusSquared = radius * radius;
+		int matches = 0;
+		for (SWGObject obj : chunk.neighborhoodObjects()) {
+			if (!type.isInstance(obj))
+				continue;
+			Location world = obj.getParent() == null ? null : obj.getWorldLocation();
+			double dx = (world == null ? obj.getX() : world.getX()) - x;
+			double dz = (world == null ? obj.getZ() : world.getZ()) - z;
+			if (dx*dx + dz*dz > radiusSquared)
+				continue;
+			T match = type.cast(obj);
+			if (!filter.test(match))
+				continue;
+			if (results != null)
+				results.add(match);
+			matches++;
+		}
+		return matches;
+	}
+	
+	static <T extends SWGObject> int queryCone(@Nullable TerrainMapChunk chunk, double x, double z, double dirX, double dirZ, double length, double halfAngle, Class<T> type, Predicate<? super T> filter, @Nullable Collection<? super T> results) {
+		checkQueryRange(length);
+		if (chunk == null)
+			return 0;
+		double lengthSquared = length * length;
+		double direction = Math.atan2(dirZ, dirX);
+		double maxAngle = Math.toRadians(halfAngle);
+		int matches = 0;
+		for (SWGObject obj : chunk.neighborhoodObjects()) {
+			if (!type.isInstance(obj))
+				continue;
+			Location world = obj.getParent() == null ? null : obj.getWorldLocation();
+			double dx = (world == null ? obj.getX() : world.getX()) - x;
+			double dz = (world == null ? obj.getZ() : world.getZ()) - z;
+			if (dx*dx + dz*dz > lengthSquared)
+				continue;
+			double angle = Math.abs(Math.atan2(dz, dx) - direction);
+			if (angle > Math.PI)
+				angle = 2*Math.PI - angle;
+			if (angle > maxAngle)
+				continue;
+			T match = type.cast(obj);
+			if (!filter.test(match))
+				continue;
+			if (results != null)
+				results.add(match);
+			matches++;
+		}
+		return matches;
+	}
+	
+	@Nullable
+	static <T extends SWGObject> T queryNearest(@Nullable TerrainMapChunk chunk, double x, double z, double radius, Class<T> type, Predicate<? super T> filter) {
+		checkQueryRange(radius);
+		if (chunk == null)
+			return null;
+		double closestSquared = radius * radius;
+		T closest = null;
+		for (SWGObject obj : chunk.neighborhoodObjects()) {
+			if (!type.isInstance(obj))
+				continue;
+			Location world = obj.getParent() == null ? null : obj.getWorldLocation();
+			double dx = (world == null ? obj.getX() : world.getX()) - x;
+			double dz = (world == null ? obj.getZ() : world.getZ()) - z;
+			double distanceSquared = dx*dx + dz*dz;
+			if (distanceSquared > closestSquared)
+				continue;
+			T match = type.cast(obj);
+			if (!filter.test(match))
+				continue;
+			closest = match;
+			closestSquared = distanceSquared;
+		}
+		return closest;
+	}
+	
+	private static void checkQueryRange(double range) {
+		// A chunk's neighborhood is only guaranteed to cover this far from any point within the chunk
+		if (range > MAX_AWARENESS_RANGE)
+			throw new IllegalArgumentException("Query range " + range + " exceeds the maximum of " + MAX_AWARENESS_RANGE);
+	}
+	
+	private TerrainMapChunk getChunk(double x, double z) {
+		int chunkCount = chunkCountAcross;
+		int indX = ((int) x + MAP_WIDTH/2) >> indexFactor;
+		int indZ = ((int) z + MAP_WIDTH/2) >> indexFactor;
+		indX = (indX < 0) ? 0 : (indX >= chunkCount ? chunkCount-1 : indX);
+		indZ = (indZ < 0) ? 0 : (indZ >= chunkCount ? chunkCount-1 : indZ);
+		return chunks[indZ*chunkCount+indX];
+	}
+	
 	private void moveInParent(SWGObject obj, SWGObject superParent) {
 		TerrainMapChunk chunk = superParent.getAwareness().getTerrainMapChunk();
 		TerrainMapChunk current = obj.getAwareness().setTerrainMapChunk(chunk);
 		if (chunk == null)
 			return; // If the parent hasn't been added to awareness yet
 		
-		if (current != chunk) {
+		if (current == chunk) {
+			chunk.moveObject(obj);
+		} else {
 			if (current != null) {
 				current.removeObject(obj);
 			}
@@ -108,15 +339,12 @@ public class TerrainMap {
 	}
 	
 	private void moveInWorld(SWGObject obj) {
-		int chunkCount = CHUNK_COUNT_ACROSS;
-		int indX = (obj.getTruncX()+8192) >> INDEX_FACTOR;
-		int indZ = (obj.getTruncZ()+8192) >> INDEX_FACTOR;
-		indX = (indX < 0) ? 0 : (indX >= chunkCount ? chunkCount-1 : indX);
-		indZ = (indZ < 0) ? 0 : (indZ >= chunkCount ? chunkCount-1 : indZ);
-		TerrainMapChunk chunk = chunks[indZ*CHUNK_COUNT_ACROSS+indX];
+		TerrainMapChunk chunk = getChunk(obj.getTruncX(), obj.getTruncZ());
 		TerrainMapChunk current = obj.getAwareness().setTerrainMapChunk(chunk);
 		
-		if (current != chunk) {
+		if (current == chunk) {
+			chunk.moveObject(obj);
+		} else {
 			if (current != null) {
 				current.removeObject(obj);
 			}
@@ -129,14 +357,18 @@ public class TerrainMap {
 	}
 	
 	private void connectChunkNeighbors() {
-		for (int z = 0; z < CHUNK_COUNT_ACROSS; z++) {
-			for (int x = 0; x < CHUNK_COUNT_ACROSS; x++) {
-				TerrainMapChunk chunk = chunks[z*CHUNK_COUNT_ACROSS+x];
-				for (int tmpZ = cappedZero(z-1); tmpZ <= z+1 && tmpZ < CHUNK_COUNT_ACROSS; tmpZ++) {
-					for (int tmpX = cappedZero(x-1); tmpX <= x+1 && tmpX < CHUNK_COUNT_ACROSS; tmpX++) {
+		int radius = buildingNeighborRadius;
+		for (int z = 0; z < chunkCountAcross; z++) {
+			for (int x = 0; x < chunkCountAcross; x++) {
+				TerrainMapChunk chunk = chunks[z*chunkCountAcross+x];
+				for (int tmpZ = cappedZero(z-radius); tmpZ <= z+radius && tmpZ < chunkCountAcross; tmpZ++) {
+					for (int tmpX = cappedZero(x-radius); tmpX <= x+radius && tmpX < chunkCountAcross; tmpX++) {
 						if (x == tmpX && z == tmpZ)
 							continue;
-						chunk.link(chunks[tmpZ*CHUNK_COUNT_ACROSS+tmpX]);
+						TerrainMapChunk neighbor = chunks[tmpZ*chunkCountAcross+tmpX];
+						chunk.linkBuilding(neighbor);
+						if (Math.abs(tmpX - x) <= 1 && Math.abs(tmpZ - z) <= 1)
+							chunk.link(neighbor);
 					}
 				}
 			}
@@ -147,4 +379,29 @@ public class TerrainMap {
 		return x < 0 ? 0 : x;
 	}
 	
+	private static class ChunkUpdateTask extends RecursiveAction {
+		
+		private final TerrainMapChunk [] chunks;
+		private final int start;
+		private final int end;
+		
+		public ChunkUpdateTask(TerrainMapChunk [] chunks, int start, int end) {
+			this.chunks = chunks;
+			this.start = start;
+			this.end = end;
+		}
+		
+		@Override
+		protected void compute() {
+			if (end - start <= CHUNKS_PER_TASK) {
+				for (int i = start; i < end; i++)
+					chunks[i].update();
+			} else {
+				int middle = (start + end) >>> 1;
+				invokeAll(new ChunkUpdateTask(chunks, start, middle), new ChunkUpdateTask(chunks, middle, end));
+			}
+		}
+		
+	}
+	
 }
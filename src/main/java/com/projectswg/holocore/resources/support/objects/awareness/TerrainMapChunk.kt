@@ -26,12 +26,15 @@
  */
 package com.projectswg.holocore.resources.support.objects.awareness
 
+import com.projectswg.common.network.packets.swg.zone.baselines.Baseline.BaselineType
 import com.projectswg.holocore.resources.support.objects.swg.SWGObject
 import com.projectswg.holocore.resources.support.objects.swg.creature.CreatureObject
 import com.projectswg.holocore.resources.support.objects.swg.custom.AIObject
 import com.projectswg.holocore.resources.support.objects.swg.tangible.OptionFlag
 import java.util.*
+import java.util.concurrent.ConcurrentLinkedQueue
 import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.atomic.AtomicLong
 
 internal class TerrainMapChunk {
 	
@@ -39,7 +42,10 @@ internal class TerrainMapChunk {
 	private val npcObjects: CopyOnWriteArrayList<SWGObject> = CopyOnWriteArrayList()
 	private val creatures: CopyOnWriteArrayList<CreatureAware> = CopyOnWriteArrayList()
 	private val npcs: CopyOnWriteArrayList<CreatureAware> = CopyOnWriteArrayList()
+	private val movedObjects = ConcurrentLinkedQueue<SWGObject>()
+	private val candidateChanges = AtomicLong(0)
 	private var neighbors: Array<TerrainMapChunk?> = arrayOf(this)
+	private var buildingNeighbors: Array<TerrainMapChunk?> = arrayOf(this)
 	
 	fun link(neighbor: TerrainMapChunk) {
 		assert(this !== neighbor)
@@ -48,9 +54,41 @@ internal class TerrainMapChunk {
 		neighbors[length] = neighbor
 	}
 	
+	/**
+	 * Links a chunk that is close enough for buildings and cells within this chunk to be visible from it.  This is a
+	 * superset of the regular neighbors, see [TerrainMap.BUILDING_AWARENESS_RANGE]
+	 */
+	fun linkBuilding(neighbor: TerrainMapChunk) {
+		assert(this !== neighbor)
+		val length = buildingNeighbors.size
+		buildingNeighbors = buildingNeighbors.copyOf(length + 1)
+		buildingNeighbors[length] = neighbor
+	}
+	
+	/**
+	 * Notifies every chunk that can see the object that it moved without leaving this chunk, so that the creatures in
+	 * those chunks re-test it on their next update
+	 */
+	fun moveObject(obj: SWGObject) {
+		for (neighbor in getVisibleFrom(obj))
+			neighbor!!.movedObjects.add(obj)
+	}
+	
+	/**
+	 * Forces every creature that can see the object to re-test its entire awareness on the next update.  This is for
+	 * changes in visibility that don't involve any movement, such as new container permissions
+	 */
+	fun invalidateObject(obj: SWGObject) {
+		for (neighbor in getVisibleFrom(obj))
+			neighbor!!.candidateChanges.incrementAndGet()
+	}
+	
 	fun addObject(obj: SWGObject) {
-		for (neighbor in neighbors)
-			neighbor!!.objects.addIfAbsent(obj)
+		val visibleFrom = getVisibleFrom(obj)
+		for (neighbor in visibleFrom) {
+			neighbor!!.candidateChanges.incrementAndGet()
+			neighbor.objects.addIfAbsent(obj)
+		}
 		
 		if (obj is AIObject && !obj.hasOptionFlags(OptionFlag.INVULNERABLE)) {
 			for (neighbor in neighbors)
@@ -64,8 +102,9 @@ internal class TerrainMapChunk {
 	}
 	
 	fun removeObject(obj: SWGObject) {
-		for (neighbor in neighbors) {
-			neighbor!!.objects.remove(obj)
+		for (neighbor in getVisibleFrom(obj)) {
+			neighbor!!.candidateChanges.incrementAndGet()
+			neighbor.objects.remove(obj)
 			neighbor.npcObjects.remove(obj)
 		}
 		
@@ -75,24 +114,64 @@ internal class TerrainMapChunk {
 		}
 	}
 	
+	/**
+	 * Returns every object within this chunk and its neighbors.  The list is copy-on-write, so it can be iterated
+	 * directly without being copied first
+	 */
+	fun neighborhoodObjects(): List<SWGObject> = objects
+	
+	/**
+	 * Returns the chunks whose creatures may see the specified object while it is within this chunk
+	 */
+	private fun getVisibleFrom(obj: SWGObject): Array<TerrainMapChunk?> {
+		return when (obj.baselineType) {
+			BaselineType.BUIO, BaselineType.SCLT -> buildingNeighbors
+			else -> neighbors
+		}
+	}
+	
 	fun update() {
+		// Drained even if nobody is here to see them, so that they don't pile up in empty chunks
+		val moved = drainMovedObjects()
 		if (creatures.isEmpty())
 			return
 		
-		creatures.forEach { it.test(objects) }
-		npcs.forEach { it.test(npcObjects) }
+		val candidateChanges = this.candidateChanges.get()
+		creatures.forEach { it.test(objects, candidateChanges, moved) }
+		npcs.forEach { it.test(npcObjects, candidateChanges, moved) }
+	}
+	
+	private fun drainMovedObjects(): Set<SWGObject> {
+		var obj = movedObjects.poll() ?: return emptySet()
+		val moved = HashSet<SWGObject>()
+		while (true) {
+			moved.add(obj)
+			obj = movedObjects.poll() ?: return moved
+		}
 	}
 	
 	private class CreatureAware(val creature: CreatureObject) {
 		
 		private val aware = DoubleBufferedAwareness()
+		private val awareSet = HashSet<SWGObject>()
+		private var lastCandidateChanges = -1L
+		private var ticksSinceTest = 0
 		
-		fun test(tests: List<SWGObject>) {
+		fun test(tests: List<SWGObject>, candidateChanges: Long, moved: Set<SWGObject>) {
+			if (!isTestRequired(candidateChanges, moved)) {
+				creature.flushAwareness()
+				return
+			}
+			lastCandidateChanges = candidateChanges
+			ticksSinceTest = 0
+			
 			val buffer = aware.buffer
 			buffer.clear()
+			awareSet.clear()
 			for (test in tests) {
 				if (creature.isWithinAwarenessRange(test)) {
 					buffer.add(test)
+					awareSet.add(test)
 				}
 			}
 			creature.setAware(AwarenessType.OBJECT, aware.readOnlyBuffer)
@@ -100,6 +179,23 @@ internal class TerrainMapChunk {
 			aware.flipBuffer()
 		}
 		
+		/**
+		 * A full re-test is only needed if this creature moved, the candidates it tests against changed, or one of the
+		 * objects that moved has crossed in or out of range
+		 */
+		private fun isTestRequired(candidateChanges: Long, moved: Set<SWGObject>): Boolean {
+			if (candidateChanges != lastCandidateChanges || moved.contains(creature))
+				return true
+			// NPC awareness also depends on state like factions and PvP flags, which is re-checked periodically
+			if (creature is AIObject && ++ticksSinceTest >= NPC_FULL_TEST_INTERVAL)
+				return true
+			for (obj in moved) {
+				if (creature.isWithinAwarenessRange(obj) != awareSet.contains(obj))
+					return true
+			}
+			return false
+		}
+		
 	}
 	
 	private class DoubleBufferedAwareness {
@@ -119,4 +215,11 @@ internal class TerrainMapChunk {
 		
 	}
 	
+	companion object {
+		
+		/** Number of updates an NPC may skip before its awareness is re-tested regardless of movement */
+		private const val NPC_FULL_TEST_INTERVAL = 10
+		
+	}
+	
 }
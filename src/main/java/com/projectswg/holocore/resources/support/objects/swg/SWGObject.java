@@ -67,33 +67,42 @@ import org.jetbrains.annotations.Nullable;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public abstract class SWGObject extends BaselineObject implements Comparable<SWGObject>, MongoPersistable {
 	
+	private static final StringId EMPTY_STRING_ID = new StringId("", "");
+	/** Slot definitions shared by every object with the same slot descriptor */
+	private static final Map<List<String>, Map<String, SlotDefinition>> SHARED_SLOTS = new ConcurrentHashMap<>();
+	private static final AtomicIntegerFieldUpdater<SWGObject> UPDATE_COUNTER = AtomicIntegerFieldUpdater.newUpdater(SWGObject.class, "updateCounter");
+	
 	private final long 								objectId;
 	private final InstanceLocation 					location		= new InstanceLocation();
-	private final Set<SWGObject>					containedObjects= new CopyOnWriteArraySet<>();
-	private final Map <String, SWGObject>			slots			= new ConcurrentHashMap<>();
-	private final Map<String, SlotDefinition>		slotsAvailable	= new ConcurrentHashMap<>();
 	private final ObjectAware						awareness		= new ObjectAware();
-	private final Set<CreatureObject>				observers		= ConcurrentHashMap.newKeySet();
-	private final Map<ObjectDataAttribute, Object>	dataAttributes	= new EnumMap<>(ObjectDataAttribute.class);
-	private final Map<ServerAttribute, Object>		serverAttributes= new EnumMap<>(ServerAttribute.class);
-	private final AtomicInteger						updateCounter	= new AtomicInteger(1);
-	private final Set<SWGObject>					containedObjectsView	= Collections.unmodifiableSet(containedObjects);
-	private final Collection<SWGObject>				slottedObjectsView		= Collections.unmodifiableCollection(slots.values());
+	
+	// Most objects never hold children, observers or server attributes, so these are only allocated when first needed
+	private volatile Set<SWGObject>					containedObjects		= null;
+	private volatile Map<String, SWGObject>			slots					= null;
+	private volatile Set<CreatureObject>			observers				= null;
+	private volatile Set<SWGObject>					containedObjectsView	= Collections.emptySet();
+	private volatile Collection<SWGObject>			slottedObjectsView		= Collections.emptyList();
+	private Map<ServerAttribute, Object>			serverAttributes		= null;
+	// Shared with the template until the attributes of this object are changed
+	private Map<ObjectDataAttribute, Object>		dataAttributes			= Collections.emptyMap();
+	private boolean									dataAttributesShared	= true;
+	private Map<String, SlotDefinition>				slotsAvailable			= Collections.emptyMap();
+	private volatile int							updateCounter			= 1;
 	
 	private GameObjectType 				gameObjectType	= GameObjectType.GOT_NONE;
 	private ContainerPermissions		permissions		= DefaultPermissions.getPermissions();
-	private List <List <String>>		arrangement		= new ArrayList<>();
+	private List <List <String>>		arrangement		= List.of();
 	
 	private SWGObject	parent			= null;
-	private StringId 	stringId		= new StringId("", "");
-	private StringId 	detailStringId	= new StringId("", "");
+	private StringId 	stringId		= EMPTY_STRING_ID;
+	private StringId 	detailStringId	= EMPTY_STRING_ID;
 	private String		template		= "";
 	private int			crc				= 0;
 	private int			cashBalance		= 0;
@@ -110,6 +119,7 @@ public abstract class SWGObject extends BaselineObject implements Comparable<SWG
 	private boolean		generated		= true;
 	private boolean		persisted		= false;
 	private boolean 	noTrade			= false;
+	private volatile boolean dirty		= true;
 	
 	public SWGObject() {
 		this(0, null);
@@ -146,7 +156,7 @@ public abstract class SWGObject extends BaselineObject implements Comparable<SWG
 	}
 	
 	private void addContainedObject(SWGObject object) {
-		containedObjects.add(object);
+		getOrCreateContainedObjects().add(object);
 		
 		// We need to adjust the volume of our container accordingly!
 		setVolume(getVolume() + object.getVolume() + 1);
@@ -155,14 +165,43 @@ public abstract class SWGObject extends BaselineObject implements Comparable<SWG
 		object.slotArrangement = -1;
 		object.parent = this;
 		object.setTerrain(getTerrain());
+		object.markDirty();
 		onAddedChild(object);
 	}
 	
+	private Set<SWGObject> getOrCreateContainedObjects() {
+		Set<SWGObject> containedObjects = this.containedObjects;
+		if (containedObjects == null) {
+			synchronized (this) {
+				containedObjects = this.containedObjects;
+				if (containedObjects == null) {
+					this.containedObjects = containedObjects = new CopyOnWriteArraySet<>();
+					this.containedObjectsView = Collections.unmodifiableSet(containedObjects);
+				}
+			}
+		}
+		return containedObjects;
+	}
+	
+	private Map<String, SWGObject> getOrCreateSlots() {
+		Map<String, SWGObject> slots = this.slots;
+		if (slots == null) {
+			synchronized (this) {
+				slots = this.slots;
+				if (slots == null) {
+					this.slots = slots = new ConcurrentHashMap<>();
+					this.slottedObjectsView = Collections.unmodifiableCollection(slots.values());
+				}
+			}
+		}
+		return slots;
+	}
+	
 	private void addSlottedObject(SWGObject object, List<String> slots, int arrangementId) {
 		boolean observeWithParent = false;
 		handleSlotReplacement(object.parent, object, slots);
 		for (String requiredSlot : slots) {
-			this.slots.put(requiredSlot, object);
+			getOrCreateSlots().put(requiredSlot, object);
 			SlotDefinition def = slotsAvailable.get(requiredSlot);
 			observeWithParent |= def.isObserveWithParent();
 		}
@@ -170,6 +209,7 @@ public abstract class SWGObject extends BaselineObject implements Comparable<SWG
 		object.slotArrangement = arrangementId;
 		object.parent = this;
 		object.setTerrain(getTerrain());
+		object.markDirty();
 		onAddedChild(object);
 	}
 	
@@ -179,7 +219,9 @@ public abstract class SWGObject extends BaselineObject implements Comparable<SWG
 	 */
 	public void removeObject(SWGObject object) {
 		if (object.getSlotArrangement() == -1) {
-			containedObjects.remove(object);
+			Set<SWGObject> containedObjects = this.containedObjects;
+			if (containedObjects != null)
+				containedObjects.remove(object);
 			
 			// We need to adjust the volume of our container accordingly!
 			setVolume(getVolume() - object.getVolume() - 1);
@@ -191,11 +233,15 @@ public abstract class SWGObject extends BaselineObject implements Comparable<SWG
 		object.parent = null;
 		object.observeWithParent = true;
 		object.slotArrangement = -1;
+		object.markDirty();
 		
 		onRemovedChild(object);
 	}
 	
 	private void removeSlottedObject(SWGObject object) {
+		Map<String, SWGObject> slots = this.slots;
+		if (slots == null)
+			return;
 		List<List<String>> arrangements = object.getArrangement();
 		
 		for (List<String> possibleSlots : arrangements) {
@@ -423,13 +469,16 @@ public abstract class SWGObject extends BaselineObject implements Comparable<SWG
 	 * @return The {@link SWGObject} occupying the slot. Returns null if there is nothing in the slot or it doesn't exist.
 	 */
 	public SWGObject getSlottedObject(String slotName) {
-		return slots.get(slotName);
+		Map<String, SWGObject> slots = this.slots;
+		return slots == null ? null : slots.get(slotName);
 	}
 	
 	public Collection<SWGObject> getChildObjects() {
-		Set<SWGObject> ret = new HashSet<>(containedObjects.size() + slots.size());
+		Collection<SWGObject> containedObjects = getContainedObjects();
+		Collection<SWGObject> slottedObjects = getSlottedObjects();
+		Set<SWGObject> ret = new HashSet<>(containedObjects.size() + slottedObjects.size());
 		ret.addAll(containedObjects);
-		ret.addAll(slots.values());
+		ret.addAll(slottedObjects);
 		ret.remove(null);
 		return ret;
 	}
@@ -468,9 +517,7 @@ public abstract class SWGObject extends BaselineObject implements Comparable<SWG
 	}
 	
 	public void setSlots(@NotNull Collection<String> slots) {
-		this.slotsAvailable.clear();
-		for (String slot : slots)
-			this.slotsAvailable.put(slot, DataLoader.Companion.slotDefinitions().getSlotDefinition(slot));
+		this.slotsAvailable = SHARED_SLOTS.computeIfAbsent(List.copyOf(slots), SWGObject::createSlotDefinitions);
 	}
 	
 	@NotNull
@@ -487,6 +534,13 @@ public abstract class SWGObject extends BaselineObject implements Comparable<SWG
 		return slotsAvailable.containsKey(slotName);
 	}
 	
+	private static Map<String, SlotDefinition> createSlotDefinitions(List<String> slots) {
+		Map<String, SlotDefinition> definitions = new LinkedHashMap<>();
+		for (String slot : slots)
+			definitions.put(slot, Objects.requireNonNull(DataLoader.Companion.slotDefinitions().getSlotDefinition(slot), slot));
+		return Collections.unmodifiableMap(definitions);
+	}
+	
 	public boolean isObserveWithParent() {
 		if (observeWithParent) {
 			SWGObject parent = this.parent;
@@ -497,7 +551,8 @@ public abstract class SWGObject extends BaselineObject implements Comparable<SWG
 	
 	@NotNull
 	public Map<String, SWGObject> getSlots() {
-		return Collections.unmodifiableMap(slots);
+		Map<String, SWGObject> slots = this.slots;
+		return slots == null ? Collections.emptyMap() : Collections.unmodifiableMap(slots);
 	}
 	
 	@NotNull
@@ -509,6 +564,7 @@ public abstract class SWGObject extends BaselineObject implements Comparable<SWG
 		if (parent != null && location.getTerrain() != parent.getTerrain())
 			throw new IllegalArgumentException("Attempted to set different terrain from parent!");
 		this.location.setLocation(location);
+		markDirty();
 		updateChildrenTerrain();
 	}
 	
@@ -517,6 +573,7 @@ public abstract class SWGObject extends BaselineObject implements Comparable<SWG
 			throw new IllegalArgumentException("Attempted to set different terrain from parent!");
 		if (location.getTerrain() != terrain) {
 			location.setTerrain(terrain);
+			markDirty();
 			updateChildrenTerrain();
 		}
 	}
@@ -525,31 +582,36 @@ public abstract class SWGObject extends BaselineObject implements Comparable<SWG
 		if (parent != null && terrain != parent.getTerrain())
 			throw new IllegalArgumentException("Attempted to set different terrain from parent!");
 		location.setPosition(terrain, x, y, z);
+		markDirty();
 		updateChildrenTerrain();
 	}
 	
 	public void setPosition(double x, double y, double z) {
 		location.setPosition(x, y, z);
+		markDirty();
 	}
 	
 	public void setOrientation(double oX, double oY, double oZ, double oW) {
 		location.setOrientation(oX, oY, oZ, oW);
+		markDirty();
 	}
 	
 	public void setHeading(double heading) {
 		location.setHeading(heading);
+		markDirty();
 	}
 	
 	public void setInstance(InstanceType instanceType, int instanceNumber) {
 		location.setInstance(instanceType, instanceNumber);
+		markDirty();
 	}
 	
 	private void updateChildrenTerrain() {
 		Terrain terrain = getTerrain();
-		for (SWGObject child : containedObjects) {
+		for (SWGObject child : getContainedObjects()) {
 			child.setTerrain(terrain);
 		}
-		for (SWGObject child : slots.values()) {
+		for (SWGObject child : getSlottedObjects()) {
 			child.setTerrain(terrain);
 		}
 	}
@@ -658,14 +720,17 @@ public abstract class SWGObject extends BaselineObject implements Comparable<SWG
 	
 	public void setStf(String stfFile, String stfKey) {
 		this.stringId = new StringId(stfFile, stfKey);
+		markDirty();
 	}
 	
 	public void setStringId(StringId stringId) {
 		this.stringId = stringId;
+		markDirty();
 	}
 	
 	public void setDetailStf(StringId detailStringId) {
 		this.detailStringId = detailStringId;
+		markDirty();
 	}
 	
 	public void setTemplate(String template) {
@@ -838,31 +903,35 @@ public abstract class SWGObject extends BaselineObject implements Comparable<SWG
 	}
 	
 	public Object getServerAttribute(ServerAttribute key) {
-		return serverAttributes.get(key);
+		Map<ServerAttribute, Object> serverAttributes = this.serverAttributes;
+		return serverAttributes == null ? null : serverAttributes.get(key);
 	}
 	
 	public int getServerIntAttribute(ServerAttribute key) {
-		return ((Number) serverAttributes.get(key)).intValue();
+		return ((Number) getServerAttribute(key)).intValue();
 	}
 	
 	public long getServerLongAttribute(ServerAttribute key) {
-		return ((Number) serverAttributes.get(key)).longValue();
+		return ((Number) getServerAttribute(key)).longValue();
 	}
 	
 	public double getServerDoubleAttribute(ServerAttribute key) {
-		return ((Number) serverAttributes.get(key)).doubleValue();
+		return ((Number) getServerAttribute(key)).doubleValue();
 	}
 	
 	public String getServerTextAttribute(ServerAttribute key) {
-		return (String) serverAttributes.get(key);
+		return (String) getServerAttribute(key);
 	}
 	
 	public StringId getServerStfAttribute(ServerAttribute key) {
-		return (StringId) serverAttributes.get(key);
+		return (StringId) getServerAttribute(key);
 	}
 
 	public void setServerAttribute(ServerAttribute key, Object value) {
+		if (serverAttributes == null)
+			serverAttributes = new EnumMap<>(ServerAttribute.class);
 		serverAttributes.put(key, value);
+		markDirty();
 	}
 	
 	public Object getDataAttribute(ObjectDataAttribute key) {
@@ -890,9 +959,26 @@ public abstract class SWGObject extends BaselineObject implements Comparable<SWG
 	}
 
 	public void setDataAttribute(ObjectDataAttribute key, Object value) {
+		if (dataAttributesShared) {
+			Map<ObjectDataAttribute, Object> copy = new EnumMap<>(ObjectDataAttribute.class);
+			copy.putAll(dataAttributes);
+			dataAttributes = copy;
+			dataAttributesShared = false;
+		}
 		dataAttributes.put(key, value);
 	}
 	
+	/**
+	 * Shares the attributes of this object's template, rather than copying them.  The map is never modified through
+	 * this object - the first call to {@link #setDataAttribute(ObjectDataAttribute, Object)} makes a private copy.
+	 *
+	 * @param templateAttributes the attributes loaded for this object's template
+	 */
+	public void setTemplateDataAttributes(@NotNull Map<ObjectDataAttribute, Object> templateAttributes) {
+		dataAttributes = templateAttributes;
+		dataAttributesShared = true;
+	}
+	
 	public ObjectAware getAwareness() {
 		return awareness;
 	}
@@ -907,6 +993,7 @@ public abstract class SWGObject extends BaselineObject implements Comparable<SWG
 	
 	public void setNoTrade(boolean noTrade) {
 		this.noTrade = noTrade;
+		markDirty();
 	}
 	
 	public AttributeList getAttributeList(CreatureObject viewer) {
@@ -940,7 +1027,7 @@ public abstract class SWGObject extends BaselineObject implements Comparable<SWG
 	}
 	
 	public int getNextUpdateCount() {
-		return updateCounter.getAndIncrement();
+		return UPDATE_COUNTER.getAndIncrement(this);
 	}
 	
 	public void setGenerated(boolean generated) {
@@ -961,6 +1048,8 @@ public abstract class SWGObject extends BaselineObject implements Comparable<SWG
 	
 	public void setContainerPermissions(ContainerPermissions permissions) {
 		this.permissions = permissions;
+		awareness.invalidate(this);
+		markDirty();
 	}
 	
 	public boolean isGenerated() {
@@ -973,6 +1062,30 @@ public abstract class SWGObject extends BaselineObject implements Comparable<SWG
 	
 	public void setPersisted(boolean persisted) {
 		this.persisted = persisted;
+		markDirty();
+	}
+	
+	/**
+	 * Flags this object as having changed since it was last written to the database
+	 */
+	public void markDirty() {
+		if (!dirty) // Avoids a volatile write for objects that are already dirty, such as moving NPCs
+			dirty = true;
+	}
+	
+	public boolean isDirty() {
+		return dirty;
+	}
+	
+	/**
+	 * Clears the dirty flag ahead of this object being serialized
+	 * @return TRUE if the object was dirty, FALSE otherwise
+	 */
+	public boolean clearDirty() {
+		if (!dirty)
+			return false;
+		dirty = false;
+		return true;
 	}
 	
 	/**
@@ -983,6 +1096,7 @@ public abstract class SWGObject extends BaselineObject implements Comparable<SWG
 	public int getArrangementId(SWGObject child) {
 		if (slotsAvailable.isEmpty() || child.getArrangement() == null)
 			return -1;
+		Map<String, SWGObject> slots = getSlots();
 		
 		int arrangementId = -1;
 		int slotSize = Integer.MAX_VALUE;
@@ -1065,19 +1179,34 @@ public abstract class SWGObject extends BaselineObject implements Comparable<SWG
 	}
 	
 	public Set<CreatureObject> getObserverCreatures() {
-		return Collections.unmodifiableSet(observers);
+		return Collections.unmodifiableSet(observerSet());
 	}
 	
 	public Set<Player> getObservers() {
-		return observers.stream().map(CreatureObject::getOwnerShallow).filter(Objects::nonNull).collect(Collectors.toSet());
+		return observerSet().stream().map(CreatureObject::getOwnerShallow).filter(Objects::nonNull).collect(Collectors.toSet());
 	}
 	
 	public void addObserver(CreatureObject player) {
+		Set<CreatureObject> observers = this.observers;
+		if (observers == null) {
+			synchronized (this) {
+				observers = this.observers;
+				if (observers == null)
+					this.observers = observers = ConcurrentHashMap.newKeySet();
+			}
+		}
 		observers.add(player);
 	}
 	
 	public void removeObserver(CreatureObject player) {
-		observers.remove(player);
+		Set<CreatureObject> observers = this.observers;
+		if (observers != null)
+			observers.remove(player);
+	}
+	
+	private Set<CreatureObject> observerSet() {
+		Set<CreatureObject> observers = this.observers;
+		return observers == null ? Collections.emptySet() : observers;
 	}
 	
 	public Set<SWGObject> getAware() {
@@ -1093,31 +1222,31 @@ public abstract class SWGObject extends BaselineObject implements Comparable<SWG
 	}
 	
 	public void sendObservers(SWGPacket packet) {
-		for (CreatureObject observer : observers) {
+		for (CreatureObject observer : observerSet()) {
 			observer.sendSelf(packet);
 		}
 	}
 	
 	public void sendObservers(SWGPacket packet1, SWGPacket packet2) {
-		for (CreatureObject observer : observers) {
+		for (CreatureObject observer : observerSet()) {
 			observer.sendSelf(packet1, packet2);
 		}
 	}
 	
 	public void sendObservers(SWGPacket packet1, SWGPacket packet2, SWGPacket packet3) {
-		for (CreatureObject observer : observers) {
+		for (CreatureObject observer : observerSet()) {
 			observer.sendSelf(packet1, packet2, packet3);
 		}
 	}
 	
 	public void sendObservers(SWGPacket packet1, SWGPacket packet2, SWGPacket packet3, SWGPacket packet4) {
-		for (CreatureObject observer : observers) {
+		for (CreatureObject observer : observerSet()) {
 			observer.sendSelf(packet1, packet2, packet3, packet4);
 		}
 	}
 	
 	public void sendObservers(SWGPacket packet1, SWGPacket packet2, SWGPacket packet3, SWGPacket packet4, SWGPacket packet5) {
-		for (CreatureObject observer : observers) {
+		for (CreatureObject observer : observerSet()) {
 			observer.sendSelf(packet1, packet2, packet3, packet4, packet5);
 		}
 	}
@@ -1281,7 +1410,7 @@ public abstract class SWGObject extends BaselineObject implements Comparable<SWG
 		data.putString("template", template);
 		data.putDocument("location", location);
 		data.putDocument("permissions", ContainerPermissions.save(new MongoData(), permissions));
-		data.putMap("serverAttributes", serverAttributes, ServerAttribute::getKey, Function.identity());
+		data.putMap("serverAttributes", serverAttributes == null ? Map.of() : serverAttributes, ServerAttribute::getKey, Function.identity());
 		data.putBoolean("persisted", persisted);
 		data.putBoolean("noTrade", noTrade);
 	}
@@ -1307,7 +1436,7 @@ public abstract class SWGObject extends BaselineObject implements Comparable<SWG
 		}
 		location.readMongo(data.getDocument("location"));
 		permissions = ContainerPermissions.create(data.getDocument("permissions"));
-		data.getMap("serverAttributes", String.class, Object.class).forEach((key, val) -> serverAttributes.put(ServerAttribute.getFromKey(key), val));
+		data.getMap("serverAttributes", String.class, Object.class).forEach((key, val) -> setServerAttribute(ServerAttribute.getFromKey(key), val));
 		persisted = data.getBoolean("persisted", false);
 		noTrade = data.getBoolean("noTrade", false);
 	}
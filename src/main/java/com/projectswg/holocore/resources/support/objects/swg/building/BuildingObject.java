@@ -79,6 +79,7 @@ public class BuildingObject extends TangibleObject {
 	
 	public void setPlayerStructureInfo(@Nullable PlayerStructureInfo playerStructureInfo) {
 		this.playerStructureInfo = playerStructureInfo;
+		markDirty();
 	}
 	
 	@Override
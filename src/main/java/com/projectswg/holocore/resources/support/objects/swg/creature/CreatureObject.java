@@ -56,6 +56,7 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
@@ -69,7 +70,7 @@ public class CreatureObject extends TangibleObject {
 	private final Map<CreatureObject, Integer> hateMap = new HashMap<>();
 	private final List<CreatureObject>			sentDuels		= new ArrayList<>();
 	private final Set<Container>				containersOpen	= ConcurrentHashMap.newKeySet();
-	private final List<DeltasMessage>			pendingDeltas	= new ArrayList<>();
+	private final Queue<DeltasMessage>			pendingDeltas	= new ConcurrentLinkedQueue<>();
 	private final AtomicReference<Player>		owner			= new AtomicReference<>(null);
 	
 	private Race	race					= Race.HUMAN_MALE;
@@ -280,31 +281,24 @@ public class CreatureObject extends TangibleObject {
 	}
 
 	public void addDelta(DeltasMessage delta) {
-		synchronized (pendingDeltas) {
-			pendingDeltas.add(delta);
-		}
+		pendingDeltas.add(delta);
 	}
 
 	public void clearDeltas() {
-		if (pendingDeltas.isEmpty())
-			return;
-		synchronized (pendingDeltas) {
-			pendingDeltas.clear();
-		}
+		pendingDeltas.clear();
 	}
 
 	public void sendAndFlushAllDeltas() {
 		if (pendingDeltas.isEmpty())
 			return;
+		// Deltas may still be added concurrently, but only one thread may drain them so they are sent in order
 		synchronized (pendingDeltas) {
 			Player owner = getOwner();
-			if (owner != null) {
-				for (DeltasMessage delta : pendingDeltas) {
-					if (awareness.isAware(delta.getObjectId()))
-						owner.sendPacket(delta);
-				}
+			DeltasMessage delta;
+			while ((delta = pendingDeltas.poll()) != null) {
+				if (owner != null && awareness.isAware(delta.getObjectId()))
+					owner.sendPacket(delta);
 			}
-			pendingDeltas.clear();
 		}
 	}
 
@@ -392,6 +386,7 @@ public class CreatureObject extends TangibleObject {
 	
 	public void setRace(Race race) {
 		this.race = race;
+		markDirty();
 	}
 
 
@@ -899,6 +894,13 @@ public class CreatureObject extends TangibleObject {
 		creo6.modifyMind(mod);
 	}
 	
+	/**
+	 * Modifies health, action and mind at once, sending a single delta for all three
+	 */
+	public void modifyHam(int health, int action, int mind) {
+		creo6.modifyHam(health, action, mind);
+	}
+	
 	public void setMaxMind(int maxMind) {
 		creo6.setMaxMind(maxMind);
 	}
@@ -39,14 +39,17 @@ import com.projectswg.holocore.resources.support.objects.swg.SWGObject
 import com.projectswg.holocore.resources.support.objects.swg.cell.CellObject
 import com.projectswg.holocore.resources.support.objects.swg.custom.AIObject
 import java.util.*
+import java.util.concurrent.ConcurrentHashMap
 import java.util.concurrent.atomic.AtomicReference
 
 class CreatureObjectAwareness(private val creature: CreatureObject) {
 	
-	private val aware = HashSet<SWGObject>()
-	private val awareIds = HashSet<Long>()
+	// Only modified while synchronized, but concurrent so that delta fan-out can query without locking
+	private val aware: MutableSet<SWGObject> = ConcurrentHashMap.newKeySet()
+	private val awareIds: MutableSet<Long> = ConcurrentHashMap.newKeySet()
 	private val finalTeleportPacket = AtomicReference<SWGPacket>(null)
 	private val flushAwarenessData = FlushAwarenessData(creature)
+	private var awareVersion = -1L
 	
 	@Synchronized
 	fun setTeleportDestination(parent: SWGObject?, location: Location) {
@@ -98,6 +101,14 @@ class CreatureObjectAwareness(private val creature: CreatureObject) {
 	}
 	
 	private inline fun handleFlush(createHandler: (Collection<SWGObject>) -> Unit, intermediateCallback: () -> Unit, destroyHandler: (Collection<SWGObject>) -> Unit) {
+		// The version must be read before the awareness, otherwise a concurrent change could be missed
+		val version = creature.getAwareness().version
+		if (version == awareVersion) {
+			intermediateCallback()
+			return
+		}
+		awareVersion = version
+		
 		val newAware = creature.aware
 		handleFlushCreate(newAware, createHandler)
 		intermediateCallback()
@@ -146,10 +157,11 @@ class CreatureObjectAwareness(private val creature: CreatureObject) {
 		}
 		aware.clear()
 		awareIds.clear()
+		awareVersion = -1
 	}
 	
-	@Synchronized fun isAware(objectId: Long) = awareIds.contains(objectId)
-	@Synchronized fun isAware(obj: SWGObject) = aware.contains(obj)
+	fun isAware(objectId: Long) = awareIds.contains(objectId)
+	fun isAware(obj: SWGObject) = aware.contains(obj)
 	
 	private fun createObject(obj: SWGObject, target: Player) {
 		val id = obj.objectId
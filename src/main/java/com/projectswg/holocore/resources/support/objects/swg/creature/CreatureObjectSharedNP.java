@@ -304,6 +304,10 @@ class CreatureObjectSharedNP implements MongoPersistable {
 		attributes.modifyMind(mod, maxAttributes.getMind());
 	}
 	
+	public void modifyHam(int health, int action, int mind) {
+		attributes.modifyHam(health, action, mind, maxAttributes);
+	}
+	
 	public void setMaxMind(int maxMind) {
 		maxAttributes.setMind(maxMind);
 	}
@@ -38,7 +38,7 @@ import java.util.concurrent.locks.ReentrantLock
 import kotlin.concurrent.withLock
 import kotlin.reflect.KProperty
 
-class AttributesMutable(obj: SWGObject, type: Int, update: Int) : Attributes, Encodable, MongoPersistable {
+class AttributesMutable(private val obj: SWGObject, type: Int, update: Int) : Attributes, Encodable, MongoPersistable {
 	
 	private val ham: SWGList<Int> = SWGList.createIntList(type, update)
 	private val lock = ReentrantLock()
@@ -94,6 +94,19 @@ class AttributesMutable(obj: SWGObject, type: Int, update: Int) : Attributes, En
 		lock.withLock { this.mindRegen = this.mindRegen.addUntilMax(mindRegen, max) }
 	}
 	
+	/**
+	 * Modifies health, action and mind together, sending one delta that covers every value that changed
+	 */
+	fun modifyHam(health: Int, action: Int, mind: Int, max: Attributes) {
+		lock.withLock {
+			var changed = updateUntilMax(0, health, max.health)
+			changed = updateUntilMax(2, action, max.action) || changed
+			changed = updateUntilMax(4, mind, max.mind) || changed
+			if (changed)
+				ham.sendDeltaMessage(obj)
+		}
+	}
+	
 	override fun readMongo(data: MongoData) {
 		health = data.getInteger("health", 0)
 		healthRegen = data.getInteger("healthRegen", 0)
@@ -125,6 +138,17 @@ class AttributesMutable(obj: SWGObject, type: Int, update: Int) : Attributes, En
 	
 	private fun Int.addUntilMax(num: Int, max: Int): Int = Math.max(0, Math.min(max, this + num))
 	
+	private fun updateUntilMax(index: Int, num: Int, max: Int): Boolean {
+		if (num == 0)
+			return false
+		val current = ham[index]
+		val updated = current.addUntilMax(num, max)
+		if (current == updated)
+			return false
+		ham[index] = updated
+		return true
+	}
+	
 	private class SWGListDelegate(private val obj: SWGObject,
 								  private val lock: Lock,
 								  private val list: SWGList<Int>,
@@ -28,8 +28,10 @@ package com.projectswg.holocore.resources.support.objects.swg.custom;
 
 import com.projectswg.common.data.encodables.oob.StringId;
 import com.projectswg.common.data.location.Location;
+import com.projectswg.common.data.location.Terrain;
 import com.projectswg.common.network.packets.swg.zone.baselines.Baseline.BaselineType;
 import com.projectswg.common.network.packets.swg.zone.object_controller.ShowFlyText;
+import com.projectswg.holocore.intents.support.npc.ai.NpcMovedIntent;
 import com.projectswg.holocore.intents.support.npc.ai.ScheduleNpcModeIntent;
 import com.projectswg.holocore.intents.support.npc.ai.StartNpcCombatIntent;
 import com.projectswg.holocore.resources.support.color.SWGColor;
@@ -40,7 +42,6 @@ import com.projectswg.holocore.resources.support.objects.swg.creature.CreatureOb
 import com.projectswg.holocore.resources.support.objects.swg.creature.CreatureState;
 import com.projectswg.holocore.resources.support.objects.swg.tangible.OptionFlag;
 import com.projectswg.holocore.resources.support.objects.swg.weapon.WeaponObject;
-import me.joshlarson.jlcommon.concurrency.ScheduledThreadPool;
 import me.joshlarson.jlcommon.log.Log;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -51,11 +52,12 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class AIObject extends CreatureObject {
 	
 	private final Set<CreatureObject> playersNearby;
+	private final AtomicBoolean suspended;
 	private final List<WeaponObject> defaultWeapons;
 	private final List<WeaponObject> thrownWeapon;
 	private final SWGObject hiddenInventory;
@@ -64,21 +66,22 @@ public class AIObject extends CreatureObject {
 	private NpcMode defaultMode;
 	private NpcMode activeMode;
 	private Spawner spawner;
-	private ScheduledThreadPool executor;
-	private ScheduledFuture<?> previousScheduled;
+	private volatile AIScheduler scheduler;
+	private volatile AIScheduler.ScheduledLoop scheduledLoop;
 	private String creatureId;
 	private Instant questionMarkBlockedUntil;
 	
 	public AIObject(long objectId) {
 		super(objectId);
 		this.playersNearby = new CopyOnWriteArraySet<>();
+		this.suspended = new AtomicBoolean(false);
 		this.defaultWeapons = new ArrayList<>();
 		this.thrownWeapon = new ArrayList<>();
 		this.hiddenInventory = ObjectCreator.createObjectFromTemplate("object/tangible/inventory/shared_character_inventory.iff");
 		
 		this.spawner = null;
-		this.executor = null;
-		this.previousScheduled = null;
+		this.scheduler = null;
+		this.scheduledLoop = null;
 		this.defaultMode = null;
 		this.activeMode = null;
 		this.creatureId = null;
@@ -261,16 +264,35 @@ public class AIObject extends CreatureObject {
 		this.creatureId = creatureId;
 	}
 	
-	public void start(ScheduledThreadPool executor) {
-		this.executor = executor;
+	public void start(AIScheduler scheduler) {
+		this.scheduler = scheduler;
 		ScheduleNpcModeIntent.broadcast(this, null);
 	}
 	
 	public void stop() {
-		ScheduledFuture<?> prev = this.previousScheduled;
-		if (prev != null)
-			prev.cancel(false);
-		this.executor = null;
+		this.scheduler = null;
+		this.scheduledLoop = null;
+	}
+	
+	/**
+	 * Moves this NPC immediately, so that its next step is computed from where it actually is.  Awareness and observers
+	 * are updated by the awareness service on its next tick.
+	 *
+	 * @param parent the new parent, or null for the world
+	 * @param location the new location, relative to the parent
+	 * @param speed the speed observers see this NPC moving at
+	 */
+	public void moveTo(@Nullable SWGObject parent, @NotNull Location location, double speed) {
+		SWGObject oldParent;
+		Location oldLocation;
+		synchronized (this) { // The awareness service destroys objects while synchronized on them
+			if (getTerrain() == Terrain.GONE)
+				return;
+			oldParent = getParent();
+			oldLocation = getLocation();
+			systemMove(parent, location);
+		}
+		NpcMovedIntent.broadcast(this, oldParent, parent, oldLocation, location, speed);
 	}
 	
 	public void setDefaultMode(@NotNull NpcMode mode) {
@@ -283,17 +305,58 @@ public class AIObject extends CreatureObject {
 	}
 	
 	void queueNextLoop(long delay) {
-		ScheduledFuture<?> prev = this.previousScheduled;
-		if (prev != null)
-			prev.cancel(false);
-		previousScheduled = executor.execute(delay, this::loop);
+		AIScheduler scheduler = this.scheduler;
+		if (scheduler != null)
+			scheduler.schedule(this, delay);
+	}
+	
+	void setScheduledLoop(AIScheduler.ScheduledLoop loop) {
+		this.scheduledLoop = loop;
+	}
+	
+	boolean isScheduledLoop(AIScheduler.ScheduledLoop loop) {
+		return scheduledLoop == loop;
 	}
 	
 	final Set<CreatureObject> getNearbyPlayers() {
 		return Collections.unmodifiableSet(playersNearby);
 	}
 	
-	private void loop() {
+	@Override
+	public void addObserver(CreatureObject player) {
+		super.addObserver(player);
+		if (player.isLoggedInPlayer())
+			wake();
+	}
+	
+	/**
+	 * Returns TRUE if this NPC is out of combat and no logged in player is observing it.  Observers are based on the
+	 * players' awareness rather than this NPC's, so every NPC a player can see stays awake.  Dormant NPCs don't run their
+	 * AI, and their patrol routes are only caught up once they wake up
+	 * @return TRUE if this NPC is dormant, FALSE otherwise
+	 */
+	public boolean isDormant() {
+		if (isInCombat())
+			return false;
+		for (CreatureObject observer : getObserverCreatures()) {
+			if (observer.isLoggedInPlayer())
+				return false;
+		}
+		return true;
+	}
+	
+	private void wake() {
+		if (suspended.compareAndSet(true, false))
+			queueNextLoop(0);
+	}
+	
+	void loop() {
+		if (isDormant()) {
+			suspended.set(true);
+			// A player may have arrived after the check above, in which case wake() might have missed the suspension
+			if (isDormant() || !suspended.compareAndSet(true, false))
+				return;
+		}
 		try {
 			NpcMode mode = activeMode;
 			if (mode != null)
@@ -0,0 +1,293 @@
+/***********************************************************************************
+ * Copyright (c) 2022 /// Project SWG /// www.projectswg.com                       *
+ *                                                                                 *
+ * ProjectSWG is the first NGE emulator for Star Wars Galaxies founded on          *
+ * July 7th, 2011 after SOE announced the official shutdown of Star Wars Galaxies. *
+ * Our goal is to create an emulator which will provide a server for players to    *
+ * continue playing a game similar to the one they used to play. We are basing     *
+ * it on the final publish of the game prior to end-game events.                   *
+ *                                                                                 *
+ * This file is part of Holocore.                                                  *
+ *                                                                                 *
+ * --------------------------------------------------------------------------------*
+ *                                                                                 *
+ * Holocore is free software: you can redistribute it and/or modify                *
+ * it under the terms of the GNU Affero General Public License as                  *
+ * published by the Free Software Foundation, either version 3 of the              *
+ * License, or (at your option) any later version.                                 *
+ *                                                                                 *
+ * Holocore is distributed in the hope that it will be useful,                     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of                  *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                   *
+ * GNU Affero General Public License for more details.                             *
+ *                                                                                 *
+ * You should have received a copy of the GNU Affero General Public License        *
+ * along with Holocore.  If not, see <http://www.gnu.org/licenses/>.               *
+ ***********************************************************************************/
+package com.projectswg.holocore.resources.support.objects.swg.custom;
+
+import me.joshlarson.jlcommon.log.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs the behaviour loops of every {@link AIObject}.  Each NPC is assigned to a shard by its object id, and every
+ * shard owns a single thread and a hashed timing wheel.  Scheduling only appends to the shard's inbox, and
+ * rescheduling replaces the NPC's pending loop rather than cancelling it - the stale entry is skipped when its slot
+ * comes due.  Every tick, a shard runs all of the loops that are due as one batch on its own thread.
+ */
+public class AIScheduler {
+	
+	private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+	private static final int WHEEL_SIZE = 1024; // Covers ~10 seconds per rotation
+	private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+	
+	private final Shard [] shards;
+	
+	public AIScheduler() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+	
+	public AIScheduler(int shardCount) {
+		if (shardCount <= 0)
+			throw new IllegalArgumentException("shardCount must be positive");
+		this.shards = new Shard[shardCount];
+		for (int i = 0; i < shardCount; i++)
+			shards[i] = new Shard(i);
+	}
+	
+	public void start() {
+		long startTime = System.nanoTime();
+		for (Shard shard : shards)
+			shard.start(startTime);
+	}
+	
+	public void stop() {
+		for (Shard shard : shards)
+			shard.stop();
+	}
+	
+	public boolean awaitTermination(long timeout) {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+		try {
+			for (Shard shard : shards) {
+				long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+				if (!shard.awaitTermination(Math.max(1, remaining)))
+					return false;
+			}
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+	
+	/**
+	 * Schedules the next loop for the specified object, replacing any loop that is already pending
+	 * @param obj the object to loop
+	 * @param delay the delay in milliseconds
+	 */
+	void schedule(AIObject obj, long delay) {
+		shards[(int) Math.floorMod(obj.getObjectId(), (long) shards.length)].schedule(obj, delay);
+	}
+	
+	/**
+	 * Returns the number of loops that are waiting to run, including loops that have since been replaced
+	 * @return the total queue depth across every shard
+	 */
+	public int getQueueDepth() {
+		int depth = 0;
+		for (Shard shard : shards)
+			depth += shard.getQueueDepth();
+		return depth;
+	}
+	
+	public long getExecutedCount() {
+		long executed = 0;
+		for (Shard shard : shards)
+			executed += shard.executed.get();
+		return executed;
+	}
+	
+	/**
+	 * Returns the number of ticks that were processed more than one tick after they were due
+	 * @return the late tick count
+	 */
+	public long getLateTickCount() {
+		long late = 0;
+		for (Shard shard : shards)
+			late += shard.lateTicks.get();
+		return late;
+	}
+	
+	/**
+	 * Returns the largest delay between a tick being due and it being processed, in milliseconds
+	 * @return the maximum tick lateness
+	 */
+	public double getMaxTickLateness() {
+		long max = 0;
+		for (Shard shard : shards)
+			max = Math.max(max, shard.maxLateness.get());
+		return max / 1E6;
+	}
+	
+	public void resetStatistics() {
+		for (Shard shard : shards) {
+			shard.lateTicks.set(0);
+			shard.maxLateness.set(0);
+		}
+	}
+	
+	static final class ScheduledLoop {
+		
+		private final AIObject obj;
+		private final long delay;
+		private long tick;
+		
+		private ScheduledLoop(AIObject obj, long delay) {
+			this.obj = obj;
+			this.delay = delay;
+			this.tick = 0;
+		}
+		
+	}
+	
+	private static final class Shard implements Runnable {
+		
+		private final Queue<ScheduledLoop> inbox;
+		private final List<ScheduledLoop> [] wheel;
+		private final List<ScheduledLoop> due;
+		private final AtomicInteger inboxSize;
+		private final AtomicLong executed;
+		private final AtomicLong lateTicks;
+		private final AtomicLong maxLateness;
+		private final String name;
+		private volatile int wheelSize;
+		private volatile boolean running;
+		private Thread thread;
+		private long startTime;
+		private long currentTick;
+		
+		@SuppressWarnings("unchecked")
+		public Shard(int id) {
+			this.inbox = new ConcurrentLinkedQueue<>();
+			this.wheel = new List[WHEEL_SIZE];
+			this.due = new ArrayList<>();
+			this.inboxSize = new AtomicInteger(0);
+			this.executed = new AtomicLong(0);
+			this.lateTicks = new AtomicLong(0);
+			this.maxLateness = new AtomicLong(0);
+			this.name = "ai-scheduler-" + id;
+			this.wheelSize = 0;
+			this.running = false;
+			this.thread = null;
+			this.startTime = 0;
+			this.currentTick = 0;
+			for (int i = 0; i < WHEEL_SIZE; i++)
+				wheel[i] = new ArrayList<>();
+		}
+		
+		public void start(long startTime) {
+			this.startTime = startTime;
+			this.running = true;
+			this.thread = new Thread(this, name);
+			thread.start();
+		}
+		
+		public void stop() {
+			running = false;
+			Thread thread = this.thread;
+			if (thread != null)
+				LockSupport.unpark(thread);
+		}
+		
+		public boolean awaitTermination(long timeout) throws InterruptedException {
+			Thread thread = this.thread;
+			if (thread == null)
+				return true;
+			thread.join(timeout);
+			return !thread.isAlive();
+		}
+		
+		public void schedule(AIObject obj, long delay) {
+			ScheduledLoop loop = new ScheduledLoop(obj, delay);
+			obj.setScheduledLoop(loop); // Must be set before the loop can possibly run
+			inbox.add(loop);
+			inboxSize.incrementAndGet();
+		}
+		
+		public int getQueueDepth() {
+			return wheelSize + inboxSize.get();
+		}
+		
+		@Override
+		public void run() {
+			while (running) {
+				long now = System.nanoTime();
+				long nowTick = (now - startTime) / TICK_NANOS;
+				while (currentTick <= nowTick && running) {
+					long lateness = now - (startTime + currentTick * TICK_NANOS);
+					if (lateness > TICK_NANOS)
+						lateTicks.incrementAndGet();
+					if (lateness > maxLateness.get())
+						maxLateness.set(lateness);
+					
+					drainInbox();
+					runTick();
+					currentTick++;
+				}
+				LockSupport.parkNanos(startTime + currentTick * TICK_NANOS - System.nanoTime());
+			}
+		}
+		
+		private void drainInbox() {
+			ScheduledLoop loop;
+			int drained = 0;
+			while ((loop = inbox.poll()) != null) {
+				drained++;
+				// Round up to the next tick, and never schedule into a tick that has already been processed
+				loop.tick = Math.max(currentTick, currentTick + (loop.delay * 1_000_000L + TICK_NANOS - 1) / TICK_NANOS);
+				wheel[(int) (loop.tick & WHEEL_MASK)].add(loop);
+			}
+			inboxSize.addAndGet(-drained);
+			wheelSize += drained;
+		}
+		
+		private void runTick() {
+			List<ScheduledLoop> slot = wheel[(int) (currentTick & WHEEL_MASK)];
+			if (slot.isEmpty())
+				return;
+			// Loops further than one rotation away stay in the slot
+			int remaining = 0;
+			for (ScheduledLoop loop : slot) {
+				if (loop.tick <= currentTick)
+					due.add(loop);
+				else
+					slot.set(remaining++, loop);
+			}
+			slot.subList(remaining, slot.size()).clear();
+			wheelSize -= due.size();
+			
+			for (ScheduledLoop loop : due) {
+				if (!loop.obj.isScheduledLoop(loop))
+					continue; // Replaced or stopped since it was scheduled
+				try {
+					loop.obj.loop();
+				} catch (Throwable t) {
+					Log.e(t);
+				}
+				executed.incrementAndGet();
+			}
+			due.clear();
+		}
+		
+	}
+	
+}
@@ -79,6 +79,7 @@ public class PlayerObject extends IntangibleObject {
 
 	public void setAccount(String account) {
 		this.account = account;
+		markDirty();
 	}
 
 	public List<String> getJoinedChannels() {
@@ -111,10 +112,12 @@ public class PlayerObject extends IntangibleObject {
 
 	public void addMail(Mail m) {
 		this.mails.put(m.getId(), m);
+		markDirty();
 	}
 
 	public void removeMail(int id) {
 		this.mails.remove(id);
+		markDirty();
 	}
 	
 	public void removeMail(Mail m) {
@@ -230,6 +233,7 @@ public class PlayerObject extends IntangibleObject {
 	
 	public void setBiography(String biography) {
 		this.biography = biography;
+		markDirty();
 	}
 	
 	public Badges getBadges() {
@@ -254,6 +258,7 @@ public class PlayerObject extends IntangibleObject {
 	
 	public void setBornDate(int year, int month, int day) {
 		play3.setBornDate(year, month, day);
+		markDirty();
 	}
 	
 	public int getBornDate() {
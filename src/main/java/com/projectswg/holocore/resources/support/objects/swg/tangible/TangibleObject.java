@@ -106,6 +106,7 @@ public class TangibleObject extends SWGObject {
 	public void setRequiredSkill(String requiredSkill) {
 		if (!requiredSkill.isBlank()) {
 			this.requiredSkill = requiredSkill;
+			markDirty();
 		}
 	}
 	
@@ -115,6 +116,7 @@ public class TangibleObject extends SWGObject {
 	
 	public void setLightsaberColorCrystalElementalType(DamageType lightsaberColorCrystalElementalType) {
 		this.lightsaberColorCrystalElementalType = lightsaberColorCrystalElementalType;
+		markDirty();
 	}
 	
 	public int getLightsaberColorCrystalDamagePercent() {
@@ -123,6 +125,7 @@ public class TangibleObject extends SWGObject {
 	
 	public void setLightsaberColorCrystalDamagePercent(int lightsaberColorCrystalDamagePercent) {
 		this.lightsaberColorCrystalDamagePercent = lightsaberColorCrystalDamagePercent;
+		markDirty();
 	}
 	
 	public int getMaxHitPoints() {
@@ -149,6 +152,7 @@ public class TangibleObject extends SWGObject {
 		this.pvpFlags.addAll(pvpFlags);
 		
 		new FactionIntent(this, FactionIntentType.FLAGUPDATE).broadcast();
+		markDirty();
 	}
 	
 	public void clearPvpFlags(PvpFlag ... pvpFlags) {
@@ -159,6 +163,7 @@ public class TangibleObject extends SWGObject {
 		this.pvpFlags.removeAll(pvpFlags);
 		
 		new FactionIntent(this, FactionIntentType.FLAGUPDATE).broadcast();
+		markDirty();
 	}
 	
 	public boolean hasPvpFlag(PvpFlag pvpFlag) {
@@ -171,6 +176,7 @@ public class TangibleObject extends SWGObject {
 
 	public void setPvpStatus(PvpStatus pvpStatus) {
 		this.pvpStatus = pvpStatus;
+		markDirty();
 	}
 	
 	@Nullable
@@ -187,6 +193,7 @@ public class TangibleObject extends SWGObject {
 	
 	public void setFaction(Faction faction) {
 		this.faction = faction;
+		markDirty();
 	}
 	
 	public Set<PvpFlag> getPvpFlags() {
@@ -227,6 +234,7 @@ public class TangibleObject extends SWGObject {
 	
 	public void setComponents(int components) {
 		this.components = components;
+		markDirty();
 	}
 	
 	public void setInCombat(boolean inCombat) {
@@ -240,14 +248,17 @@ public class TangibleObject extends SWGObject {
 	
 	public void setVisibleGmOnly(boolean visibleGmOnly) {
 		this.visibleGmOnly = visibleGmOnly;
+		markDirty();
 	}
 	
 	public void setObjectEffects(byte [] objectEffects) {
 		this.objectEffects = objectEffects;
+		markDirty();
 	}
 
 	public void setOptionFlags(int optionsBitmask) {
 		this.optionFlags = optionsBitmask;
+		markDirty();
 	}
 
 	public void setOptionFlags(OptionFlag ... options) {
@@ -361,6 +372,7 @@ public class TangibleObject extends SWGObject {
 	
 	public void setRequiredCombatLevel(int requiredCombatLevel) {
 		this.requiredCombatLevel = requiredCombatLevel;
+		markDirty();
 	}
 	
 	public Faction getRequiredFaction() {
@@ -379,6 +391,7 @@ public class TangibleObject extends SWGObject {
 		} else {
 			skillMods.put(skillModName, value);
 		}
+		markDirty();
 	}
 	
 	public int getSkillModValue(String skillMod) {
@@ -391,6 +404,7 @@ public class TangibleObject extends SWGObject {
 	
 	public void setArmorCategory(ArmorCategory armorCategory) {
 		this.armorCategory = armorCategory;
+		markDirty();
 	}
 	
 	public Protection getProtection() {
@@ -399,6 +413,7 @@ public class TangibleObject extends SWGObject {
 	
 	public void setProtection(Protection protection) {
 		this.protection = protection;
+		markDirty();
 	}
 	
 	public LightsaberPowerCrystalQuality getLightsaberPowerCrystalQuality() {
@@ -407,6 +422,7 @@ public class TangibleObject extends SWGObject {
 	
 	public void setLightsaberPowerCrystalQuality(LightsaberPowerCrystalQuality lightsaberPowerCrystalQuality) {
 		this.lightsaberPowerCrystalQuality = lightsaberPowerCrystalQuality;
+		markDirty();
 	}
 	
 	public int getLightsaberPowerCrystalMinDmg() {
@@ -415,6 +431,7 @@ public class TangibleObject extends SWGObject {
 	
 	public void setLightsaberPowerCrystalMinDmg(int lightsaberPowerCrystalMinDmg) {
 		this.lightsaberPowerCrystalMinDmg = lightsaberPowerCrystalMinDmg;
+		markDirty();
 	}
 	
 	public int getLightsaberPowerCrystalMaxDmg() {
@@ -423,6 +440,7 @@ public class TangibleObject extends SWGObject {
 	
 	public void setLightsaberPowerCrystalMaxDmg(int lightsaberPowerCrystalMaxDmg) {
 		this.lightsaberPowerCrystalMaxDmg = lightsaberPowerCrystalMaxDmg;
+		markDirty();
 	}
 	
 	public TicketInformation getTicketInformation() {
@@ -431,6 +449,7 @@ public class TangibleObject extends SWGObject {
 	
 	public void setTicketInformation(TicketInformation ticketInformation) {
 		this.ticketInformation = ticketInformation;
+		markDirty();
 	}
 	
 	public Map<String, Integer> getSkillMods() {
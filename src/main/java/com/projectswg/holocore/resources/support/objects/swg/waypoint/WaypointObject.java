@@ -57,6 +57,7 @@ public class WaypointObject extends IntangibleObject implements Encodable, Mongo
 	
 	public void setOOB(WaypointPackage oob) {
 		this.waypoint = oob;
+		markDirty();
 	}
 	
 	public WaypointPackage getOOB() {
@@ -107,38 +108,46 @@ public class WaypointObject extends IntangibleObject implements Encodable, Mongo
 	public void setLocation(Location location) {
 		waypoint.setTerrain(location.getTerrain());
 		waypoint.setPosition(location.getPosition());
+		markDirty();
 	}
 	
 	@Override
 	public void setPosition(@NotNull Terrain terrain, double x, double y, double z) {
 		waypoint.setTerrain(terrain);
 		waypoint.setPosition(new Point3D(x, y, z));
+		markDirty();
 	}
 	
 	@Override
 	public void setTerrain(@NotNull Terrain terrain) {
 		waypoint.setTerrain(terrain);
+		markDirty();
 	}
 	
 	@Override
 	public void setPosition(double x, double y, double z) {
 		waypoint.setPosition(new Point3D(x, y, z));
+		markDirty();
 	}
 	
 	public void setCellId(long cellId) {
 		waypoint.setCellId(cellId);
+		markDirty();
 	}
 	
 	public void setName(String name) {
 		waypoint.setName(name);
+		markDirty();
 	}
 	
 	public void setColor(WaypointColor color) {
 		waypoint.setColor(color);
+		markDirty();
 	}
 	
 	public void setActive(boolean active) {
 		waypoint.setActive(active);
+		markDirty();
 	}
 
 	public Type getOobType() {
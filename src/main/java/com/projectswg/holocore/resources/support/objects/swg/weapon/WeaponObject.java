@@ -71,6 +71,7 @@ public class WeaponObject extends TangibleObject {
 	
 	public void setForcePowerCost(int forcePowerCost) {
 		this.forcePowerCost = forcePowerCost;
+		markDirty();
 	}
 	
 	public float getAttackSpeed() {
@@ -79,6 +80,7 @@ public class WeaponObject extends TangibleObject {
 	
 	public void setAttackSpeed(float attackSpeed) {
 		this.attackSpeed = attackSpeed;
+		markDirty();
 	}
 	
 	public float getMaxRange() {
@@ -87,6 +89,7 @@ public class WeaponObject extends TangibleObject {
 	
 	public void setMaxRange(float maxRange) {
 		this.maxRange = maxRange;
+		markDirty();
 	}
 
 	public int getAccuracy() {
@@ -95,6 +98,7 @@ public class WeaponObject extends TangibleObject {
 
 	public void setAccuracy(int accuracy) {
 		this.accuracy = accuracy;
+		markDirty();
 	}
 
 	public float getMinRange() {
@@ -111,6 +115,7 @@ public class WeaponObject extends TangibleObject {
 
 	public void setDamageType(DamageType damageType) {
 		this.damageType = damageType;
+		markDirty();
 	}
 
 	public DamageType getElementalType() {
@@ -119,6 +124,7 @@ public class WeaponObject extends TangibleObject {
 
 	public void setElementalType(DamageType elementalType) {
 		this.elementalType = elementalType;
+		markDirty();
 	}
 
 	public int getElementalValue() {
@@ -127,6 +133,7 @@ public class WeaponObject extends TangibleObject {
 
 	public void setElementalValue(int elementalValue) {
 		this.elementalValue = elementalValue;
+		markDirty();
 	}
 	
 	public WeaponType getType() {
@@ -135,6 +142,7 @@ public class WeaponObject extends TangibleObject {
 	
 	public void setType(WeaponType type) {
 		this.type = type;
+		markDirty();
 	}
 
 	public int getMinDamage() {
@@ -143,6 +151,7 @@ public class WeaponObject extends TangibleObject {
 
 	public void setMinDamage(int minDamage) {
 		this.minDamage = minDamage;
+		markDirty();
 	}
 
 	public int getMaxDamage() {
@@ -151,6 +160,7 @@ public class WeaponObject extends TangibleObject {
 
 	public void setMaxDamage(int maxDamage) {
 		this.maxDamage = maxDamage;
+		markDirty();
 	}
 	
 	public float getWoundChance() {
@@ -159,6 +169,7 @@ public class WeaponObject extends TangibleObject {
 	
 	public void setWoundChance(float woundChance) {
 		this.woundChance = woundChance;
+		markDirty();
 	}
 	
 	public String getProcEffect() {
@@ -167,6 +178,7 @@ public class WeaponObject extends TangibleObject {
 	
 	public void setProcEffect(String procEffect) {
 		this.procEffect = procEffect;
+		markDirty();
 	}
 	
 	public int getSpecialAttackCost() {
@@ -175,6 +187,7 @@ public class WeaponObject extends TangibleObject {
 	
 	public void setSpecialAttackCost(int specialAttackCost) {
 		this.specialAttackCost = specialAttackCost;
+		markDirty();
 	}
 	
 	@Override
@@ -9,23 +9,33 @@ import me.joshlarson.jlcommon.concurrency.ScheduledThreadPool;
 import me.joshlarson.jlcommon.control.IntentHandler;
 import me.joshlarson.jlcommon.control.Service;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.stream.IntStream;
 
 public class CombatRegenerationService extends Service {
 	
+	/** Number of groups creatures are split into, each regenerating at a different point within the second */
+	private static final int SLICES = 10;
+	/** Batches smaller than this are computed on the regeneration thread instead of in parallel */
+	private static final int PARALLEL_THRESHOLD = 512;
+	
 	private final ScheduledThreadPool executor;
 	private final Set<CreatureObject> npcRegen;
+	private int currentSlice;
 	
 	public CombatRegenerationService() {
 		this.executor = new ScheduledThreadPool(1, 3, "combat-regeneration-service");
 		this.npcRegen = new CopyOnWriteArraySet<>();
+		this.currentSlice = 0;
 	}
 	
 	@Override
 	public boolean start() {
 		executor.start();
-		executor.executeWithFixedRate(1000, 1000, this::periodicRegeneration);
+		executor.executeWithFixedRate(1000, 1000 / SLICES, this::periodicRegeneration);
 		return true;
 	}
 	
@@ -49,25 +59,64 @@ public class CombatRegenerationService extends Service {
 			npcRegen.remove(doi.getObject());
 	}
 	
+	/**
+	 * Regenerates one slice of creatures, so every creature still regenerates once per second but the resulting deltas
+	 * are spread across the whole second
+	 */
 	private void periodicRegeneration() {
-		PlayerLookup.getLoggedInCharacters().forEach(this::regenerate);
-		npcRegen.forEach(this::regenerate);
+		int slice = currentSlice;
+		currentSlice = (slice + 1) % SLICES;
+		
+		List<CreatureObject> creatures = new ArrayList<>();
+		for (CreatureObject creature : PlayerLookup.getLoggedInCharacters()) {
+			if (isInSlice(creature, slice))
+				creatures.add(creature);
+		}
+		for (CreatureObject npc : npcRegen) {
+			if (isInSlice(npc, slice))
+				creatures.add(npc);
+		}
+		regenerate(creatures);
 		
 		for (CreatureObject npc : npcRegen) {
-			if (!npc.isInCombat() && npc.getHealth() == npc.getMaxHealth() && npc.getAction() == npc.getMaxAction())
+			if (isInSlice(npc, slice) && !npc.isInCombat() && npc.getHealth() == npc.getMaxHealth() && npc.getAction() == npc.getMaxAction())
 				npcRegen.remove(npc);
 		}
 	}
 	
-	private void regenerate(CreatureObject creature) {
-		regenerationHealthTick(creature);
-		regenerationActionTick(creature);
-		regenerationMindTick(creature);
+	/**
+	 * Computes every creature's health, action and mind regeneration into a flat array, then applies each creature's
+	 * changes together so that it sends at most one HAM delta
+	 */
+	private void regenerate(List<CreatureObject> creatures) {
+		int count = creatures.size();
+		int [] modifications = new int[count * 3];
+		IntStream indices = IntStream.range(0, count);
+		if (count >= PARALLEL_THRESHOLD)
+			indices = indices.parallel();
+		indices.forEach(i -> {
+			CreatureObject creature = creatures.get(i);
+			modifications[i * 3] = calculateHealthRegeneration(creature);
+			modifications[i * 3 + 1] = calculateActionRegeneration(creature);
+			modifications[i * 3 + 2] = calculateMindRegeneration(creature);
+		});
+		
+		for (int i = 0; i < count; i++) {
+			int health = modifications[i * 3];
+			int action = modifications[i * 3 + 1];
+			int mind = modifications[i * 3 + 2];
+			if (health != 0 || action != 0 || mind != 0)
+				creatures.get(i).modifyHam(health, action, mind);
+		}
+	}
+	
+	private static boolean isInSlice(CreatureObject creature, int slice) {
+		return Math.floorMod(creature.getObjectId(), SLICES) == slice;
 	}
 	
-	private void regenerationActionTick(CreatureObject creature) {
+	private int calculateActionRegeneration(CreatureObject creature) {
 		if (creature.getAction() >= creature.getMaxAction())
-			return;
+			return 0;
 		
 		int modification = creature.getMaxAction() / 40;
 		
@@ -78,12 +127,12 @@ public class CombatRegenerationService extends Service {
 			modification *= 2;
 		}
 		
-		creature.modifyAction(modification);
+		return modification;
 	}
 	
-	private void regenerationMindTick(CreatureObject creature) {
+	private int calculateMindRegeneration(CreatureObject creature) {
 		if (creature.getMind() >= creature.getMaxMind())
-			return;
+			return 0;
 		
 		int modification = creature.getMaxMind() / 40;
 		
@@ -94,16 +143,16 @@ public class CombatRegenerationService extends Service {
 			modification *= 2;
 		}
 		
-		creature.modifyMind(modification);
+		return modification;
 	}
 	
-	private void regenerationHealthTick(CreatureObject creature) {
+	private int calculateHealthRegeneration(CreatureObject creature) {
 		if (creature.getHealth() >= creature.getMaxHealth() || creature.isInCombat())
-			return;
+			return 0;
 		switch (creature.getPosture()) {
 			case DEAD:
 			case INCAPACITATED:
-				return;
+				return 0;
 			default:
 				break;
 		}
@@ -114,7 +163,7 @@ public class CombatRegenerationService extends Service {
 			modification *= 2;
 		}
 		
-		creature.modifyHealth(modification);
+		return modification;
 	}
 	
 }
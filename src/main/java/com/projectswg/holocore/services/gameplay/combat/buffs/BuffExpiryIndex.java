@@ -0,0 +1,145 @@
+/***********************************************************************************
+ * Copyright (c) 2022 /// Project SWG /// www.projectswg.com                       *
+ *                                                                                 *
+ * ProjectSWG is the first NGE emulator for Star Wars Galaxies founded on          *
+ * July 7th, 2011 after SOE announced the official shutdown of Star Wars Galaxies. *
+ * Our goal is to create an emulator which will provide a server for players to    *
+ * continue playing a game similar to the one they used to play. We are basing     *
+ * it on the final publish of the game prior to end-game events.                   *
+ *                                                                                 *
+ * This file is part of Holocore.                                                  *
+ *                                                                                 *
+ * --------------------------------------------------------------------------------*
+ *                                                                                 *
+ * Holocore is free software: you can redistribute it and/or modify                *
+ * it under the terms of the GNU Affero General Public License as                  *
+ * published by the Free Software Foundation, either version 3 of the              *
+ * License, or (at your option) any later version.                                 *
+ *                                                                                 *
+ * Holocore is distributed in the hope that it will be useful,                     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of                  *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                   *
+ * GNU Affero General Public License for more details.                             *
+ *                                                                                 *
+ * You should have received a copy of the GNU Affero General Public License        *
+ * along with Holocore.  If not, see <http://www.gnu.org/licenses/>.               *
+ ***********************************************************************************/
+package com.projectswg.holocore.services.gameplay.combat.buffs;
+
+import com.projectswg.holocore.resources.support.global.player.Player;
+import com.projectswg.holocore.resources.support.objects.swg.creature.CreatureObject;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Time-ordered index of buff expirations.  Player buffs run on their owner's play time, which only advances while they
+ * are logged in, and NPC buffs run on the galactic clock, so each clock gets its own heap.  Both are ordered by the
+ * monotonic deadline at which the buff will expire if its clock keeps running.  Entries are never removed early - the
+ * caller validates each polled entry against the creature's current buffs.
+ */
+class BuffExpiryIndex {
+	
+	private final PriorityQueue<BuffExpiry> playTimeExpiries;
+	private final PriorityQueue<BuffExpiry> galacticExpiries;
+	
+	public BuffExpiryIndex() {
+		this.playTimeExpiries = new PriorityQueue<>();
+		this.galacticExpiries = new PriorityQueue<>();
+	}
+	
+	/**
+	 * Adds a buff expiration
+	 *
+	 * @param creature the creature with the buff
+	 * @param owner    the player controlling the creature when the buff was indexed, or null if it is on the galactic clock
+	 * @param crc      the buff CRC
+	 * @param endTime  the buff's end time, in the creature's clock
+	 * @param deadline the monotonic time, in milliseconds, when the buff expires
+	 */
+	public synchronized void add(@NotNull CreatureObject creature, @Nullable Player owner, int crc, int endTime, long deadline) {
+		(owner != null ? playTimeExpiries : galacticExpiries).add(new BuffExpiry(creature, owner, crc, endTime, deadline));
+	}
+	
+	/**
+	 * Removes and returns every expiration with a deadline at or before the specified time
+	 */
+	@NotNull
+	public synchronized List<BuffExpiry> pollExpired(long now) {
+		List<BuffExpiry> expired = new ArrayList<>();
+		pollExpired(playTimeExpiries, now, expired);
+		pollExpired(galacticExpiries, now, expired);
+		return expired;
+	}
+	
+	/**
+	 * Returns the earliest deadline in the index, or {@link Long#MAX_VALUE} if it is empty
+	 */
+	public synchronized long getNextDeadline() {
+		BuffExpiry playTime = playTimeExpiries.peek();
+		BuffExpiry galactic = galacticExpiries.peek();
+		return Math.min(playTime == null ? Long.MAX_VALUE : playTime.getDeadline(), galactic == null ? Long.MAX_VALUE : galactic.getDeadline());
+	}
+	
+	public synchronized int size() {
+		return playTimeExpiries.size() + galacticExpiries.size();
+	}
+	
+	private static void pollExpired(PriorityQueue<BuffExpiry> queue, long now, List<BuffExpiry> expired) {
+		BuffExpiry head;
+		while ((head = queue.peek()) != null && head.getDeadline() <= now)
+			expired.add(queue.poll());
+	}
+	
+	static class BuffExpiry implements Comparable<BuffExpiry> {
+		
+		private final CreatureObject creature;
+		private final Player owner;
+		private final int crc;
+		private final int endTime;
+		private final long deadline;
+		
+		public BuffExpiry(CreatureObject creature, Player owner, int crc, int endTime, long deadline) {
+			this.creature = creature;
+			this.owner = owner;
+			this.crc = crc;
+			this.endTime = endTime;
+			this.deadline = deadline;
+		}
+		
+		public CreatureObject getCreature() {
+			return creature;
+		}
+		
+		/**
+		 * Returns the player session this expiry was computed for.  Play time stops while a player is logged out, so an
+		 * entry from a previous session is stale and is re-indexed when they zone back in.
+		 */
+		@Nullable
+		public Player getOwner() {
+			return owner;
+		}
+		
+		public int getCrc() {
+			return crc;
+		}
+		
+		public int getEndTime() {
+			return endTime;
+		}
+		
+		public long getDeadline() {
+			return deadline;
+		}
+		
+		@Override
+		public int compareTo(@NotNull BuffExpiry o) {
+			return Long.compare(deadline, o.deadline);
+		}
+		
+	}
+	
+}
@@ -40,6 +40,7 @@ import com.projectswg.holocore.resources.support.global.player.Player;
 import com.projectswg.holocore.resources.support.global.player.PlayerEvent;
 import com.projectswg.holocore.resources.support.objects.swg.creature.Buff;
 import com.projectswg.holocore.resources.support.objects.swg.creature.CreatureObject;
+import com.projectswg.holocore.services.gameplay.combat.buffs.BuffExpiryIndex.BuffExpiry;
 import me.joshlarson.jlcommon.concurrency.ScheduledThreadPool;
 import me.joshlarson.jlcommon.control.IntentHandler;
 import me.joshlarson.jlcommon.control.Service;
@@ -60,10 +61,14 @@ public class BuffService extends Service {
 	
 	private final ScheduledThreadPool timerCheckThread;
 	private final Map<String, BuffCallback> callbackMap;
+	private final BuffExpiryIndex expiryIndex;
+	private long scheduledDeadline;
 	
 	public BuffService() {
 		timerCheckThread = new ScheduledThreadPool(1, "buff-timer-check");
 		callbackMap = new HashMap<>();
+		expiryIndex = new BuffExpiryIndex();
+		scheduledDeadline = Long.MAX_VALUE;
 		registerCallbacks();
 	}
 	
@@ -124,8 +129,54 @@ public class BuffService extends Service {
 	private void removeExpiredBuffs(PlayerEventIntent intent) {
 		Player player = intent.getPlayer();
 		CreatureObject creatureObject = player.getCreatureObject();
-		Stream<Buff> expiredBuffs = creatureObject.getBuffEntries(buff -> isBuffExpired(creatureObject, buff));
-		expiredBuffs.forEach(expiredBuff -> removeBuff(creatureObject, getBuff(expiredBuff)));
+		int playTime = calculatePlayTime(creatureObject);
+		creatureObject.getBuffEntries(buff -> true).forEach(buff -> {
+			BuffInfo buffData = getBuff(buff);
+			if (buffData == null || isBuffInfinite(buffData))
+				return;
+			if (playTime >= buff.getEndTime())
+				removeBuff(creatureObject, buffData);
+			else
+				indexBuffExpiry(creatureObject, buff, playTime); // Play time was paused while logged out
+		});
+	}
+	
+	private void indexBuffExpiry(CreatureObject creature, Buff buff, int currentTime) {
+		long deadline = monotonicTime() + (buff.getEndTime() - currentTime) * 1000L;
+		expiryIndex.add(creature, creature.isPlayer() ? creature.getOwner() : null, buff.getCrc(), buff.getEndTime(), deadline);
+		scheduleExpiryCheck(deadline);
+	}
+	
+	private synchronized void scheduleExpiryCheck(long deadline) {
+		if (deadline >= scheduledDeadline)
+			return;
+		scheduledDeadline = deadline;
+		timerCheckThread.execute(Math.max(0, deadline - monotonicTime()), this::expireBuffs);
+	}
+	
+	/**
+	 * Removes every buff whose deadline has passed, then schedules the next check for the earliest remaining deadline
+	 */
+	private void expireBuffs() {
+		synchronized (this) {
+			scheduledDeadline = Long.MAX_VALUE;
+		}
+		for (BuffExpiry expiry : expiryIndex.pollExpired(monotonicTime())) {
+			CreatureObject creature = expiry.getCreature();
+			if (expiry.getOwner() != null && expiry.getOwner() != creature.getOwner())
+				continue; // Logged out since this was indexed
+			boolean stillApplied = creature.getBuffEntries(buff -> buff.getCrc() == expiry.getCrc() && buff.getEndTime() == expiry.getEndTime()).findAny().isPresent();
+			BuffInfo buffData = DataLoader.Companion.buffs().getBuff(expiry.getCrc());
+			if (stillApplied && buffData != null)
+				removeBuff(creature, buffData);
+		}
+		long next = expiryIndex.getNextDeadline();
+		if (next != Long.MAX_VALUE)
+			scheduleExpiryCheck(next);
+	}
+	
+	private static long monotonicTime() {
+		return System.nanoTime() / 1_000_000;
 	}
 	
 	private int calculatePlayTime(CreatureObject creature) {
@@ -138,10 +189,6 @@ public class BuffService extends Service {
 		return (int) ProjectSWG.getGalacticTime();
 	}
 	
-	private boolean isBuffExpired(CreatureObject creature, Buff buff) {
-		return calculatePlayTime(creature) >= buff.getEndTime();
-	}
-	
 	private boolean isBuffInfinite(BuffInfo buffData) {
 		return buffData.getDuration() < 0;
 	}
@@ -203,7 +250,8 @@ public class BuffService extends Service {
 
 		sendParticleEffect(buffData.getParticle(), receiver, "");
 
-		timerCheckThread.execute(buffDuration * 1000L, () -> removeBuff(receiver, buffData));
+		if (!isBuffInfinite(buffData))
+			indexBuffExpiry(receiver, buff, applyTime);
 	}
 	
 	private void sendParticleEffect(String effectFileName, CreatureObject receiver, String hardPoint) {
@@ -46,6 +46,7 @@ import com.projectswg.holocore.resources.support.color.SWGColor;
 import com.projectswg.holocore.resources.support.global.commands.CombatCommand;
 import com.projectswg.holocore.resources.support.global.commands.Command;
 import com.projectswg.holocore.resources.support.global.commands.Locomotion;
+import com.projectswg.holocore.resources.support.objects.awareness.ObjectAwareness;
 import com.projectswg.holocore.resources.support.objects.swg.SWGObject;
 import com.projectswg.holocore.resources.support.objects.swg.creature.CreatureObject;
 import com.projectswg.holocore.resources.support.objects.swg.creature.CreatureState;
@@ -59,12 +60,12 @@ import com.projectswg.holocore.services.gameplay.combat.BlindedCombatState;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ThreadLocalRandom;
-import java.util.stream.Collectors;
+import java.util.function.Predicate;
 
 import static com.projectswg.holocore.services.gameplay.combat.command.CombatCommandCommon.*;
 
@@ -73,6 +74,8 @@ enum CombatCommandAttack implements CombatCommandHitType {
 	
 	private static final String jediArmorSkillMod = "jedi_armor";
 	private static final String tkaArmorSkillMod = "tka_armor";
+	/** Reused between area and cone attacks, so that finding the targets doesn't allocate */
+	private static final ThreadLocal<List<CreatureObject>> TARGET_BUFFER = ThreadLocal.withInitial(ArrayList::new);
 	
 	@Override
 	public CombatStatus handle(@NotNull CreatureObject source, @Nullable SWGObject target, @NotNull Command command, @NotNull CombatCommand combatCommand, @NotNull String arguments) {
@@ -127,70 +130,54 @@ enum CombatCommandAttack implements CombatCommandHitType {
 		double dirX = targetWorldLocation.getX() - sourceWorldLocation.getX();
 		double dirZ = targetWorldLocation.getZ() - sourceWorldLocation.getZ();
 		
-		Set<SWGObject> objectsToCheck = source.getObjectsAware();
-		
-		Set<CreatureObject> targets = objectsToCheck.stream()
-				.filter(CreatureObject.class::isInstance)
-				.map(CreatureObject.class::cast)
-				.filter(source::isAttackable)
-				.filter(candidate -> canPerform(source, candidate, command) == CombatStatus.SUCCESS)
-				.filter(candidate -> sourceWorldLocation.distanceTo(candidate.getLocation()) <= coneLength)
-				.filter(candidate -> {
-					Location candidateWorldLocation = candidate.getWorldLocation();
-					
-					return isInConeAngle(sourceWorldLocation, candidateWorldLocation, coneWidth, dirX, dirZ);
-				})
-				.collect(Collectors.toSet());
-		
-		doCombat(source, targets, info, command);
+		List<CreatureObject> targets = TARGET_BUFFER.get();
+		try {
+			ObjectAwareness.queryCone(source, dirX, dirZ, coneLength, coneWidth, CreatureObject.class, candidate -> source.isAttackable(candidate) && canPerform(source, candidate, command) == CombatStatus.SUCCESS, targets);
+			doCombat(source, targets, info, command);
+		} finally {
+			targets.clear();
+		}
 	}
 
 	private void doCombatCone(CreatureObject source, SWGObject target, AttackInfo info, CombatCommand command) {
 		doCombatCone(source, target.getWorldLocation(), info, command);
 	}
 
-	boolean isInConeAngle(Location attackerLocation, Location targetLocation, double coneWidth, double directionX, double directionZ) {
-		double targetX = targetLocation.getX() - attackerLocation.getX();
-		double targetZ = targetLocation.getZ() - attackerLocation.getZ();
-		
-		double targetAngle = Math.atan2(targetZ, targetX) - Math.atan2(directionZ, directionX);
-		
-		double degrees = targetAngle * 180 / Math.PI;
-		
-		return !(Math.abs(degrees) > coneWidth);
-	}
-	
 	private static void doCombatSingle(CreatureObject source, SWGObject target, AttackInfo info, CombatCommand combatCommand) {
-		Set<CreatureObject> targets = new HashSet<>();
-		
 		if (target instanceof CreatureObject creatureTarget) {
-			targets.add(creatureTarget);
+			doCombat(source, List.of(creatureTarget), info, combatCommand);
+		} else {
+			doCombat(source, List.of(), info, combatCommand);
 		}
-		
-		doCombat(source, targets, info, combatCommand);
 	}
 	
 	private static void doCombatArea(CreatureObject source, SWGObject origin, AttackInfo info, CombatCommand combatCommand, boolean includeOrigin) {
 		double aoeRange = combatCommand.getConeLength();
 		SWGObject originParent = origin.getParent();
-		Collection<SWGObject> objectsToCheck = originParent == null ? origin.getObjectsAware() : originParent.getContainedObjects();
-		
-		Set<CreatureObject> targets = objectsToCheck.stream()
-				.filter(CreatureObject.class::isInstance)
-				.map(CreatureObject.class::cast)
-				.filter(source::isAttackable)
-				.filter(target -> canPerform(source, target, combatCommand) == CombatStatus.SUCCESS)
-				.filter(creature -> origin.getLocation().distanceTo(creature.getLocation()) <= aoeRange)
-				.collect(Collectors.toSet());
+		Predicate<CreatureObject> filter = target -> source.isAttackable(target) && canPerform(source, target, combatCommand) == CombatStatus.SUCCESS;
 		
-		// This way, mines or grenades won't try to harm themselves
-		if (includeOrigin && origin instanceof CreatureObject)
-			targets.add((CreatureObject) origin);
-		
-		doCombat(source, targets, info, combatCommand);
+		List<CreatureObject> targets = TARGET_BUFFER.get();
+		try {
+			if (originParent == null) {
+				ObjectAwareness.queryRadius(origin, aoeRange, CreatureObject.class, filter, targets);
+			} else {
+				for (SWGObject candidate : originParent.getContainedObjects()) {
+					if (candidate instanceof CreatureObject creature && filter.test(creature) && origin.getLocation().distanceTo(creature.getLocation()) <= aoeRange)
+						targets.add(creature);
+				}
+			}
+			
+			// This way, mines or grenades won't try to harm themselves
+			if (includeOrigin && origin instanceof CreatureObject creatureOrigin && !targets.contains(creatureOrigin))
+				targets.add(creatureOrigin);
+			
+			doCombat(source, targets, info, combatCommand);
+		} finally {
+			targets.clear();
+		}
 	}
 	
-	private static void doCombat(CreatureObject source, Set<CreatureObject> targets, AttackInfo info, CombatCommand combatCommand) {
+	private static void doCombat(CreatureObject source, Collection<CreatureObject> targets, AttackInfo info, CombatCommand combatCommand) {
 		source.updateLastCombatTime();
 		WeaponObject sourceWeapon = source.getEquippedWeapon();
 		
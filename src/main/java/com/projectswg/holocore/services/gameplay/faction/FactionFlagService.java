@@ -10,11 +10,16 @@ import com.projectswg.holocore.intents.gameplay.gcw.faction.FactionIntent;
 import com.projectswg.holocore.intents.gameplay.gcw.faction.RegisterPvpZoneIntent;
 import com.projectswg.holocore.intents.gameplay.gcw.faction.UnregisterPvpZoneIntent;
 import com.projectswg.holocore.intents.support.global.chat.SystemMessageIntent;
-import com.projectswg.holocore.intents.support.global.zone.PlayerTransformedIntent;
+import com.projectswg.holocore.intents.support.global.zone.RegionEnteredIntent;
+import com.projectswg.holocore.intents.support.global.zone.RegionExitedIntent;
+import com.projectswg.holocore.intents.support.global.zone.RegisterRegionIntent;
+import com.projectswg.holocore.intents.support.global.zone.UnregisterRegionIntent;
 import com.projectswg.holocore.resources.support.data.server_info.loader.DataLoader;
 import com.projectswg.holocore.resources.support.data.server_info.loader.StaticPvpZoneLoader;
 import com.projectswg.holocore.resources.support.data.server_info.loader.combat.FactionLoader.Faction;
 import com.projectswg.holocore.resources.support.global.player.Player;
+import com.projectswg.holocore.resources.support.global.zone.region.Region;
+import com.projectswg.holocore.resources.support.global.zone.region.RegionType;
 import com.projectswg.holocore.resources.support.objects.swg.SWGObject;
 import com.projectswg.holocore.resources.support.objects.swg.cell.CellObject;
 import com.projectswg.holocore.resources.support.objects.swg.creature.CreatureObject;
@@ -25,7 +30,9 @@ import me.joshlarson.jlcommon.control.Service;
 import me.joshlarson.jlcommon.log.Log;
 
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
 
@@ -33,42 +40,25 @@ public class FactionFlagService extends Service {
 	
 	private final Map<TangibleObject, Future<?>> statusChangers;
 	private final ScheduledThreadPool executor;
-	private final Map<String, PvpZone> pvpZones;
+	/** Number of PvP zones each creature is currently within, as reported by the region service */
+	private final Map<CreatureObject, Integer> pvpZoneOccupants;
 	
 	public FactionFlagService() {
 		statusChangers = new ConcurrentHashMap<>();
 		executor = new ScheduledThreadPool(1, "faction-service");
-		pvpZones = new ConcurrentHashMap<>();
-	}
-	
-	@Override
-	public boolean initialize() {
-		Collection<StaticPvpZoneLoader.StaticPvpZoneInfo> staticPvpZones = DataLoader.Companion.staticPvpZones().getStaticPvpZones();
-		
-		for (StaticPvpZoneLoader.StaticPvpZoneInfo staticPvpZone : staticPvpZones) {
-			int id = staticPvpZone.getId();
-			Location location = staticPvpZone.getLocation();
-			double radius = staticPvpZone.getRadius();
-			
-			PvpZone previous = pvpZones.put(String.valueOf(id), new PvpZone(location, radius));
-			
-			if (previous != null) {
-				Log.w("Multiple static PvP zones with ID " + id);
-			}
-		}
-		
-		return super.initialize();
+		pvpZoneOccupants = new ConcurrentHashMap<>();
 	}
 	
 	@Override
 	public boolean terminate() {
-		pvpZones.clear();
+		pvpZoneOccupants.clear();
 		return super.terminate();
 	}
 	
 	@Override
 	public boolean start() {
 		executor.start();
+		registerStaticPvpZones();
 		return true;
 	}
 	
@@ -96,31 +86,36 @@ public class FactionFlagService extends Service {
 	
 	@IntentHandler
 	private void handleRegisterPvpZoneIntent(RegisterPvpZoneIntent intent) {
-		String id = intent.getId();
-		Location location = intent.getLocation();
-		double radius = intent.getRadius();
-		
-		pvpZones.put(id, new PvpZone(location, radius));
+		RegisterRegionIntent.broadcast(new Region(intent.getId(), RegionType.PVP_ZONE, intent.getLocation(), intent.getRadius()));
 	}
 	
 	@IntentHandler
 	private void handleUnregisterPvpZoneIntent(UnregisterPvpZoneIntent intent) {
-		pvpZones.remove(intent.getId());
+		UnregisterRegionIntent.broadcast(RegionType.PVP_ZONE, intent.getId());
+	}
+	
+	@IntentHandler
+	private void handleRegionExitedIntent(RegionExitedIntent intent) {
+		if (intent.getRegion().getType() != RegionType.PVP_ZONE)
+			return;
+		pvpZoneOccupants.computeIfPresent(intent.getPlayer(), (creature, zones) -> zones <= 1 ? null : zones - 1);
 	}
 	
 	@IntentHandler
-	private void handlePlayerTransformedIntent(PlayerTransformedIntent intent) {
-		Location newLocation = intent.getNewLocation();
+	private void handleRegionEnteredIntent(RegionEnteredIntent intent) {
+		if (intent.getRegion().getType() != RegionType.PVP_ZONE)
+			return;
 		Location oldLocation = intent.getOldLocation();
 		SWGObject oldParent = intent.getOldParent();
 		CreatureObject creature = intent.getPlayer();
+		int zones = pvpZoneOccupants.merge(creature, 1, Integer::sum);
 		
 		if (creature.getOwner() == null) {
 			return;
 		}
 		
-		// Check if the player is attempting to enter a PvP zone
-		if (!isInPvpZone(oldLocation) && isInPvpZone(newLocation)) {
+		// Check if the player is attempting to enter a PvP zone from outside of all of them
+		if (zones == 1) {
 			// Prevent neutrals OR rebels and imperial that are on leave from entering
 			if (creature.getPvpFaction() == PvpFaction.NEUTRAL || creature.getPvpStatus() == PvpStatus.ONLEAVE) {
 				// Teleport them back
@@ -182,7 +177,7 @@ public class FactionFlagService extends Service {
 		PvpStatus oldStatus = target.getPvpStatus();
 		Player owner = target.getOwner();
 		
-		if (owner != null && isInPvpZone(target.getLocation())) {
+		if (owner != null && pvpZoneOccupants.containsKey(target)) {
 			// Status changes inside a forced PvP zone are not allowed
 			SystemMessageIntent.broadcastPersonal(owner, new ProsePackage("gcw", "pvp_advanced_region_cannot_go_covert"));
 			return;
@@ -241,19 +236,19 @@ public class FactionFlagService extends Service {
 		}
 	}
 	
-	private boolean isInPvpZone(Location location) {
-		return pvpZones.values().stream()
-				.anyMatch(pvpZone -> {
-					Location zoneLocation = pvpZone.getLocation();
-					
-					if (location.getTerrain() != zoneLocation.getTerrain()) {
-						return false;
-					}
-					
-					double radius = pvpZone.getRadius();
-					
-					return location.isWithinFlatDistance(zoneLocation, radius);
-				});
+	private void registerStaticPvpZones() {
+		Collection<StaticPvpZoneLoader.StaticPvpZoneInfo> staticPvpZones = DataLoader.Companion.staticPvpZones().getStaticPvpZones();
+		Set<Integer> ids = new HashSet<>();
+		
+		for (StaticPvpZoneLoader.StaticPvpZoneInfo staticPvpZone : staticPvpZones) {
+			int id = staticPvpZone.getId();
+			
+			if (!ids.add(id)) {
+				Log.w("Multiple static PvP zones with ID " + id);
+			}
+			
+			RegisterRegionIntent.broadcast(new Region(String.valueOf(id), RegionType.PVP_ZONE, staticPvpZone.getLocation(), staticPvpZone.getRadius()));
+		}
 	}
 	
 	private void completeChange(TangibleObject target, PvpFlag pvpFlag, PvpStatus oldStatus, PvpStatus newStatus) {
@@ -312,21 +307,4 @@ public class FactionFlagService extends Service {
 		return new UpdatePvpStatusMessage(target.getPvpFaction(), target.getObjectId(), self.getPvpFlagsFor(target));
 	}
 	
-	private static class PvpZone {
-		private final Location location;
-		private final double radius;
-		
-		public PvpZone(Location location, double radius) {
-			this.location = location;
-			this.radius = radius;
-		}
-		
-		public Location getLocation() {
-			return location;
-		}
-		
-		public double getRadius() {
-			return radius;
-		}
-	}
 }
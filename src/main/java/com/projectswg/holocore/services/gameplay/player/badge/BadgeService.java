@@ -73,6 +73,7 @@ public class BadgeService extends Service {
 			boolean explorationBadge = badgeFromKey.getCategory() == 2 && !"accumulation".equals(badgeFromKey.getType());
 			Badges badges = target.getBadges();
 			badges.set(badgeFromKey.getIndex(), explorationBadge, true);
+			target.markDirty(); // Badges are saved with the player object, but send no delta
 
 			SystemMessageIntent.broadcastPersonal(target.getOwner(), new ProsePackage(new StringId("badge_n", "prose_grant"), "TO", "@badge_n:" + badgeName));
 			
@@ -29,55 +29,47 @@ package com.projectswg.holocore.services.gameplay.player.badge;
 
 import com.projectswg.common.data.info.RelationalServerData;
 import com.projectswg.common.data.info.RelationalServerFactory;
-import com.projectswg.common.data.location.Point3D;
+import com.projectswg.common.data.location.Terrain;
 import com.projectswg.holocore.intents.gameplay.player.badge.GrantBadgeIntent;
-import com.projectswg.holocore.intents.support.global.zone.PlayerTransformedIntent;
-import com.projectswg.holocore.resources.support.objects.swg.creature.CreatureObject;
+import com.projectswg.holocore.intents.support.global.zone.RegionEnteredIntent;
+import com.projectswg.holocore.intents.support.global.zone.RegisterRegionIntent;
+import com.projectswg.holocore.resources.support.global.zone.region.Region;
+import com.projectswg.holocore.resources.support.global.zone.region.RegionType;
 import me.joshlarson.jlcommon.control.IntentHandler;
 import me.joshlarson.jlcommon.control.Service;
 import me.joshlarson.jlcommon.log.Log;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.TreeMap;
 
 public class ExplorationBadgeService extends Service {
 
 	private static final String GET_BADGES_SQL = "SELECT * FROM explorationBadges";
-	private Map<String, Map<String, ExplorationRegion>> explorationLocations = new TreeMap<>();
+	private final List<Region> explorationRegions = new ArrayList<>();
 	
 	public ExplorationBadgeService(){
 		registerExplorationBadge();
 	}
+	
+	@Override
+	public boolean start() {
+		// The region service only reports a region once it is entered, so the badge is granted once per visit
+		for (Region region : explorationRegions)
+			RegisterRegionIntent.broadcast(region);
+		return super.start();
+	}
 		
 	@IntentHandler
-	private void handlePlayerTransformedIntent(PlayerTransformedIntent pti){
-		String badgeKey = checkExplorationRegions(pti.getPlayer());
-		if (badgeKey != null){
-			GrantBadgeIntent.broadcast(pti.getPlayer(), badgeKey);
+	private void handleRegionEnteredIntent(RegionEnteredIntent rei){
+		Region region = rei.getRegion();
+		if (region.getType() == RegionType.EXPLORATION_BADGE){
+			GrantBadgeIntent.broadcast(rei.getPlayer(), region.getId());
 		}
 	}
 	
-	private String checkExplorationRegions(CreatureObject creature) {
-		String planet = "";
-		
-		if (creature.getTerrain().getName() != null){
-			planet = creature.getTerrain().getName();
-		}
-		
-		if (explorationLocations.containsKey(planet)) {
-			for (Entry<String, ExplorationRegion> badge : explorationLocations.get(planet).entrySet()) {
-				if (creature.getWorldLocation().isWithinFlatDistance(badge.getValue().location, badge.getValue().range)){
-					return badge.getKey();
-				}
-			}
-		}
-		return null;
-	}	
-	
 	private void registerExplorationBadge() {
 		
 		try (RelationalServerData explorerBadgeDatabase = RelationalServerFactory.getServerData("badges/explorationBadges.db", "explorationBadges")) {
@@ -89,10 +81,12 @@ public class ExplorationBadgeService extends Service {
 					int y = set.getInt("y");
 					int range = set.getInt("radius");
 					
-					if (!explorationLocations.containsKey(planet)) {
-						explorationLocations.put(planet, new TreeMap<>());
+					Terrain terrain = Terrain.getTerrainFromName(planet);
+					if (terrain == null) {
+						Log.w("Unknown planet '%s' for exploration badge %s", planet, badgeName);
+						continue;
 					}
-					explorationLocations.get(planet).put(badgeName, new ExplorationRegion(new Point3D(x, 0, y), range));
+					explorationRegions.add(new Region(badgeName, RegionType.EXPLORATION_BADGE, terrain, x, y, range));
 				}
 			}catch (SQLException e) {
 				Log.e(e);
@@ -100,14 +94,4 @@ public class ExplorationBadgeService extends Service {
 		}
 	}	
 	
-	private static class ExplorationRegion {
-		
-		public Point3D location;
-		public float range;
-		
-		public ExplorationRegion(Point3D location, float range) {
-			this.location = location;
-			this.range = range;
-		}
-	}		
 }
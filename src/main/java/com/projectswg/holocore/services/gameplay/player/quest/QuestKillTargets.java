@@ -0,0 +1,94 @@
+/***********************************************************************************
+ * Copyright (c) 2022 /// Project SWG /// www.projectswg.com                       *
+ *                                                                                 *
+ * ProjectSWG is the first NGE emulator for Star Wars Galaxies founded on          *
+ * July 7th, 2011 after SOE announced the official shutdown of Star Wars Galaxies. *
+ * Our goal is to create an emulator which will provide a server for players to    *
+ * continue playing a game similar to the one they used to play. We are basing     *
+ * it on the final publish of the game prior to end-game events.                   *
+ *                                                                                 *
+ * This file is part of Holocore.                                                  *
+ *                                                                                 *
+ * --------------------------------------------------------------------------------*
+ *                                                                                 *
+ * Holocore is free software: you can redistribute it and/or modify                *
+ * it under the terms of the GNU Affero General Public License as                  *
+ * published by the Free Software Foundation, either version 3 of the              *
+ * License, or (at your option) any later version.                                 *
+ *                                                                                 *
+ * Holocore is distributed in the hope that it will be useful,                     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of                  *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                   *
+ * GNU Affero General Public License for more details.                             *
+ *                                                                                 *
+ * You should have received a copy of the GNU Affero General Public License        *
+ * along with Holocore.  If not, see <http://www.gnu.org/licenses/>.               *
+ ***********************************************************************************/
+package com.projectswg.holocore.services.gameplay.player.quest;
+
+import com.projectswg.holocore.resources.support.data.server_info.loader.QuestLoader;
+
+import java.util.*;
+
+/**
+ * Index of a single player's active destroy tasks, keyed by the target server template the task wants killed
+ */
+class QuestKillTargets {
+	
+	private static final String DESTROY_MULTI = "quest.task.ground.destroy_multi";
+	
+	private final Map<String, List<KillTask>> targets;
+	
+	public QuestKillTargets() {
+		this.targets = new HashMap<>();
+	}
+	
+	/**
+	 * Replaces the indexed tasks for the specified quest with the destroy tasks in {@code activeTasks}
+	 */
+	public synchronized void setQuest(String questName, Collection<QuestLoader.QuestTaskInfo> activeTasks) {
+		removeQuestTasks(questName);
+		for (QuestLoader.QuestTaskInfo task : activeTasks) {
+			String target = task.getTargetServerTemplate();
+			if (DESTROY_MULTI.equals(task.getType()) && target != null)
+				targets.computeIfAbsent(target, t -> new ArrayList<>(1)).add(new KillTask(questName, task));
+		}
+	}
+	
+	public synchronized void removeQuest(String questName) {
+		removeQuestTasks(questName);
+	}
+	
+	public synchronized List<KillTask> getTasks(String target) {
+		List<KillTask> tasks = targets.get(target);
+		return tasks == null ? List.of() : List.copyOf(tasks);
+	}
+	
+	private void removeQuestTasks(String questName) {
+		targets.values().removeIf(tasks -> {
+			tasks.removeIf(task -> task.getQuestName().equals(questName));
+			return tasks.isEmpty();
+		});
+	}
+	
+	public static class KillTask {
+		
+		private final String questName;
+		private final QuestLoader.QuestTaskInfo task;
+		
+		public KillTask(String questName, QuestLoader.QuestTaskInfo task) {
+			this.questName = questName;
+			this.task = task;
+		}
+		
+		public String getQuestName() {
+			return questName;
+		}
+		
+		public QuestLoader.QuestTaskInfo getTask() {
+			return task;
+		}
+		
+	}
+	
+}
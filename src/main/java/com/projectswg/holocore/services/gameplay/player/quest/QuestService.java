@@ -41,6 +41,7 @@ import com.projectswg.holocore.intents.gameplay.player.quest.AdvanceQuestIntent;
 import com.projectswg.holocore.intents.gameplay.player.quest.CompleteQuestIntent;
 import com.projectswg.holocore.intents.gameplay.player.quest.GrantQuestIntent;
 import com.projectswg.holocore.intents.support.global.chat.SystemMessageIntent;
+import com.projectswg.holocore.intents.support.global.zone.PlayerEventIntent;
 import com.projectswg.holocore.resources.support.data.server_info.StandardLog;
 import com.projectswg.holocore.resources.support.data.server_info.loader.QuestLoader;
 import com.projectswg.holocore.resources.support.data.server_info.loader.ServerData;
@@ -55,6 +56,7 @@ import me.joshlarson.jlcommon.control.IntentHandler;
 import me.joshlarson.jlcommon.control.Service;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
@@ -62,10 +64,12 @@ public class QuestService extends Service {
 	
 	private final ScheduledThreadPool executor;
 	private final QuestLoader questLoader;
+	private final Map<PlayerObject, QuestKillTargets> killTargets;
 	
 	public QuestService() {
 		this.executor = new ScheduledThreadPool(1, "quest-service-%d");
 		this.questLoader = ServerData.INSTANCE.getQuestLoader();
+		this.killTargets = new ConcurrentHashMap<>();
 	}
 	
 	@Override
@@ -80,6 +84,16 @@ public class QuestService extends Service {
 		return executor.awaitTermination(1000);
 	}
 	
+	@IntentHandler
+	private void handlePlayerEventIntent(PlayerEventIntent pei) {
+		PlayerObject playerObject = pei.getPlayer().getPlayerObject();
+		if (playerObject == null)
+			return;
+		switch (pei.getEvent()) {
+			case PE_LOGGED_OUT, PE_DISAPPEAR, PE_DESTROYED, PE_SERVER_KICKED -> killTargets.remove(playerObject);
+		}
+	}
+	
 	@IntentHandler
 	private void handleGrantQuestIntent(GrantQuestIntent intent) {
 		Player player = intent.getPlayer();
@@ -101,6 +115,7 @@ public class QuestService extends Service {
 		StandardLog.onPlayerTrace(this, player, "received quest %s", questName);
 		
 		List<QuestLoader.QuestTaskInfo> currentTasks = getActiveTaskInfos(questName, playerObject);
+		updateKillTargets(playerObject, questName);
 		
 		handleTaskEvents(player, questName, currentTasks);
 		
@@ -122,6 +137,7 @@ public class QuestService extends Service {
 		}
 		
 		playerObject.removeQuest(questName);
+		updateKillTargets(playerObject, questName);
 	}
 	
 	@IntentHandler
@@ -184,50 +200,30 @@ public class QuestService extends Service {
 		}
 		
 		PlayerObject playerObject = killer.getPlayerObject();
+		Spawner spawner = npcCorpse.getSpawner();
+		
+		if (playerObject == null || spawner == null) {
+			return;
+		}
 		
-		Set<Map.Entry<CRC, Quest>> entries = playerObject.getQuests().entrySet();
+		List<QuestKillTargets.KillTask> killTasks = getKillTargets(playerObject).getTasks(spawner.getStfName());
 		
-		for (Map.Entry<CRC, Quest> entry : entries) {
-			CRC key = entry.getKey();
-			Quest quest = entry.getValue();
+		for (QuestKillTargets.KillTask killTask : killTasks) {
+			String questName = killTask.getQuestName();
+			int max = killTask.getTask().getCount();
+			int counter = playerObject.incrementQuestCounter(questName);
+			int remaining = max - counter;
 			
-			if (quest.isComplete()) {
-				continue;
-			}
+			StandardLog.onPlayerTrace(this, owner, "%d remaining kills required on quest %s", remaining, questName);
 			
-			String questName = key.getString();
-			List<QuestLoader.QuestTaskInfo> activeTaskListInfos = getActiveTaskInfos(questName, playerObject);
-			
-			for (QuestLoader.QuestTaskInfo activeTaskListInfo : activeTaskListInfos) {
-				String type = activeTaskListInfo.getType();
-				
-				if ("quest.task.ground.destroy_multi".equals(type)) {
-					if (isKillPartOfTask(activeTaskListInfo, npcCorpse)) {
-						int max = activeTaskListInfo.getCount();
-						int counter = playerObject.incrementQuestCounter(questName);
-						int remaining = max - counter;
-						
-						StandardLog.onPlayerTrace(this, owner, "%d remaining kills required on quest %s", remaining, questName);
-						
-						if (remaining > 0) {
-							incrementKillCount(owner, remaining);
-						} else {
-							advanceQuest(questName, owner, activeTaskListInfos);
-						}
-					}
-				}
+			if (remaining > 0) {
+				incrementKillCount(owner, remaining);
+			} else {
+				advanceQuest(questName, owner, getActiveTaskInfos(questName, playerObject));
 			}
 		}
 	}
 	
-	private boolean isKillPartOfTask(QuestLoader.QuestTaskInfo swgQuestTask, AIObject npcCorpse) {
-		String targetServerTemplate = swgQuestTask.getTargetServerTemplate();
-		Spawner spawner = npcCorpse.getSpawner();
-		String stfName = spawner.getStfName();
-		
-		return Objects.equals(targetServerTemplate, stfName);
-	}
-	
 	private void incrementKillCount(Player player, int remaining) {
 		ProsePackage prose = new ProsePackage(new StringId("quest/groundquests", "destroy_multiple_success"), "DI", remaining);
 		SystemMessageIntent.broadcastPersonal(player, prose);
@@ -282,6 +278,7 @@ public class QuestService extends Service {
 		List<QuestLoader.QuestTaskInfo> taskListInfos = questLoader.getTaskListInfos(questName);
 		Collection<Integer> nextTasksOnComplete = currentTask.getNextTasksOnComplete();
 		List<QuestLoader.QuestTaskInfo> nextTasks = mapActiveTasks(nextTasksOnComplete, taskListInfos);
+		updateKillTargets(playerObject, questName);
 		
 		handleTaskEvents(player, questName, nextTasks);
 	}
@@ -299,6 +296,7 @@ public class QuestService extends Service {
 			List<QuestLoader.QuestTaskInfo> taskListInfos = questLoader.getTaskListInfos(questName);
 			Collection<Integer> nextTasksOnComplete = currentTask.getNextTasksOnComplete();
 			List<QuestLoader.QuestTaskInfo> nextTasks = mapActiveTasks(nextTasksOnComplete, taskListInfos);
+			updateKillTargets(playerObject, questName);
 			
 			handleTaskEvents(player, questName, nextTasks);
 		});
@@ -320,6 +318,7 @@ public class QuestService extends Service {
 		}
 		
 		List<QuestLoader.QuestTaskInfo> nextTasks = getActiveTaskInfos(questName, playerObject);
+		updateKillTargets(playerObject, questName);
 		
 		if (nextTasks.isEmpty()) {
 			QuestLoader.QuestListInfo questListInfo = questLoader.getQuestListInfo(questName);
@@ -348,6 +347,7 @@ public class QuestService extends Service {
 	private void completeQuest(Player player, String questName) {
 		PlayerObject playerObject = player.getPlayerObject();
 		playerObject.completeQuest(questName);
+		updateKillTargets(playerObject, questName);
 		player.sendPacket(
 				new QuestCompletedMessage(player.getCreatureObject().getObjectId(), new CRC(questName)),
 				new PlayMusicMessage(0, "sound/ui_npe2_quest_completed.snd", 1, false)
@@ -355,6 +355,35 @@ public class QuestService extends Service {
 		StandardLog.onPlayerTrace(this, player, "completed quest %s", questName);
 	}
 	
+	private QuestKillTargets getKillTargets(PlayerObject playerObject) {
+		return killTargets.computeIfAbsent(playerObject, this::createKillTargets);
+	}
+	
+	private QuestKillTargets createKillTargets(PlayerObject playerObject) {
+		QuestKillTargets targets = new QuestKillTargets();
+		for (Map.Entry<CRC, Quest> entry : playerObject.getQuests().entrySet()) {
+			if (!entry.getValue().isComplete()) {
+				String questName = entry.getKey().getString();
+				targets.setQuest(questName, getActiveTaskInfos(questName, playerObject));
+			}
+		}
+		return targets;
+	}
+	
+	/**
+	 * Re-indexes the destroy tasks of the specified quest after its active tasks have changed.  Players without an index
+	 * are skipped, as their index is built from the journal on their next kill.
+	 */
+	private void updateKillTargets(PlayerObject playerObject, String questName) {
+		QuestKillTargets targets = killTargets.get(playerObject);
+		if (targets == null)
+			return;
+		if (playerObject.isQuestInJournal(questName) && !playerObject.isQuestComplete(questName))
+			targets.setQuest(questName, getActiveTaskInfos(questName, playerObject));
+		else
+			targets.removeQuest(questName);
+	}
+	
 	private List<QuestLoader.QuestTaskInfo> getActiveTaskInfos(String questName, PlayerObject playerObject) {
 		List<QuestLoader.QuestTaskInfo> taskListInfos = questLoader.getTaskListInfos(questName);
 		Collection<Integer> questActiveTasks = playerObject.getQuestActiveTasks(questName);
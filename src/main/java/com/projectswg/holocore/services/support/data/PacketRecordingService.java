@@ -3,6 +3,7 @@ package com.projectswg.holocore.services.support.data;
 import com.projectswg.holocore.intents.support.global.network.InboundPacketIntent;
 import com.projectswg.holocore.intents.support.global.network.OutboundPacketIntent;
 import com.projectswg.holocore.resources.support.data.server_info.BasicLogStream;
+import com.projectswg.holocore.resources.support.data.server_info.database.PswgConfigHandle;
 import com.projectswg.holocore.resources.support.data.server_info.mongodb.PswgDatabase;
 import me.joshlarson.jlcommon.control.IntentHandler;
 import me.joshlarson.jlcommon.control.Service;
@@ -12,9 +13,11 @@ import java.io.File;
 public class PacketRecordingService extends Service {
 	
 	private final BasicLogStream packetLogger;
+	private final PswgConfigHandle<Boolean> packetLogging;
 	
 	public PacketRecordingService() {
 		this.packetLogger = new BasicLogStream(new File("log/packets.txt"));
+		this.packetLogging = PswgDatabase.INSTANCE.getConfig().getBooleanHandle(this, "packetLogging", false);
 	}
 	
 	@IntentHandler
@@ -36,7 +39,7 @@ public class PacketRecordingService extends Service {
 	}
 	
 	private boolean isPacketDebug() {
-		return PswgDatabase.INSTANCE.getConfig().getBoolean(this, "packetLogging", false);
+		return packetLogging.get();
 	}
 	
 }
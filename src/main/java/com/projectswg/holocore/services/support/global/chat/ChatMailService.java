@@ -163,6 +163,7 @@ public class ChatMailService extends Service {
 			return;
 		
 		mail.setStatus(Mail.READ);
+		ghost.markDirty(); // Mail is saved with the player object, but sends no delta
 		sendPersistentMessage(player, mail, MailFlagType.FULL_MESSAGE);
 	}
 	
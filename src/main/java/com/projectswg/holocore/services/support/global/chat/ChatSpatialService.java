@@ -4,17 +4,22 @@ import com.projectswg.common.network.packets.swg.zone.object_controller.SpatialC
 import com.projectswg.holocore.intents.support.global.chat.SpatialChatIntent;
 import com.projectswg.holocore.resources.support.data.server_info.mongodb.PswgDatabase;
 import com.projectswg.holocore.resources.support.global.player.Player;
+import com.projectswg.holocore.resources.support.objects.awareness.ObjectAwareness;
+import com.projectswg.holocore.resources.support.objects.awareness.TerrainMap;
 import com.projectswg.holocore.resources.support.objects.swg.SWGObject;
 import com.projectswg.holocore.resources.support.objects.swg.creature.CreatureObject;
 import me.joshlarson.jlcommon.control.IntentHandler;
 import me.joshlarson.jlcommon.control.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class ChatSpatialService extends Service {
 	
 	private final int chatRange;
 	
 	public ChatSpatialService() {
-		this.chatRange = PswgDatabase.INSTANCE.getConfig().getInt(this, "spatialChatRange", 128);
+		this.chatRange = Math.min(PswgDatabase.INSTANCE.getConfig().getInt(this, "spatialChatRange", 128), TerrainMap.MAX_AWARENESS_RANGE);
 	}
 	
 	@IntentHandler
@@ -26,12 +31,12 @@ public class ChatSpatialService extends Service {
 		// Send to self
 		SpatialChat message = new SpatialChat(actor.getObjectId(), actor.getObjectId(), 0, spi.getMessage(), (short) spi.getChatType(), (short) 0, (byte) spi.getLanguageId());
 		
-		// Notify observers of the chat message
-		for (Player owner : actor.getObservers()) {
-			if (owner.getPlayerObject().isIgnored(senderName))
-				continue;
-			CreatureObject creature = owner.getCreatureObject();
-			if (creature.getWorldLocation().distanceTo(actor.getWorldLocation()) > chatRange)
+		// Notify nearby players of the chat message
+		List<CreatureObject> listeners = new ArrayList<>();
+		ObjectAwareness.queryRadius(actor, chatRange, CreatureObject.class, creature -> creature.isLoggedInPlayer() && actor.isVisible(creature), listeners);
+		for (CreatureObject creature : listeners) {
+			Player owner = creature.getOwnerShallow();
+			if (owner == null || owner.getPlayerObject().isIgnored(senderName))
 				continue;
 			owner.sendPacket(new SpatialChat(creature.getObjectId(), message));
 		}
@@ -19,6 +19,7 @@ import com.projectswg.holocore.resources.support.data.server_info.loader.DataLoa
 import com.projectswg.holocore.resources.support.data.server_info.loader.ValidWeapon;
 import com.projectswg.holocore.resources.support.global.commands.CombatCommand;
 import com.projectswg.holocore.resources.support.global.commands.Command;
+import com.projectswg.holocore.resources.support.global.commands.CommandCooldowns;
 import com.projectswg.holocore.resources.support.global.commands.Locomotion;
 import com.projectswg.holocore.resources.support.global.commands.State;
 import com.projectswg.holocore.resources.support.global.player.PlayerEvent;
@@ -29,6 +30,8 @@ import com.projectswg.holocore.resources.support.objects.swg.weapon.WeaponType;
 import com.projectswg.holocore.services.gameplay.combat.command.CombatCommandCommon;
 import com.projectswg.holocore.services.gameplay.combat.command.CombatCommandHandler;
 import com.projectswg.holocore.services.support.objects.ObjectStorageService.ObjectLookup;
+import com.projectswg.holocore.utilities.LatencyHistogram;
+import com.projectswg.holocore.utilities.StatisticsReporter;
 import me.joshlarson.jlcommon.concurrency.ScheduledThreadPool;
 import me.joshlarson.jlcommon.control.IntentHandler;
 import me.joshlarson.jlcommon.control.Service;
@@ -42,31 +45,30 @@ import java.util.stream.Collectors;
 
 public class CommandQueueService extends Service {
 	
+	private static final long CLOCK_ORIGIN = System.nanoTime() - 1;
+	
 	private final ScheduledThreadPool executor;
 	private final Map<CreatureObject, CreatureCombatQueue> combatQueueMap;
 	private final CombatCommandHandler combatCommandHandler;
-	private final long delayBetweenCheckingCommandQueue;
+	private final LatencyHistogram commandLatency;
 	
 	public CommandQueueService() {
-		this(100);
-	}
-	
-	public CommandQueueService(long delayBetweenCheckingCommandQueue) {
 		this.executor = new ScheduledThreadPool(4, "command-queue-%d");
 		this.combatQueueMap = new ConcurrentHashMap<>();
 		this.combatCommandHandler = new CombatCommandHandler();
-		this.delayBetweenCheckingCommandQueue = delayBetweenCheckingCommandQueue;
+		this.commandLatency = new LatencyHistogram();
 	}
 	
 	@Override
 	public boolean initialize() {
 		executor.start();
-		executor.executeWithFixedRate(0, delayBetweenCheckingCommandQueue, this::executeQueuedCommands);
+		StatisticsReporter.register(this, this::logStatistics);
 		return true;
 	}
 	
 	@Override
 	public boolean terminate() {
+		StatisticsReporter.unregister(this);
 		executor.stop();
 		return executor.awaitTermination(1000);
 	}
@@ -81,6 +83,14 @@ public class CommandQueueService extends Service {
 		return super.stop() && combatCommandHandler.stop();
 	}
 	
+	/**
+	 * Returns the histogram of time between a command being queued and it executing, including warmups and time spent
+	 * waiting for cooldowns
+	 */
+	public LatencyHistogram getCommandLatency() {
+		return commandLatency;
+	}
+	
 	@IntentHandler
 	private void handleInboundPacketIntent(InboundPacketIntent gpi) {
 		SWGPacket p = gpi.getPacket();
@@ -96,7 +106,7 @@ public class CommandQueueService extends Service {
 			QueueCommandIntent.broadcast(gpi.getPlayer().getCreatureObject(), target, request.getArguments(), command, request.getCounter());
 		} else if (p instanceof IntendedTarget) {
 			if (((IntendedTarget) p).getTargetId() == 0)
-				combatQueueMap.remove(gpi.getPlayer().getCreatureObject());
+				removeQueue(gpi.getPlayer().getCreatureObject());
 		}
 	}
 	
@@ -107,7 +117,7 @@ public class CommandQueueService extends Service {
 			// No reason to keep their combat queue in the map if they log out
 			// This also prevents queued commands from executing after the player logs out
 			if (creature != null)
-				combatQueueMap.remove(creature);
+				removeQueue(creature);
 		}
 	}
 	
@@ -118,51 +128,81 @@ public class CommandQueueService extends Service {
 	
 	@IntentHandler
 	private void handleExitCombatIntent(ExitCombatIntent eci) {
-		combatQueueMap.remove(eci.getSource());
+		removeQueue(eci.getSource());
 	}
 	
-	private void executeQueuedCommands() {
-		combatQueueMap.values().forEach(CreatureCombatQueue::executeNextCommand);
+	private void logStatistics() {
+		long count = commandLatency.getCount();
+		if (count > 0)
+			Log.d("Command latency over the last %d seconds: %s", StatisticsReporter.INTERVAL / 1000, commandLatency);
+		commandLatency.reset();
 	}
 	
 	private CreatureCombatQueue getQueue(CreatureObject creature) {
 		return combatQueueMap.computeIfAbsent(creature, c -> new CreatureCombatQueue());
 	}
 	
+	private void removeQueue(CreatureObject creature) {
+		CreatureCombatQueue queue = combatQueueMap.remove(creature);
+		if (queue != null)
+			queue.close();
+	}
+	
+	/**
+	 * Returns a non-negative monotonic timestamp in nanoseconds, so that 0 can be used as "never"
+	 */
+	private static long now() {
+		return System.nanoTime() - CLOCK_ORIGIN;
+	}
+	
 	private class CreatureCombatQueue {
 		
-		private static final String GLOBAL_CD_NAME = "globalCD";
 		private final Queue<EnqueuedCommand> commandQueue;
-		private final Set<String> activeCooldownGroups;
+		private final CommandCooldowns cooldowns;
+		private long scheduledWakeTime;
+		private boolean closed;
 		
 		public CreatureCombatQueue() {
 			this.commandQueue = new PriorityQueue<>();
-			this.activeCooldownGroups = ConcurrentHashMap.newKeySet();
+			this.cooldowns = new CommandCooldowns();
+			this.scheduledWakeTime = 0;
+			this.closed = false;
+		}
+		
+		public synchronized void close() {
+			closed = true;
+			commandQueue.clear();
 		}
 		
+		/**
+		 * Executes the next queued command if its cooldowns have expired, otherwise schedules a single wakeup for the
+		 * moment they do
+		 */
 		public synchronized void executeNextCommand() {
 			EnqueuedCommand peek = commandQueue.peek();
-			if (peek == null) {
+			if (peek == null || closed) {
 				return;
 			}
 			Command rootCommand = peek.getCommand();
 			
-			if (isCommandOnCooldown(rootCommand))
+			long now = now();
+			long readyTime = cooldowns.getReadyTime(getCooldownGroupCrc(rootCommand.getCooldownGroup()), getCooldownGroupCrc(rootCommand.getCooldownGroup2()));
+			if (readyTime > now) {
+				scheduleWakeup(readyTime, now);
 				return;
+			}
 			
 			EnqueuedCommand command = commandQueue.poll();
 			if (command != null)
 				execute(command);
 		}
 		
-		private boolean isCommandOnCooldown(Command rootCommand) {
-			if (activeCooldownGroups.contains(rootCommand.getCooldownGroup())) {
-				return true;
-			} else if (activeCooldownGroups.contains(rootCommand.getCooldownGroup2())) {
-				return true;
-			} else {
-				return activeCooldownGroups.contains(GLOBAL_CD_NAME);
-			}
+		private void scheduleWakeup(long wakeTime, long now) {
+			// An earlier wakeup will re-check the queue and reschedule if it is still blocked
+			if (scheduledWakeTime > now && scheduledWakeTime <= wakeTime)
+				return;
+			scheduledWakeTime = wakeTime;
+			executor.execute((wakeTime - now + 999_999) / 1_000_000, this::executeNextCommand);
 		}
 		
 		public synchronized void queueCommand(EnqueuedCommand command) {
@@ -180,6 +220,7 @@ public class CommandQueueService extends Service {
 				}
 				
 				commandQueue.offer(command);
+				executeNextCommand();
 			}
 		}
 		
@@ -205,7 +246,10 @@ public class CommandQueueService extends Service {
 			}
 		}
 		
-		private void executeCommandNow(EnqueuedCommand command) {
+		private synchronized void executeCommandNow(EnqueuedCommand command) {
+			if (closed)
+				return;
+			commandLatency.record(System.nanoTime() - command.getQueueTime());
 			Command rootCommand = command.getCommand();
 			CreatureObject source = command.getSource();
 			CombatCommand combatCommand = DataLoader.Companion.combatCommands().getCombatCommand(rootCommand.getName(), source.getCommands());
@@ -237,23 +281,21 @@ public class CommandQueueService extends Service {
 			boolean cd1 = rootCommand.getCooldownGroup().length() > 0;
 			boolean cd2 = rootCommand.getCooldownGroup2().length() > 0;
 			
-			if (cd1) {
-				startCooldownGroup(source, rootCommand, rootCommand.getCooldownGroup(), rootCommand.getCooldownTime(), command.getCounter(), moddedWeaponAttackSpeedWithCap);
-				activeCooldownGroups.add(rootCommand.getCooldownGroup());
-			}
+			long now = now();
+			if (cd1)
+				startCooldownGroup(source, rootCommand, rootCommand.getCooldownGroup(), rootCommand.getCooldownTime(), command.getCounter(), moddedWeaponAttackSpeedWithCap, now);
 			
-			if (cd2) {
-				startCooldownGroup(source, rootCommand, rootCommand.getCooldownGroup2(), rootCommand.getCooldownTime2(), command.getCounter(), moddedWeaponAttackSpeedWithCap);
-				activeCooldownGroups.add(rootCommand.getCooldownGroup2());
-			}
-			
-			if (cd1 || cd2) {
-				activeCooldownGroups.add(GLOBAL_CD_NAME);
-				executor.execute((long) (moddedWeaponAttackSpeedWithCap * 1000), () -> activeCooldownGroups.remove(GLOBAL_CD_NAME));
-			}
+			if (cd2)
+				startCooldownGroup(source, rootCommand, rootCommand.getCooldownGroup2(), rootCommand.getCooldownTime2(), command.getCounter(), moddedWeaponAttackSpeedWithCap, now);
 			
+			if (cd1 || cd2)
+				cooldowns.setGlobalExpiry(now + toNanos(moddedWeaponAttackSpeedWithCap));
 			
 			ExecuteCommandIntent.broadcast(source, command.getTarget(), command.getArguments(), command.getCommand());
+			
+			// Anything queued behind this command now knows how long it has to wait
+			if (!commandQueue.isEmpty())
+				executeNextCommand();
 		}
 		
 		private void sendQueueRemove(EnqueuedCommand command, CheckCommandResult checkCommandResult) {
@@ -275,9 +317,10 @@ public class CommandQueueService extends Service {
 			source.sendSelf(commandTimer);
 		}
 		
-		private void startCooldownGroup(CreatureObject creature, Command command, String group, double cooldownTime, int counter, float globalCooldownTime) {
+		private void startCooldownGroup(CreatureObject creature, Command command, String group, double cooldownTime, int counter, float globalCooldownTime, long now) {
+			int groupCrc = CRC.getCrc(group);
 			CommandTimer commandTimer = new CommandTimer(creature.getObjectId());
-			commandTimer.setCooldownGroupCrc(CRC.getCrc(group));
+			commandTimer.setCooldownGroupCrc(groupCrc);
 			commandTimer.setGlobalCooldownTime(globalCooldownTime);
 			commandTimer.setCooldownGroupTime((float) cooldownTime);
 			commandTimer.setCommandNameCrc(command.getCrc());
@@ -287,7 +330,15 @@ public class CommandQueueService extends Service {
 			commandTimer.addFlag(CommandTimer.CommandTimerFlag.EXECUTE);
 			creature.sendSelf(commandTimer);
 			
-			executor.execute((long) ((cooldownTime + globalCooldownTime) * 1000), () -> activeCooldownGroups.remove(group));
+			cooldowns.setExpiry(groupCrc, now + toNanos(cooldownTime + globalCooldownTime), now);
+		}
+		
+		private int getCooldownGroupCrc(String group) {
+			return group.isBlank() ? 0 : CRC.getCrc(group);
+		}
+		
+		private long toNanos(double seconds) {
+			return (long) (seconds * 1E9);
 		}
 		
 		private CheckCommandResult checkCommand(EnqueuedCommand command, CombatCommand combatCommand) {
@@ -393,6 +444,7 @@ public class CommandQueueService extends Service {
 		private final String arguments;
 		private final Command command;
 		private final int counter;
+		private final long queueTime;
 		
 		public EnqueuedCommand(@NotNull CreatureObject source, @NotNull Command command, @Nullable SWGObject target, @NotNull String arguments, int counter) {
 			this.source = source;
@@ -400,6 +452,7 @@ public class CommandQueueService extends Service {
 			this.target = target;
 			this.arguments = arguments;
 			this.counter = counter;
+			this.queueTime = System.nanoTime();
 		}
 		
 		@Override
@@ -446,6 +499,10 @@ public class CommandQueueService extends Service {
 			return counter;
 		}
 		
+		public long getQueueTime() {
+			return queueTime;
+		}
+		
 	}
 	
 }
@@ -37,6 +37,8 @@ import com.projectswg.holocore.resources.support.global.network.NetworkClient
 import com.projectswg.holocore.resources.support.global.network.TCPServer
 import com.projectswg.holocore.resources.support.global.network.UDPServer
 import com.projectswg.holocore.resources.support.global.network.UDPServer.UDPPacket
+import com.projectswg.holocore.utilities.StatisticsReporter
+import me.joshlarson.jlcommon.concurrency.ScheduledThreadPool
 import me.joshlarson.jlcommon.control.IntentHandler
 import me.joshlarson.jlcommon.control.Service
 import me.joshlarson.jlcommon.log.Log
@@ -52,6 +54,7 @@ class NetworkClientService : Service() {
 	private val clients: MutableMap<Long, NetworkClient>
 	private val inboundBuffer: ByteBuffer
 	private var udpServer: UDPServer
+	private val flushThread = ScheduledThreadPool(1, "network-client-flush")
 	@Volatile
 	private var operational: Boolean = false
 	
@@ -79,6 +82,9 @@ class NetworkClientService : Service() {
 			clients[client.id] = client
 			client
 		}
+		flushThread.start()
+		flushThread.executeWithFixedRate(OUTBOUND_FLUSH_INTERVAL, OUTBOUND_FLUSH_INTERVAL) { flushClients() }
+		StatisticsReporter.register(this) { logOutboundStatistics() }
 		return true
 	}
 	
@@ -87,6 +93,11 @@ class NetworkClientService : Service() {
 	}
 	
 	override fun stop(): Boolean {
+		StatisticsReporter.unregister(this)
+		flushThread.stop()
+		flushThread.awaitTermination(1000)
+		// Writes anything queued after the last scheduled flush, such as close frames, before the sockets are closed
+		flushClients()
 		try {
 			tcpServer.close()
 		} catch (e: IOException) {
@@ -101,6 +112,25 @@ class NetworkClientService : Service() {
 		return super.terminate()
 	}
 	
+	private fun flushClients() {
+		for (client in clients.values) {
+			client.flush()
+		}
+	}
+	
+	private fun logOutboundStatistics() {
+		var flushCount = 0L
+		var frameCount = 0L
+		var byteCount = 0L
+		for (client in clients.values) {
+			flushCount += client.takeOutboundFlushCount()
+			frameCount += client.takeOutboundFrameCount()
+			byteCount += client.takeOutboundByteCount()
+		}
+		if (flushCount > 0)
+			Log.d("Outbound in the last minute for %d connected clients: %d flushes, %.1f frames/flush, %.1f bytes/flush", clients.size, flushCount, frameCount / flushCount.toDouble(), byteCount / flushCount.toDouble())
+	}
+	
 	private fun disconnect(networkId: Long) {
 		disconnect(clients[networkId])
 	}
@@ -135,12 +165,14 @@ class NetworkClientService : Service() {
 	
 	@IntentHandler
 	private fun handleConnectionClosedIntent(cci: ConnectionClosedIntent) {
-		disconnect(cci.player.networkId)
+		disconnect(clients.remove(cci.player.networkId))
 	}
 	
 	companion object {
 		
 		private const val INBOUND_BUFFER_SIZE = 4096
+		/** Maximum time, in milliseconds, that an outbound packet waits before being written to the socket */
+		private const val OUTBOUND_FLUSH_INTERVAL = 10L
 	}
 	
 }
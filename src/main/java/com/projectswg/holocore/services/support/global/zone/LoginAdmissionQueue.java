@@ -0,0 +1,136 @@
+/***********************************************************************************
+ * Copyright (c) 2022 /// Project SWG /// www.projectswg.com                       *
+ *                                                                                 *
+ * ProjectSWG is the first NGE emulator for Star Wars Galaxies founded on          *
+ * July 7th, 2011 after SOE announced the official shutdown of Star Wars Galaxies. *
+ * Our goal is to create an emulator which will provide a server for players to    *
+ * continue playing a game similar to the one they used to play. We are basing     *
+ * it on the final publish of the game prior to end-game events.                   *
+ *                                                                                 *
+ * This file is part of Holocore.                                                  *
+ *                                                                                 *
+ * --------------------------------------------------------------------------------*
+ *                                                                                 *
+ * Holocore is free software: you can redistribute it and/or modify                *
+ * it under the terms of the GNU Affero General Public License as                  *
+ * published by the Free Software Foundation, either version 3 of the              *
+ * License, or (at your option) any later version.                                 *
+ *                                                                                 *
+ * Holocore is distributed in the hope that it will be useful,                     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of                  *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                   *
+ * GNU Affero General Public License for more details.                             *
+ *                                                                                 *
+ * You should have received a copy of the GNU Affero General Public License        *
+ * along with Holocore.  If not, see <http://www.gnu.org/licenses/>.               *
+ ***********************************************************************************/
+package com.projectswg.holocore.services.support.global.zone;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded queue of pending logins.  Requests are grouped by remote host and served round-robin between hosts, so a
+ * single host reconnecting many clients cannot push everyone else to the back of the queue.  Each host is also limited
+ * to a fixed number of attempts per time window.
+ */
+class LoginAdmissionQueue<T> {
+	
+	public static final int RATE_LIMITED = -1;
+	public static final int QUEUE_FULL = -2;
+	
+	private final Map<String, ArrayDeque<T>> pending;
+	private final Map<String, RateWindow> rateWindows;
+	private final int capacity;
+	private final int rateLimit;
+	private final long rateWindowNanos;
+	private int size;
+	
+	public LoginAdmissionQueue(int capacity, int rateLimit, long rateWindowNanos) {
+		this.pending = new LinkedHashMap<>();
+		this.rateWindows = new HashMap<>();
+		this.capacity = capacity;
+		this.rateLimit = rateLimit;
+		this.rateWindowNanos = rateWindowNanos;
+		this.size = 0;
+	}
+	
+	/**
+	 * Adds a login to the queue
+	 *
+	 * @param host the remote host the login came from
+	 * @param item the pending login
+	 * @param now the current time, from {@link System#nanoTime()}
+	 * @return the estimated 1-based position in the queue, or {@link #RATE_LIMITED} / {@link #QUEUE_FULL} if the login was rejected
+	 */
+	public synchronized int offer(String host, T item, long now) {
+		RateWindow window = rateWindows.computeIfAbsent(host, h -> new RateWindow(now));
+		if (now - window.start >= rateWindowNanos) {
+			window.start = now;
+			window.attempts = 0;
+		}
+		if (window.attempts >= rateLimit)
+			return RATE_LIMITED;
+		if (size >= capacity)
+			return QUEUE_FULL;
+		window.attempts++;
+		
+		ArrayDeque<T> queue = pending.computeIfAbsent(host, h -> new ArrayDeque<>());
+		queue.addLast(item);
+		size++;
+		return getPosition(queue.size());
+	}
+	
+	/**
+	 * Removes the next login, taking from each host in turn
+	 *
+	 * @return the next login, or null if the queue is empty
+	 */
+	public synchronized T poll() {
+		Iterator<Map.Entry<String, ArrayDeque<T>>> it = pending.entrySet().iterator();
+		if (!it.hasNext())
+			return null;
+		Map.Entry<String, ArrayDeque<T>> next = it.next();
+		ArrayDeque<T> queue = next.getValue();
+		T item = queue.pollFirst();
+		it.remove();
+		if (!queue.isEmpty())
+			pending.put(next.getKey(), queue); // move to the back of the rotation
+		size--;
+		return item;
+	}
+	
+	public synchronized int size() {
+		return size;
+	}
+	
+	/**
+	 * Forgets the rate windows of hosts that have not attempted a login within the last window
+	 */
+	public synchronized void pruneRateWindows(long now) {
+		rateWindows.values().removeIf(window -> now - window.start >= rateWindowNanos);
+	}
+	
+	private int getPosition(int hostPosition) {
+		int position = 0;
+		for (ArrayDeque<T> queue : pending.values())
+			position += Math.min(queue.size(), hostPosition);
+		return position;
+	}
+	
+	private static class RateWindow {
+		
+		private long start;
+		private int attempts;
+		
+		public RateWindow(long start) {
+			this.start = start;
+			this.attempts = 0;
+		}
+		
+	}
+	
+}
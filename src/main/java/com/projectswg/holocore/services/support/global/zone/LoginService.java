@@ -59,9 +59,14 @@ import com.projectswg.holocore.resources.support.objects.swg.SWGObject;
 import com.projectswg.holocore.resources.support.objects.swg.creature.CreatureObject;
 import com.projectswg.holocore.resources.support.objects.swg.player.PlayerObject;
 import com.projectswg.holocore.services.support.objects.ObjectStorageService.ObjectLookup;
+import com.projectswg.holocore.utilities.LatencyHistogram;
+import com.projectswg.holocore.utilities.StatisticsReporter;
+import me.joshlarson.jlcommon.concurrency.ThreadPool;
 import me.joshlarson.jlcommon.control.IntentHandler;
 import me.joshlarson.jlcommon.control.Service;
+import me.joshlarson.jlcommon.log.Log;
 
+import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -76,9 +81,34 @@ public class LoginService extends Service {
 	private static final byte [] SESSION_TOKEN = new byte[24];
 	
 	private final Map<String, List<CreatureObject>> players;
+	private final LoginAdmissionQueue<PendingLogin> admissionQueue;
+	private final ThreadPool loginExecutor;
+	private final LatencyHistogram loginLatency;
+	private final int loginThreads;
 	
 	public LoginService() {
+		int capacity = PswgDatabase.INSTANCE.getConfig().getInt(this, "loginQueueCapacity", 4096);
+		int rateLimit = PswgDatabase.INSTANCE.getConfig().getInt(this, "loginRateLimit", 10);
+		int rateWindow = PswgDatabase.INSTANCE.getConfig().getInt(this, "loginRateWindow", 10);
 		this.players = Collections.synchronizedMap(new HashMap<>());
+		this.admissionQueue = new LoginAdmissionQueue<>(capacity, rateLimit, rateWindow * 1_000_000_000L);
+		this.loginThreads = PswgDatabase.INSTANCE.getConfig().getInt(this, "loginThreads", Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+		this.loginExecutor = new ThreadPool(loginThreads, "login-service-%d");
+		this.loginLatency = new LatencyHistogram();
+	}
+	
+	@Override
+	public boolean initialize() {
+		loginExecutor.start();
+		StatisticsReporter.register(this, this::logStatistics);
+		return true;
+	}
+	
+	@Override
+	public boolean terminate() {
+		StatisticsReporter.unregister(this);
+		loginExecutor.stop(true);
+		return loginExecutor.awaitTermination(1000);
 	}
 	
 	@IntentHandler
@@ -135,11 +165,17 @@ public class LoginService extends Service {
 			sendLoginSuccessPacket(player);
 			return;
 		}
+		if (player.getPlayerState() == PlayerState.LOGGING_IN) // Already waiting in the admission queue
+			return;
 		assert player.getPlayerState() == PlayerState.CONNECTED;
 		assert player.getPlayerServer() == PlayerServer.NONE;
 		player.setPlayerState(PlayerState.LOGGING_IN);
 		player.setPlayerServer(PlayerServer.LOGIN);
 		
+		admitLogin(new PendingLogin(player, loginRequest.getSocketAddress(), true, () -> processLogin(player, loginRequest)));
+	}
+	
+	private void processLogin(Player player, HoloLoginRequestPacket loginRequest) {
 		UserMetadata user = PswgDatabase.INSTANCE.getUsers().getUser(loginRequest.getUsername());
 		player.setUsername(loginRequest.getUsername());
 		if (user == null) {
@@ -194,6 +230,8 @@ public class LoginService extends Service {
 			sendLoginSuccessPacket(player);
 			return;
 		}
+		if (player.getPlayerState() == PlayerState.LOGGING_IN) // Already waiting in the admission queue
+			return;
 		assert player.getPlayerState() == PlayerState.CONNECTED;
 		assert player.getPlayerServer() == PlayerServer.NONE;
 		player.setPlayerState(PlayerState.LOGGING_IN);
@@ -205,6 +243,60 @@ public class LoginService extends Service {
 			return;
 		}
 		
+		admitLogin(new PendingLogin(player, socketAddress, false, () -> processLogin(player, username, password, socketAddress)));
+	}
+	
+	/**
+	 * Queues the login for the login worker threads, which perform the database lookup and password hash away from the
+	 * intent threads.  Logins over the per-host rate limit, or beyond the queue's capacity, are rejected immediately.
+	 */
+	private void admitLogin(PendingLogin login) {
+		Player player = login.getPlayer();
+		InetSocketAddress address = player.getAddress();
+		String host = (address == null) ? "" : address.getHostString();
+		int position = admissionQueue.offer(host, login, login.getQueued());
+		switch (position) {
+			case LoginAdmissionQueue.RATE_LIMITED -> {
+				StandardLog.onPlayerEvent(this, player, "failed to login [rate limited] from %s", login.getSocketAddress());
+				onLoginRejected(login, "Too many login attempts, please wait before trying again");
+			}
+			case LoginAdmissionQueue.QUEUE_FULL -> {
+				StandardLog.onPlayerEvent(this, player, "failed to login [queue full] from %s", login.getSocketAddress());
+				onLoginRejected(login, "The server is busy, please try again shortly");
+			}
+			default -> {
+				if (position > loginThreads && !login.isHolo())
+					player.sendPacket(new ErrorMessage("Login Queued", "You are number " + position + " in the login queue", false));
+				loginExecutor.execute(this::processNextLogin);
+			}
+		}
+	}
+	
+	private void processNextLogin() {
+		PendingLogin login = admissionQueue.poll();
+		if (login == null)
+			return;
+		Player player = login.getPlayer();
+		if (player.getPlayerState() != PlayerState.LOGGING_IN) // Disconnected while queued
+			return;
+		try {
+			login.getLogin().run();
+		} catch (Throwable t) {
+			Log.e(t);
+			onLoginRejected(login, "Internal server error");
+		} finally {
+			loginLatency.record(System.nanoTime() - login.getQueued());
+		}
+	}
+	
+	private void logStatistics() {
+		admissionQueue.pruneRateWindows(System.nanoTime());
+		if (loginLatency.getCount() > 0)
+			Log.d("Login latency over the last %d seconds: %s  [queued=%d]", StatisticsReporter.INTERVAL / 1000, loginLatency, admissionQueue.size());
+		loginLatency.reset();
+	}
+	
+	private void processLogin(Player player, String username, String password, SocketAddress socketAddress) {
 		UserMetadata user = PswgDatabase.INSTANCE.getUsers().getUser(username);
 		player.setUsername(username);
 		if (user == null) {
@@ -241,6 +333,16 @@ public class LoginService extends Service {
 		new LoginEventIntent(player.getNetworkId(), LoginEvent.LOGIN_SUCCESS).broadcast();
 	}
 	
+	private void onLoginRejected(PendingLogin login, String message) {
+		Player player = login.getPlayer();
+		player.setPlayerState(PlayerState.DISCONNECTED);
+		new LoginEventIntent(player.getNetworkId(), LoginEvent.LOGIN_FAIL_SERVER_ERROR).broadcast();
+		if (login.isHolo())
+			player.sendPacket(new HoloLoginResponsePacket(false, message));
+		else
+			player.sendPacket(new ErrorMessage("Login Failed!", message, false));
+	}
+	
 	private void onLoginBanned(Player player) {
 		player.setPlayerState(PlayerState.DISCONNECTED);
 		new LoginEventIntent(player.getNetworkId(), LoginEvent.LOGIN_FAIL_BANNED).broadcast();
@@ -295,5 +397,43 @@ public class LoginService extends Service {
 		}
 		return characters;
 	}
-
+	
+	private static class PendingLogin {
+		
+		private final Player player;
+		private final SocketAddress socketAddress;
+		private final boolean holo;
+		private final Runnable login;
+		private final long queued;
+		
+		public PendingLogin(Player player, SocketAddress socketAddress, boolean holo, Runnable login) {
+			this.player = player;
+			this.socketAddress = socketAddress;
+			this.holo = holo;
+			this.login = login;
+			this.queued = System.nanoTime();
+		}
+		
+		public Player getPlayer() {
+			return player;
+		}
+		
+		public SocketAddress getSocketAddress() {
+			return socketAddress;
+		}
+		
+		public boolean isHolo() {
+			return holo;
+		}
+		
+		public Runnable getLogin() {
+			return login;
+		}
+		
+		public long getQueued() {
+			return queued;
+		}
+		
+	}
+	
 }
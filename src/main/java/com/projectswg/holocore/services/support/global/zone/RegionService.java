@@ -0,0 +1,163 @@
+/***********************************************************************************
+ * Copyright (c) 2022 /// Project SWG /// www.projectswg.com                       *
+ *                                                                                 *
+ * ProjectSWG is the first NGE emulator for Star Wars Galaxies founded on          *
+ * July 7th, 2011 after SOE announced the official shutdown of Star Wars Galaxies. *
+ * Our goal is to create an emulator which will provide a server for players to    *
+ * continue playing a game similar to the one they used to play. We are basing     *
+ * it on the final publish of the game prior to end-game events.                   *
+ *                                                                                 *
+ * This file is part of Holocore.                                                  *
+ *                                                                                 *
+ * --------------------------------------------------------------------------------*
+ *                                                                                 *
+ * Holocore is free software: you can redistribute it and/or modify                *
+ * it under the terms of the GNU Affero General Public License as                  *
+ * published by the Free Software Foundation, either version 3 of the              *
+ * License, or (at your option) any later version.                                 *
+ *                                                                                 *
+ * Holocore is distributed in the hope that it will be useful,                     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of                  *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                   *
+ * GNU Affero General Public License for more details.                             *
+ *                                                                                 *
+ * You should have received a copy of the GNU Affero General Public License        *
+ * along with Holocore.  If not, see <http://www.gnu.org/licenses/>.               *
+ ***********************************************************************************/
+package com.projectswg.holocore.services.support.global.zone;
+
+import com.projectswg.common.data.location.Location;
+import com.projectswg.holocore.intents.support.global.zone.PlayerEventIntent;
+import com.projectswg.holocore.intents.support.global.zone.PlayerTransformedIntent;
+import com.projectswg.holocore.intents.support.global.zone.RegionEnteredIntent;
+import com.projectswg.holocore.intents.support.global.zone.RegionExitedIntent;
+import com.projectswg.holocore.intents.support.global.zone.RegisterRegionIntent;
+import com.projectswg.holocore.intents.support.global.zone.UnregisterRegionIntent;
+import com.projectswg.holocore.intents.support.objects.swg.DestroyObjectIntent;
+import com.projectswg.holocore.resources.support.global.zone.region.Region;
+import com.projectswg.holocore.resources.support.global.zone.region.RegionIndex;
+import com.projectswg.holocore.resources.support.objects.swg.creature.CreatureObject;
+import me.joshlarson.jlcommon.control.IntentHandler;
+import me.joshlarson.jlcommon.control.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks which regions every player is in, so that services only hear about a region when a player crosses its
+ * boundary - rather than each of them testing every region on every movement.
+ */
+public class RegionService extends Service {
+	
+	private final RegionIndex index;
+	private final Map<CreatureObject, List<Region>> playerRegions;
+	
+	public RegionService() {
+		this.index = new RegionIndex();
+		this.playerRegions = new ConcurrentHashMap<>();
+	}
+	
+	@Override
+	public boolean terminate() {
+		playerRegions.clear();
+		return super.terminate();
+	}
+	
+	@IntentHandler
+	private void handleRegisterRegionIntent(RegisterRegionIntent rri) {
+		Region region = rri.getRegion();
+		Region previous = index.add(region);
+		if (previous != null)
+			exitRegion(previous);
+		enterRegion(region);
+	}
+	
+	@IntentHandler
+	private void handleUnregisterRegionIntent(UnregisterRegionIntent uri) {
+		Region removed = index.remove(uri.getType(), uri.getId());
+		if (removed != null)
+			exitRegion(removed);
+	}
+	
+	@IntentHandler
+	private void handlePlayerTransformedIntent(PlayerTransformedIntent pti) {
+		CreatureObject creature = pti.getPlayer();
+		Location location = creature.getWorldLocation();
+		List<Region> current = new ArrayList<>(2);
+		index.getRegions(location.getTerrain(), location.getX(), location.getZ(), current);
+		
+		List<Region> previous = playerRegions.put(creature, current);
+		if (previous == null)
+			previous = List.of();
+		
+		for (Region region : previous) {
+			if (!current.contains(region))
+				RegionExitedIntent.broadcast(creature, region);
+		}
+		for (Region region : current) {
+			if (!previous.contains(region))
+				RegionEnteredIntent.broadcast(creature, region, pti.getOldParent(), pti.getOldLocation());
+		}
+	}
+	
+	@IntentHandler
+	private void handlePlayerEventIntent(PlayerEventIntent pei) {
+		CreatureObject creature = pei.getPlayer().getCreatureObject();
+		if (creature == null)
+			return;
+		switch (pei.getEvent()) {
+			case PE_LOGGED_OUT, PE_DISAPPEAR, PE_DESTROYED, PE_SERVER_KICKED -> exitAllRegions(creature);
+		}
+	}
+	
+	@IntentHandler
+	private void handleDestroyObjectIntent(DestroyObjectIntent doi) {
+		if (doi.getObject() instanceof CreatureObject creature)
+			exitAllRegions(creature);
+	}
+	
+	private void exitAllRegions(CreatureObject creature) {
+		List<Region> previous = playerRegions.remove(creature);
+		if (previous != null) {
+			for (Region region : previous)
+				RegionExitedIntent.broadcast(creature, region);
+		}
+	}
+	
+	/**
+	 * Adds the region to every player already within it, as they won't cross its boundary to enter it
+	 */
+	private void enterRegion(Region region) {
+		for (Map.Entry<CreatureObject, List<Region>> e : playerRegions.entrySet()) {
+			CreatureObject creature = e.getKey();
+			Location location = creature.getWorldLocation();
+			if (location.getTerrain() != region.getTerrain() || !region.contains(location.getX(), location.getZ()))
+				continue;
+			List<Region> regions = e.getValue();
+			if (regions.contains(region))
+				continue;
+			List<Region> entered = new ArrayList<>(regions);
+			entered.add(region);
+			if (playerRegions.replace(creature, regions, entered))
+				RegionEnteredIntent.broadcast(creature, region, creature.getParent(), creature.getLocation());
+		}
+	}
+	
+	/**
+	 * Removes the region from every player within it, as it has been replaced or removed from the index
+	 */
+	private void exitRegion(Region region) {
+		for (Map.Entry<CreatureObject, List<Region>> e : playerRegions.entrySet()) {
+			List<Region> regions = e.getValue();
+			if (!regions.contains(region))
+				continue;
+			List<Region> remaining = new ArrayList<>(regions);
+			remaining.remove(region);
+			if (playerRegions.replace(e.getKey(), regions, remaining))
+				RegionExitedIntent.broadcast(e.getKey(), region);
+		}
+	}
+	
+}
@@ -14,6 +14,7 @@ import me.joshlarson.jlcommon.control.ManagerStructure;
 		ConnectionService.class,
 		LoginService.class,
 		PlayerSessionService.class,
+		RegionService.class,
 		ZoneService.class
 })
 public class ZoneManager extends Manager {
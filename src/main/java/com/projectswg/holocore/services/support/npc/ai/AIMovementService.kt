@@ -8,6 +8,7 @@ import com.projectswg.holocore.intents.support.npc.ai.StopNpcMovementIntent
 import com.projectswg.holocore.resources.support.npc.ai.NavigationOffset
 import com.projectswg.holocore.resources.support.npc.ai.NavigationPoint
 import com.projectswg.holocore.resources.support.npc.ai.NavigationRouteType
+import com.projectswg.holocore.resources.support.npc.ai.NavigationSegment
 import com.projectswg.holocore.resources.support.objects.swg.custom.AIObject
 import me.joshlarson.jlcommon.concurrency.ScheduledThreadPool
 import me.joshlarson.jlcommon.control.IntentHandler
@@ -38,7 +39,7 @@ class AIMovementService : Service() {
 	private fun handleStartNpcMovementIntent(snmi: StartNpcMovementIntent) {
 		val obj = snmi.getObject()
 		
-		val route = NavigationPoint.from(obj.parent, obj.location, snmi.parent, snmi.destination, snmi.speed)
+		val route = NavigationPoint.segments(obj.parent, obj.location, snmi.parent, snmi.destination, snmi.speed)
 		if (route.isEmpty())
 			routes.remove(obj)
 		else
@@ -48,7 +49,7 @@ class AIMovementService : Service() {
 	@IntentHandler
 	private fun handleCompileNpcMovementIntent(snmi: CompileNpcMovementIntent) {
 		val obj = snmi.getObject()
-		val route = ArrayList<NavigationPoint>(snmi.points.size)
+		val route = ArrayList<NavigationSegment>(snmi.points.size)
 		val waypoints = snmi.points
 		for ((index, point) in waypoints.withIndex()) {
 			val next = waypoints.getOrNull(index+1) ?: waypoints.getOrNull(0)
@@ -77,28 +78,58 @@ class AIMovementService : Service() {
 		routes.values.forEach { it.execute() }
 	}
 	
-	private fun appendRoutePoint(waypoints: MutableList<NavigationPoint>, waypoint: NavigationPoint, speed: Double) {
-		val prev = if (waypoints.isEmpty()) null else waypoints[waypoints.size - 1]
+	private fun appendRoutePoint(route: MutableList<NavigationSegment>, waypoint: NavigationPoint, speed: Double) {
+		val prev = route.lastOrNull()
 		if (waypoint.isNoOperation) {
-			waypoints.add(waypoint)
+			// Consecutive pauses at the same point collapse into a single segment
+			val extended = if (prev != null && prev.isNoOperation && prev.getPoint(0) == waypoint) prev.extend(1) else null
+			if (extended != null)
+				route[route.size - 1] = extended
+			else
+				route.add(NavigationSegment.stationary(waypoint, 1))
 			return
 		}
 		if (prev == null) {
-			waypoints.add(NavigationPoint.at(waypoint.parent, waypoint.location, speed))
+			route.add(NavigationSegment.stationary(NavigationPoint.at(waypoint.parent, waypoint.location, speed), 1))
 		} else {
-			if (prev.location.equals(waypoint.location) && prev.parent === waypoint.parent)
+			if (prev.destination.equals(waypoint.location) && prev.parent === waypoint.parent)
 				return
-			waypoints.addAll(NavigationPoint.from(prev.parent, prev.location, waypoint.parent, waypoint.location, speed))
+			route.addAll(NavigationPoint.segments(prev.parent, prev.destination, waypoint.parent, waypoint.location, speed))
 		}
 	}
 	
-	private class NavigationRoute(private val obj: AIObject, private val route: List<NavigationPoint>, private val type: NavigationRouteType) {
+	private class NavigationRoute(private val obj: AIObject, private val route: List<NavigationSegment>, private val type: NavigationRouteType) {
 		
 		private val index = AtomicInteger(0)
+		private val segmentStart = IntArray(route.size)
+		private val size: Int
+		private var dormantSteps = 0
+		
+		init {
+			var steps = 0
+			for ((i, segment) in route.withIndex()) {
+				segmentStart[i] = steps
+				steps += segment.steps
+			}
+			size = steps
+		}
 		
 		fun execute() {
-			var index = this.index.getAndIncrement()
-			if (index >= route.size) {
+			if (obj.isDormant) {
+				// Nobody can see this NPC, so only count the steps and catch up once it wakes
+				dormantSteps++
+				return
+			}
+			var index = this.index.getAndAdd(1 + dormantSteps)
+			if (dormantSteps > 0) {
+				index += dormantSteps
+				if (type == NavigationRouteType.LOOP) {
+					index %= size
+					this.index.set(index + 1)
+				}
+				dormantSteps = 0
+			}
+			if (index >= size) {
 				when (type) {
 					NavigationRouteType.LOOP -> {
 						this.index.set(0)
@@ -110,9 +141,16 @@ class AIMovementService : Service() {
 					}
 				}
 			}
-			assert(index < route.size && index >= 0)
+			assert(index < size && index >= 0)
 			
-			route[index].move(obj)
+			getPoint(index).move(obj)
+		}
+		
+		private fun getPoint(index: Int): NavigationPoint {
+			var segment = Arrays.binarySearch(segmentStart, index)
+			if (segment < 0)
+				segment = -segment - 2
+			return route[segment].getPoint(index - segmentStart[segment])
 		}
 	}
 	
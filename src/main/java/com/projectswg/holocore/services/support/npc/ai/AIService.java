@@ -5,9 +5,11 @@ import com.projectswg.holocore.intents.support.npc.ai.StartNpcCombatIntent;
 import com.projectswg.holocore.intents.support.objects.swg.DestroyObjectIntent;
 import com.projectswg.holocore.intents.support.objects.swg.ObjectCreatedIntent;
 import com.projectswg.holocore.resources.support.objects.swg.custom.AIObject;
-import me.joshlarson.jlcommon.concurrency.ScheduledThreadPool;
+import com.projectswg.holocore.resources.support.objects.swg.custom.AIScheduler;
+import com.projectswg.holocore.utilities.StatisticsReporter;
 import me.joshlarson.jlcommon.control.IntentHandler;
 import me.joshlarson.jlcommon.control.Service;
+import me.joshlarson.jlcommon.log.Log;
 
 import java.util.Collection;
 import java.util.List;
@@ -16,22 +18,23 @@ import java.util.concurrent.atomic.AtomicBoolean;
 
 public class AIService extends Service {
 	
-	private final ScheduledThreadPool executor;
+	private final AIScheduler scheduler;
 	private final Collection<AIObject> aiObjects;
 	private final AtomicBoolean started;
 	
 	public AIService() {
-		this.executor = new ScheduledThreadPool(16, "ai-service-%d");
+		this.scheduler = new AIScheduler();
 		this.aiObjects = ConcurrentHashMap.newKeySet();
 		this.started = new AtomicBoolean(false);
 	}
 	
 	@Override
 	public boolean start() {
-		executor.start();
+		scheduler.start();
+		StatisticsReporter.register(this, this::logStatistics);
 		started.set(true);
 		for (AIObject obj : aiObjects) {
-			obj.start(executor);
+			obj.start(scheduler);
 		}
 		return true;
 	}
@@ -40,8 +43,19 @@ public class AIService extends Service {
 	public boolean stop() {
 		started.set(false);
 		aiObjects.clear();
-		executor.stop();
-		return executor.awaitTermination(1000);
+		StatisticsReporter.unregister(this);
+		scheduler.stop();
+		return scheduler.awaitTermination(1000);
+	}
+	
+	private void logStatistics() {
+		long lateTicks = scheduler.getLateTickCount();
+		double maxLateness = scheduler.getMaxTickLateness();
+		scheduler.resetStatistics();
+		if (lateTicks > 0)
+			Log.w("AI scheduler fell behind on %d ticks, up to %.1fms late. Queue depth: %d  Loops executed: %d", lateTicks, maxLateness, scheduler.getQueueDepth(), scheduler.getExecutedCount());
+		else
+			Log.d("AI scheduler queue depth: %d  Loops executed: %d", scheduler.getQueueDepth(), scheduler.getExecutedCount());
 	}
 	
 	@IntentHandler
@@ -50,7 +64,7 @@ public class AIService extends Service {
 			return;
 		AIObject obj = (AIObject) oci.getObject();
 		if (aiObjects.add(obj) && started.get())
-			obj.start(executor);
+			obj.start(scheduler);
 	}
 	
 	@IntentHandler
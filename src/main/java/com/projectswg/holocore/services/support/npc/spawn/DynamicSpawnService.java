@@ -31,15 +31,20 @@ import com.projectswg.common.data.location.Terrain;
 import com.projectswg.common.data.swgiff.parsers.terrain.TerrainTemplate;
 import com.projectswg.holocore.intents.gameplay.world.spawn.CreateSpawnIntent;
 import com.projectswg.holocore.intents.support.global.zone.PlayerTransformedIntent;
+import com.projectswg.holocore.intents.support.global.zone.RegionEnteredIntent;
+import com.projectswg.holocore.intents.support.global.zone.RegionExitedIntent;
+import com.projectswg.holocore.intents.support.global.zone.RegisterRegionIntent;
 import com.projectswg.holocore.intents.support.objects.swg.DestroyObjectIntent;
-import com.projectswg.holocore.resources.support.data.location.ClosestLocationReducer;
 import com.projectswg.holocore.resources.support.data.server_info.StandardLog;
 import com.projectswg.holocore.resources.support.data.server_info.loader.*;
 import com.projectswg.holocore.resources.support.data.server_info.loader.npc.NpcStaticSpawnLoader;
 import com.projectswg.holocore.resources.support.data.server_info.mongodb.PswgDatabase;
+import com.projectswg.holocore.resources.support.global.zone.region.Region;
+import com.projectswg.holocore.resources.support.global.zone.region.RegionType;
 import com.projectswg.holocore.resources.support.npc.spawn.SimpleSpawnInfo;
 import com.projectswg.holocore.resources.support.npc.spawn.Spawner;
 import com.projectswg.holocore.resources.support.npc.spawn.SpawnerType;
+import com.projectswg.holocore.resources.support.objects.awareness.ObjectAwareness;
 import com.projectswg.holocore.resources.support.objects.swg.SWGObject;
 import com.projectswg.holocore.resources.support.objects.swg.creature.CreatureDifficulty;
 import com.projectswg.holocore.resources.support.objects.swg.creature.CreatureObject;
@@ -51,12 +56,14 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Optional;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadLocalRandom;
 
 public class DynamicSpawnService extends Service {
 	
 	private static final int MAX_SPAWN_DISTANCE_TO_PLAYER = 250;    // Spawner is created up to this amount of meters away from the player
+	private static final int OBSERVED_NPC_RANGE = 200;	// Players observe creatures up to this amount of meters away
 	private static final SpawnerType SPAWNER_TYPE = SpawnerType.WAYPOINT_AUTO_SPAWN;	// Important that this type is only used by dynamic spawns
 	
 	private final DynamicSpawnLoader dynamicSpawnLoader;
@@ -64,6 +71,7 @@ public class DynamicSpawnService extends Service {
 	private final TerrainLevelLoader terrainLevelLoader;
 	private final long npcSpawnChance;	// Chance in % that a NPC is dynamically spawned when a player moves
 	private final long maxObservedNpcs;	// A player should never see more than this amount of alive NPCs
+	private final Map<CreatureObject, Integer> noSpawnZoneOccupants;	// Number of no spawn zones each player is near
 	
 	public DynamicSpawnService() {
 		dynamicSpawnLoader = ServerData.INSTANCE.getDynamicSpawns();
@@ -71,6 +79,31 @@ public class DynamicSpawnService extends Service {
 		terrainLevelLoader = ServerData.INSTANCE.getTerrainLevels();
 		npcSpawnChance = PswgDatabase.INSTANCE.getConfig().getLong(this, "npcSpawnChance", 7);
 		maxObservedNpcs = PswgDatabase.INSTANCE.getConfig().getLong(this, "maxObservedNpcs", 10);
+		noSpawnZoneOccupants = new ConcurrentHashMap<>();
+	}
+	
+	@Override
+	public boolean start() {
+		registerNoSpawnZones();
+		return super.start();
+	}
+	
+	@Override
+	public boolean terminate() {
+		noSpawnZoneOccupants.clear();
+		return super.terminate();
+	}
+	
+	@IntentHandler
+	private void handleRegionEnteredIntent(RegionEnteredIntent intent) {
+		if (intent.getRegion().getType() == RegionType.NO_SPAWN_ZONE)
+			noSpawnZoneOccupants.merge(intent.getPlayer(), 1, Integer::sum);
+	}
+	
+	@IntentHandler
+	private void handleRegionExitedIntent(RegionExitedIntent intent) {
+		if (intent.getRegion().getType() == RegionType.NO_SPAWN_ZONE)
+			noSpawnZoneOccupants.computeIfPresent(intent.getPlayer(), (creature, zones) -> zones <= 1 ? null : zones - 1);
 	}
 	
 	@IntentHandler
@@ -120,49 +153,23 @@ public class DynamicSpawnService extends Service {
 			return;
 		}
 		
-		if (noSpawnZoneLoader.isInNoSpawnZone(location)) {
-			// The player is in a no spawn zone. Don't spawn anything.
+		if (noSpawnZoneOccupants.containsKey(player)) {
+			// The player is in or too close to a no spawn zone. Don't spawn anything.
 			return;
 		}
 		
 		String dynamicSpawnEggTemplate = SPAWNER_TYPE.getObjectTemplate();
 		
-		long dynamicSpawnsWithAliveNpcs = player.getAware().stream()
-				.filter(swgObject -> swgObject instanceof AIObject)
-				.map(swgObject -> (AIObject) swgObject)
-				.map(AIObject::getSpawner)
-				.map(Spawner::getEgg)
-				.map(SWGObject::getTemplate)
-				.filter(dynamicSpawnEggTemplate::equals)
-				.count();
+		long dynamicSpawnsWithAliveNpcs = ObjectAwareness.queryRadius(player, OBSERVED_NPC_RANGE, AIObject.class, npc -> {
+			Spawner spawner = npc.getSpawner();
+			return spawner != null && dynamicSpawnEggTemplate.equals(spawner.getEgg().getTemplate());
+		}, null);
 		
 		if (dynamicSpawnsWithAliveNpcs >= maxObservedNpcs) {
 			// Plenty spawns near this player already - do nothing
 			return;
 		}
 		
-		// Find closest no spawn zone
-		Collection<NoSpawnZoneLoader.NoSpawnZoneInfo> noSpawnZoneInfos = noSpawnZoneLoader.getNoSpawnZoneInfos(terrain);
-		
-		if (!noSpawnZoneInfos.isEmpty()) {
-			Optional<Location> closestZoneOpt = noSpawnZoneInfos.stream()
-					.map(noSpawnZoneInfo -> Location.builder()
-							.setX(noSpawnZoneInfo.getX())
-							.setZ(noSpawnZoneInfo.getZ())
-							.setTerrain(location.getTerrain())
-							.build())
-					.reduce(new ClosestLocationReducer(location));
-			
-			Location closestZoneLocation = closestZoneOpt.get();
-			
-			boolean tooCloseToNoSpawnZone = location.isWithinFlatDistance(closestZoneLocation, MAX_SPAWN_DISTANCE_TO_PLAYER);
-			
-			if (tooCloseToNoSpawnZone) {
-				// Player is too close to a no spawn zone. Don't spawn anything.
-				return;
-			}
-		}
-		
 		// Spawn the egg
 		double randomOffsetX = random.nextDouble(-MAX_SPAWN_DISTANCE_TO_PLAYER, MAX_SPAWN_DISTANCE_TO_PLAYER);
 		double randomOffsetZ = random.nextDouble(-MAX_SPAWN_DISTANCE_TO_PLAYER, MAX_SPAWN_DISTANCE_TO_PLAYER);
@@ -193,6 +200,20 @@ public class DynamicSpawnService extends Service {
 		spawn(randomNpc(spawnInfo.getNpcNormal4()), CreatureDifficulty.NORMAL, spawnerFlag, minLevel, maxLevel, eggLocation);
 	}
 	
+	/**
+	 * Registers a region around every no spawn zone that also covers the distance an egg may be placed from a player,
+	 * so that being within one of these regions means nothing may be spawned
+	 */
+	private void registerNoSpawnZones() {
+		for (Terrain terrain : Terrain.values()) {
+			int index = 0;
+			for (NoSpawnZoneLoader.NoSpawnZoneInfo zone : noSpawnZoneLoader.getNoSpawnZoneInfos(terrain)) {
+				double radius = Math.max(zone.getRadius(), MAX_SPAWN_DISTANCE_TO_PLAYER);
+				RegisterRegionIntent.broadcast(new Region(terrain.name() + '-' + index++, RegionType.NO_SPAWN_ZONE, terrain, zone.getX(), zone.getZ(), radius));
+			}
+		}
+	}
+	
 	private void spawn(String npcId, CreatureDifficulty difficulty, NpcStaticSpawnLoader.SpawnerFlag spawnerFlag, int minLevel, int maxLevel, Location location) {
 		if (npcId == null) {
 			return;
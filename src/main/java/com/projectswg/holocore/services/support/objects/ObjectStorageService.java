@@ -10,6 +10,7 @@ import com.projectswg.holocore.resources.support.data.persistable.SWGObjectFacto
 import com.projectswg.holocore.resources.support.data.server_info.StandardLog;
 import com.projectswg.holocore.resources.support.data.server_info.loader.BuildoutLoader;
 import com.projectswg.holocore.resources.support.data.server_info.loader.DataLoader;
+import com.projectswg.holocore.resources.support.data.server_info.loader.ServerData;
 import com.projectswg.holocore.resources.support.data.server_info.mongodb.PswgDatabase;
 import com.projectswg.holocore.resources.support.objects.ObjectCreator;
 import com.projectswg.holocore.resources.support.objects.swg.SWGObject;
@@ -24,19 +25,25 @@ import me.joshlarson.jlcommon.log.Log;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 
 public class ObjectStorageService extends Service {
 	
+	private static final long SAVE_INTERVAL = TimeUnit.MINUTES.toMillis(5);
+	
 	private final ScheduledThreadPool persistenceThread;
 	private final Set<SWGObject> persistedObjects;
 	private final Map<Long, SWGObject> objectMap;
 	private final Map<Long, SWGObject> buildouts;
 	private final Map<String, BuildingObject> buildingLookup;
+	private final AtomicLong lastSaveTime;
+	private final AtomicLong dirtyObjectCount;
+	private final AtomicLong writtenObjectCount;
+	private int saveCycle;
 	
 	public ObjectStorageService() {
 		this.persistenceThread = new ScheduledThreadPool(1, 3, "object-storage-service");
@@ -44,6 +51,10 @@ public class ObjectStorageService extends Service {
 		this.objectMap = new ConcurrentHashMap<>(256*1024, 0.8f, Runtime.getRuntime().availableProcessors());
 		this.buildouts = new HashMap<>(128*1024, 1f);
 		this.buildingLookup = new HashMap<>();
+		this.lastSaveTime = new AtomicLong(0);
+		this.dirtyObjectCount = new AtomicLong(0);
+		this.writtenObjectCount = new AtomicLong(0);
+		this.saveCycle = 0;
 	}
 	
 	@Override
@@ -59,7 +70,7 @@ public class ObjectStorageService extends Service {
 		buildouts.values().forEach(ObjectCreatedIntent::broadcast);
 		
 		persistenceThread.start();
-		persistenceThread.executeWithFixedDelay(TimeUnit.MINUTES.toMillis(5), TimeUnit.MINUTES.toMillis(5), this::saveObjects);
+		persistenceThread.executeWithFixedDelay(SAVE_INTERVAL, SAVE_INTERVAL, this::saveDirtyObjects);
 		return true;
 	}
 	
@@ -72,55 +83,80 @@ public class ObjectStorageService extends Service {
 	@Override
 	public boolean terminate() {
 		ObjectLookup.setObjectAuthority(null);
-		saveObjects();
+		saveObjects(true);
 		return true;
 	}
 	
 	private boolean initializeSavedObjects() {
 		long startTime = StandardLog.onStartLoad("server objects");
-		List<MongoData> objectDocuments = PswgDatabase.INSTANCE.getObjects().getObjects();
-		Map<Long, SWGObject> objects = new HashMap<>();
-		for (MongoData doc : objectDocuments) {
-			SWGObject obj = SWGObjectFactory.create(doc);
-			objects.put(obj.getObjectId(), obj);
-			if (obj instanceof PlayerObject) {
-				for (WaypointObject waypoint : ((PlayerObject) obj).getWaypoints().values()) {
-					objects.put(waypoint.getObjectId(), waypoint);
-				}
-			}
+		int batchSize = Math.max(1, PswgDatabase.INSTANCE.getConfig().getInt(this, "loadBatchSize", 1000));
+		int threads = Runtime.getRuntime().availableProcessors();
+		Map<Long, SWGObject> objects = new ConcurrentHashMap<>(64*1024, 0.8f, threads);
+		List<SavedObject> savedObjects = new ArrayList<>();
+		AtomicInteger threadCount = new AtomicInteger(0);
+		ServerData.INSTANCE.preload(); // Object creation reads the shared data loaders from every loader thread
+		ExecutorService loaderPool = Executors.newFixedThreadPool(threads, r -> new Thread(r, "object-storage-loader-" + threadCount.incrementAndGet()));
+		try {
+			Deque<CompletableFuture<List<SavedObject>>> pending = new ArrayDeque<>();
+			PswgDatabase.INSTANCE.getObjects().forEachObjectBatch(batchSize, batch -> {
+				pending.add(CompletableFuture.supplyAsync(() -> createSavedObjects(batch, objects), loaderPool));
+				while (pending.size() > threads * 2) // Bounds the number of documents held in memory
+					savedObjects.addAll(pending.poll().join());
+			});
+			while (!pending.isEmpty())
+				savedObjects.addAll(pending.poll().join());
+		} finally {
+			loaderPool.shutdown();
 		}
-		for (MongoData doc : objectDocuments) {
-			long id = doc.getLong("id", 0);
-			long parentId = doc.getLong("parent", 0);
-			int cellNumber = doc.getInteger("parentCell", 0);
-			assert id != 0;
-			
-			SWGObject obj = objects.get(id);
+		
+		List<SWGObject> persisted = new ArrayList<>();
+		for (SavedObject saved : savedObjects) {
+			SWGObject obj = saved.getObject();
+			long parentId = saved.getParentId();
 			if (parentId != 0) {
 				SWGObject parent = objects.get(parentId);
 				if (parent == null)
 					parent = objectMap.get(parentId);
 				
 				if (parent instanceof BuildingObject) {
-					if (cellNumber != 0)
-						obj.moveToContainer(((BuildingObject) parent).getCellByNumber(cellNumber));
+					if (saved.getParentCell() != 0)
+						obj.moveToContainer(((BuildingObject) parent).getCellByNumber(saved.getParentCell()));
 				} else {
 					obj.moveToContainer(parent);
 				}
 			}
-			objects.put(obj.getObjectId(), obj);
 			if (obj.isPersisted())
-				persistedObjects.add(obj);
+				persisted.add(obj);
 		}
+		persistedObjects.addAll(persisted);
 		
+		objects.values().forEach(SWGObject::clearDirty); // Everything loaded matches the database
 		objects.values().forEach(obj -> ObjectCreator.updateMaxObjectId(obj.getObjectId()));
 		objects.values().forEach(ObjectCreatedIntent::broadcast);
 		this.objectMap.putAll(objects);
 		// TODO: Clear unreferenced objects from database
+		double loadTime = (System.nanoTime() - startTime) / 1E9;
+		Log.i("Loaded %d saved objects at %.0f objects/sec using %d threads", savedObjects.size(), savedObjects.size() / Math.max(loadTime, 1E-3), threads);
 		StandardLog.onEndLoad(objects.size(), "server objects", startTime);
 		return true;
 	}
 	
+	private static List<SavedObject> createSavedObjects(List<MongoData> documents, Map<Long, SWGObject> objects) {
+		List<SavedObject> savedObjects = new ArrayList<>(documents.size());
+		for (MongoData doc : documents) {
+			SWGObject obj = SWGObjectFactory.create(doc);
+			assert obj.getObjectId() != 0;
+			objects.put(obj.getObjectId(), obj);
+			if (obj instanceof PlayerObject) {
+				for (WaypointObject waypoint : ((PlayerObject) obj).getWaypoints().values()) {
+					objects.put(waypoint.getObjectId(), waypoint);
+				}
+			}
+			savedObjects.add(new SavedObject(obj, doc.getLong("parent", 0), doc.getInteger("parentCell", 0)));
+		}
+		return savedObjects;
+	}
+	
 	private boolean initializeClientObjects() {
 		long startTime = StandardLog.onStartLoad("client objects");
 		BuildoutLoader loader = DataLoader.Companion.buildouts(createEventList());
@@ -131,18 +167,62 @@ public class ObjectStorageService extends Service {
 		return true;
 	}
 	
-	private void saveObjects() {
+	/**
+	 * Returns the time of the last successful database write, in milliseconds since the epoch
+	 * @return the last save time, or 0 if nothing has been written yet
+	 */
+	public long getLastSaveTime() {
+		return lastSaveTime.get();
+	}
+	
+	public long getDirtyObjectCount() {
+		return dirtyObjectCount.get();
+	}
+	
+	public long getWrittenObjectCount() {
+		return writtenObjectCount.get();
+	}
+	
+	private void saveDirtyObjects() {
+		// Every Nth save writes all persisted objects as a safety net for any change that didn't mark its object dirty
+		int fullSaveInterval = PswgDatabase.INSTANCE.getConfig().getInt(this, "fullSaveInterval", 10);
+		saveObjects(fullSaveInterval > 0 && ++saveCycle % fullSaveInterval == 0);
+	}
+	
+	private synchronized void saveObjects(boolean full) {
 		List<SWGObject> saveList = new ArrayList<>();
-		persistedObjects.forEach(obj -> saveChildren(saveList, obj));
-		PswgDatabase.INSTANCE.getObjects().addObjects(saveList);
+		persistedObjects.forEach(obj -> saveChildren(saveList, obj, full));
+		dirtyObjectCount.addAndGet(saveList.size());
+		int written = writeObjects(saveList);
+		Log.d("Saved %d/%d %s objects", written, saveList.size(), full ? "persisted" : "dirty");
 	}
 	
-	private void saveChildren(Collection<SWGObject> saveList, @Nullable SWGObject obj) {
+	private void saveChildren(Collection<SWGObject> saveList, @Nullable SWGObject obj, boolean full) {
 		if (obj == null)
 			return;
-		saveList.add(obj);
+		if (obj.clearDirty() || full)
+			saveList.add(obj);
 		
-		obj.getChildObjects().forEach(child -> saveChildren(saveList, child));
+		obj.getChildObjects().forEach(child -> saveChildren(saveList, child, full));
+	}
+	
+	private int writeObjects(List<SWGObject> objects) {
+		int batchSize = Math.max(1, PswgDatabase.INSTANCE.getConfig().getInt(this, "saveBatchSize", 1000));
+		int written = 0;
+		for (int i = 0; i < objects.size(); i += batchSize) {
+			List<SWGObject> batch = objects.subList(i, Math.min(objects.size(), i + batchSize));
+			try {
+				PswgDatabase.INSTANCE.getObjects().addObjects(batch);
+				written += batch.size();
+				lastSaveTime.set(System.currentTimeMillis());
+			} catch (RuntimeException e) {
+				Log.e("Failed to save %d objects - will retry next save", batch.size());
+				Log.e(e);
+				batch.forEach(SWGObject::markDirty);
+			}
+		}
+		writtenObjectCount.addAndGet(written);
+		return written;
 	}
 	
 	@IntentHandler
@@ -154,8 +234,8 @@ public class ObjectStorageService extends Service {
 		if (obj.isPersisted()) {
 			if (persistedObjects.add(obj)) {
 				List<SWGObject> saveList = new ArrayList<>();
-				saveChildren(saveList, obj);
-				PswgDatabase.INSTANCE.getObjects().addObjects(saveList);
+				saveChildren(saveList, obj, true);
+				writeObjects(saveList);
 			}
 		}
 	}
@@ -207,6 +287,35 @@ public class ObjectStorageService extends Service {
 		return events;
 	}
 	
+	/**
+	 * A deserialized object along with the container it needs to be moved into once every saved object exists
+	 */
+	private static class SavedObject {
+		
+		private final SWGObject object;
+		private final long parentId;
+		private final int parentCell;
+		
+		public SavedObject(SWGObject object, long parentId, int parentCell) {
+			this.object = object;
+			this.parentId = parentId;
+			this.parentCell = parentCell;
+		}
+		
+		public SWGObject getObject() {
+			return object;
+		}
+		
+		public long getParentId() {
+			return parentId;
+		}
+		
+		public int getParentCell() {
+			return parentCell;
+		}
+		
+	}
+	
 	public static class ObjectLookup {
 		
 		private static final AtomicReference<Function<Long, SWGObject>> AUTHORITY = new AtomicReference<>(null);
@@ -28,6 +28,7 @@ package com.projectswg.holocore.services.support.objects.awareness;
 
 import com.projectswg.common.data.location.Location;
 import com.projectswg.common.data.location.Terrain;
+import com.projectswg.common.network.packets.SWGPacket;
 import com.projectswg.common.network.packets.swg.zone.*;
 import com.projectswg.common.network.packets.swg.zone.chat.ChatOnConnectAvatar;
 import com.projectswg.common.network.packets.swg.zone.insertion.ChatServerStatus;
@@ -38,6 +39,7 @@ import com.projectswg.holocore.intents.support.global.network.CloseConnectionInt
 import com.projectswg.holocore.intents.support.global.zone.PlayerEventIntent;
 import com.projectswg.holocore.intents.support.global.zone.PlayerTransformedIntent;
 import com.projectswg.holocore.intents.support.global.zone.RequestZoneInIntent;
+import com.projectswg.holocore.intents.support.npc.ai.NpcMovedIntent;
 import com.projectswg.holocore.intents.support.objects.awareness.ForceAwarenessUpdateIntent;
 import com.projectswg.holocore.intents.support.objects.swg.*;
 import com.projectswg.holocore.resources.support.data.server_info.StandardLog;
@@ -46,26 +48,35 @@ import com.projectswg.holocore.resources.support.global.player.Player;
 import com.projectswg.holocore.resources.support.global.player.PlayerEvent;
 import com.projectswg.holocore.resources.support.global.player.PlayerState;
 import com.projectswg.holocore.resources.support.objects.awareness.ObjectAwareness;
+import com.projectswg.holocore.resources.support.objects.awareness.ObjectMovementQueue;
+import com.projectswg.holocore.resources.support.objects.awareness.ObjectMovementQueue.QueuedMovement;
+import com.projectswg.holocore.resources.support.objects.awareness.TerrainMap;
 import com.projectswg.holocore.resources.support.objects.swg.SWGObject;
 import com.projectswg.holocore.resources.support.objects.swg.creature.CreatureObject;
+import com.projectswg.holocore.utilities.StatisticsReporter;
 import me.joshlarson.jlcommon.concurrency.ScheduledThreadPool;
 import me.joshlarson.jlcommon.control.Intent;
 import me.joshlarson.jlcommon.control.IntentHandler;
 import me.joshlarson.jlcommon.control.Service;
+import me.joshlarson.jlcommon.log.Log;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Objects;
+import java.util.*;
+import java.util.function.BiConsumer;
 
 public class AwarenessService extends Service {
 	
 	private static final Location GONE_LOCATION = Location.builder().setTerrain(Terrain.GONE).setPosition(0, 0, 0).build();
+	private static final double MAX_UPDATE_TIME = 100;
 	
 	private final ObjectAwareness awareness;
+	private final ObjectMovementQueue movementQueue;
 	private final ScheduledThreadPool chunkUpdater;
 	
 	public AwarenessService() {
 		this.awareness = new ObjectAwareness();
+		this.movementQueue = new ObjectMovementQueue();
 		this.chunkUpdater = new ScheduledThreadPool(1, 8, "awareness-chunk-updater");
 	}
 	
@@ -74,23 +85,69 @@ public class AwarenessService extends Service {
 		awareness.startThreadPool();
 		chunkUpdater.start();
 		chunkUpdater.executeWithFixedDelay(0, 100, this::update);
+		StatisticsReporter.register(this, this::logUpdateStatistics);
 		return true;
 	}
 	
 	@Override
 	public boolean stop() {
+		StatisticsReporter.unregister(this);
 		chunkUpdater.stop();
 		return awareness.stopThreadPool() && chunkUpdater.awaitTermination(1000);
 	}
 	
 	public void update() {
 //		PlayerLookup.getLoggedInCharacters().forEach(CreatureObject::flush);
+		applyQueuedMovement();
+	}
+	
+	/**
+	 * Updates awareness for every NPC that moved since the last tick, sending each observer a single batch of transform
+	 * updates
+	 */
+	private void applyQueuedMovement() {
+		List<QueuedMovement> movements = movementQueue.drain();
+		if (movements.isEmpty())
+			return;
+		
+		Map<Player, List<SWGPacket>> packets = new HashMap<>();
+		BiConsumer<SWGObject, SWGPacket> sender = (obj, packet) -> {
+			for (CreatureObject observer : obj.getObserverCreatures()) {
+				Player owner = observer.getOwnerShallow();
+				if (owner != null)
+					packets.computeIfAbsent(owner, p -> new ArrayList<>()).add(packet);
+			}
+		};
+		for (QueuedMovement move : movements) {
+			SWGObject obj = move.getObject();
+			if (obj.getTerrain() == Terrain.GONE)
+				continue; // Destroyed since the movement was queued
+			awareness.updateObject(obj);
+			onObjectMoved(obj, move.getOldParent(), move.getNewParent(), move.getOldLocation(), move.getNewLocation(), move.getSpeed(), sender);
+			obj.onObjectMoved();
+		}
+		packets.forEach(Player::sendPackets);
 	}
 	
 	public void updateChunks() {
 		awareness.updateChunks();
 	}
 	
+	private void logUpdateStatistics() {
+		for (Terrain terrain : Terrain.values()) {
+			TerrainMap map = awareness.getTerrainMap(terrain);
+			long count = map.getUpdateCount();
+			double average = map.getAverageUpdateTime();
+			double max = map.getMaxUpdateTime();
+			map.resetUpdateStatistics();
+			
+			if (max >= MAX_UPDATE_TIME)
+				Log.w("Awareness updates for %s are falling behind: %d updates, average %.3fms, max %.3fms", terrain, count, average, max);
+			else if (max >= 1)
+				Log.d("Awareness updates for %s: %d updates, average %.3fms, max %.3fms", terrain, count, average, max);
+		}
+	}
+	
 	@IntentHandler
 	private void handlePlayerEventIntent(PlayerEventIntent pei) {
 		Player p = pei.getPlayer();
@@ -103,8 +160,10 @@ public class AwarenessService extends Service {
 				awareness.destroyObject(creature);
 				break;
 			case PE_LOGGED_OUT:
-				if (creature != null)
+				if (creature != null) {
 					creature.resetObjectsAware();
+					awareness.updateObject(creature); // Logged out players are no longer visible to others
+				}
 				break;
 			default:
 				break;
@@ -120,7 +179,10 @@ public class AwarenessService extends Service {
 	private void handleDestroyObjectIntent(DestroyObjectIntent doi) {
 		@NotNull SWGObject obj = doi.getObject();
 		
-		obj.systemMove(null, GONE_LOCATION);
+		movementQueue.cancel(obj);
+		synchronized (obj) { // Prevents an NPC from taking one more step after it's destroyed
+			obj.systemMove(null, GONE_LOCATION);
+		}
 		awareness.destroyObject(doi.getObject());
 	}
 	
@@ -131,6 +193,7 @@ public class AwarenessService extends Service {
 		@NotNull Location oldLocation = oti.getOldLocation();
 		@NotNull Location newLocation = oti.getNewLocation();
 		
+		movementQueue.cancel(obj);
 		if (isPlayerZoneInRequired(obj, oldLocation, newLocation)) {
 			assert obj instanceof CreatureObject;
 			handleZoneIn((CreatureObject) obj, newLocation, newParent);
@@ -154,6 +217,11 @@ public class AwarenessService extends Service {
 		moveObjectWithTransform(moi.getObject(), moi.getParent(), moi.getNewLocation(), moi.getSpeed());
 	}
 	
+	@IntentHandler
+	private void handleNpcMovedIntent(NpcMovedIntent nmi) {
+		movementQueue.queue(nmi.getObject(), nmi.getOldParent(), nmi.getNewParent(), nmi.getOldLocation(), nmi.getNewLocation(), nmi.getSpeed());
+	}
+	
 	@IntentHandler
 	private void handleContainerTransferIntent(ContainerTransferIntent cti) {
 		@NotNull SWGObject obj = cti.getObject();
@@ -171,6 +239,7 @@ public class AwarenessService extends Service {
 	
 	@IntentHandler
 	private void handleRequestZoneInIntent(RequestZoneInIntent rzii) {
+		movementQueue.cancel(rzii.getCreature());
 		handleZoneIn(rzii.getCreature(), rzii.getCreature().getLocation(), rzii.getCreature().getParent());
 	}
 	
@@ -215,8 +284,10 @@ public class AwarenessService extends Service {
 	}
 	
 	private void moveObjectWithTransform(SWGObject obj, SWGObject parent, Location requestedLocation, double speed) {
-		@Nullable SWGObject oldParent = obj.getParent();
-		@NotNull Location oldLocation = obj.getLocation();
+		// An NPC has already moved itself for any queued movement, so observers haven't seen it there yet
+		@Nullable QueuedMovement queued = movementQueue.cancel(obj);
+		@Nullable SWGObject oldParent = queued == null ? obj.getParent() : queued.getOldParent();
+		@NotNull Location oldLocation = queued == null ? obj.getLocation() : queued.getOldLocation();
 		
 		obj.systemMove(parent, requestedLocation);
 		awareness.updateObject(obj);
@@ -232,44 +303,44 @@ public class AwarenessService extends Service {
 	}
 	
 	private void sendObjectUpdates(@NotNull SWGObject obj, @Nullable SWGObject oldParent, @Nullable SWGObject newParent, @NotNull Location oldLocation, @NotNull Location newLocation, double speed) {
-		onObjectMoved(obj, oldParent, newParent, oldLocation, newLocation, speed);
+		onObjectMoved(obj, oldParent, newParent, oldLocation, newLocation, speed, SWGObject::sendObservers);
 		obj.onObjectMoved();
 	}
 	
-	private static void onObjectMoved(@NotNull SWGObject obj, @Nullable SWGObject oldParent, @Nullable SWGObject newParent, @NotNull Location oldLocation, @NotNull Location newLocation, double speed) {
+	private static void onObjectMoved(@NotNull SWGObject obj, @Nullable SWGObject oldParent, @Nullable SWGObject newParent, @NotNull Location oldLocation, @NotNull Location newLocation, double speed, BiConsumer<SWGObject, SWGPacket> sender) {
 		if (obj instanceof CreatureObject && ((CreatureObject) obj).isLoggedInPlayer())
 			new PlayerTransformedIntent((CreatureObject) obj, oldParent, newParent, oldLocation, newLocation).broadcast();
 		else if (obj.getObserverCreatures().isEmpty())
 			return; // If a tree falls in the forest and nobody is there to hear it...
 		
 		if (newParent != null) {
-			onObjectMovedInParent(obj, oldParent, newParent, oldLocation, newLocation, speed);
+			onObjectMovedInParent(obj, oldParent, newParent, oldLocation, newLocation, speed, sender);
 		} else {
-			onObjectMovedInWorld(obj, oldParent, oldLocation, newLocation, speed);
+			onObjectMovedInWorld(obj, oldParent, oldLocation, newLocation, speed, sender);
 		}
 	}
 	
-	private static void onObjectMovedInParent(@NotNull SWGObject obj, @Nullable SWGObject oldParent, @NotNull SWGObject newParent, @NotNull Location oldLocation, @NotNull Location newLocation, double speed) {
+	private static void onObjectMovedInParent(@NotNull SWGObject obj, @Nullable SWGObject oldParent, @NotNull SWGObject newParent, @NotNull Location oldLocation, @NotNull Location newLocation, double speed, BiConsumer<SWGObject, SWGPacket> sender) {
 		if (oldParent != newParent)
-			obj.sendObservers(new UpdateContainmentMessage(obj.getObjectId(), newParent.getObjectId(), obj.getSlotArrangement()));
+			sender.accept(obj, new UpdateContainmentMessage(obj.getObjectId(), newParent.getObjectId(), obj.getSlotArrangement()));
 		
 		// Slotted objects don't get position updates - they inherit their parent's location, plus a client-defined offset (e.g. armor, mounts)
 		if (obj.getSlotArrangement() == -1) {
 			int counter = obj.getNextUpdateCount();
 			
 			if (!oldLocation.equals(newLocation))
-				obj.sendObservers(new UpdateTransformWithParentMessage(obj.getObjectId(), newParent.getObjectId(), counter, newLocation, (byte) speed));
+				sender.accept(obj, new UpdateTransformWithParentMessage(obj.getObjectId(), newParent.getObjectId(), counter, newLocation, (byte) speed));
 		}
 	}
 	
-	private static void onObjectMovedInWorld(@NotNull SWGObject obj, @Nullable SWGObject oldParent, @NotNull Location oldLocation, @NotNull Location newLocation, double speed) {
+	private static void onObjectMovedInWorld(@NotNull SWGObject obj, @Nullable SWGObject oldParent, @NotNull Location oldLocation, @NotNull Location newLocation, double speed, BiConsumer<SWGObject, SWGPacket> sender) {
 		int counter = obj.getNextUpdateCount();
 		
 		if (oldParent != null)
-			obj.sendObservers(new UpdateContainmentMessage(obj.getObjectId(), 0, obj.getSlotArrangement()));
+			sender.accept(obj, new UpdateContainmentMessage(obj.getObjectId(), 0, obj.getSlotArrangement()));
 		
 		if (!oldLocation.equals(newLocation))
-			obj.sendObservers(new UpdateTransformMessage(obj.getObjectId(), counter, newLocation, (byte) speed));
+			sender.accept(obj, new UpdateTransformMessage(obj.getObjectId(), counter, newLocation, (byte) speed));
 	}
 	
 }
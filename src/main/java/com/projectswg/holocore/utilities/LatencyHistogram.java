@@ -0,0 +1,111 @@
+/***********************************************************************************
+ * Copyright (c) 2022 /// Project SWG /// www.projectswg.com                       *
+ *                                                                                 *
+ * ProjectSWG is the first NGE emulator for Star Wars Galaxies founded on          *
+ * July 7th, 2011 after SOE announced the official shutdown of Star Wars Galaxies. *
+ * Our goal is to create an emulator which will provide a server for players to    *
+ * continue playing a game similar to the one they used to play. We are basing     *
+ * it on the final publish of the game prior to end-game events.                   *
+ *                                                                                 *
+ * This file is part of Holocore.                                                  *
+ *                                                                                 *
+ * --------------------------------------------------------------------------------*
+ *                                                                                 *
+ * Holocore is free software: you can redistribute it and/or modify                *
+ * it under the terms of the GNU Affero General Public License as                  *
+ * published by the Free Software Foundation, either version 3 of the              *
+ * License, or (at your option) any later version.                                 *
+ *                                                                                 *
+ * Holocore is distributed in the hope that it will be useful,                     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of                  *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                   *
+ * GNU Affero General Public License for more details.                             *
+ *                                                                                 *
+ * You should have received a copy of the GNU Affero General Public License        *
+ * along with Holocore.  If not, see <http://www.gnu.org/licenses/>.               *
+ ***********************************************************************************/
+package com.projectswg.holocore.utilities;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of latencies with power-of-two millisecond buckets.  Bucket 0 holds everything under 1ms, and
+ * bucket {@code n} holds latencies from 2<sup>n-1</sup>ms up to 2<sup>n</sup>ms.  The last bucket holds everything
+ * above that.
+ */
+public class LatencyHistogram {
+	
+	private static final int BUCKETS = 18; // up to ~65s
+	
+	private final AtomicLongArray buckets;
+	
+	public LatencyHistogram() {
+		this.buckets = new AtomicLongArray(BUCKETS);
+	}
+	
+	/**
+	 * Records a single latency sample
+	 *
+	 * @param nanos the latency, in nanoseconds
+	 */
+	public void record(long nanos) {
+		long millis = nanos / 1_000_000;
+		int bucket = millis <= 0 ? 0 : 64 - Long.numberOfLeadingZeros(millis);
+		buckets.incrementAndGet(Math.min(bucket, BUCKETS - 1));
+	}
+	
+	public long getCount() {
+		long count = 0;
+		for (int i = 0; i < BUCKETS; i++)
+			count += buckets.get(i);
+		return count;
+	}
+	
+	/**
+	 * Returns the upper bound, in milliseconds, of the bucket containing the specified percentile
+	 *
+	 * @param percentile the percentile, from 0 to 1
+	 * @return the upper bound of the bucket, or 0 if nothing has been recorded
+	 */
+	public long getPercentile(double percentile) {
+		long[] snapshot = snapshot();
+		long count = 0;
+		for (long bucket : snapshot)
+			count += bucket;
+		if (count == 0)
+			return 0;
+		long target = (long) Math.ceil(count * percentile);
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += snapshot[i];
+			if (seen >= target && snapshot[i] > 0)
+				return getUpperBound(i);
+		}
+		return getUpperBound(BUCKETS - 1);
+	}
+	
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++)
+			buckets.set(i, 0);
+	}
+	
+	/**
+	 * Returns a copy of the current bucket counts
+	 */
+	public long[] snapshot() {
+		long[] snapshot = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++)
+			snapshot[i] = buckets.get(i);
+		return snapshot;
+	}
+	
+	@Override
+	public String toString() {
+		return String.format("count=%d p50<=%dms p90<=%dms p99<=%dms max<=%dms", getCount(), getPercentile(0.5), getPercentile(0.9), getPercentile(0.99), getPercentile(1));
+	}
+	
+	private static long getUpperBound(int bucket) {
+		return 1L << bucket;
+	}
+	
+}
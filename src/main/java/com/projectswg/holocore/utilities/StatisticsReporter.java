@@ -0,0 +1,82 @@
+/***********************************************************************************
+ * Copyright (c) 2022 /// Project SWG /// www.projectswg.com                       *
+ *                                                                                 *
+ * ProjectSWG is the first NGE emulator for Star Wars Galaxies founded on          *
+ * July 7th, 2011 after SOE announced the official shutdown of Star Wars Galaxies. *
+ * Our goal is to create an emulator which will provide a server for players to    *
+ * continue playing a game similar to the one they used to play. We are basing     *
+ * it on the final publish of the game prior to end-game events.                   *
+ *                                                                                 *
+ * This file is part of Holocore.                                                  *
+ *                                                                                 *
+ * --------------------------------------------------------------------------------*
+ *                                                                                 *
+ * Holocore is free software: you can redistribute it and/or modify                *
+ * it under the terms of the GNU Affero General Public License as                  *
+ * published by the Free Software Foundation, either version 3 of the              *
+ * License, or (at your option) any later version.                                 *
+ *                                                                                 *
+ * Holocore is distributed in the hope that it will be useful,                     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of                  *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                   *
+ * GNU Affero General Public License for more details.                             *
+ *                                                                                 *
+ * You should have received a copy of the GNU Affero General Public License        *
+ * along with Holocore.  If not, see <http://www.gnu.org/licenses/>.               *
+ ***********************************************************************************/
+package com.projectswg.holocore.utilities;
+
+import me.joshlarson.jlcommon.log.Log;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically logs the statistics of every registered owner from a single task on the {@link ScheduledUtilities}
+ * scheduler, so that services don't need their own thread just to report metrics
+ */
+public class StatisticsReporter {
+	
+	/** Time, in milliseconds, between each round of statistics */
+	public static final long INTERVAL = 60_000;
+	
+	private static final Map<Object, Runnable> REPORTERS = new ConcurrentHashMap<>();
+	private static final Object mutex = new Object();
+	private static ScheduledFuture<?> task;
+	
+	private StatisticsReporter() {
+		
+	}
+	
+	/**
+	 * Registers the reporter to be run every {@link #INTERVAL} milliseconds, replacing any reporter previously
+	 * registered by the same owner
+	 *
+	 * @param owner the owner of the reporter, used to unregister it
+	 * @param reporter the reporter that logs, and then resets, its statistics
+	 */
+	public static void register(Object owner, Runnable reporter) {
+		REPORTERS.put(owner, reporter);
+		synchronized (mutex) {
+			if (task == null || task.isDone())
+				task = ScheduledUtilities.scheduleAtFixedRate(StatisticsReporter::report, INTERVAL, INTERVAL, TimeUnit.MILLISECONDS);
+		}
+	}
+	
+	public static void unregister(Object owner) {
+		REPORTERS.remove(owner);
+	}
+	
+	private static void report() {
+		for (Runnable reporter : REPORTERS.values()) {
+			try {
+				reporter.run();
+			} catch (Throwable t) {
+				Log.e(t);
+			}
+		}
+	}
+	
+}
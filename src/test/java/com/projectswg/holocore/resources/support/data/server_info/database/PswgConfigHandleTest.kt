@@ -0,0 +1,68 @@
+/***********************************************************************************
+ * Copyright (c) 2022 /// Project SWG /// www.projectswg.com                       *
+ *                                                                                 *
+ * ProjectSWG is the first NGE emulator for Star Wars Galaxies founded on          *
+ * July 7th, 2011 after SOE announced the official shutdown of Star Wars Galaxies. *
+ * Our goal is to create an emulator which will provide a server for players to    *
+ * continue playing a game similar to the one they used to play. We are basing     *
+ * it on the final publish of the game prior to end-game events.                   *
+ *                                                                                 *
+ * This file is part of Holocore.                                                  *
+ *                                                                                 *
+ * --------------------------------------------------------------------------------*
+ *                                                                                 *
+ * Holocore is free software: you can redistribute it and/or modify                *
+ * it under the terms of the GNU Affero General Public License as                  *
+ * published by the Free Software Foundation, either version 3 of the              *
+ * License, or (at your option) any later version.                                 *
+ *                                                                                 *
+ * Holocore is distributed in the hope that it will be useful,                     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of                  *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                   *
+ * GNU Affero General Public License for more details.                             *
+ *                                                                                 *
+ * You should have received a copy of the GNU Affero General Public License        *
+ * along with Holocore.  If not, see <http://www.gnu.org/licenses/>.               *
+ ***********************************************************************************/
+
+package com.projectswg.holocore.resources.support.data.server_info.database
+
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Test
+
+class PswgConfigHandleTest {
+	
+	@Test
+	fun `handle is only re-resolved when the config version changes`() {
+		val config = VersionedConfig()
+		val handle = config.getIntHandle(this, "key", 0)
+		
+		assertEquals(5, handle.get())
+		assertEquals(5, handle.get())
+		assertEquals(1, config.lookups)
+		
+		config.value = 10
+		assertEquals(5, handle.get()) // Still the cached value
+		config.version++
+		assertEquals(10, handle.get())
+		assertEquals(2, config.lookups)
+	}
+	
+	private class VersionedConfig : PswgConfigDatabase {
+		
+		var value = 5
+		var lookups = 0
+		override var version = 0L
+		
+		override fun getString(o: Any, key: String, def: String): String = def
+		override fun getBoolean(o: Any, key: String, def: Boolean): Boolean = def
+		override fun getInt(o: Any, key: String, def: Int): Int {
+			lookups++
+			return value
+		}
+		override fun getDouble(o: Any, key: String, def: Double): Double = def
+		override fun getLong(o: Any, key: String, def: Long): Long = def
+		
+	}
+	
+}
@@ -0,0 +1,23 @@
+package com.projectswg.holocore.resources.support.data.server_info.loader
+
+import com.projectswg.common.data.CRC
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.Test
+
+class BuffLoaderTest {
+	
+	@Test
+	fun `buffs resolve by crc`() {
+		val buff = DataLoader.buffs().getBuff("hemorrhage") ?: fail("Buff not found")
+		assertSame(buff, DataLoader.buffs().getBuff(buff.crc))
+		assertSame(buff, DataLoader.buffs().getBuff(CRC.getCrc("hemorrhage")))
+		assertTrue(DataLoader.buffs().containsBuff(buff.crc))
+	}
+	
+	@Test
+	fun `unknown crc resolves to null`() {
+		assertNull(DataLoader.buffs().getBuff(CRC.getCrc("not_a_real_buff_name")))
+		assertFalse(DataLoader.buffs().containsBuff(CRC.getCrc("not_a_real_buff_name")))
+	}
+	
+}
@@ -0,0 +1,62 @@
+package com.projectswg.holocore.resources.support.data.server_info.loader.conversation;
+
+import com.projectswg.holocore.resources.gameplay.conversation.model.Conversation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConversationLoaderTest {
+
+	@TempDir
+	File directory;
+
+	@Test
+	public void testParsedConversationIsCached() throws IOException {
+		writeConversation("start", 0, 1000);
+		ConversationLoader loader = new ConversationLoader(directory);
+
+		Conversation first = loader.getConversation("start");
+		assertNotNull(first);
+		assertSame(first, loader.getConversation("start"));
+		assertThrows(UnsupportedOperationException.class, () -> first.getPlayerResponses().clear());
+	}
+
+	@Test
+	public void testModifiedFileIsReloaded() throws IOException {
+		writeConversation("start", 0, 1000);
+		ConversationLoader loader = new ConversationLoader(directory);
+
+		Conversation first = loader.getConversation("start");
+		assertNotNull(first);
+		assertEquals(0, first.getPlayerResponses().size());
+
+		writeConversation("start", 1, 2000);
+		Conversation second = loader.getConversation("start");
+		assertNotNull(second);
+		assertNotSame(first, second);
+		assertEquals(1, second.getPlayerResponses().size());
+	}
+
+	@Test
+	public void testMissingFile() {
+		ConversationLoader loader = new ConversationLoader(directory);
+
+		assertNull(loader.getConversation("missing"));
+	}
+
+	private void writeConversation(String name, int responses, long lastModified) throws IOException {
+		String response = "{\"playerMessage\": {\"file\": \"conversation/test\", \"key\": \"s_2\"}}";
+		File file = new File(directory, name + ".json");
+		Files.writeString(file.toPath(), "{\"npcMessage\": {\"file\": \"conversation/test\", \"key\": \"s_1\"}, " +
+				"\"playerResponses\": [" + String.join(", ", Collections.nCopies(responses, response)) + "], " +
+				"\"requirements\": [], \"events\": []}");
+		assertTrue(file.setLastModified(lastModified));
+	}
+
+}
@@ -0,0 +1,50 @@
+package com.projectswg.holocore.resources.support.data.server_info.loader.terrain
+
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.Test
+import java.io.File
+import kotlin.math.abs
+
+class TerrainHeightRasterTest {
+	
+	@Test
+	fun `interpolates smooth terrain from the raster`() {
+		val raster = bake(1L) { x, z -> x * 0.5 + z * 0.25 }
+		assertEquals(5.0 * 0.5 + 7.0 * 0.25, raster.getHeight(5.0, 7.0), 1E-4)
+		assertEquals(-10.5 * 0.5 + 3.5 * 0.25, raster.getHeight(-10.5, 3.5), 1E-4)
+	}
+	
+	@Test
+	fun `falls back outside of the raster and on uneven cells`() {
+		val raster = bake(1L) { x, z -> if (abs(x - 10) < 1 && abs(z - 10) < 1) 50.0 else 0.0 }
+		assertTrue(raster.getHeight(10.0, 10.0).isNaN())
+		assertTrue(raster.getHeight(100.0, 0.0).isNaN())
+		assertEquals(0.0, raster.getHeight(-20.0, -20.0), 1E-4)
+	}
+	
+	@Test
+	fun `falls back on cells that are only uneven along an edge`() {
+		// A narrow ridge on the edge between two cells, which the samples and both cell centers miss
+		val raster = bake(1L) { x, z -> if (abs(x - 8) < 0.5 && abs(z - 10) < 0.5) 50.0 else 0.0 }
+		assertTrue(raster.getHeight(8.0, 10.0).isNaN())
+		assertTrue(raster.getHeight(7.0, 10.0).isNaN())
+		assertEquals(0.0, raster.getHeight(8.0, 14.0), 1E-4)
+	}
+	
+	@Test
+	fun `rejects rasters baked from a different source`() {
+		val file = File.createTempFile("terrain", ".hmap")
+		file.deleteOnExit()
+		TerrainHeightRaster.bake(file, 1L, 64.0, 4.0) { _, _ -> 0.0 }
+		assertNull(TerrainHeightRaster.open(file, 2L))
+		assertNotNull(TerrainHeightRaster.open(file, 1L))
+	}
+	
+	private fun bake(crc: Long, height: (Double, Double) -> Double): TerrainHeightRaster {
+		val file = File.createTempFile("terrain", ".hmap")
+		file.deleteOnExit()
+		TerrainHeightRaster.bake(file, crc, 64.0, 4.0, height)
+		return TerrainHeightRaster.open(file, crc)!!
+	}
+	
+}
@@ -0,0 +1,65 @@
+/***********************************************************************************
+ * Copyright (c) 2022 /// Project SWG /// www.projectswg.com                       *
+ *                                                                                 *
+ * ProjectSWG is the first NGE emulator for Star Wars Galaxies founded on          *
+ * July 7th, 2011 after SOE announced the official shutdown of Star Wars Galaxies. *
+ * Our goal is to create an emulator which will provide a server for players to    *
+ * continue playing a game similar to the one they used to play. We are basing     *
+ * it on the final publish of the game prior to end-game events.                   *
+ *                                                                                 *
+ * This file is part of Holocore.                                                  *
+ *                                                                                 *
+ * --------------------------------------------------------------------------------*
+ *                                                                                 *
+ * Holocore is free software: you can redistribute it and/or modify                *
+ * it under the terms of the GNU Affero General Public License as                  *
+ * published by the Free Software Foundation, either version 3 of the              *
+ * License, or (at your option) any later version.                                 *
+ *                                                                                 *
+ * Holocore is distributed in the hope that it will be useful,                     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of                  *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                   *
+ * GNU Affero General Public License for more details.                             *
+ *                                                                                 *
+ * You should have received a copy of the GNU Affero General Public License        *
+ * along with Holocore.  If not, see <http://www.gnu.org/licenses/>.               *
+ ***********************************************************************************/
+
+package com.projectswg.holocore.resources.support.global.commands;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TestCommandCooldowns {
+	
+	@Test
+	public void testReadyTimeUsesLatestExpiry() {
+		CommandCooldowns cooldowns = new CommandCooldowns();
+		assertEquals(0, cooldowns.getReadyTime(1, 2));
+		
+		cooldowns.setGlobalExpiry(100);
+		cooldowns.setExpiry(1, 300, 0);
+		cooldowns.setExpiry(2, 200, 0);
+		cooldowns.setExpiry(3, 900, 0);
+		assertEquals(300, cooldowns.getReadyTime(1, 2));
+		assertEquals(200, cooldowns.getReadyTime(2, 0));
+		assertEquals(100, cooldowns.getReadyTime(4, 0));
+	}
+	
+	@Test
+	public void testExpiredSlotsAreReused() {
+		CommandCooldowns cooldowns = new CommandCooldowns();
+		for (int group = 1; group <= 4; group++)
+			cooldowns.setExpiry(group, 100, 0);
+		cooldowns.setExpiry(5, 500, 200);
+		
+		assertEquals(500, cooldowns.getExpiry(5));
+		assertEquals(0, cooldowns.getExpiry(1)); // Replaced, since it had expired
+		assertEquals(100, cooldowns.getExpiry(2));
+		
+		cooldowns.setExpiry(2, 700, 0);
+		assertEquals(700, cooldowns.getExpiry(2));
+	}
+	
+}
@@ -24,7 +24,7 @@ class EquipArmorTest : TestRunnerSimulatedWorld() {
 	
 	@BeforeEach
 	fun setUp() {
-		registerService(CommandQueueService(5))
+		registerService(CommandQueueService())
 		registerService(CommandExecutionService())
 		registerService(SkillService())
 	}
@@ -22,7 +22,7 @@ class EquipClothingTest : TestRunnerSimulatedWorld() {
 	
 	@BeforeEach
 	fun setUp() {
-		registerService(CommandQueueService(5))
+		registerService(CommandQueueService())
 		registerService(CommandExecutionService())
 	}
 
@@ -19,7 +19,7 @@ class EquipInstrumentTest : TestRunnerSimulatedWorld() {
 	
 	@BeforeEach
 	fun setUp() {
-		registerService(CommandQueueService(5))
+		registerService(CommandQueueService())
 		registerService(CommandExecutionService())
 	}
 
@@ -29,7 +29,7 @@ class EquipLightsaberTest : TestRunnerSimulatedWorld() {
 
 	@BeforeEach
 	internal fun setUp() {
-		registerService(CommandQueueService(5))
+		registerService(CommandQueueService())
 		registerService(CommandExecutionService())
 		registerService(SkillService())
 		registerService(LightsaberService())
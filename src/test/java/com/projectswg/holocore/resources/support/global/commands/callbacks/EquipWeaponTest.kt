@@ -22,7 +22,7 @@ class EquipWeaponTest : TestRunnerSimulatedWorld() {
 	
 	@BeforeEach
 	fun setUp() {
-		registerService(CommandQueueService(5))
+		registerService(CommandQueueService())
 		registerService(CommandExecutionService())
 	}
 
@@ -0,0 +1,77 @@
+/***********************************************************************************
+ * Copyright (c) 2022 /// Project SWG /// www.projectswg.com                       *
+ *                                                                                 *
+ * ProjectSWG is the first NGE emulator for Star Wars Galaxies founded on          *
+ * July 7th, 2011 after SOE announced the official shutdown of Star Wars Galaxies. *
+ * Our goal is to create an emulator which will provide a server for players to    *
+ * continue playing a game similar to the one they used to play. We are basing     *
+ * it on the final publish of the game prior to end-game events.                   *
+ *                                                                                 *
+ * This file is part of Holocore.                                                  *
+ *                                                                                 *
+ * --------------------------------------------------------------------------------*
+ *                                                                                 *
+ * Holocore is free software: you can redistribute it and/or modify                *
+ * it under the terms of the GNU Affero General Public License as                  *
+ * published by the Free Software Foundation, either version 3 of the              *
+ * License, or (at your option) any later version.                                 *
+ *                                                                                 *
+ * Holocore is distributed in the hope that it will be useful,                     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of                  *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                   *
+ * GNU Affero General Public License for more details.                             *
+ *                                                                                 *
+ * You should have received a copy of the GNU Affero General Public License        *
+ * along with Holocore.  If not, see <http://www.gnu.org/licenses/>.               *
+ ***********************************************************************************/
+package com.projectswg.holocore.resources.support.global.network;
+
+import com.projectswg.common.network.NetBuffer;
+import com.projectswg.common.network.packets.swg.zone.baselines.Baseline;
+import com.projectswg.common.network.packets.swg.zone.baselines.Baseline.BaselineType;
+import com.projectswg.holocore.test.resources.GenericTangibleObject;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestBaselineBuilder {
+	
+	@Test
+	public void testLittleEndianEncoding() {
+		BaselineBuilder bb = new BaselineBuilder(new GenericTangibleObject(1), BaselineType.TANO, 3);
+		bb.addBoolean(true);
+		bb.addShort(0x1234);
+		bb.addInt(0x12345678);
+		bb.addLong(0x123456789ABCDEF0L);
+		bb.addFloat(1.5f);
+		bb.addAscii("ascii");
+		bb.addUnicode("unicode");
+		bb.addArray(new byte[] {7, 8, 9});
+		Baseline baseline = bb.buildAsBaselinePacket();
+		
+		NetBuffer data = NetBuffer.wrap(baseline.getBaselineData());
+		assertTrue(data.getBoolean());
+		assertEquals(0x1234, data.getShort());
+		assertEquals(0x12345678, data.getInt());
+		assertEquals(0x123456789ABCDEF0L, data.getLong());
+		assertEquals(1.5f, data.getFloat());
+		assertEquals("ascii", data.getAscii());
+		assertEquals("unicode", data.getUnicode());
+		assertArrayEquals(new byte[] {7, 8, 9}, data.getArray());
+		assertEquals(0, data.remaining());
+	}
+	
+	@Test
+	public void testGrowsPastInitialCapacity() {
+		String value = "a".repeat(10_000);
+		BaselineBuilder bb = new BaselineBuilder(new GenericTangibleObject(1), BaselineType.TANO, 3);
+		bb.addAscii(value);
+		bb.addUnicode(value);
+		
+		NetBuffer data = NetBuffer.wrap(bb.buildAsBaselinePacket().getBaselineData());
+		assertEquals(value, data.getAscii());
+		assertEquals(value, data.getUnicode());
+		assertEquals(0, data.remaining());
+	}
+	
+}
@@ -0,0 +1,87 @@
+/***********************************************************************************
+ * Copyright (c) 2018 /// Project SWG /// www.projectswg.com                       *
+ *                                                                                 *
+ * ProjectSWG is the first NGE emulator for Star Wars Galaxies founded on          *
+ * July 7th, 2011 after SOE announced the official shutdown of Star Wars Galaxies. *
+ * Our goal is to create an emulator which will provide a server for players to    *
+ * continue playing a game similar to the one they used to play. We are basing     *
+ * it on the final publish of the game prior to end-game events.                   *
+ *                                                                                 *
+ * This file is part of Holocore.                                                  *
+ *                                                                                 *
+ * --------------------------------------------------------------------------------*
+ *                                                                                 *
+ * Holocore is free software: you can redistribute it and/or modify                *
+ * it under the terms of the GNU Affero General Public License as                  *
+ * published by the Free Software Foundation, either version 3 of the              *
+ * License, or (at your option) any later version.                                 *
+ *                                                                                 *
+ * Holocore is distributed in the hope that it will be useful,                     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of                  *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                   *
+ * GNU Affero General Public License for more details.                             *
+ *                                                                                 *
+ * You should have received a copy of the GNU Affero General Public License        *
+ * along with Holocore.  If not, see <http://www.gnu.org/licenses/>.               *
+ ***********************************************************************************/
+
+package com.projectswg.holocore.resources.support.global.network;
+
+import com.projectswg.common.network.NetBuffer;
+import com.projectswg.common.network.packets.swg.zone.baselines.Baseline;
+import com.projectswg.holocore.test.resources.GenericPlayer;
+import com.projectswg.holocore.test.resources.GenericTangibleObject;
+import com.projectswg.holocore.test.runners.TestRunnerNoIntents;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestBaselineObject extends TestRunnerNoIntents {
+	
+	@Test
+	public void testSharedBaselinesCached() {
+		GenericTangibleObject obj = new GenericTangibleObject(1);
+		GenericPlayer observer1 = new GenericPlayer();
+		GenericPlayer observer2 = new GenericPlayer();
+		
+		assertSame(obj.createBaseline3(observer1), obj.createBaseline3(observer2));
+		assertSame(obj.createBaseline6(observer1), obj.createBaseline6(observer2));
+	}
+	
+	@Test
+	public void testSharedBaselinesEncodedOnce() {
+		GenericTangibleObject obj = new GenericTangibleObject(1);
+		GenericPlayer observer1 = new GenericPlayer();
+		GenericPlayer observer2 = new GenericPlayer();
+		
+		NetBuffer first = obj.createBaseline3(observer1).encode();
+		NetBuffer second = obj.createBaseline3(observer2).encode();
+		assertSame(first.array(), second.array());
+		assertEquals(first.capacity(), first.position());
+		
+		obj.sendDelta(3, 8, 5);
+		assertNotSame(first.array(), obj.createBaseline3(observer1).encode().array());
+	}
+	
+	@Test
+	public void testDeltaInvalidatesOnlyItsBaseline() {
+		GenericTangibleObject obj = new GenericTangibleObject(1);
+		GenericPlayer observer = new GenericPlayer();
+		
+		Baseline baseline3 = obj.createBaseline3(observer);
+		Baseline baseline6 = obj.createBaseline6(observer);
+		obj.sendDelta(3, 8, 5);
+		assertNotSame(baseline3, obj.createBaseline3(observer));
+		assertSame(baseline6, obj.createBaseline6(observer));
+	}
+	
+	@Test
+	public void testOwnerBaselinesNotCached() {
+		GenericTangibleObject obj = new GenericTangibleObject(1);
+		GenericPlayer observer = new GenericPlayer();
+		
+		assertNotSame(obj.createBaseline1(observer), obj.createBaseline1(observer));
+		assertNotSame(obj.createBaseline8(observer), obj.createBaseline8(observer));
+	}
+	
+}
@@ -0,0 +1,88 @@
+/***********************************************************************************
+ * Copyright (c) 2022 /// Project SWG /// www.projectswg.com                       *
+ *                                                                                 *
+ * ProjectSWG is the first NGE emulator for Star Wars Galaxies founded on          *
+ * July 7th, 2011 after SOE announced the official shutdown of Star Wars Galaxies. *
+ * Our goal is to create an emulator which will provide a server for players to    *
+ * continue playing a game similar to the one they used to play. We are basing     *
+ * it on the final publish of the game prior to end-game events.                   *
+ *                                                                                 *
+ * This file is part of Holocore.                                                  *
+ *                                                                                 *
+ * --------------------------------------------------------------------------------*
+ *                                                                                 *
+ * Holocore is free software: you can redistribute it and/or modify                *
+ * it under the terms of the GNU Affero General Public License as                  *
+ * published by the Free Software Foundation, either version 3 of the              *
+ * License, or (at your option) any later version.                                 *
+ *                                                                                 *
+ * Holocore is distributed in the hope that it will be useful,                     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of                  *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                   *
+ * GNU Affero General Public License for more details.                             *
+ *                                                                                 *
+ * You should have received a copy of the GNU Affero General Public License        *
+ * along with Holocore.  If not, see <http://www.gnu.org/licenses/>.               *
+ ***********************************************************************************/
+package com.projectswg.holocore.resources.support.global.zone.region;
+
+import com.projectswg.common.data.location.Terrain;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestRegionIndex {
+	
+	@Test
+	public void testContainedRegions() {
+		RegionIndex index = new RegionIndex();
+		Region small = new Region("small", RegionType.EXPLORATION_BADGE, Terrain.TATOOINE, 100, 100, 10);
+		Region large = new Region("large", RegionType.PVP_ZONE, Terrain.TATOOINE, 0, 0, 1500);
+		index.add(small);
+		index.add(large);
+		
+		assertEquals(List.of(large), regionsAt(index, Terrain.TATOOINE, 0, 0));
+		assertEquals(2, regionsAt(index, Terrain.TATOOINE, 105, 105).size());
+		assertEquals(List.of(large), regionsAt(index, Terrain.TATOOINE, -1400, 400));	// Several cells away from the center
+		assertTrue(regionsAt(index, Terrain.TATOOINE, 1500, 1500).isEmpty());
+		assertTrue(regionsAt(index, Terrain.NABOO, 0, 0).isEmpty());
+	}
+	
+	@Test
+	public void testReplaceAndRemove() {
+		RegionIndex index = new RegionIndex();
+		Region original = new Region("zone", RegionType.PVP_ZONE, Terrain.TATOOINE, 0, 0, 50);
+		Region moved = new Region("zone", RegionType.PVP_ZONE, Terrain.TATOOINE, 1000, 1000, 50);
+		assertNull(index.add(original));
+		assertSame(original, index.add(moved));
+		
+		assertTrue(regionsAt(index, Terrain.TATOOINE, 0, 0).isEmpty());
+		assertEquals(List.of(moved), regionsAt(index, Terrain.TATOOINE, 1000, 1000));
+		assertSame(moved, index.getRegion(RegionType.PVP_ZONE, "zone"));
+		assertNull(index.getRegion(RegionType.NO_SPAWN_ZONE, "zone"));
+		
+		assertSame(moved, index.remove(RegionType.PVP_ZONE, "zone"));
+		assertNull(index.remove(RegionType.PVP_ZONE, "zone"));
+		assertTrue(regionsAt(index, Terrain.TATOOINE, 1000, 1000).isEmpty());
+	}
+	
+	@Test
+	public void testMapEdges() {
+		RegionIndex index = new RegionIndex();
+		Region edge = new Region("edge", RegionType.NO_SPAWN_ZONE, Terrain.TATOOINE, -8150, 8150, 100);
+		index.add(edge);
+		assertEquals(List.of(edge), regionsAt(index, Terrain.TATOOINE, -8200, 8200));
+		index.remove(RegionType.NO_SPAWN_ZONE, "edge");
+		assertTrue(regionsAt(index, Terrain.TATOOINE, -8200, 8200).isEmpty());
+	}
+	
+	private static List<Region> regionsAt(RegionIndex index, Terrain terrain, double x, double z) {
+		List<Region> regions = new ArrayList<>();
+		index.getRegions(terrain, x, z, regions);
+		return regions;
+	}
+	
+}
@@ -65,6 +65,30 @@ public class TestNavigationPoint extends TestRunnerNoIntents {
 		assertEquals(route, NavigationPoint.from(null, start, end, SPEED));
 	}
 	
+	@Test
+	public void testSegmentSteps() {
+		assertEquals(5, NavigationSegment.between(null, location(0, 0, 0), location(10, 0, 0), 2).getSteps());
+		assertEquals(4, NavigationSegment.between(null, location(0, 0, 0), location(9.5, 0, 0), 3).getSteps());
+		assertEquals(1, NavigationSegment.between(null, location(0, 0, 0), location(0, 0, 0), 2).getSteps());
+
+		NavigationSegment segment = NavigationSegment.between(null, location(0, 0, 0), location(10, 0, 0), 2);
+		assertEquals(4, segment.getPoint(1).getLocation().getX(), 1E-7);
+		assertEquals(10, segment.getPoint(4).getLocation().getX(), 1E-7);
+	}
+
+	@Test
+	public void testStationarySegment() {
+		NavigationPoint point = NavigationPoint.at(null, location(5, 0, 5), 0);
+		NavigationSegment segment = NavigationSegment.stationary(point, 1);
+		assertTrue(segment.isNoOperation());
+
+		NavigationSegment extended = segment.extend(2);
+		assertNotNull(extended);
+		assertEquals(3, extended.getSteps());
+		assertEquals(point, extended.getPoint(2));
+		assertNull(NavigationSegment.between(null, location(0, 0, 0), location(10, 0, 0), 2).extend(1));
+	}
+
 	@Test
 	public void testIntoBuilding() {
 		BuildingObject buio = (BuildingObject) ObjectCreator.createObjectFromTemplate(4, "object/building/player/shared_player_house_tatooine_small_style_01.iff");
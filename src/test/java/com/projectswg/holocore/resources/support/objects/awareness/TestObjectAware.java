@@ -35,6 +35,7 @@ import com.projectswg.holocore.test.runners.TestRunnerNoIntents;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -119,4 +120,27 @@ public class TestObjectAware extends TestRunnerNoIntents {
 		assertFalse(tangible1.getAware(AwarenessType.GROUP).contains(tangible2));
 	}
 	
+	@Test
+	public void testVersionIncrements() {
+		long initial = tangible1.getAwareness().getVersion();
+		tangible1.setAware(AwarenessType.OBJECT, List.of(tangible2));
+		long added = tangible1.getAwareness().getVersion();
+		assertNotEquals(initial, added);
+		assertEquals(added, tangible1.getAwareness().getVersion());
+		
+		tangible1.setAware(AwarenessType.GROUP, List.of(tangible2));
+		assertNotEquals(added, tangible1.getAwareness().getVersion());
+		assertEquals(initial, tangible2.getAwareness().getVersion());
+	}
+	
+	@Test
+	public void testVersionUnchangedForSameContents() {
+		tangible1.setAware(AwarenessType.OBJECT, new ArrayList<>(List.of(tangible2)));
+		long version = tangible1.getAwareness().getVersion();
+		tangible1.setAware(AwarenessType.OBJECT, new ArrayList<>(List.of(tangible2)));
+		assertEquals(version, tangible1.getAwareness().getVersion());
+		tangible1.setAware(AwarenessType.GROUP, List.of());
+		assertEquals(version, tangible1.getAwareness().getVersion());
+	}
+	
 }
@@ -35,6 +35,8 @@ import com.projectswg.holocore.resources.support.objects.swg.SWGObject;
 import com.projectswg.holocore.resources.support.objects.swg.building.BuildingObject;
 import com.projectswg.holocore.resources.support.objects.swg.cell.CellObject;
 import com.projectswg.holocore.resources.support.objects.swg.creature.CreatureObject;
+import com.projectswg.holocore.resources.support.objects.swg.custom.AIObject;
+import com.projectswg.holocore.resources.support.objects.swg.tangible.OptionFlag;
 import com.projectswg.holocore.resources.support.objects.swg.waypoint.WaypointObject;
 import com.projectswg.holocore.test.resources.GenericCreatureObject;
 import com.projectswg.holocore.test.resources.GenericTangibleObject;
@@ -45,6 +47,7 @@ import org.junit.jupiter.api.Test;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -203,6 +206,65 @@ public class TestObjectAwareness extends TestRunnerNoIntents {
 		assertAware(List.of(player, testPlayer, testTangible));
 	}
 	
+	@Test
+	public void testParallelUpdate() {
+		initialize();
+		player.systemMove(null, TestLocation.SSI.getLocation());
+		awareness.updateObject(player);
+		
+		TerrainMap tatooine = awareness.getTerrainMap(Terrain.TATOOINE);
+		tatooine.updateChunks(ForkJoinPool.commonPool());
+		player.flushAwareness();
+		
+		assertAware(getExpectedAware(TestAwareSet.TATOOINE));
+		assertEquals(1, tatooine.getUpdateCount());
+		tatooine.resetUpdateStatistics();
+		assertEquals(0, tatooine.getUpdateCount());
+	}
+	
+	@Test
+	public void testInvalidChunkSize() {
+		assertThrows(IllegalArgumentException.class, () -> new TerrainMap(256));
+		assertThrows(IllegalArgumentException.class, () -> new TerrainMap(768));
+		assertThrows(IllegalArgumentException.class, () -> new TerrainMap(32768));
+	}
+	
+	@Test
+	public void testBuildingAwarenessRange() {
+		initialize();
+
+		// Two chunks away from the building, which is outside of the regular neighborhood
+		player.systemMove(null, buildTatooine(45 + 1000, 45));
+		update(player);
+		assertTrue(player.getAware().contains(testBuilding1));
+		assertFalse(player.getAware().contains(testTangible));
+
+		player.systemMove(null, buildTatooine(45 + 2100, 45));
+		update(player);
+		assertFalse(player.getAware().contains(testBuilding1));
+	}
+
+	@Test
+	public void testNonAttackableNpcWokenByPlayer() {
+		initialize();
+		AIObject npc = new AIObject(getUniqueId());
+		npc.setOptionFlags(OptionFlag.INVULNERABLE);
+		npc.setLocation(buildTatooine(145, 45));
+		awareness.createObject(npc);
+		assertTrue(npc.isDormant());
+		
+		// Well outside of the NPC's own awareness range, but still within the player's
+		player.systemMove(null, buildTatooine(45, 45));
+		update(player);
+		assertTrue(player.getAware().contains(npc));
+		assertFalse(npc.isDormant());
+		
+		player.systemMove(null, buildTatooine(45 + 1000, 45));
+		update(player);
+		assertFalse(player.getAware().contains(npc));
+		assertTrue(npc.isDormant());
+	}
+	
 	@Test
 	public void testLoadRangeUpdate() {
 		initialize();
@@ -0,0 +1,93 @@
+/***********************************************************************************
+ * Copyright (c) 2022 /// Project SWG /// www.projectswg.com                       *
+ *                                                                                 *
+ * ProjectSWG is the first NGE emulator for Star Wars Galaxies founded on          *
+ * July 7th, 2011 after SOE announced the official shutdown of Star Wars Galaxies. *
+ * Our goal is to create an emulator which will provide a server for players to    *
+ * continue playing a game similar to the one they used to play. We are basing     *
+ * it on the final publish of the game prior to end-game events.                   *
+ *                                                                                 *
+ * This file is part of Holocore.                                                  *
+ *                                                                                 *
+ * --------------------------------------------------------------------------------*
+ *                                                                                 *
+ * Holocore is free software: you can redistribute it and/or modify                *
+ * it under the terms of the GNU Affero General Public License as                  *
+ * published by the Free Software Foundation, either version 3 of the              *
+ * License, or (at your option) any later version.                                 *
+ *                                                                                 *
+ * Holocore is distributed in the hope that it will be useful,                     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of                  *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                   *
+ * GNU Affero General Public License for more details.                             *
+ *                                                                                 *
+ * You should have received a copy of the GNU Affero General Public License        *
+ * along with Holocore.  If not, see <http://www.gnu.org/licenses/>.               *
+ ***********************************************************************************/
+package com.projectswg.holocore.resources.support.objects.awareness;
+
+import com.projectswg.common.data.location.Location;
+import com.projectswg.common.data.location.Terrain;
+import com.projectswg.holocore.resources.support.objects.awareness.ObjectMovementQueue.QueuedMovement;
+import com.projectswg.holocore.test.resources.GenericTangibleObject;
+import com.projectswg.holocore.test.runners.TestRunnerNoIntents;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestObjectMovementQueue extends TestRunnerNoIntents {
+	
+	@Test
+	public void testConsecutiveStepsMerged() {
+		ObjectMovementQueue queue = new ObjectMovementQueue();
+		GenericTangibleObject first = new GenericTangibleObject(getUniqueId());
+		GenericTangibleObject second = new GenericTangibleObject(getUniqueId());
+		
+		queue.queue(first, null, null, location(0), location(1), 1);
+		queue.queue(second, null, null, location(0), location(2), 1);
+		queue.queue(first, null, null, location(1), location(3), 2);
+		
+		List<QueuedMovement> movements = queue.drain();
+		assertEquals(2, movements.size());
+		assertSame(first, movements.get(0).getObject());
+		assertEquals(location(0), movements.get(0).getOldLocation());
+		assertEquals(location(3), movements.get(0).getNewLocation());
+		assertEquals(2, movements.get(0).getSpeed(), 1E-7);
+		assertSame(second, movements.get(1).getObject());
+		assertTrue(queue.drain().isEmpty());
+	}
+	
+	@Test
+	public void testCancelledMovementDropped() {
+		ObjectMovementQueue queue = new ObjectMovementQueue();
+		GenericTangibleObject first = new GenericTangibleObject(getUniqueId());
+		GenericTangibleObject second = new GenericTangibleObject(getUniqueId());
+		
+		queue.queue(first, null, null, location(0), location(1), 1);
+		queue.queue(second, null, null, location(0), location(2), 1);
+		QueuedMovement cancelled = queue.cancel(first);
+		assertNotNull(cancelled);
+		assertEquals(location(0), cancelled.getOldLocation());
+		
+		List<QueuedMovement> movements = queue.drain();
+		assertEquals(1, movements.size());
+		assertSame(second, movements.get(0).getObject());
+		
+		// Moves queued after the cancellation start over from where the object was then
+		queue.queue(first, null, null, location(1), location(3), 1);
+		assertNotNull(queue.cancel(first));
+		assertNull(queue.cancel(first));
+		queue.queue(first, null, null, location(3), location(4), 1);
+		movements = queue.drain();
+		assertEquals(1, movements.size());
+		assertEquals(location(3), movements.get(0).getOldLocation());
+		assertEquals(location(4), movements.get(0).getNewLocation());
+	}
+	
+	private static Location location(double x) {
+		return Location.builder().setPosition(x, 0, 0).setTerrain(Terrain.TATOOINE).build();
+	}
+	
+}
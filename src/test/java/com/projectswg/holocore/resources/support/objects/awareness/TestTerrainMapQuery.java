@@ -0,0 +1,128 @@
+/***********************************************************************************
+ * Copyright (c) 2022 /// Project SWG /// www.projectswg.com                       *
+ *                                                                                 *
+ * ProjectSWG is the first NGE emulator for Star Wars Galaxies founded on          *
+ * July 7th, 2011 after SOE announced the official shutdown of Star Wars Galaxies. *
+ * Our goal is to create an emulator which will provide a server for players to    *
+ * continue playing a game similar to the one they used to play. We are basing     *
+ * it on the final publish of the game prior to end-game events.                   *
+ *                                                                                 *
+ * This file is part of Holocore.                                                  *
+ *                                                                                 *
+ * --------------------------------------------------------------------------------*
+ *                                                                                 *
+ * Holocore is free software: you can redistribute it and/or modify                *
+ * it under the terms of the GNU Affero General Public License as                  *
+ * published by the Free Software Foundation, either version 3 of the              *
+ * License, or (at your option) any later version.                                 *
+ *                                                                                 *
+ * Holocore is distributed in the hope that it will be useful,                     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of                  *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                   *
+ * GNU Affero General Public License for more details.                             *
+ *                                                                                 *
+ * You should have received a copy of the GNU Affero General Public License        *
+ * along with Holocore.  If not, see <http://www.gnu.org/licenses/>.               *
+ ***********************************************************************************/
+package com.projectswg.holocore.resources.support.objects.awareness;
+
+import com.projectswg.common.data.location.Location;
+import com.projectswg.common.data.location.Terrain;
+import com.projectswg.holocore.resources.support.objects.swg.creature.CreatureObject;
+import com.projectswg.holocore.test.resources.GenericCreatureObject;
+import com.projectswg.holocore.test.resources.GenericTangibleObject;
+import com.projectswg.holocore.test.runners.TestRunnerNoIntents;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestTerrainMapQuery extends TestRunnerNoIntents {
+	
+	@Test
+	public void testQueryRadius() {
+		TerrainMap map = new TerrainMap();
+		GenericCreatureObject near = creature(map, 10, 10);
+		GenericCreatureObject far = creature(map, 150, 0);
+		tangible(map, 5, 5);
+		
+		List<CreatureObject> results = new ArrayList<>();
+		assertEquals(1, map.queryRadius(0, 0, 100, CreatureObject.class, c -> true, results));
+		assertEquals(List.of(near), results);
+		
+		results.clear();
+		assertEquals(2, map.queryRadius(0, 0, 200, CreatureObject.class, c -> true, results));
+		assertTrue(results.contains(far));
+		assertEquals(1, map.queryRadius(0, 0, 200, CreatureObject.class, c -> c != far, null));
+		assertEquals(1, map.queryRadius(0, 0, 200, GenericTangibleObject.class, o -> true, null));
+	}
+	
+	@Test
+	public void testQueryAcrossChunks() {
+		TerrainMap map = new TerrainMap();
+		GenericCreatureObject neighbor = creature(map, 10, 10);
+		
+		// Just on the other side of the chunk boundary at x=0
+		assertSame(neighbor, map.queryNearest(-10, 10, 50, CreatureObject.class, c -> true));
+		assertThrows(IllegalArgumentException.class, () -> map.queryRadius(0, 0, TerrainMap.MAX_AWARENESS_RANGE + 1, CreatureObject.class, c -> true, null));
+	}
+	
+	@Test
+	public void testQueryCone() {
+		TerrainMap map = new TerrainMap();
+		GenericCreatureObject ahead = creature(map, 20, 2);
+		creature(map, 0, 20);
+		creature(map, -20, 0);
+		
+		List<CreatureObject> results = new ArrayList<>();
+		assertEquals(1, map.queryCone(0, 0, 1, 0, 50, 30, CreatureObject.class, c -> true, results));
+		assertEquals(List.of(ahead), results);
+		assertEquals(0, map.queryCone(0, 0, 1, 0, 10, 30, CreatureObject.class, c -> true, null));
+		assertEquals(3, map.queryCone(0, 0, 1, 0, 50, 180, CreatureObject.class, c -> true, null));
+	}
+	
+	@Test
+	public void testQueryConeTowardsTarget() {
+		TerrainMap map = new TerrainMap();
+		GenericCreatureObject insideCone1 = creature(map, 10, 5);
+		GenericCreatureObject insideCone2 = creature(map, 25, 10);
+		creature(map, -20, -15);
+		
+		// Attacker at the origin, facing a target at (20, 10)
+		List<CreatureObject> results = new ArrayList<>();
+		assertEquals(2, map.queryCone(0, 0, 20, 10, 50, 30, CreatureObject.class, c -> true, results));
+		assertTrue(results.contains(insideCone1));
+		assertTrue(results.contains(insideCone2));
+	}
+	
+	@Test
+	public void testQueryNearest() {
+		TerrainMap map = new TerrainMap();
+		GenericCreatureObject closest = creature(map, 3, 4);
+		GenericCreatureObject other = creature(map, 30, 40);
+		
+		assertSame(closest, map.queryNearest(0, 0, 100, CreatureObject.class, c -> true));
+		assertSame(other, map.queryNearest(0, 0, 100, CreatureObject.class, c -> c != closest));
+		assertNull(map.queryNearest(0, 0, 4, CreatureObject.class, c -> true));
+	}
+	
+	private GenericCreatureObject creature(TerrainMap map, double x, double z) {
+		GenericCreatureObject creature = new GenericCreatureObject(getUniqueId());
+		creature.setLocation(location(x, z));
+		map.add(creature);
+		return creature;
+	}
+	
+	private void tangible(TerrainMap map, double x, double z) {
+		GenericTangibleObject tangible = new GenericTangibleObject(getUniqueId());
+		tangible.setLocation(location(x, z));
+		map.add(tangible);
+	}
+	
+	private static Location location(double x, double z) {
+		return Location.builder().setPosition(x, 0, z).setTerrain(Terrain.TATOOINE).build();
+	}
+	
+}
@@ -26,10 +26,14 @@
  ***********************************************************************************/
 package com.projectswg.holocore.resources.support.objects.swg;
 
+import com.projectswg.common.data.encodables.player.Mail;
 import com.projectswg.common.data.location.Location;
 import com.projectswg.common.data.location.Terrain;
+import com.projectswg.common.data.swgfile.visitors.ObjectData.ObjectDataAttribute;
 import com.projectswg.holocore.resources.support.objects.ObjectCreator;
 import com.projectswg.holocore.resources.support.objects.swg.building.BuildingObject;
+import com.projectswg.holocore.resources.support.objects.swg.player.PlayerObject;
+import com.projectswg.holocore.resources.support.objects.swg.weapon.WeaponObject;
 import com.projectswg.holocore.test.runners.TestRunnerNoIntents;
 import com.projectswg.holocore.test.resources.GenericCreatureObject;
 import com.projectswg.holocore.test.resources.GenericTangibleObject;
@@ -220,4 +224,75 @@ public class TestSWGObject extends TestRunnerNoIntents {
 		assertEquals(parent, ring3.getParent(), "Ring 3 should have been equipped");
 		assertNotEquals(ring1.getParent(), parent, "Ring 1 should have been unequipped");
 	}
+	
+	@Test
+	public void testDirtyTracking() {
+		SWGObject parent = new GenericCreatureObject(1);
+		SWGObject child = new GenericTangibleObject(2);
+		assertTrue(child.isDirty()); // Never written
+		assertTrue(child.clearDirty());
+		assertFalse(child.clearDirty());
+		
+		child.setObjectName("name"); // Baseline change
+		assertTrue(child.clearDirty());
+		child.setPosition(Terrain.TATOOINE, 5, 5, 5); // Location change
+		assertTrue(child.clearDirty());
+		child.moveToContainer(parent); // Container change
+		assertTrue(child.clearDirty());
+		assertFalse(child.isDirty());
+	}
+	
+	@Test
+	public void testDirtyTrackingWithoutDeltas() {
+		PlayerObject player = new PlayerObject(3);
+		player.clearDirty();
+		player.setBiography("biography");
+		assertTrue(player.clearDirty());
+		Mail mail = new Mail("sender", "subject", "message", 1);
+		mail.setId(1);
+		player.addMail(mail);
+		assertTrue(player.clearDirty());
+		player.removeMail(mail);
+		assertTrue(player.clearDirty());
+		
+		WeaponObject weapon = new WeaponObject(4);
+		weapon.clearDirty();
+		weapon.setMaxDamage(100);
+		assertTrue(weapon.clearDirty());
+		weapon.setFaction(null);
+		assertTrue(weapon.clearDirty());
+	}
+	
+	@Test
+	public void testTemplateAttributesCopiedOnWrite() {
+		String template = "object/building/player/shared_player_house_tatooine_small_style_01.iff";
+		SWGObject a = ObjectCreator.createObjectFromTemplate(1, template);
+		SWGObject b = ObjectCreator.createObjectFromTemplate(2, template);
+		ObjectDataAttribute key = ObjectDataAttribute.GAME_OBJECT_TYPE;
+		Object original = a.getDataAttribute(key);
+		assertNotNull(original);
+		assertEquals(original, b.getDataAttribute(key));
+		
+		a.setDataAttribute(key, -1);
+		assertEquals(-1, a.getDataAttribute(key));
+		assertEquals(original, b.getDataAttribute(key));
+		assertEquals(original, ObjectCreator.createObjectFromTemplate(3, template).getDataAttribute(key));
+	}
+	
+	@Test
+	public void testEmptyContainer() {
+		SWGObject parent = new GenericTangibleObject(1);
+		assertTrue(parent.getContainedObjects().isEmpty());
+		assertTrue(parent.getSlottedObjects().isEmpty());
+		assertTrue(parent.getObserverCreatures().isEmpty());
+		assertNull(parent.getSlottedObject("inventory"));
+		assertNull(parent.getServerAttribute(ServerAttribute.GALACTIC_RESOURCE_ID));
+		
+		SWGObject child = new GenericTangibleObject(2);
+		child.systemMove(parent);
+		assertEquals(List.of(child), List.copyOf(parent.getContainedObjects()));
+		child.systemMove(null);
+		assertTrue(parent.getContainedObjects().isEmpty());
+	}
+	
 }
@@ -0,0 +1,79 @@
+/***********************************************************************************
+ * Copyright (c) 2022 /// Project SWG /// www.projectswg.com                       *
+ *                                                                                 *
+ * ProjectSWG is the first NGE emulator for Star Wars Galaxies founded on          *
+ * July 7th, 2011 after SOE announced the official shutdown of Star Wars Galaxies. *
+ * Our goal is to create an emulator which will provide a server for players to    *
+ * continue playing a game similar to the one they used to play. We are basing     *
+ * it on the final publish of the game prior to end-game events.                   *
+ *                                                                                 *
+ * This file is part of Holocore.                                                  *
+ *                                                                                 *
+ * --------------------------------------------------------------------------------*
+ *                                                                                 *
+ * Holocore is free software: you can redistribute it and/or modify                *
+ * it under the terms of the GNU Affero General Public License as                  *
+ * published by the Free Software Foundation, either version 3 of the              *
+ * License, or (at your option) any later version.                                 *
+ *                                                                                 *
+ * Holocore is distributed in the hope that it will be useful,                     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of                  *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                   *
+ * GNU Affero General Public License for more details.                             *
+ *                                                                                 *
+ * You should have received a copy of the GNU Affero General Public License        *
+ * along with Holocore.  If not, see <http://www.gnu.org/licenses/>.               *
+ ***********************************************************************************/
+package com.projectswg.holocore.resources.support.objects.swg.creature.attributes;
+
+import com.projectswg.holocore.test.resources.GenericCreatureObject;
+import com.projectswg.holocore.test.runners.TestRunnerNoIntents;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TestAttributesMutable extends TestRunnerNoIntents {
+	
+	private AttributesMutable attributes;
+	private AttributesMutable max;
+	
+	@BeforeEach
+	public void setup() {
+		GenericCreatureObject creature = new GenericCreatureObject(getUniqueId());
+		attributes = new AttributesMutable(creature, 6, 14);
+		max = new AttributesMutable(creature, 6, 15);
+		max.setHealth(1000);
+		max.setAction(2000);
+		max.setMind(3000);
+		attributes.setHealth(500);
+		attributes.setAction(500);
+		attributes.setMind(500);
+	}
+	
+	@Test
+	public void testModifyHamClampsToMax() {
+		attributes.modifyHam(5000, 1000, 5000, max);
+		assertEquals(1000, attributes.getHealth());
+		assertEquals(1500, attributes.getAction());
+		assertEquals(3000, attributes.getMind());
+	}
+	
+	@Test
+	public void testModifyHamClampsToZero() {
+		attributes.modifyHam(-5000, -100, -501, max);
+		assertEquals(0, attributes.getHealth());
+		assertEquals(400, attributes.getAction());
+		assertEquals(0, attributes.getMind());
+	}
+	
+	@Test
+	public void testModifyHamLeavesRegenerationUntouched() {
+		attributes.setHealthRegen(10);
+		attributes.modifyHam(100, 100, 100, max);
+		assertEquals(10, attributes.getHealthRegen());
+		assertEquals(0, attributes.getActionRegen());
+		assertEquals(0, attributes.getMindRegen());
+	}
+	
+}
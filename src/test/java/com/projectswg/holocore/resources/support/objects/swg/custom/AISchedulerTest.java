@@ -0,0 +1,144 @@
+/***********************************************************************************
+ * Copyright (c) 2022 /// Project SWG /// www.projectswg.com                       *
+ *                                                                                 *
+ * ProjectSWG is the first NGE emulator for Star Wars Galaxies founded on          *
+ * July 7th, 2011 after SOE announced the official shutdown of Star Wars Galaxies. *
+ * Our goal is to create an emulator which will provide a server for players to    *
+ * continue playing a game similar to the one they used to play. We are basing     *
+ * it on the final publish of the game prior to end-game events.                   *
+ *                                                                                 *
+ * This file is part of Holocore.                                                  *
+ *                                                                                 *
+ * --------------------------------------------------------------------------------*
+ *                                                                                 *
+ * Holocore is free software: you can redistribute it and/or modify                *
+ * it under the terms of the GNU Affero General Public License as                  *
+ * published by the Free Software Foundation, either version 3 of the              *
+ * License, or (at your option) any later version.                                 *
+ *                                                                                 *
+ * Holocore is distributed in the hope that it will be useful,                     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of                  *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                   *
+ * GNU Affero General Public License for more details.                             *
+ *                                                                                 *
+ * You should have received a copy of the GNU Affero General Public License        *
+ * along with Holocore.  If not, see <http://www.gnu.org/licenses/>.               *
+ ***********************************************************************************/
+package com.projectswg.holocore.resources.support.objects.swg.custom;
+
+import com.projectswg.holocore.test.resources.GenericCreatureObject;
+import com.projectswg.holocore.test.runners.TestRunnerNoIntents;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AISchedulerTest extends TestRunnerNoIntents {
+	
+	private AIScheduler scheduler;
+	
+	@BeforeEach
+	public void setupScheduler() {
+		scheduler = new AIScheduler(2);
+		scheduler.start();
+	}
+	
+	@AfterEach
+	public void stopScheduler() {
+		scheduler.stop();
+		assertTrue(scheduler.awaitTermination(1000));
+	}
+	
+	@Test
+	public void testLoopsReschedule() throws InterruptedException {
+		AIObject obj = createAwakeObject();
+		CountDownLatch latch = new CountDownLatch(5);
+		obj.start(scheduler);
+		obj.setActiveMode(new NpcMode(obj) {
+			@Override
+			public void act() {
+				latch.countDown();
+				queueNextLoop(20);
+			}
+		});
+		assertTrue(latch.await(1, TimeUnit.SECONDS));
+		obj.stop();
+	}
+	
+	@Test
+	public void testRescheduleReplacesPendingLoop() throws InterruptedException {
+		AIObject obj = createAwakeObject();
+		AtomicInteger loops = new AtomicInteger(0);
+		obj.start(scheduler);
+		obj.setActiveMode(new NpcMode(obj) {
+			@Override
+			public void act() {
+				loops.incrementAndGet();
+			}
+		});
+		long timeout = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+		while (loops.get() == 0 && System.nanoTime() < timeout)
+			Thread.sleep(5);
+		assertEquals(1, loops.get());
+		
+		obj.queueNextLoop(100);
+		obj.queueNextLoop(30); // Replaces the loop scheduled in 100ms
+		Thread.sleep(250);
+		assertEquals(2, loops.get());
+		assertEquals(2, scheduler.getExecutedCount());
+		obj.stop();
+	}
+	
+	@Test
+	public void testStoppedObjectDoesNotLoop() throws InterruptedException {
+		AIObject obj = createAwakeObject();
+		AtomicInteger loops = new AtomicInteger(0);
+		obj.start(scheduler);
+		obj.stop();
+		obj.setActiveMode(new NpcMode(obj) {
+			@Override
+			public void act() {
+				loops.incrementAndGet();
+			}
+		});
+		obj.queueNextLoop(0);
+		Thread.sleep(50);
+		assertEquals(0, loops.get());
+	}
+	
+	@Test
+	public void testDormantUntilPlayerAware() throws InterruptedException {
+		AIObject obj = new AIObject(1);
+		GenericCreatureObject player = new GenericCreatureObject(2);
+		CountDownLatch latch = new CountDownLatch(1);
+		obj.start(scheduler);
+		obj.setActiveMode(new NpcMode(obj) {
+			@Override
+			public void act() {
+				latch.countDown();
+			}
+		});
+		assertTrue(obj.isDormant());
+		assertFalse(latch.await(100, TimeUnit.MILLISECONDS));
+		
+		obj.addObserver(player);
+		assertFalse(obj.isDormant());
+		assertTrue(latch.await(1, TimeUnit.SECONDS));
+		
+		obj.removeObserver(player);
+		assertTrue(obj.isDormant());
+		obj.stop();
+	}
+	
+	private static AIObject createAwakeObject() {
+		AIObject obj = new AIObject(1);
+		obj.addObserver(new GenericCreatureObject(2));
+		return obj;
+	}
+	
+}
@@ -23,7 +23,7 @@ class AbilityTest : TestRunnerSimulatedWorld() {
 
 	@BeforeEach
 	fun setup() {
-		registerService(CommandQueueService(5))
+		registerService(CommandQueueService())
 		registerService(CommandExecutionService())
 		registerService(SkillService())
 	}
@@ -25,7 +25,7 @@ class AttackCostTest : TestRunnerSimulatedWorld() {
 	@BeforeEach
 	fun setup() {
 		registerService(BuffService())
-		registerService(CommandQueueService(5))
+		registerService(CommandQueueService())
 		registerService(CommandExecutionService())
 		registerService(CombatStatusService())
 	}
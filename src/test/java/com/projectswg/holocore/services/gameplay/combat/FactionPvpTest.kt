@@ -29,7 +29,7 @@ class FactionPvpTest : TestRunnerSimulatedWorld() {
 	@BeforeEach
 	fun setup() {
 		registerService(SkillService())
-		registerService(CommandQueueService(5))
+		registerService(CommandQueueService())
 		registerService(CommandExecutionService())
 		registerService(FactionFlagService())
 		registerService(CombatStatusService())
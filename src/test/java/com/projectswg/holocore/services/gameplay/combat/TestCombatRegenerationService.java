@@ -0,0 +1,105 @@
+/***********************************************************************************
+ * Copyright (c) 2022 /// Project SWG /// www.projectswg.com                       *
+ *                                                                                 *
+ * ProjectSWG is the first NGE emulator for Star Wars Galaxies founded on          *
+ * July 7th, 2011 after SOE announced the official shutdown of Star Wars Galaxies. *
+ * Our goal is to create an emulator which will provide a server for players to    *
+ * continue playing a game similar to the one they used to play. We are basing     *
+ * it on the final publish of the game prior to end-game events.                   *
+ *                                                                                 *
+ * This file is part of Holocore.                                                  *
+ *                                                                                 *
+ * --------------------------------------------------------------------------------*
+ *                                                                                 *
+ * Holocore is free software: you can redistribute it and/or modify                *
+ * it under the terms of the GNU Affero General Public License as                  *
+ * published by the Free Software Foundation, either version 3 of the              *
+ * License, or (at your option) any later version.                                 *
+ *                                                                                 *
+ * Holocore is distributed in the hope that it will be useful,                     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of                  *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                   *
+ * GNU Affero General Public License for more details.                             *
+ *                                                                                 *
+ * You should have received a copy of the GNU Affero General Public License        *
+ * along with Holocore.  If not, see <http://www.gnu.org/licenses/>.               *
+ ***********************************************************************************/
+package com.projectswg.holocore.services.gameplay.combat;
+
+import com.projectswg.common.network.packets.swg.zone.deltas.DeltasMessage;
+import com.projectswg.holocore.intents.gameplay.combat.EnterCombatIntent;
+import com.projectswg.holocore.resources.support.objects.swg.creature.CreatureObject;
+import com.projectswg.holocore.services.support.global.zone.CharacterLookupService;
+import com.projectswg.holocore.test.resources.GenericCreatureObject;
+import com.projectswg.holocore.test.runners.TestRunnerSynchronousIntents;
+import me.joshlarson.jlcommon.concurrency.Delay;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestCombatRegenerationService extends TestRunnerSynchronousIntents {
+	
+	@Test
+	public void testOneHamDeltaPerRegeneration() {
+		registerService(new CharacterLookupService());
+		registerService(new CombatRegenerationService());
+		
+		DeltaCounter observer = new DeltaCounter(getUniqueId());
+		GenericCreatureObject npc = new GenericCreatureObject(getUniqueId(), "npc", false) {
+			@Override
+			public Set<CreatureObject> getObserverCreatures() {
+				return Set.of(observer);
+			}
+		};
+		npc.setMaxHealth(4000);
+		npc.setMaxAction(4000);
+		npc.setMaxMind(4000);
+		npc.setHealth(1000);
+		npc.setAction(1000);
+		npc.setMind(1000);
+		observer.reset(npc.getObjectId());
+		
+		broadcastAndWait(new EnterCombatIntent(npc, npc));
+		
+		// Every creature regenerates once per second, so the first delta arrives well before a second one could
+		long timeout = System.nanoTime() + 3_000_000_000L;
+		while (observer.getCount() == 0 && System.nanoTime() < timeout) {
+			boolean uninterrupted = Delay.sleepMilli(10);
+			assert uninterrupted;
+		}
+		assertEquals(1, observer.getCount());
+		assertTrue(npc.getHealth() > 1000);
+		assertTrue(npc.getAction() > 1000);
+		assertTrue(npc.getMind() > 1000);
+	}
+	
+	private static class DeltaCounter extends GenericCreatureObject {
+		
+		private final AtomicInteger count = new AtomicInteger(0);
+		private volatile long objectId = 0;
+		
+		public DeltaCounter(long objectId) {
+			super(objectId, "observer", false);
+		}
+		
+		public void reset(long objectId) {
+			this.objectId = objectId;
+			count.set(0);
+		}
+		
+		public int getCount() {
+			return count.get();
+		}
+		
+		@Override
+		public void addDelta(DeltasMessage delta) {
+			if (delta.getObjectId() == objectId)
+				count.incrementAndGet();
+		}
+		
+	}
+	
+}
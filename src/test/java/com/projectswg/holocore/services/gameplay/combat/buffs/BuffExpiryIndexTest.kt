@@ -0,0 +1,34 @@
+package com.projectswg.holocore.services.gameplay.combat.buffs
+
+import com.projectswg.holocore.test.resources.GenericCreatureObject
+import org.junit.jupiter.api.Assertions.*
+import org.junit.jupiter.api.Test
+
+class BuffExpiryIndexTest {
+	
+	@Test
+	fun `expirations are polled from both clocks once their deadline passes`() {
+		val index = BuffExpiryIndex()
+		val player = GenericCreatureObject(1)
+		val npc = GenericCreatureObject(2, "NPC", false)
+		
+		index.add(npc, null, 10, 100, 3000)
+		index.add(player, player.owner, 20, 50, 1000)
+		index.add(npc, null, 30, 150, 2000)
+		assertEquals(1000, index.nextDeadline)
+		
+		assertTrue(index.pollExpired(999).isEmpty())
+		val expired = index.pollExpired(2000)
+		assertEquals(listOf(20, 30), expired.map { it.crc })
+		assertSame(player.owner, expired[0].owner)
+		assertNull(expired[1].owner)
+		assertEquals(1, index.size())
+		assertEquals(3000, index.nextDeadline)
+	}
+	
+	@Test
+	fun `empty index has no deadline`() {
+		assertEquals(Long.MAX_VALUE, BuffExpiryIndex().nextDeadline)
+	}
+	
+}
@@ -0,0 +1,81 @@
+/***********************************************************************************
+ * Copyright (c) 2022 /// Project SWG /// www.projectswg.com                       *
+ *                                                                                 *
+ * ProjectSWG is the first NGE emulator for Star Wars Galaxies founded on          *
+ * July 7th, 2011 after SOE announced the official shutdown of Star Wars Galaxies. *
+ * Our goal is to create an emulator which will provide a server for players to    *
+ * continue playing a game similar to the one they used to play. We are basing     *
+ * it on the final publish of the game prior to end-game events.                   *
+ *                                                                                 *
+ * This file is part of Holocore.                                                  *
+ *                                                                                 *
+ * --------------------------------------------------------------------------------*
+ *                                                                                 *
+ * Holocore is free software: you can redistribute it and/or modify                *
+ * it under the terms of the GNU Affero General Public License as                  *
+ * published by the Free Software Foundation, either version 3 of the              *
+ * License, or (at your option) any later version.                                 *
+ *                                                                                 *
+ * Holocore is distributed in the hope that it will be useful,                     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of                  *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                   *
+ * GNU Affero General Public License for more details.                             *
+ *                                                                                 *
+ * You should have received a copy of the GNU Affero General Public License        *
+ * along with Holocore.  If not, see <http://www.gnu.org/licenses/>.               *
+ ***********************************************************************************/
+package com.projectswg.holocore.services.gameplay.player.quest;
+
+import com.projectswg.holocore.resources.support.data.server_info.loader.QuestLoader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestQuestKillTargets {
+	
+	private static final String QUEST = "quest/purvis_kill_warriors";
+	private static final String TARGET = "tusken_raider_warrior";
+	
+	private List<QuestLoader.QuestTaskInfo> tasks;
+	
+	@BeforeEach
+	public void setup() {
+		tasks = new QuestLoader().getTaskListInfos(QUEST);
+	}
+	
+	@Test
+	public void testDestroyTaskIndexed() {
+		QuestKillTargets targets = new QuestKillTargets();
+		targets.setQuest(QUEST, List.of(tasks.get(1)));
+		
+		List<QuestKillTargets.KillTask> killTasks = targets.getTasks(TARGET);
+		assertEquals(1, killTasks.size());
+		assertEquals(QUEST, killTasks.get(0).getQuestName());
+		assertSame(tasks.get(1), killTasks.get(0).getTask());
+		assertTrue(targets.getTasks("womp_rat").isEmpty());
+	}
+	
+	@Test
+	public void testOtherTaskTypesIgnored() {
+		QuestKillTargets targets = new QuestKillTargets();
+		targets.setQuest(QUEST, List.of(tasks.get(0), tasks.get(5)));
+		
+		assertTrue(targets.getTasks(TARGET).isEmpty());
+	}
+	
+	@Test
+	public void testQuestUpdated() {
+		QuestKillTargets targets = new QuestKillTargets();
+		targets.setQuest(QUEST, List.of(tasks.get(1)));
+		targets.setQuest(QUEST, List.of(tasks.get(2)));
+		assertTrue(targets.getTasks(TARGET).isEmpty());
+		
+		targets.setQuest(QUEST, List.of(tasks.get(1)));
+		targets.removeQuest(QUEST);
+		assertTrue(targets.getTasks(TARGET).isEmpty());
+	}
+	
+}
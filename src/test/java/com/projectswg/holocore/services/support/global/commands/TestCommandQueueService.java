@@ -0,0 +1,107 @@
+/***********************************************************************************
+ * Copyright (c) 2022 /// Project SWG /// www.projectswg.com                       *
+ *                                                                                 *
+ * ProjectSWG is the first NGE emulator for Star Wars Galaxies founded on          *
+ * July 7th, 2011 after SOE announced the official shutdown of Star Wars Galaxies. *
+ * Our goal is to create an emulator which will provide a server for players to    *
+ * continue playing a game similar to the one they used to play. We are basing     *
+ * it on the final publish of the game prior to end-game events.                   *
+ *                                                                                 *
+ * This file is part of Holocore.                                                  *
+ *                                                                                 *
+ * --------------------------------------------------------------------------------*
+ *                                                                                 *
+ * Holocore is free software: you can redistribute it and/or modify                *
+ * it under the terms of the GNU Affero General Public License as                  *
+ * published by the Free Software Foundation, either version 3 of the              *
+ * License, or (at your option) any later version.                                 *
+ *                                                                                 *
+ * Holocore is distributed in the hope that it will be useful,                     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of                  *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                   *
+ * GNU Affero General Public License for more details.                             *
+ *                                                                                 *
+ * You should have received a copy of the GNU Affero General Public License        *
+ * along with Holocore.  If not, see <http://www.gnu.org/licenses/>.               *
+ ***********************************************************************************/
+
+package com.projectswg.holocore.services.support.global.commands;
+
+import com.projectswg.common.network.packets.swg.zone.object_controller.CommandTimer;
+import com.projectswg.holocore.intents.gameplay.combat.ExitCombatIntent;
+import com.projectswg.holocore.intents.support.global.command.QueueCommandIntent;
+import com.projectswg.holocore.resources.support.data.server_info.loader.ValidWeapon;
+import com.projectswg.holocore.resources.support.global.commands.Command;
+import com.projectswg.holocore.resources.support.global.commands.DefaultPriority;
+import com.projectswg.holocore.resources.support.objects.swg.weapon.DefaultWeaponFactory;
+import com.projectswg.holocore.resources.support.objects.swg.weapon.WeaponObject;
+import com.projectswg.holocore.test.resources.GenericCreatureObject;
+import com.projectswg.holocore.test.resources.GenericPlayer;
+import com.projectswg.holocore.test.runners.TestRunnerSynchronousIntents;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestCommandQueueService extends TestRunnerSynchronousIntents {
+	
+	/** The global cooldown is never shorter than one second, and is added to the group's cooldown */
+	private static final long COOLDOWN_MILLIS = 250 + 1000;
+	
+	private GenericCreatureObject creature;
+	private GenericPlayer player;
+	
+	@BeforeEach
+	public void setup() {
+		registerService(new CommandQueueService());
+		creature = new GenericCreatureObject(getUniqueId());
+		player = (GenericPlayer) Objects.requireNonNull(creature.getOwner());
+		WeaponObject weapon = DefaultWeaponFactory.createDefaultWeapon();
+		weapon.moveToContainer(creature);
+		creature.setEquippedWeapon(weapon);
+	}
+	
+	@Test
+	public void testSecondCommandRunsAfterCooldown() {
+		QueueCommandIntent.broadcast(creature, null, "", createCommand("first"), 1);
+		assertExecuted("first", 1000);
+		long firstExecuted = System.nanoTime();
+		
+		QueueCommandIntent.broadcast(creature, null, "", createCommand("second"), 2);
+		assertExecuted("second", COOLDOWN_MILLIS + 1000);
+		long waited = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - firstExecuted);
+		assertTrue(waited >= COOLDOWN_MILLIS, "Second command executed after " + waited + "ms, before the cooldown expired");
+	}
+	
+	@Test
+	public void testClosedQueueDoesNotRunCommand() {
+		QueueCommandIntent.broadcast(creature, null, "", createCommand("first"), 1);
+		assertExecuted("first", 1000);
+		
+		QueueCommandIntent.broadcast(creature, null, "", createCommand("second"), 2);
+		waitForIntents();
+		broadcastAndWait(new ExitCombatIntent(creature));
+		assertNull(player.waitForNextPacket(CommandTimer.class, COOLDOWN_MILLIS + 500, TimeUnit.MILLISECONDS));
+	}
+	
+	private void assertExecuted(String name, long timeoutMillis) {
+		CommandTimer timer = player.waitForNextPacket(CommandTimer.class, timeoutMillis, TimeUnit.MILLISECONDS);
+		assertNotNull(timer, "Command " + name + " was not executed");
+		assertTrue(timer.getFlags().contains(CommandTimer.CommandTimerFlag.EXECUTE));
+	}
+	
+	private static Command createCommand(String name) {
+		return Command.builder()
+				.withName(name)
+				.withDefaultPriority(DefaultPriority.NORMAL)
+				.withValidWeapon(ValidWeapon.ALL)
+				.withCooldownGroup("test_group")
+				.withCooldownTime(0.25)
+				.withCooldownGroup2("")
+				.build();
+	}
+	
+}
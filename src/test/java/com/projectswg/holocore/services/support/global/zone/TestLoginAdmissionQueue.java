@@ -0,0 +1,73 @@
+/***********************************************************************************
+ * Copyright (c) 2022 /// Project SWG /// www.projectswg.com                       *
+ *                                                                                 *
+ * ProjectSWG is the first NGE emulator for Star Wars Galaxies founded on          *
+ * July 7th, 2011 after SOE announced the official shutdown of Star Wars Galaxies. *
+ * Our goal is to create an emulator which will provide a server for players to    *
+ * continue playing a game similar to the one they used to play. We are basing     *
+ * it on the final publish of the game prior to end-game events.                   *
+ *                                                                                 *
+ * This file is part of Holocore.                                                  *
+ *                                                                                 *
+ * --------------------------------------------------------------------------------*
+ *                                                                                 *
+ * Holocore is free software: you can redistribute it and/or modify                *
+ * it under the terms of the GNU Affero General Public License as                  *
+ * published by the Free Software Foundation, either version 3 of the              *
+ * License, or (at your option) any later version.                                 *
+ *                                                                                 *
+ * Holocore is distributed in the hope that it will be useful,                     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of                  *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                   *
+ * GNU Affero General Public License for more details.                             *
+ *                                                                                 *
+ * You should have received a copy of the GNU Affero General Public License        *
+ * along with Holocore.  If not, see <http://www.gnu.org/licenses/>.               *
+ ***********************************************************************************/
+package com.projectswg.holocore.services.support.global.zone;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestLoginAdmissionQueue {
+	
+	private static final long WINDOW = 10_000_000_000L;
+	
+	@Test
+	public void testRoundRobinBetweenHosts() {
+		LoginAdmissionQueue<String> queue = new LoginAdmissionQueue<>(100, 100, WINDOW);
+		assertEquals(1, queue.offer("a", "a1", 0));
+		assertEquals(2, queue.offer("a", "a2", 0));
+		assertEquals(3, queue.offer("a", "a3", 0));
+		assertEquals(2, queue.offer("b", "b1", 0));
+		
+		assertEquals("a1", queue.poll());
+		assertEquals("b1", queue.poll());
+		assertEquals("a2", queue.poll());
+		assertEquals("a3", queue.poll());
+		assertNull(queue.poll());
+		assertEquals(0, queue.size());
+	}
+	
+	@Test
+	public void testRateLimit() {
+		LoginAdmissionQueue<String> queue = new LoginAdmissionQueue<>(100, 2, WINDOW);
+		assertEquals(1, queue.offer("a", "a1", 0));
+		assertEquals(2, queue.offer("a", "a2", 0));
+		assertEquals(LoginAdmissionQueue.RATE_LIMITED, queue.offer("a", "a3", WINDOW - 1));
+		assertEquals(2, queue.offer("b", "b1", 0));
+		assertEquals(4, queue.offer("a", "a4", WINDOW));
+	}
+	
+	@Test
+	public void testCapacity() {
+		LoginAdmissionQueue<String> queue = new LoginAdmissionQueue<>(2, 100, WINDOW);
+		assertEquals(1, queue.offer("a", "a1", 0));
+		assertEquals(2, queue.offer("b", "b1", 0));
+		assertEquals(LoginAdmissionQueue.QUEUE_FULL, queue.offer("c", "c1", 0));
+		assertEquals("a1", queue.poll());
+		assertEquals(2, queue.offer("c", "c1", 0));
+	}
+	
+}
@@ -0,0 +1,185 @@
+/***********************************************************************************
+ * Copyright (c) 2022 /// Project SWG /// www.projectswg.com                       *
+ *                                                                                 *
+ * ProjectSWG is the first NGE emulator for Star Wars Galaxies founded on          *
+ * July 7th, 2011 after SOE announced the official shutdown of Star Wars Galaxies. *
+ * Our goal is to create an emulator which will provide a server for players to    *
+ * continue playing a game similar to the one they used to play. We are basing     *
+ * it on the final publish of the game prior to end-game events.                   *
+ *                                                                                 *
+ * This file is part of Holocore.                                                  *
+ *                                                                                 *
+ * --------------------------------------------------------------------------------*
+ *                                                                                 *
+ * Holocore is free software: you can redistribute it and/or modify                *
+ * it under the terms of the GNU Affero General Public License as                  *
+ * published by the Free Software Foundation, either version 3 of the              *
+ * License, or (at your option) any later version.                                 *
+ *                                                                                 *
+ * Holocore is distributed in the hope that it will be useful,                     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of                  *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                   *
+ * GNU Affero General Public License for more details.                             *
+ *                                                                                 *
+ * You should have received a copy of the GNU Affero General Public License        *
+ * along with Holocore.  If not, see <http://www.gnu.org/licenses/>.               *
+ ***********************************************************************************/
+package com.projectswg.holocore.services.support.global.zone;
+
+import com.projectswg.common.data.location.Location;
+import com.projectswg.common.data.location.Terrain;
+import com.projectswg.holocore.intents.support.global.zone.PlayerEventIntent;
+import com.projectswg.holocore.intents.support.global.zone.PlayerTransformedIntent;
+import com.projectswg.holocore.intents.support.global.zone.RegionEnteredIntent;
+import com.projectswg.holocore.intents.support.global.zone.RegionExitedIntent;
+import com.projectswg.holocore.intents.support.global.zone.RegisterRegionIntent;
+import com.projectswg.holocore.intents.support.global.zone.UnregisterRegionIntent;
+import com.projectswg.holocore.intents.support.objects.swg.DestroyObjectIntent;
+import com.projectswg.holocore.resources.support.global.player.PlayerEvent;
+import com.projectswg.holocore.resources.support.global.zone.region.Region;
+import com.projectswg.holocore.resources.support.global.zone.region.RegionType;
+import com.projectswg.holocore.test.resources.GenericCreatureObject;
+import com.projectswg.holocore.test.runners.TestRunnerSynchronousIntents;
+import me.joshlarson.jlcommon.control.IntentHandler;
+import me.joshlarson.jlcommon.control.Service;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestRegionService extends TestRunnerSynchronousIntents {
+	
+	private RegionListener listener;
+	private Region region;
+	
+	@BeforeEach
+	public void setup() {
+		listener = new RegionListener();
+		registerService(new RegionService());
+		registerService(listener);
+		region = new Region("test", RegionType.PVP_ZONE, Terrain.TATOOINE, 0, 0, 100);
+		broadcastAndWait(new RegisterRegionIntent(region));
+	}
+	
+	@Test
+	public void testCrossRegionEdge() {
+		GenericCreatureObject creature = createCreature(150);
+		
+		move(creature, 50);
+		move(creature, 60);
+		assertEquals(1, listener.getEntered().size());
+		assertEquals(0, listener.getExited().size());
+		RegionEnteredIntent entered = listener.getEntered().get(0);
+		assertSame(creature, entered.getPlayer());
+		assertSame(region, entered.getRegion());
+		assertEquals(location(150), entered.getOldLocation());
+		
+		move(creature, 150);
+		move(creature, 160);
+		assertEquals(1, listener.getEntered().size());
+		assertEquals(1, listener.getExited().size());
+		assertSame(creature, listener.getExited().get(0).getPlayer());
+		assertSame(region, listener.getExited().get(0).getRegion());
+	}
+	
+	@Test
+	public void testExitOnLogout() {
+		GenericCreatureObject creature = createCreature(150);
+		move(creature, 50);
+		
+		broadcastAndWait(new PlayerEventIntent(creature.getOwner(), PlayerEvent.PE_LOGGED_OUT));
+		assertEquals(1, listener.getExited().size());
+		
+		// A second logout shouldn't exit the region again
+		broadcastAndWait(new PlayerEventIntent(creature.getOwner(), PlayerEvent.PE_LOGGED_OUT));
+		assertEquals(1, listener.getExited().size());
+	}
+	
+	@Test
+	public void testExitOnDestroy() {
+		GenericCreatureObject creature = createCreature(150);
+		move(creature, 50);
+		
+		broadcastAndWait(new DestroyObjectIntent(creature));
+		assertEquals(1, listener.getExited().size());
+		assertSame(creature, listener.getExited().get(0).getPlayer());
+	}
+	
+	@Test
+	public void testRegionRegisteredWhileInside() {
+		GenericCreatureObject creature = createCreature(150);
+		move(creature, 250);
+		
+		Region other = new Region("other", RegionType.PVP_ZONE, Terrain.TATOOINE, 250, 0, 50);
+		broadcastAndWait(new RegisterRegionIntent(other));
+		assertEquals(1, listener.getEntered().size());
+		assertSame(other, listener.getEntered().get(0).getRegion());
+		assertEquals(location(250), listener.getEntered().get(0).getOldLocation());
+		
+		// Already inside, so moving within it shouldn't enter it again
+		move(creature, 260);
+		assertEquals(1, listener.getEntered().size());
+		assertEquals(0, listener.getExited().size());
+	}
+	
+	@Test
+	public void testRegionUnregisteredWhileInside() {
+		GenericCreatureObject creature = createCreature(150);
+		move(creature, 50);
+		
+		broadcastAndWait(new UnregisterRegionIntent(RegionType.PVP_ZONE, "test"));
+		assertEquals(1, listener.getExited().size());
+		assertSame(region, listener.getExited().get(0).getRegion());
+		
+		// The region no longer exists, so leaving its old area is not an exit
+		move(creature, 150);
+		assertEquals(1, listener.getEntered().size());
+		assertEquals(1, listener.getExited().size());
+	}
+	
+	private GenericCreatureObject createCreature(double x) {
+		GenericCreatureObject creature = new GenericCreatureObject(getUniqueId());
+		creature.systemMove(null, location(x));
+		move(creature, x);
+		return creature;
+	}
+	
+	private void move(GenericCreatureObject creature, double x) {
+		Location oldLocation = creature.getLocation();
+		creature.systemMove(null, location(x));
+		broadcastAndWait(new PlayerTransformedIntent(creature, null, null, oldLocation, creature.getLocation()));
+	}
+	
+	private static Location location(double x) {
+		return Location.builder().setPosition(x, 0, 0).setTerrain(Terrain.TATOOINE).build();
+	}
+	
+	private static class RegionListener extends Service {
+		
+		private final List<RegionEnteredIntent> entered = new CopyOnWriteArrayList<>();
+		private final List<RegionExitedIntent> exited = new CopyOnWriteArrayList<>();
+		
+		public List<RegionEnteredIntent> getEntered() {
+			return entered;
+		}
+		
+		public List<RegionExitedIntent> getExited() {
+			return exited;
+		}
+		
+		@IntentHandler
+		private void handleRegionEnteredIntent(RegionEnteredIntent rei) {
+			entered.add(rei);
+		}
+		
+		@IntentHandler
+		private void handleRegionExitedIntent(RegionExitedIntent rei) {
+			exited.add(rei);
+		}
+		
+	}
+	
+}
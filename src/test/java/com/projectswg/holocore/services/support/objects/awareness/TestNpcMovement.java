@@ -0,0 +1,78 @@
+/***********************************************************************************
+ * Copyright (c) 2022 /// Project SWG /// www.projectswg.com                       *
+ *                                                                                 *
+ * ProjectSWG is the first NGE emulator for Star Wars Galaxies founded on          *
+ * July 7th, 2011 after SOE announced the official shutdown of Star Wars Galaxies. *
+ * Our goal is to create an emulator which will provide a server for players to    *
+ * continue playing a game similar to the one they used to play. We are basing     *
+ * it on the final publish of the game prior to end-game events.                   *
+ *                                                                                 *
+ * This file is part of Holocore.                                                  *
+ *                                                                                 *
+ * --------------------------------------------------------------------------------*
+ *                                                                                 *
+ * Holocore is free software: you can redistribute it and/or modify                *
+ * it under the terms of the GNU Affero General Public License as                  *
+ * published by the Free Software Foundation, either version 3 of the              *
+ * License, or (at your option) any later version.                                 *
+ *                                                                                 *
+ * Holocore is distributed in the hope that it will be useful,                     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of                  *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                   *
+ * GNU Affero General Public License for more details.                             *
+ *                                                                                 *
+ * You should have received a copy of the GNU Affero General Public License        *
+ * along with Holocore.  If not, see <http://www.gnu.org/licenses/>.               *
+ ***********************************************************************************/
+package com.projectswg.holocore.services.support.objects.awareness;
+
+import com.projectswg.common.data.location.Location;
+import com.projectswg.common.data.location.Terrain;
+import com.projectswg.holocore.intents.support.objects.swg.DestroyObjectIntent;
+import com.projectswg.holocore.resources.support.objects.swg.custom.AIObject;
+import com.projectswg.holocore.test.runners.TestRunnerSimulatedWorld;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestNpcMovement extends TestRunnerSimulatedWorld {
+	
+	@Test
+	public void testConsecutiveStepsInOneTick() {
+		AIObject npc = new AIObject(getUniqueId());
+		npc.systemMove(null, location(0));
+		registerObject(npc);
+		updateAwareness();
+		
+		// Each step must see the previous one, even before awareness has run
+		npc.moveTo(null, location(1), 1);
+		assertEquals(location(1), npc.getLocation());
+		npc.moveTo(null, location(2), 1);
+		assertEquals(location(2), npc.getLocation());
+		waitForIntents();
+		
+		updateAwareness();
+		assertEquals(location(2), npc.getLocation());
+		assertEquals(Terrain.TATOOINE, npc.getTerrain());
+	}
+	
+	@Test
+	public void testDestroyedNpcNotMoved() {
+		AIObject npc = new AIObject(getUniqueId());
+		npc.systemMove(null, location(0));
+		registerObject(npc);
+		updateAwareness();
+		
+		npc.moveTo(null, location(1), 1);
+		broadcastAndWait(new DestroyObjectIntent(npc));
+		npc.moveTo(null, location(2), 1);
+		waitForIntents();
+		updateAwareness();
+		assertEquals(Terrain.GONE, npc.getTerrain());
+	}
+	
+	private static Location location(double x) {
+		return Location.builder().setPosition(x, 0, 0).setTerrain(Terrain.TATOOINE).build();
+	}
+	
+}
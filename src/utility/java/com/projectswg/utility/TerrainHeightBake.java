@@ -0,0 +1,63 @@
+/***********************************************************************************
+ * Copyright (c) 2022 /// Project SWG /// www.projectswg.com                       *
+ *                                                                                 *
+ * ProjectSWG is the first NGE emulator for Star Wars Galaxies founded on          *
+ * July 7th, 2011 after SOE announced the official shutdown of Star Wars Galaxies. *
+ * Our goal is to create an emulator which will provide a server for players to    *
+ * continue playing a game similar to the one they used to play. We are basing     *
+ * it on the final publish of the game prior to end-game events.                   *
+ *                                                                                 *
+ * This file is part of Holocore.                                                  *
+ *                                                                                 *
+ * --------------------------------------------------------------------------------*
+ *                                                                                 *
+ * Holocore is free software: you can redistribute it and/or modify                *
+ * it under the terms of the GNU Affero General Public License as                  *
+ * published by the Free Software Foundation, either version 3 of the              *
+ * License, or (at your option) any later version.                                 *
+ *                                                                                 *
+ * Holocore is distributed in the hope that it will be useful,                     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of                  *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                   *
+ * GNU Affero General Public License for more details.                             *
+ *                                                                                 *
+ * You should have received a copy of the GNU Affero General Public License        *
+ * along with Holocore.  If not, see <http://www.gnu.org/licenses/>.               *
+ ***********************************************************************************/
+package com.projectswg.utility;
+
+import com.projectswg.common.data.location.Terrain;
+import com.projectswg.common.data.swgiff.parsers.SWGParser;
+import com.projectswg.holocore.resources.support.data.server_info.loader.terrain.TerrainHeightLoader;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TerrainHeightBake {
+	
+	public static void main(String [] args) {
+		SWGParser.setBasePath("serverdata");
+		TerrainHeightLoader loader = new TerrainHeightLoader();
+		List<Terrain> failed = new ArrayList<>();
+		for (Terrain terrain : TerrainHeightLoader.TERRAIN_LIST) {
+			long start = System.nanoTime();
+			try {
+				if (!loader.bake(terrain)) {
+					System.err.printf("%-25s failed to parse %s%n", terrain + ":", terrain.getFile());
+					failed.add(terrain);
+					continue;
+				}
+			} catch (Exception e) {
+				System.err.printf("%-25s failed: %s%n", terrain + ":", e);
+				failed.add(terrain);
+				continue;
+			}
+			System.out.printf("%-25s %.1fs%n", terrain + ":", (System.nanoTime() - start) / 1E9);
+		}
+		if (!failed.isEmpty()) {
+			System.err.println("Failed to bake " + failed.size() + " terrain(s): " + failed);
+			System.exit(1);
+		}
+	}
+	
+}
@@ -0,0 +1,119 @@
+/***********************************************************************************
+ * Copyright (c) 2022 /// Project SWG /// www.projectswg.com                       *
+ *                                                                                 *
+ * ProjectSWG is the first NGE emulator for Star Wars Galaxies founded on          *
+ * July 7th, 2011 after SOE announced the official shutdown of Star Wars Galaxies. *
+ * Our goal is to create an emulator which will provide a server for players to    *
+ * continue playing a game similar to the one they used to play. We are basing     *
+ * it on the final publish of the game prior to end-game events.                   *
+ *                                                                                 *
+ * This file is part of Holocore.                                                  *
+ *                                                                                 *
+ * --------------------------------------------------------------------------------*
+ *                                                                                 *
+ * Holocore is free software: you can redistribute it and/or modify                *
+ * it under the terms of the GNU Affero General Public License as                  *
+ * published by the Free Software Foundation, either version 3 of the              *
+ * License, or (at your option) any later version.                                 *
+ *                                                                                 *
+ * Holocore is distributed in the hope that it will be useful,                     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of                  *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                   *
+ * GNU Affero General Public License for more details.                             *
+ *                                                                                 *
+ * You should have received a copy of the GNU Affero General Public License        *
+ * along with Holocore.  If not, see <http://www.gnu.org/licenses/>.               *
+ ***********************************************************************************/
+
+package com.projectswg.utility.benchmark;
+
+import com.projectswg.common.data.location.Location;
+import com.projectswg.common.data.location.Terrain;
+import com.projectswg.holocore.resources.support.global.player.Player;
+import com.projectswg.holocore.resources.support.global.player.PlayerState;
+import com.projectswg.holocore.resources.support.objects.awareness.ObjectAwareness;
+import com.projectswg.holocore.resources.support.objects.swg.SWGObject;
+import com.projectswg.holocore.resources.support.objects.swg.creature.CreatureObject;
+import com.projectswg.holocore.resources.support.objects.swg.player.PlayerObject;
+import com.projectswg.holocore.resources.support.objects.swg.tangible.TangibleObject;
+import me.joshlarson.jlcommon.control.IntentManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures the per-tick cost of awareness updates for a single crowded city, comparing the previous fixed 1024m chunk
+ * grid against the grid sized to the awareness range.
+ */
+public class AwarenessBenchmark {
+	
+	private static final int [] OBJECT_COUNTS = {500, 2_000, 10_000};
+	private static final int [] CHUNK_SIZES = {1024, 512};
+	private static final int PLAYER_RATIO = 20;
+	private static final double CITY_WIDTH = 2000;
+	private static final int WARMUP_TICKS = 20;
+	private static final int MEASURED_TICKS = 100;
+	
+	public static void main(String [] args) {
+		IntentManager.setInstance(new IntentManager(0));
+		for (int objectCount : OBJECT_COUNTS) {
+			for (int chunkSize : CHUNK_SIZES) {
+				double tickTime = benchmark(objectCount, chunkSize);
+				System.out.printf("objects=%-6d chunkSize=%-5d %.3fms/tick%n", objectCount, chunkSize, tickTime);
+			}
+		}
+		IntentManager.setInstance(null);
+	}
+	
+	private static double benchmark(int objectCount, int chunkSize) {
+		Random random = new Random(objectCount);
+		ObjectAwareness awareness = new ObjectAwareness(chunkSize);
+		List<SWGObject> objects = new ArrayList<>(objectCount);
+		for (int i = 0; i < objectCount; i++) {
+			SWGObject obj = (i % PLAYER_RATIO == 0) ? createPlayer(i+1) : new TangibleObject(i+1);
+			obj.setLocation(randomLocation(random));
+			awareness.createObject(obj);
+			objects.add(obj);
+		}
+		
+		for (int i = 0; i < WARMUP_TICKS; i++)
+			tick(awareness, objects, random);
+		
+		long start = System.nanoTime();
+		for (int i = 0; i < MEASURED_TICKS; i++)
+			tick(awareness, objects, random);
+		return (System.nanoTime() - start) / 1E6 / MEASURED_TICKS;
+	}
+	
+	private static void tick(ObjectAwareness awareness, List<SWGObject> objects, Random random) {
+		// Roughly 10% of the city moves every tick
+		for (int i = 0; i < objects.size() / 10; i++) {
+			SWGObject obj = objects.get(random.nextInt(objects.size()));
+			obj.setLocation(randomLocation(random));
+			awareness.updateObject(obj);
+		}
+		awareness.updateChunks();
+	}
+	
+	private static CreatureObject createPlayer(long objectId) {
+		CreatureObject creature = new CreatureObject(objectId);
+		creature.setSlots(List.of("ghost"));
+		PlayerObject ghost = new PlayerObject(-objectId);
+		ghost.setArrangement(List.of(List.of("ghost")));
+		ghost.systemMove(creature);
+		
+		Player owner = new Player(objectId, null, p -> {});
+		owner.setPlayerState(PlayerState.ZONED_IN);
+		creature.setOwner(owner);
+		return creature;
+	}
+	
+	private static Location randomLocation(Random random) {
+		// Mos Eisley
+		double x = 3500 + (random.nextDouble() - 0.5) * CITY_WIDTH;
+		double z = -4800 + (random.nextDouble() - 0.5) * CITY_WIDTH;
+		return Location.builder().setTerrain(Terrain.TATOOINE).setPosition(x, 0, z).build();
+	}
+	
+}
@@ -0,0 +1,271 @@
+/***********************************************************************************
+ * Copyright (c) 2022 /// Project SWG /// www.projectswg.com                       *
+ *                                                                                 *
+ * ProjectSWG is the first NGE emulator for Star Wars Galaxies founded on          *
+ * July 7th, 2011 after SOE announced the official shutdown of Star Wars Galaxies. *
+ * Our goal is to create an emulator which will provide a server for players to    *
+ * continue playing a game similar to the one they used to play. We are basing     *
+ * it on the final publish of the game prior to end-game events.                   *
+ *                                                                                 *
+ * This file is part of Holocore.                                                  *
+ *                                                                                 *
+ * --------------------------------------------------------------------------------*
+ *                                                                                 *
+ * Holocore is free software: you can redistribute it and/or modify                *
+ * it under the terms of the GNU Affero General Public License as                  *
+ * published by the Free Software Foundation, either version 3 of the              *
+ * License, or (at your option) any later version.                                 *
+ *                                                                                 *
+ * Holocore is distributed in the hope that it will be useful,                     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of                  *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                   *
+ * GNU Affero General Public License for more details.                             *
+ *                                                                                 *
+ * You should have received a copy of the GNU Affero General Public License        *
+ * along with Holocore.  If not, see <http://www.gnu.org/licenses/>.               *
+ ***********************************************************************************/
+package com.projectswg.utility.benchmark;
+
+import com.projectswg.common.encoding.Encodable;
+import com.projectswg.common.network.packets.swg.zone.baselines.Baseline.BaselineType;
+import com.projectswg.holocore.resources.support.global.network.BaselineBuilder;
+import com.projectswg.holocore.resources.support.global.network.LittleEndianDataOutputStream;
+import com.projectswg.holocore.resources.support.global.player.Player;
+import com.projectswg.holocore.resources.support.global.player.PlayerState;
+import com.projectswg.holocore.resources.support.objects.swg.SWGObject;
+import com.projectswg.holocore.resources.support.objects.swg.creature.CreatureObject;
+import com.projectswg.holocore.resources.support.objects.swg.player.PlayerObject;
+import me.joshlarson.jlcommon.control.IntentManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Compares the pooled {@link BaselineBuilder} against the previous stream-based builder for the CREO and PLAY
+ * baselines.  Each baseline is recorded once from a real object and then replayed into both builders, so the
+ * measurement only covers the builder itself.
+ */
+public class BaselineBenchmark {
+	
+	private static final int WARMUP_ITERATIONS = 50_000;
+	private static final int MEASURED_ITERATIONS = 200_000;
+	
+	public static void main(String [] args) {
+		IntentManager.setInstance(new IntentManager(0));
+		CreatureObject creature = createPlayer(1);
+		PlayerObject ghost = creature.getPlayerObject();
+		Player owner = creature.getOwner();
+		
+		benchmark("CREO1", creature, BaselineType.CREO, 1, bb -> creature.createBaseline1(owner, bb));
+		benchmark("CREO3", creature, BaselineType.CREO, 3, bb -> creature.createBaseline3(owner, bb));
+		benchmark("CREO4", creature, BaselineType.CREO, 4, bb -> creature.createBaseline4(owner, bb));
+		benchmark("CREO6", creature, BaselineType.CREO, 6, bb -> creature.createBaseline6(owner, bb));
+		benchmark("PLAY3", ghost, BaselineType.PLAY, 3, bb -> ghost.createBaseline3(owner, bb));
+		benchmark("PLAY6", ghost, BaselineType.PLAY, 6, bb -> ghost.createBaseline6(owner, bb));
+		benchmark("PLAY8", ghost, BaselineType.PLAY, 8, bb -> ghost.createBaseline8(owner, bb));
+		benchmark("PLAY9", ghost, BaselineType.PLAY, 9, bb -> ghost.createBaseline9(owner, bb));
+		IntentManager.setInstance(null);
+	}
+	
+	private static void benchmark(String name, SWGObject obj, BaselineType type, int num, Consumer<BaselineBuilder> creator) {
+		RecordingBaselineBuilder recorder = new RecordingBaselineBuilder(obj, type, num);
+		creator.accept(recorder);
+		
+		Runnable pooled = () -> {
+			BaselineBuilder bb = new BaselineBuilder(obj, type, num);
+			recorder.replay(bb);
+			bb.buildAsBaselinePacket();
+		};
+		Runnable legacy = () -> {
+			LegacyBaselineBuilder bb = new LegacyBaselineBuilder();
+			recorder.replay(bb);
+			bb.build();
+		};
+		run(pooled, WARMUP_ITERATIONS);
+		run(legacy, WARMUP_ITERATIONS);
+		
+		System.out.printf("%s legacy %s%n", name, measure(legacy));
+		System.out.printf("%s pooled %s%n", name, measure(pooled));
+	}
+	
+	private static String measure(Runnable runnable) {
+		long allocatedStart = getAllocatedBytes();
+		long start = System.nanoTime();
+		run(runnable, MEASURED_ITERATIONS);
+		long time = System.nanoTime() - start;
+		long allocated = getAllocatedBytes() - allocatedStart;
+		return String.format("%8.1fns/op %8dB/op", time / (double) MEASURED_ITERATIONS, allocated / MEASURED_ITERATIONS);
+	}
+	
+	private static void run(Runnable runnable, int iterations) {
+		for (int i = 0; i < iterations; i++)
+			runnable.run();
+	}
+	
+	private static long getAllocatedBytes() {
+		return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+	}
+	
+	private static CreatureObject createPlayer(long objectId) {
+		CreatureObject creature = new CreatureObject(objectId);
+		creature.setSlots(List.of("ghost"));
+		creature.setObjectName("Benchmark Creature");
+		PlayerObject ghost = new PlayerObject(-objectId);
+		ghost.setArrangement(List.of(List.of("ghost")));
+		ghost.systemMove(creature);
+		ghost.setTitle("Benchmarker");
+		ghost.setBiography("A player created to measure how quickly baselines can be built");
+		for (int i = 0; i < 10; i++) {
+			creature.addSkill("benchmark_skill_" + i);
+			ghost.addFriend("friend" + i);
+		}
+		
+		Player owner = new Player(objectId, null, p -> {});
+		owner.setPlayerState(PlayerState.ZONED_IN);
+		creature.setOwner(owner);
+		return creature;
+	}
+	
+	/**
+	 * Records every write made by a baseline so it can be replayed into either builder
+	 */
+	private static class RecordingBaselineBuilder extends BaselineBuilder {
+		
+		private final List<Consumer<BaselineBuilder>> pooledWrites;
+		private final List<Consumer<LegacyBaselineBuilder>> legacyWrites;
+		
+		public RecordingBaselineBuilder(SWGObject object, BaselineType type, int num) {
+			super(object, type, num);
+			this.pooledWrites = new ArrayList<>();
+			this.legacyWrites = new ArrayList<>();
+		}
+		
+		public void replay(BaselineBuilder bb) {
+			for (Consumer<BaselineBuilder> write : pooledWrites)
+				write.accept(bb);
+		}
+		
+		public void replay(LegacyBaselineBuilder bb) {
+			for (Consumer<LegacyBaselineBuilder> write : legacyWrites)
+				write.accept(bb);
+		}
+		
+		@Override public void addObject(Encodable e) { record(e, BaselineBuilder::addObject, LegacyBaselineBuilder::addObject); }
+		@Override public void addBoolean(boolean b) { addByte(b ? 1 : 0); }
+		@Override public void addAscii(String str) { record(str, BaselineBuilder::addAscii, LegacyBaselineBuilder::addAscii); }
+		@Override public void addUnicode(String str) { record(str, BaselineBuilder::addUnicode, LegacyBaselineBuilder::addUnicode); }
+		@Override public void addByte(int b) { record(b, BaselineBuilder::addByte, LegacyBaselineBuilder::addByte); }
+		@Override public void addShort(int s) { record(s, BaselineBuilder::addShort, LegacyBaselineBuilder::addShort); }
+		@Override public void addInt(int i) { record(i, BaselineBuilder::addInt, LegacyBaselineBuilder::addInt); }
+		@Override public void addLong(long l) { record(l, BaselineBuilder::addLong, LegacyBaselineBuilder::addLong); }
+		@Override public void addFloat(float f) { record(f, BaselineBuilder::addFloat, LegacyBaselineBuilder::addFloat); }
+		@Override public void addArray(byte [] array) { record(array, BaselineBuilder::addArray, LegacyBaselineBuilder::addArray); }
+		
+		private <T> void record(T value, BiConsumer<BaselineBuilder, T> pooled, BiConsumer<LegacyBaselineBuilder, T> legacy) {
+			pooledWrites.add(bb -> pooled.accept(bb, value));
+			legacyWrites.add(bb -> legacy.accept(bb, value));
+		}
+		
+	}
+	
+	/**
+	 * The stream-based builder that was used before the pooled buffer
+	 */
+	private static class LegacyBaselineBuilder {
+		
+		private final ByteArrayOutputStream rawDataStream;
+		private final LittleEndianDataOutputStream dataStream;
+		
+		public LegacyBaselineBuilder() {
+			this.rawDataStream = new ByteArrayOutputStream();
+			this.dataStream = new LittleEndianDataOutputStream(rawDataStream);
+		}
+		
+		public byte [] build() {
+			return rawDataStream.toByteArray();
+		}
+		
+		public void addObject(Encodable obj) {
+			try {
+				dataStream.write(obj.encode());
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		
+		public void addAscii(String str) {
+			addShort(str.length());
+			try {
+				dataStream.write(str.getBytes(BaselineBuilder.ASCII));
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		
+		public void addUnicode(String str) {
+			addInt(str.length());
+			try {
+				dataStream.write(str.getBytes(BaselineBuilder.UNICODE));
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		
+		public void addByte(int b) {
+			try {
+				dataStream.writeByte(b);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		
+		public void addShort(int s) {
+			try {
+				dataStream.writeShort(s);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		
+		public void addInt(int i) {
+			try {
+				dataStream.writeInt(i);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		
+		public void addLong(long l) {
+			try {
+				dataStream.writeLong(l);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		
+		public void addFloat(float f) {
+			try {
+				dataStream.writeFloat(f);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		
+		public void addArray(byte [] array) {
+			addShort(array.length);
+			try {
+				dataStream.write(array);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		
+	}
+	
+}
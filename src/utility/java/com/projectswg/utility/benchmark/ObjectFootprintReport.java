@@ -0,0 +1,82 @@
+/***********************************************************************************
+ * Copyright (c) 2022 /// Project SWG /// www.projectswg.com                       *
+ *                                                                                 *
+ * ProjectSWG is the first NGE emulator for Star Wars Galaxies founded on          *
+ * July 7th, 2011 after SOE announced the official shutdown of Star Wars Galaxies. *
+ * Our goal is to create an emulator which will provide a server for players to    *
+ * continue playing a game similar to the one they used to play. We are basing     *
+ * it on the final publish of the game prior to end-game events.                   *
+ *                                                                                 *
+ * This file is part of Holocore.                                                  *
+ *                                                                                 *
+ * --------------------------------------------------------------------------------*
+ *                                                                                 *
+ * Holocore is free software: you can redistribute it and/or modify                *
+ * it under the terms of the GNU Affero General Public License as                  *
+ * published by the Free Software Foundation, either version 3 of the              *
+ * License, or (at your option) any later version.                                 *
+ *                                                                                 *
+ * Holocore is distributed in the hope that it will be useful,                     *
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of                  *
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                   *
+ * GNU Affero General Public License for more details.                             *
+ *                                                                                 *
+ * You should have received a copy of the GNU Affero General Public License        *
+ * along with Holocore.  If not, see <http://www.gnu.org/licenses/>.               *
+ ***********************************************************************************/
+package com.projectswg.utility.benchmark;
+
+import com.projectswg.holocore.resources.support.data.server_info.loader.BuildoutLoader;
+import com.projectswg.holocore.resources.support.data.server_info.loader.DataLoader;
+import com.projectswg.holocore.resources.support.objects.swg.SWGObject;
+import com.projectswg.holocore.resources.support.objects.swg.building.BuildingObject;
+import com.projectswg.holocore.resources.support.objects.swg.cell.CellObject;
+import com.projectswg.holocore.resources.support.objects.swg.creature.CreatureObject;
+import com.projectswg.holocore.resources.support.objects.swg.staticobject.StaticObject;
+import com.projectswg.holocore.resources.support.objects.swg.tangible.TangibleObject;
+import org.openjdk.jol.info.ClassLayout;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reports the heap footprint of the static buildouts, which make up most of the heap before any player logs in.  The
+ * retained size is measured across every buildout at once, so data shared between objects of the same template is
+ * only counted once.  Run this against two revisions to compare their bytes per object.
+ */
+public class ObjectFootprintReport {
+	
+	public static void main(String [] args) {
+		printShallowSizes(SWGObject.class, TangibleObject.class, StaticObject.class, BuildingObject.class, CellObject.class, CreatureObject.class);
+		
+		long start = System.nanoTime();
+		BuildoutLoader buildouts = DataLoader.Companion.buildouts();
+		System.out.printf("Loaded buildouts in %.1fms%n%n", (System.nanoTime() - start) / 1E6);
+		
+		Map<String, List<SWGObject>> objectsByClass = new TreeMap<>();
+		for (SWGObject obj : buildouts.getObjects().values())
+			objectsByClass.computeIfAbsent(obj.getClass().getSimpleName(), c -> new ArrayList<>()).add(obj);
+		
+		System.out.printf("%-24s %8s %12s %10s%n", "Class", "Count", "Retained", "Per Object");
+		for (Map.Entry<String, List<SWGObject>> e : objectsByClass.entrySet())
+			printRetainedSize(e.getKey(), e.getValue());
+		printRetainedSize("Total", buildouts.getObjects().values());
+	}
+	
+	private static void printShallowSizes(Class<?> ... classes) {
+		System.out.printf("%-24s %8s%n", "Class", "Shallow");
+		for (Class<?> c : classes)
+			System.out.printf("%-24s %7dB%n", c.getSimpleName(), ClassLayout.parseClass(c).instanceSize());
+		System.out.println();
+	}
+	
+	private static void printRetainedSize(String name, Collection<SWGObject> objects) {
+		long retained = GraphLayout.parseInstance(objects.toArray()).totalSize();
+		System.out.printf("%-24s %8d %11dB %9.1fB%n", name, objects.size(), retained, retained / (double) objects.size());
+	}
+	
+}